@@ -41,6 +41,28 @@ tasks.withType<JavaCompile> {
     options.encoding = "UTF-8"
 }
 
+// the Java 11 versions of some classes, in the multi-release jar
+val java11: SourceSet by sourceSets.creating {
+    java.srcDir("src/main/java11")
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+}
+
+// options.release needs gradle 6.6, and --release can't be mixed with the
+// -source/-target flags that gradle 6.3 always adds, the JDK must be 11+
+tasks.named<JavaCompile>(java11.compileJavaTaskName) {
+    sourceCompatibility = "11"
+    targetCompatibility = "11"
+}
+
+tasks.jar {
+    into("META-INF/versions/11") {
+        from(java11.output)
+    }
+    manifest {
+        attributes("Multi-Release" to "true")
+    }
+}
+
 tasks.test {
     testLogging {
         events("passed", "skipped", "failed", "standard_out")
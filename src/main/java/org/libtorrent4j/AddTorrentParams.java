@@ -389,6 +389,23 @@ public final class AddTorrentParams
         h.set_file_priorities(Priority.array2vector(priorities));
     }
 
+    /**
+     * Same as {@link #filePriorities(Priority[])}, but with the native
+     * values (see {@link Priority#swig()}), copied in bulk.
+     *
+     * @param priorities the priorities
+     */
+    public void filePriorities(byte[] priorities) {
+        h.set_file_priorities(Vectors.bytes2byte_vector(priorities));
+    }
+
+    /**
+     * @return the file priorities as native values, see {@link Priority#swig()}
+     */
+    public byte[] filePrioritiesBytes() {
+        return Vectors.byte_vector2bytes(h.get_file_priorities());
+    }
+
     public Priority[] piecePriorities() {
         byte_vector v = h.get_piece_priorities();
         return Priority.vector2array(v);
@@ -406,6 +423,23 @@ public final class AddTorrentParams
         h.set_piece_priorities(Priority.array2vector(priorities));
     }
 
+    /**
+     * Same as {@link #piecePriorities(Priority[])}, but with the native
+     * values (see {@link Priority#swig()}), copied in bulk.
+     *
+     * @param priorities the priorities
+     */
+    public void piecePriorities(byte[] priorities) {
+        h.set_piece_priorities(Vectors.bytes2byte_vector(priorities));
+    }
+
+    /**
+     * @return the piece priorities as native values, see {@link Priority#swig()}
+     */
+    public byte[] piecePrioritiesBytes() {
+        return Vectors.byte_vector2bytes(h.get_piece_priorities());
+    }
+
     /**
      * Peers to add to the torrent, to be tried to be connected to as
      * bittorrent peers.
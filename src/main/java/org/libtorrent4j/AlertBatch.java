@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.libtorrent4j.alerts.Alert;
+import org.libtorrent4j.alerts.Alerts;
+import org.libtorrent4j.swig.alert_ptr_vector;
+
+/**
+ * An indexed view of the alerts of one batch popped from the session,
+ * filtered by the types of a {@link BatchAlertListener}.
+ * <p>
+ * The types are known without touching the alerts, an alert is only
+ * materialized the first time it's requested with {@link #get(int)}, and
+ * it's shared with the other listeners of the same batch.
+ * <p>
+ * The view is only valid during the call to
+ * {@link BatchAlertListener#alerts(AlertBatch)}, it's reused for the next
+ * batch.
+ *
+ * @author aldenml
+ */
+public final class AlertBatch {
+
+    private final Source source;
+    private int[] indices;
+    private int size;
+
+    AlertBatch(Source source) {
+        this.source = source;
+        this.indices = new int[16];
+    }
+
+    /**
+     * @return the number of alerts in the view
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param index the index in the view
+     * @return the native type of the alert, see {@link org.libtorrent4j.alerts.AlertType#swig()}
+     */
+    public int type(int index) {
+        return source.types[indexOf(index)];
+    }
+
+    /**
+     * @param index the index in the view
+     * @return the alert
+     */
+    public Alert<?> get(int index) {
+        return source.get(indexOf(index));
+    }
+
+    /**
+     * Counts the alerts of the given type, without materializing them.
+     *
+     * @param type the native type
+     * @return the number of alerts of the type in the view
+     */
+    public int count(int type) {
+        int[] types = source.types;
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (types[indices[i]] == type) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    // fills the view with the alerts of the source accepted by the filter
+    void select(boolean[] accepted) {
+        int[] types = source.types;
+        int n = source.size;
+
+        size = 0;
+        for (int i = 0; i < n; i++) {
+            int t = types[i];
+            if (t >= 0 && accepted[t]) {
+                if (size == indices.length) {
+                    int[] arr = new int[size * 2];
+                    System.arraycopy(indices, 0, arr, 0, size);
+                    indices = arr;
+                }
+                indices[size++] = i;
+            }
+        }
+    }
+
+    private int indexOf(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return indices[index];
+    }
+
+    /**
+     * The alerts of one popped batch, shared by all the views.
+     */
+    static class Source {
+
+        // the native type of each alert, -1 if it's not delivered
+        int[] types;
+        Alert<?>[] alerts;
+        int size;
+
+        private alert_ptr_vector v;
+
+        Source() {
+            this.types = new int[16];
+            this.alerts = new Alert<?>[16];
+        }
+
+        void reset(alert_ptr_vector v, int size) {
+            this.v = v;
+            this.size = size;
+            if (types.length < size) {
+                int n = Math.max(size, types.length * 2);
+                types = new int[n];
+                alerts = new Alert<?>[n];
+            }
+        }
+
+        void clear() {
+            for (int i = 0; i < size; i++) {
+                alerts[i] = null;
+            }
+            v = null;
+            size = 0;
+        }
+
+        Alert<?> get(int index) {
+            Alert<?> a = alerts[index];
+            if (a == null) {
+                a = materialize(index);
+                alerts[index] = a;
+            }
+            return a;
+        }
+
+        Alert<?> materialize(int index) {
+            return Alerts.cast(v.get(index));
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.libtorrent4j.alerts.Alert;
+import org.libtorrent4j.swig.alert_category_t;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the alerts popped from the session by type, and reports the
+ * counts and the rates in alerts per second by category.
+ * <p>
+ * The rates are updated once per second by {@link SessionManager}, they
+ * are the rates of the last interval. An alert with several categories
+ * is counted in each of them, the alerts without categories (like
+ * {@code session_stats_alert}) are reported with {@link #uncategorizedCount()}
+ * and {@link #uncategorizedRate()}.
+ *
+ * @author aldenml
+ */
+public final class AlertCategoryStats {
+
+    private final int[] typeMasks;
+    // only incremented, clear() moves the base instead
+    private final AtomicLongArray counts;
+    private volatile long[] base;
+
+    // guarded by this
+    private long[] lastCounts;
+    private long lastSampleNanos;
+
+    private volatile double[] rates;
+
+    /**
+     * @param typeMasks the category mask of each alert type
+     */
+    AlertCategoryStats(int[] typeMasks) {
+        this.typeMasks = typeMasks;
+        this.counts = new AtomicLongArray(typeMasks.length);
+        this.base = new long[typeMasks.length];
+
+        this.lastCounts = new long[typeMasks.length];
+        this.rates = new double[typeMasks.length];
+    }
+
+    /**
+     * @param mask the categories
+     * @return the number of alerts of the categories since the session started
+     */
+    public long count(int mask) {
+        long[] b = base;
+        long n = 0;
+        for (int t = 0; t < typeMasks.length; t++) {
+            if ((typeMasks[t] & mask) != 0) {
+                n += counts.get(t) - b[t];
+            }
+        }
+        return n;
+    }
+
+    public long count(alert_category_t category) {
+        return count(category.to_int());
+    }
+
+    /**
+     * @param mask the categories
+     * @return the alerts per second of the categories in the last interval
+     */
+    public double rate(int mask) {
+        double[] r = rates;
+        double n = 0;
+        for (int t = 0; t < typeMasks.length; t++) {
+            if ((typeMasks[t] & mask) != 0) {
+                n += r[t];
+            }
+        }
+        return n;
+    }
+
+    public double rate(alert_category_t category) {
+        return rate(category.to_int());
+    }
+
+    /**
+     * @return the number of alerts without categories since the session started
+     */
+    public long uncategorizedCount() {
+        long[] b = base;
+        long n = 0;
+        for (int t = 0; t < typeMasks.length; t++) {
+            if (typeMasks[t] == 0) {
+                n += counts.get(t) - b[t];
+            }
+        }
+        return n;
+    }
+
+    /**
+     * @return the alerts per second without categories in the last interval
+     */
+    public double uncategorizedRate() {
+        double[] r = rates;
+        double n = 0;
+        for (int t = 0; t < typeMasks.length; t++) {
+            if (typeMasks[t] == 0) {
+                n += r[t];
+            }
+        }
+        return n;
+    }
+
+    /**
+     * @param type the native alert type
+     * @return the alerts per second of the type in the last interval
+     */
+    public double typeRate(int type) {
+        return rates[type];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        String[] names = {"error", "peer", "port_mapping", "storage", "tracker", "connect",
+                "status", "ip_block", "performance_warning", "dht", "session_log",
+                "torrent_log", "peer_log", "incoming_request", "dht_log", "dht_operation",
+                "port_mapping_log", "picker_log", "file_progress", "piece_progress",
+                "upload", "block_progress"};
+        alert_category_t[] categories = {Alert.ERROR_NOTIFICATION, Alert.PEER_NOTIFICATION,
+                Alert.PORT_MAPPING_NOTIFICATION, Alert.STORAGE_NOTIFICATION,
+                Alert.TRACKER_NOTIFICATION, Alert.CONNECT_NOTIFICATION,
+                Alert.STATUS_NOTIFICATION, Alert.IP_BLOCK_NOTIFICATION,
+                Alert.PERFORMANCE_WARNING, Alert.DHT_NOTIFICATION,
+                Alert.SESSION_LOG_NOTIFICATION, Alert.TORRENT_LOG_NOTIFICATION,
+                Alert.PEER_LOG_NOTIFICATION, Alert.INCOMING_REQUEST_NOTIFICATION,
+                Alert.DHT_LOG_NOTIFICATION, Alert.DHT_OPERATION_NOTIFICATION,
+                Alert.PORT_MAPPING_LOG_NOTIFICATION, Alert.PICKER_LOG_NOTIFICATION,
+                Alert.FILE_PROGRESS_NOTIFICATION, Alert.PIECE_PROGRESS_NOTIFICATION,
+                Alert.UPLOAD_NOTIFICATION, Alert.BLOCK_PROGRESS_NOTIFICATION};
+
+        for (int i = 0; i < names.length; i++) {
+            int mask = categories[i].to_int();
+            long n = count(mask);
+            if (n == 0) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(names[i]).append('=').append(n)
+                    .append(" (").append(Math.round(rate(mask))).append("/s)");
+        }
+
+        long n = uncategorizedCount();
+        if (n != 0) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append("uncategorized=").append(n)
+                    .append(" (").append(Math.round(uncategorizedRate())).append("/s)");
+        }
+
+        return sb.toString();
+    }
+
+    // called only from the alerts loop thread
+    void increment(int type) {
+        counts.lazySet(type, counts.get(type) + 1);
+    }
+
+    // called from the stats timer
+    synchronized void sample(long nanos) {
+        long[] current = new long[typeMasks.length];
+        for (int t = 0; t < current.length; t++) {
+            current[t] = counts.get(t);
+        }
+
+        if (lastSampleNanos != 0 && nanos > lastSampleNanos) {
+            double seconds = (nanos - lastSampleNanos) / 1e9;
+            double[] r = new double[current.length];
+            for (int t = 0; t < r.length; t++) {
+                r[t] = (current[t] - lastCounts[t]) / seconds;
+            }
+            rates = r;
+        }
+
+        lastCounts = current;
+        lastSampleNanos = nanos;
+    }
+
+    // the counts are not reset, the alerts loop can still be incrementing them
+    synchronized void clear() {
+        long[] b = new long[typeMasks.length];
+        for (int t = 0; t < b.length; t++) {
+            b[t] = counts.get(t);
+        }
+        base = b;
+        lastSampleNanos = 0;
+        rates = new double[typeMasks.length];
+    }
+}
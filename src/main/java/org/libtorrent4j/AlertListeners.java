@@ -0,0 +1,80 @@
+package org.libtorrent4j;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The listeners of each alert type, kept in immutable arrays that are
+ * replaced atomically when a listener is added or removed.
+ * <p>
+ * The alerts loop reads the array of a type without locks and iterates
+ * it flat, the changes are lock free and don't affect a dispatch in
+ * progress. The changes report when a slot changes between empty and
+ * not empty, the only case that changes the alert mask.
+ *
+ * @author aldenml
+ */
+final class AlertListeners {
+
+    static final AlertListener[] EMPTY = new AlertListener[0];
+
+    private final AtomicReferenceArray<AlertListener[]> slots;
+
+    AlertListeners(int size) {
+        this.slots = new AtomicReferenceArray<>(size);
+        for (int i = 0; i < size; i++) {
+            slots.set(i, EMPTY);
+        }
+    }
+
+    /**
+     * @param slot the slot
+     * @return the listeners of the slot, never null, don't modify it
+     */
+    AlertListener[] get(int slot) {
+        return slots.get(slot);
+    }
+
+    boolean isEmpty(int slot) {
+        return slots.get(slot).length == 0;
+    }
+
+    /**
+     * @return true if the slot was empty
+     */
+    boolean add(int slot, AlertListener listener) {
+        while (true) {
+            AlertListener[] arr = slots.get(slot);
+            AlertListener[] r = new AlertListener[arr.length + 1];
+            System.arraycopy(arr, 0, r, 0, arr.length);
+            r[arr.length] = listener;
+            if (slots.compareAndSet(slot, arr, r)) {
+                return arr.length == 0;
+            }
+        }
+    }
+
+    /**
+     * Removes the last occurrence of the listener.
+     *
+     * @return true if the slot is empty after the removal
+     */
+    boolean remove(int slot, AlertListener listener) {
+        while (true) {
+            AlertListener[] arr = slots.get(slot);
+            int i = arr.length - 1;
+            while (i >= 0 && arr[i] != listener) {
+                i--;
+            }
+            if (i < 0) {
+                return false;
+            }
+
+            AlertListener[] r = arr.length == 1 ? EMPTY : new AlertListener[arr.length - 1];
+            System.arraycopy(arr, 0, r, 0, i);
+            System.arraycopy(arr, i + 1, r, i, arr.length - i - 1);
+            if (slots.compareAndSet(slot, arr, r)) {
+                return r.length == 0;
+            }
+        }
+    }
+}
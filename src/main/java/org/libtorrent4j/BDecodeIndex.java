@@ -0,0 +1,473 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A pure java index over bencoded data, in the same spirit as the
+ * native {@link BDecodeNode}.
+ * <p>
+ * Decoding builds a compact token tape ({@code int[]}, three ints per
+ * token) over the original buffer, which is never copied. Nodes are
+ * identified by their token index, the root being {@code 0}. Navigation
+ * is done with the token index methods, like {@link #firstChild(int)},
+ * {@link #nextSibling(int, int)} and {@link #dictFind(int, String)}, which
+ * return {@code -1} when there is no such node. Strings and integers are
+ * read lazily from the buffer, and can be accessed as slices without
+ * copying.
+ * <p>
+ * The buffer can be a {@link java.nio.MappedByteBuffer}, see
+ * {@link #map(File)}, in which case only the pages touched while decoding
+ * and reading are brought in memory. Instances are immutable and safe to
+ * share between threads once constructed.
+ *
+ * @author aldenml
+ */
+public final class BDecodeIndex {
+
+    public static final int TYPE_DICT = 1;
+    public static final int TYPE_LIST = 2;
+    public static final int TYPE_STRING = 3;
+    public static final int TYPE_INT = 4;
+
+    // token layout in the tape, NEXT is the index after the subtree
+    // for containers and the length for strings, INFO packs the type
+    // with the number of children (containers) or the header size (strings)
+    private static final int STRIDE = 3;
+    private static final int OFFSET = 0;
+    private static final int NEXT = 1;
+    private static final int INFO = 2;
+    private static final int TYPE_BITS = 3;
+    private static final int TYPE_MASK = (1 << TYPE_BITS) - 1;
+
+    private final ByteBuffer buffer;
+    private final int[] tape;
+    private final int size;
+
+    private BDecodeIndex(ByteBuffer buffer, int[] tape, int size) {
+        this.buffer = buffer;
+        this.tape = tape;
+        this.size = size;
+    }
+
+    /**
+     * @return the underlying buffer (shared, not a copy)
+     */
+    public ByteBuffer buffer() {
+        return buffer.duplicate();
+    }
+
+    /**
+     * @return the number of tokens (nodes) in the index
+     */
+    public int numTokens() {
+        return size;
+    }
+
+    /**
+     * @param t the token index
+     * @return one of the {@code TYPE_*} constants
+     */
+    public int type(int t) {
+        return tape[t * STRIDE + INFO] & TYPE_MASK;
+    }
+
+    /**
+     * @param t the token index
+     * @return the offset in the buffer where the node starts
+     */
+    public int offset(int t) {
+        return tape[t * STRIDE + OFFSET];
+    }
+
+    /**
+     * For lists the number of items, for dictionaries the number
+     * of key-value pairs, and 0 for any other type.
+     *
+     * @param t the token index
+     * @return the number of children
+     */
+    public int size(int t) {
+        int info = tape[t * STRIDE + INFO];
+        int type = info & TYPE_MASK;
+        return type == TYPE_LIST || type == TYPE_DICT ? info >>> TYPE_BITS : 0;
+    }
+
+    /**
+     * @param t the token index of a list or dictionary
+     * @return the first item (the first key for dictionaries) or -1 if empty
+     */
+    public int firstChild(int t) {
+        return size(t) > 0 ? t + 1 : -1;
+    }
+
+    /**
+     * Returns the token after the whole subtree of {@code t}. Inside a
+     * container this is the next sibling, or a token past the container
+     * if {@code t} is the last child; use {@link #nextSibling(int, int)}
+     * when the parent is known.
+     *
+     * @param t the token index
+     * @return the next token index
+     */
+    public int skip(int t) {
+        int type = tape[t * STRIDE + INFO] & TYPE_MASK;
+        return type == TYPE_LIST || type == TYPE_DICT ? tape[t * STRIDE + NEXT] : t + 1;
+    }
+
+    /**
+     * @param t      the token index
+     * @param parent the container of {@code t}
+     * @return the next sibling or -1 if {@code t} is the last child
+     */
+    public int nextSibling(int t, int parent) {
+        int n = skip(t);
+        return n < skip(parent) ? n : -1;
+    }
+
+    /**
+     * @param t the token index of a list
+     * @param i the item index
+     * @return the token index of the item or -1 if out of range
+     */
+    public int listAt(int t, int i) {
+        if (type(t) != TYPE_LIST || i < 0 || i >= size(t)) {
+            return -1;
+        }
+        int c = t + 1;
+        for (int k = 0; k < i; k++) {
+            c = skip(c);
+        }
+        return c;
+    }
+
+    /**
+     * Looks up the value of {@code key} in the dictionary {@code t}, the
+     * comparison is done against the raw bytes, without allocating.
+     *
+     * @param t   the token index of a dictionary
+     * @param key the ASCII key
+     * @return the token index of the value or -1 if not found
+     */
+    public int dictFind(int t, String key) {
+        if (type(t) != TYPE_DICT) {
+            return -1;
+        }
+        int n = size(t);
+        int k = t + 1;
+        for (int i = 0; i < n; i++) {
+            int v = k + 1;
+            if (stringEquals(k, key)) {
+                return v;
+            }
+            k = skip(v);
+        }
+        return -1;
+    }
+
+    /**
+     * @param t   the token index of a dictionary
+     * @param key the ASCII key
+     * @return the token index of the dictionary value or -1 if not found or not a dictionary
+     */
+    public int dictFindDict(int t, String key) {
+        return dictFindType(t, key, TYPE_DICT);
+    }
+
+    /**
+     * @param t   the token index of a dictionary
+     * @param key the ASCII key
+     * @return the token index of the list value or -1 if not found or not a list
+     */
+    public int dictFindList(int t, String key) {
+        return dictFindType(t, key, TYPE_LIST);
+    }
+
+    /**
+     * @param t   the token index of a dictionary
+     * @param key the ASCII key
+     * @return the token index of the string value or -1 if not found or not a string
+     */
+    public int dictFindString(int t, String key) {
+        return dictFindType(t, key, TYPE_STRING);
+    }
+
+    /**
+     * @param t            the token index of a dictionary
+     * @param key          the ASCII key
+     * @param defaultValue returned if not found or not an integer
+     * @return the integer value
+     */
+    public long dictFindInt(int t, String key, long defaultValue) {
+        int v = dictFindType(t, key, TYPE_INT);
+        return v != -1 ? integer(v) : defaultValue;
+    }
+
+    /**
+     * @param t   the token index of a dictionary
+     * @param key the ASCII key
+     * @return the UTF-8 string value or {@code null} if not found or not a string
+     */
+    public String dictFindStringValue(int t, String key) {
+        int v = dictFindType(t, key, TYPE_STRING);
+        return v != -1 ? string(v) : null;
+    }
+
+    /**
+     * @param t the token index of an integer
+     * @return the value
+     */
+    public long integer(int t) {
+        checkType(t, TYPE_INT);
+        int p = offset(t) + 1;
+        boolean negative = buffer.get(p) == '-';
+        if (negative) {
+            p++;
+        }
+        long value = 0;
+        byte b;
+        while ((b = buffer.get(p++)) != 'e') {
+            value = value * 10 + (b - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @param t the token index of a string
+     * @return the offset in the buffer of the first byte of the string
+     */
+    public int stringOffset(int t) {
+        checkType(t, TYPE_STRING);
+        return offset(t) + (tape[t * STRIDE + INFO] >>> TYPE_BITS);
+    }
+
+    /**
+     * @param t the token index of a string
+     * @return the length in bytes of the string
+     */
+    public int stringLength(int t) {
+        checkType(t, TYPE_STRING);
+        return tape[t * STRIDE + NEXT];
+    }
+
+    /**
+     * @param t the token index of a string
+     * @return a view (no copy) of the string bytes
+     */
+    public ByteBuffer stringSlice(int t) {
+        int offset = stringOffset(t);
+        return slice(offset, stringLength(t));
+    }
+
+    /**
+     * @param t the token index of a string
+     * @return a copy of the string bytes
+     */
+    public byte[] stringBytes(int t) {
+        byte[] arr = new byte[stringLength(t)];
+        stringSlice(t).get(arr);
+        return arr;
+    }
+
+    /**
+     * @param t the token index of a string
+     * @return the string decoded as UTF-8
+     */
+    public String string(int t) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + stringOffset(t),
+                    stringLength(t), StandardCharsets.UTF_8);
+        }
+        return new String(stringBytes(t), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param t the token index of a string
+     * @param s the ASCII string to compare with
+     * @return {@code true} if the bytes are the same
+     */
+    public boolean stringEquals(int t, String s) {
+        if (type(t) != TYPE_STRING) {
+            return false;
+        }
+        int offset = stringOffset(t);
+        int length = tape[t * STRIDE + NEXT];
+        if (length != s.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(offset + i) != (byte) s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a view of the complete bencoded representation of the node,
+     * useful for instance to hash the info dictionary of a torrent.
+     *
+     * @param t the token index
+     * @return a view (no copy) of the encoded node
+     */
+    public ByteBuffer rawSlice(int t) {
+        int offset = offset(t);
+        return slice(offset, endOffset(t) - offset);
+    }
+
+    public static BDecodeIndex bdecode(byte[] data) {
+        return bdecode(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Decodes the data between the current position and the limit of the
+     * buffer. The buffer is referenced, not copied, and must not be
+     * modified while the index is in use.
+     *
+     * @param buffer the data
+     * @return the index
+     * @throws IllegalArgumentException if the data is not valid bencode
+     */
+    public static BDecodeIndex bdecode(ByteBuffer buffer) {
+        ByteBuffer b = buffer.slice();
+        BEncodeReader r = new BEncodeReader(b);
+
+        int[] tape = new int[Math.max(16, b.remaining() / 8) * STRIDE];
+        int size = 0;
+        int[] stack = new int[16];
+        int depth = 0;
+
+        while (true) {
+            int offset = r.position();
+            BEncodeReader.Token token = r.next();
+            if (token == BEncodeReader.Token.EOF) {
+                break;
+            }
+
+            if (token == BEncodeReader.Token.END) {
+                int c = stack[--depth];
+                tape[c * STRIDE + NEXT] = size;
+                int count = tape[c * STRIDE + INFO] >>> TYPE_BITS;
+                if ((tape[c * STRIDE + INFO] & TYPE_MASK) == TYPE_DICT) {
+                    count /= 2;
+                }
+                tape[c * STRIDE + INFO] = (count << TYPE_BITS) | (tape[c * STRIDE + INFO] & TYPE_MASK);
+                continue;
+            }
+
+            if (depth > 0) {
+                // count the direct children, in the INFO bits of the container
+                int c = stack[depth - 1];
+                tape[c * STRIDE + INFO] += 1 << TYPE_BITS;
+            }
+
+            if ((size + 1) * STRIDE > tape.length) {
+                int[] arr = new int[tape.length * 2];
+                System.arraycopy(tape, 0, arr, 0, size * STRIDE);
+                tape = arr;
+            }
+
+            int t = size++;
+            tape[t * STRIDE + OFFSET] = offset;
+            tape[t * STRIDE + NEXT] = size;
+
+            switch (token) {
+                case INTEGER:
+                    tape[t * STRIDE + INFO] = TYPE_INT;
+                    break;
+                case STRING:
+                    // for strings the NEXT slot holds the length
+                    tape[t * STRIDE + NEXT] = r.stringLength();
+                    tape[t * STRIDE + INFO] = ((r.stringOffset() - offset) << TYPE_BITS) | TYPE_STRING;
+                    break;
+                case LIST:
+                case DICTIONARY:
+                    tape[t * STRIDE + INFO] = token == BEncodeReader.Token.LIST ? TYPE_LIST : TYPE_DICT;
+                    if (depth == stack.length) {
+                        int[] arr = new int[stack.length * 2];
+                        System.arraycopy(stack, 0, arr, 0, depth);
+                        stack = arr;
+                    }
+                    stack[depth++] = t;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        if (size == 0) {
+            throw new IllegalArgumentException("Can't decode data: empty input");
+        }
+
+        return new BDecodeIndex(b, tape, size);
+    }
+
+    /**
+     * Maps the file in memory and decodes it. The file is not read
+     * upfront, the operating system pages in only the parts that are
+     * accessed.
+     *
+     * @param file the file
+     * @return the index
+     * @throws IOException if the file can't be mapped
+     */
+    public static BDecodeIndex map(File file) throws IOException {
+        try (RandomAccessFile f = new RandomAccessFile(file, "r");
+             FileChannel ch = f.getChannel()) {
+            return bdecode(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    private int dictFindType(int t, String key, int type) {
+        int v = dictFind(t, key);
+        return v != -1 && type(v) == type ? v : -1;
+    }
+
+    private int endOffset(int t) {
+        switch (type(t)) {
+            case TYPE_STRING:
+                return stringOffset(t) + stringLength(t);
+            case TYPE_INT: {
+                int p = offset(t);
+                while (buffer.get(p) != 'e') {
+                    p++;
+                }
+                return p + 1;
+            }
+            default: {
+                int n = type(t) == TYPE_DICT ? size(t) * 2 : size(t);
+                if (n == 0) {
+                    return offset(t) + 2;
+                }
+                int c = t + 1;
+                for (int i = 1; i < n; i++) {
+                    c = skip(c);
+                }
+                return endOffset(c) + 1;
+            }
+        }
+    }
+
+    private ByteBuffer slice(int offset, int length) {
+        ByteBuffer b = buffer.duplicate();
+        b.limit(offset + length).position(offset);
+        return b.slice();
+    }
+
+    private void checkType(int t, int type) {
+        if (type(t) != type) {
+            throw new IllegalArgumentException("Node " + t + " is not of type " + type);
+        }
+    }
+}
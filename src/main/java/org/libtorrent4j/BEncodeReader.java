@@ -0,0 +1,407 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.libtorrent4j.swig.byte_vector;
+import org.libtorrent4j.swig.entry;
+import org.libtorrent4j.swig.entry_vector;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A pure java streaming (pull) reader of bencoded data.
+ * <p>
+ * Each call to {@link #next()} advances the reader to the next token. For
+ * {@link Token#INTEGER} the value is available with {@link #integer()} and
+ * for {@link Token#STRING} with {@link #stringOffset()} and
+ * {@link #stringLength()}, or the helpers {@link #string()},
+ * {@link #stringBytes()} and {@link #stringSlice()}. Containers are
+ * reported with {@link Token#LIST} or {@link Token#DICTIONARY} and closed
+ * with {@link Token#END}. Inside a dictionary, keys and values alternate,
+ * the keys always being strings.
+ * <p>
+ * The reader does not copy the input and does not allocate while
+ * tokenizing, no JNI calls are involved. Use {@link #readEntry()} when a
+ * native {@link Entry} is needed for interoperability.
+ * <p>
+ * Malformed input is reported with an {@link IllegalArgumentException}.
+ * This class is not thread safe.
+ *
+ * @author aldenml
+ * @see BEncodeWriter
+ */
+public final class BEncodeReader {
+
+    /**
+     * The default maximum nesting of lists and dictionaries, same as
+     * the default of libtorrent.
+     */
+    public static final int DEFAULT_DEPTH_LIMIT = 100;
+
+    public enum Token {
+        INTEGER,
+        STRING,
+        LIST,
+        DICTIONARY,
+        END,
+        EOF
+    }
+
+    private static final byte IN_LIST = 1;
+    private static final byte IN_DICT_KEY = 2;
+    private static final byte IN_DICT_VALUE = 3;
+
+    private final ByteBuffer buffer;
+    private final int start;
+    private final int limit;
+    private final byte[] stack;
+
+    private int pos;
+    private int depth;
+    private boolean done;
+
+    private Token token;
+    private long integer;
+    private int stringOffset;
+    private int stringLength;
+
+    /**
+     * @param buffer the data, from the current position to the limit
+     * @param depthLimit the maximum nesting of containers
+     */
+    public BEncodeReader(ByteBuffer buffer, int depthLimit) {
+        this.buffer = buffer;
+        this.start = buffer.position();
+        this.limit = buffer.limit();
+        this.stack = new byte[depthLimit];
+        this.pos = start;
+    }
+
+    public BEncodeReader(ByteBuffer buffer) {
+        this(buffer, DEFAULT_DEPTH_LIMIT);
+    }
+
+    public BEncodeReader(byte[] data, int offset, int length) {
+        this(ByteBuffer.wrap(data, offset, length));
+    }
+
+    public BEncodeReader(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    /**
+     * Advances to the next token.
+     *
+     * @return the token
+     * @throws IllegalArgumentException if the data is not valid bencode
+     */
+    public Token next() {
+        if (depth == 0 && done) {
+            return token = Token.EOF;
+        }
+        if (pos >= limit) {
+            if (depth == 0 && pos == start) {
+                return token = Token.EOF;
+            }
+            throw error("unexpected end of data");
+        }
+
+        byte state = depth > 0 ? stack[depth - 1] : 0;
+        byte b = buffer.get(pos);
+
+        if (b == 'e') {
+            if (depth == 0 || state == IN_DICT_VALUE) {
+                throw error("unexpected end of container");
+            }
+            pos++;
+            depth--;
+            afterValue();
+            return token = Token.END;
+        }
+
+        if (state == IN_DICT_KEY && (b < '0' || b > '9')) {
+            throw error("dictionary key must be a string");
+        }
+
+        switch (b) {
+            case 'i':
+                integer = parseInteger();
+                afterValue();
+                return token = Token.INTEGER;
+            case 'l':
+                pos++;
+                push(IN_LIST);
+                return token = Token.LIST;
+            case 'd':
+                pos++;
+                push(IN_DICT_KEY);
+                return token = Token.DICTIONARY;
+            default:
+                if (b < '0' || b > '9') {
+                    throw error("unexpected character '" + (char) b + "'");
+                }
+                parseString();
+                afterValue();
+                return token = Token.STRING;
+        }
+    }
+
+    /**
+     * @return the last token returned by {@link #next()}, or {@code null}
+     */
+    public Token token() {
+        return token;
+    }
+
+    /**
+     * @return the current nesting level of containers
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * @return the absolute position of the reader in the underlying buffer
+     */
+    public int position() {
+        return pos;
+    }
+
+    /**
+     * @return {@code true} if the last token is a dictionary key
+     */
+    public boolean isKey() {
+        return token == Token.STRING && depth > 0 && stack[depth - 1] == IN_DICT_VALUE;
+    }
+
+    /**
+     * @return the value of the last {@link Token#INTEGER}
+     */
+    public long integer() {
+        return integer;
+    }
+
+    /**
+     * @return the absolute offset in the underlying buffer of the last {@link Token#STRING}
+     */
+    public int stringOffset() {
+        return stringOffset;
+    }
+
+    /**
+     * @return the length in bytes of the last {@link Token#STRING}
+     */
+    public int stringLength() {
+        return stringLength;
+    }
+
+    /**
+     * @return a copy of the bytes of the last {@link Token#STRING}
+     */
+    public byte[] stringBytes() {
+        byte[] arr = new byte[stringLength];
+        ByteBuffer b = buffer.duplicate();
+        b.limit(stringOffset + stringLength).position(stringOffset);
+        b.get(arr);
+        return arr;
+    }
+
+    /**
+     * @return a view (no copy) of the bytes of the last {@link Token#STRING}
+     */
+    public ByteBuffer stringSlice() {
+        ByteBuffer b = buffer.duplicate();
+        b.limit(stringOffset + stringLength).position(stringOffset);
+        return b.slice();
+    }
+
+    /**
+     * @return the last {@link Token#STRING} decoded as UTF-8
+     */
+    public String string() {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + stringOffset,
+                    stringLength, StandardCharsets.UTF_8);
+        }
+        return new String(stringBytes(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares the last {@link Token#STRING} with the given ASCII string,
+     * without allocating.
+     *
+     * @param s the ASCII string
+     * @return {@code true} if the bytes are the same
+     */
+    public boolean stringEquals(String s) {
+        if (s.length() != stringLength) {
+            return false;
+        }
+        for (int i = 0; i < stringLength; i++) {
+            if (buffer.get(stringOffset + i) != (byte) s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Skips the value that starts with the last token. If the token is
+     * {@link Token#LIST} or {@link Token#DICTIONARY} the reader is moved
+     * past the matching {@link Token#END}, for scalars this is a no-op.
+     */
+    public void skip() {
+        if (token != Token.LIST && token != Token.DICTIONARY) {
+            return;
+        }
+        int target = depth - 1;
+        while (depth > target) {
+            if (next() == Token.EOF) {
+                throw error("unexpected end of data");
+            }
+        }
+    }
+
+    /**
+     * Reads the next complete value and returns it as a native {@link Entry}.
+     * Dictionary keys are converted to java strings.
+     *
+     * @return the entry or {@code null} if there is no more data
+     */
+    public Entry readEntry() {
+        Token t = next();
+        if (t == Token.EOF) {
+            return null;
+        }
+        if (t == Token.END) {
+            throw error("unexpected end of container");
+        }
+        return new Entry(readEntry(t));
+    }
+
+    private entry readEntry(Token t) {
+        switch (t) {
+            case INTEGER:
+                return new entry(integer);
+            case STRING:
+                return entry.from_string_bytes(Vectors.buffer2byte_vector(stringSlice()));
+            case LIST: {
+                entry e = new entry(entry.data_type.list_t);
+                entry_vector v = e.list();
+                while ((t = next()) != Token.END) {
+                    v.add(readEntry(t));
+                }
+                return e;
+            }
+            case DICTIONARY: {
+                entry e = new entry(entry.data_type.dictionary_t);
+                while (next() != Token.END) {
+                    // the keys as bytes, they can be binary (v2 "piece layers")
+                    byte_vector key = Vectors.buffer2byte_vector(stringSlice());
+                    e.dict_set(key, readEntry(next()));
+                }
+                return e;
+            }
+            default:
+                throw error("unexpected token " + t);
+        }
+    }
+
+    private void push(byte state) {
+        if (depth == stack.length) {
+            throw error("depth limit exceeded");
+        }
+        stack[depth++] = state;
+    }
+
+    private void afterValue() {
+        if (depth == 0) {
+            done = true;
+            return;
+        }
+        byte state = stack[depth - 1];
+        if (state == IN_DICT_KEY) {
+            stack[depth - 1] = IN_DICT_VALUE;
+        } else if (state == IN_DICT_VALUE) {
+            stack[depth - 1] = IN_DICT_KEY;
+        }
+    }
+
+    private long parseInteger() {
+        int p = pos + 1;
+        boolean negative = false;
+        if (p < limit && buffer.get(p) == '-') {
+            negative = true;
+            p++;
+        }
+
+        int digitsStart = p;
+        long value = 0;
+        while (p < limit) {
+            byte b = buffer.get(p);
+            if (b == 'e') {
+                break;
+            }
+            if (b < '0' || b > '9') {
+                throw error("invalid character in integer");
+            }
+            int d = b - '0';
+            if (value > (Long.MAX_VALUE - d) / 10) {
+                throw error("integer overflow");
+            }
+            value = value * 10 + d;
+            p++;
+        }
+
+        if (p >= limit) {
+            throw error("unexpected end of data");
+        }
+        if (p == digitsStart) {
+            throw error("expected digit in integer");
+        }
+
+        pos = p + 1;
+        return negative ? -value : value;
+    }
+
+    private void parseString() {
+        int p = pos;
+        long len = 0;
+        while (p < limit) {
+            byte b = buffer.get(p);
+            if (b == ':') {
+                break;
+            }
+            if (b < '0' || b > '9') {
+                throw error("invalid character in string length");
+            }
+            len = len * 10 + (b - '0');
+            if (len > Integer.MAX_VALUE) {
+                throw error("string length overflow");
+            }
+            p++;
+        }
+
+        if (p >= limit) {
+            throw error("unexpected end of data");
+        }
+        p++;
+        if (len > limit - p) {
+            throw error("string length exceeds the data");
+        }
+
+        stringOffset = p;
+        stringLength = (int) len;
+        pos = p + stringLength;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Can't decode data: " + message + " at position " + (pos - start));
+    }
+}
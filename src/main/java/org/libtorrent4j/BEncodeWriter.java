@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.libtorrent4j.swig.byte_vector;
+import org.libtorrent4j.swig.entry;
+import org.libtorrent4j.swig.entry_vector;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A pure java streaming writer of bencoded data, targeting either a
+ * {@link ByteBuffer} or an {@link OutputStream}.
+ * <p>
+ * The writer does not allocate after construction, integers and strings
+ * are encoded directly in the target (or in an internal scratch buffer for
+ * streams, see {@link #flush()}). It doesn't validate the structure, the
+ * caller is responsible for balancing {@link #startList()} and
+ * {@link #startDictionary()} with {@link #end()} and for writing the
+ * dictionary keys sorted.
+ * <p>
+ * Use {@link #write(Entry)} to encode a native {@link Entry}.
+ * This class is not thread safe.
+ *
+ * @author aldenml
+ * @see BEncodeReader
+ */
+public final class BEncodeWriter {
+
+    private static final int SCRATCH_SIZE = 8192;
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        long p = 1;
+        for (int i = 0; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = p;
+            p *= 10;
+        }
+    }
+
+    private final ByteBuffer buffer;
+    private final OutputStream out;
+    private final byte[] scratch;
+    private int count;
+
+    /**
+     * The data is written at the current position of the buffer.
+     *
+     * @param buffer the target buffer
+     */
+    public BEncodeWriter(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.out = null;
+        this.scratch = null;
+    }
+
+    /**
+     * The data is buffered internally, call {@link #flush()} when done.
+     *
+     * @param out the target stream
+     */
+    public BEncodeWriter(OutputStream out) {
+        this.buffer = null;
+        this.out = out;
+        this.scratch = new byte[SCRATCH_SIZE];
+    }
+
+    public BEncodeWriter writeInteger(long value) throws IOException {
+        put((byte) 'i');
+        putLong(value);
+        put((byte) 'e');
+        return this;
+    }
+
+    public BEncodeWriter writeString(byte[] value, int offset, int length) throws IOException {
+        putLong(length);
+        put((byte) ':');
+        putBytes(value, offset, length);
+        return this;
+    }
+
+    public BEncodeWriter writeString(byte[] value) throws IOException {
+        return writeString(value, 0, value.length);
+    }
+
+    /**
+     * Writes the remaining bytes of {@code value} as a string, the position
+     * of {@code value} is not modified.
+     *
+     * @param value the string bytes
+     * @return this writer
+     * @throws IOException if an I/O error occurs
+     */
+    public BEncodeWriter writeString(ByteBuffer value) throws IOException {
+        int length = value.remaining();
+        putLong(length);
+        put((byte) ':');
+        if (buffer != null) {
+            buffer.put(value.duplicate());
+        } else if (value.hasArray()) {
+            putBytes(value.array(), value.arrayOffset() + value.position(), length);
+        } else {
+            for (int i = value.position(); i < value.limit(); i++) {
+                put(value.get(i));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Writes the string encoded as UTF-8, without intermediate arrays.
+     *
+     * @param value the string
+     * @return this writer
+     * @throws IOException if an I/O error occurs
+     */
+    public BEncodeWriter writeString(String value) throws IOException {
+        putLong(utf8Length(value));
+        put((byte) ':');
+
+        int n = value.length();
+        for (int i = 0; i < n; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                put((byte) c);
+            } else if (c < 0x800) {
+                put((byte) (0xc0 | (c >> 6)));
+                put((byte) (0x80 | (c & 0x3f)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                put((byte) (0xf0 | (cp >> 18)));
+                put((byte) (0x80 | ((cp >> 12) & 0x3f)));
+                put((byte) (0x80 | ((cp >> 6) & 0x3f)));
+                put((byte) (0x80 | (cp & 0x3f)));
+            } else if (Character.isSurrogate(c)) {
+                put((byte) '?');
+            } else {
+                put((byte) (0xe0 | (c >> 12)));
+                put((byte) (0x80 | ((c >> 6) & 0x3f)));
+                put((byte) (0x80 | (c & 0x3f)));
+            }
+        }
+        return this;
+    }
+
+    public BEncodeWriter startList() throws IOException {
+        put((byte) 'l');
+        return this;
+    }
+
+    public BEncodeWriter startDictionary() throws IOException {
+        put((byte) 'd');
+        return this;
+    }
+
+    public BEncodeWriter end() throws IOException {
+        put((byte) 'e');
+        return this;
+    }
+
+    /**
+     * Writes already bencoded data as is.
+     *
+     * @param data the bencoded data
+     * @return this writer
+     * @throws IOException if an I/O error occurs
+     */
+    public BEncodeWriter writeRaw(byte[] data) throws IOException {
+        putBytes(data, 0, data.length);
+        return this;
+    }
+
+    /**
+     * Encodes a native entry, walking the tree over JNI.
+     *
+     * @param e the entry
+     * @return this writer
+     * @throws IOException if an I/O error occurs
+     */
+    public BEncodeWriter write(Entry e) throws IOException {
+        write(e.swig());
+        return this;
+    }
+
+    /**
+     * Writes any pending data to the underlying stream, it's a no-op
+     * if the target is a buffer.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void flush() throws IOException {
+        if (out != null) {
+            if (count > 0) {
+                out.write(scratch, 0, count);
+                count = 0;
+            }
+            out.flush();
+        }
+    }
+
+    private void write(entry e) throws IOException {
+        entry.data_type t = e.type();
+        if (t == entry.data_type.int_t) {
+            writeInteger(e.integer());
+        } else if (t == entry.data_type.string_t) {
+            writeString(Vectors.byte_vector2bytes(e.string_bytes()));
+        } else if (t == entry.data_type.list_t) {
+            startList();
+            entry_vector v = e.list();
+            int size = v.size();
+            for (int i = 0; i < size; i++) {
+                write(v.get(i));
+            }
+            end();
+        } else if (t == entry.data_type.dictionary_t) {
+            startDictionary();
+            // the keys as bytes, they can be binary (v2 "piece layers")
+            entry_vector keys = e.dict_keys();
+            int size = keys.size();
+            for (int i = 0; i < size; i++) {
+                byte_vector k = keys.get(i).string_bytes();
+                writeString(Vectors.byte_vector2bytes(k));
+                write(e.dict_get(k));
+            }
+            end();
+        } else if (t == entry.data_type.preformatted_t) {
+            writeRaw(Vectors.byte_vector2bytes(e.preformatted_bytes()));
+        } else {
+            // undefined_t is encoded as an empty string by libtorrent
+            writeString("");
+        }
+    }
+
+    private void put(byte b) throws IOException {
+        if (buffer != null) {
+            buffer.put(b);
+        } else {
+            if (count == scratch.length) {
+                out.write(scratch, 0, count);
+                count = 0;
+            }
+            scratch[count++] = b;
+        }
+    }
+
+    private void putBytes(byte[] arr, int offset, int length) throws IOException {
+        if (buffer != null) {
+            buffer.put(arr, offset, length);
+        } else if (length > scratch.length - count) {
+            if (count > 0) {
+                out.write(scratch, 0, count);
+                count = 0;
+            }
+            out.write(arr, offset, length);
+        } else {
+            System.arraycopy(arr, offset, scratch, count, length);
+            count += length;
+        }
+    }
+
+    private void putLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            put((byte) '-');
+            put((byte) '9');
+            value = 223372036854775808L;
+        } else if (value < 0) {
+            put((byte) '-');
+            value = -value;
+        }
+
+        if (value < 10) {
+            put((byte) ('0' + value));
+            return;
+        }
+
+        long v = value;
+        int n = 0;
+        while (v > 0) {
+            v /= 10;
+            n++;
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            long p = POWERS_OF_TEN[i];
+            int d = (int) (value / p);
+            put((byte) ('0' + d));
+            value -= d * p;
+        }
+    }
+
+    private static int utf8Length(String s) {
+        int n = s.length();
+        int len = 0;
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                len++;
+            } else if (c < 0x800) {
+                len += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < n
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                len += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                len++;
+            } else {
+                len += 3;
+            }
+        }
+        return len;
+    }
+}
@@ -0,0 +1,31 @@
+package org.libtorrent4j;
+
+/**
+ * A listener that receives all the alerts of interest popped from the
+ * session at once, instead of one call per alert.
+ * <p>
+ * Useful for listeners that aggregate, like metrics, persistence or UI
+ * updates. The alerts of the batch are only materialized as java objects
+ * when requested with {@link AlertBatch#get(int)}.
+ *
+ * @author aldenml
+ * @see SessionManager#addListener(BatchAlertListener)
+ */
+public interface BatchAlertListener {
+
+    /**
+     * List of alert types filtered by this listener.
+     * Return `null` if you intend to listen to all alerts.
+     *
+     * @return the types filter
+     */
+    int[] types();
+
+    /**
+     * Called from the alerts loop thread, only if the batch is not empty.
+     * The batch and its alerts are only valid during the call.
+     *
+     * @param batch the alerts of the batch matching the types filter
+     */
+    void alerts(AlertBatch batch);
+}
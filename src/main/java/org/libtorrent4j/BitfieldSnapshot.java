@@ -0,0 +1,513 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.libtorrent4j.swig.bitfield;
+import org.libtorrent4j.swig.libtorrent_jni;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * A pure java copy of a native bitfield, packed in a {@code long[]}.
+ * <p>
+ * The bits are copied with a single memory copy from the native object,
+ * see {@link #of(PieceIndexBitfield)}, after that all the operations,
+ * including the bulk ones (counting, searching, logical operations with
+ * other snapshots) work on whole words without crossing JNI.
+ * <p>
+ * The bit {@code i} is stored in the word {@code i / 64}, at the bit
+ * {@code i % 64}, the same layout of {@link java.util.BitSet}. The bits
+ * past the size are always zero.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @author aldenml
+ */
+public final class BitfieldSnapshot {
+
+    private final int size;
+    private final long[] words;
+
+    /**
+     * Creates a snapshot of the given size with all the bits cleared.
+     *
+     * @param size the number of bits
+     */
+    public BitfieldSnapshot(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size can't be negative");
+        }
+        this.size = size;
+        this.words = new long[numWords(size)];
+    }
+
+    /**
+     * Copies the bits of the native bitfield with a single memory copy.
+     *
+     * @param f the native bitfield
+     * @return the snapshot
+     */
+    public static BitfieldSnapshot of(bitfield f) {
+        int size = f.size();
+        BitfieldSnapshot s = new BitfieldSnapshot(size);
+        if (size == 0) {
+            return s;
+        }
+
+        // the native words are in network byte order, the first bit is
+        // the most significant bit of the first byte
+        int numBytes = (size + 7) >>> 3;
+        byte[] arr = new byte[s.words.length << 3];
+        libtorrent_jni.memoryCopyToArray(f.data_ptr(), arr, 0, numBytes);
+        s.setBytes(arr);
+
+        return s;
+    }
+
+    /**
+     * @param f the bitfield
+     * @return the snapshot
+     */
+    public static BitfieldSnapshot of(PieceIndexBitfield f) {
+        return of(f.swig());
+    }
+
+    /**
+     * Creates a snapshot from bytes in the format of the bitfield message
+     * of the protocol, the first bit is the most significant bit of the
+     * first byte.
+     *
+     * @param bytes the bytes
+     * @param size  the number of bits
+     * @return the snapshot
+     */
+    public static BitfieldSnapshot fromBytes(byte[] bytes, int size) {
+        BitfieldSnapshot s = new BitfieldSnapshot(size);
+        int numBytes = (size + 7) >>> 3;
+        if (bytes.length < numBytes) {
+            throw new IllegalArgumentException("Not enough bytes for " + size + " bits");
+        }
+
+        byte[] arr = new byte[s.words.length << 3];
+        System.arraycopy(bytes, 0, arr, 0, numBytes);
+        s.setBytes(arr);
+
+        return s;
+    }
+
+    /**
+     * @return the number of bits
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean get(int index) {
+        checkIndex(index);
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public void set(int index) {
+        checkIndex(index);
+        words[index >>> 6] |= 1L << index;
+    }
+
+    public void clear(int index) {
+        checkIndex(index);
+        words[index >>> 6] &= ~(1L << index);
+    }
+
+    /**
+     * Sets the bits in the range {@code [from, to)}.
+     *
+     * @param from the first bit, inclusive
+     * @param to   the last bit, exclusive
+     */
+    public void set(int from, int to) {
+        checkRange(from, to);
+        if (from == to) {
+            return;
+        }
+
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+
+        words[first] |= firstMask;
+        for (int i = first + 1; i < last; i++) {
+            words[i] = -1L;
+        }
+        words[last] |= lastMask;
+    }
+
+    /**
+     * Clears the bits in the range {@code [from, to)}.
+     *
+     * @param from the first bit, inclusive
+     * @param to   the last bit, exclusive
+     */
+    public void clear(int from, int to) {
+        checkRange(from, to);
+        if (from == to) {
+            return;
+        }
+
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+
+        if (first == last) {
+            words[first] &= ~(firstMask & lastMask);
+            return;
+        }
+
+        words[first] &= ~firstMask;
+        for (int i = first + 1; i < last; i++) {
+            words[i] = 0;
+        }
+        words[last] &= ~lastMask;
+    }
+
+    /**
+     * @return the number of bits set
+     */
+    public int count() {
+        int n = 0;
+        for (long w : words) {
+            n += Long.bitCount(w);
+        }
+        return n;
+    }
+
+    /**
+     * Counts the bits set in the range {@code [from, to)}.
+     *
+     * @param from the first bit, inclusive
+     * @param to   the last bit, exclusive
+     * @return the number of bits set
+     */
+    public int count(int from, int to) {
+        checkRange(from, to);
+        if (from == to) {
+            return 0;
+        }
+
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+
+        if (first == last) {
+            return Long.bitCount(words[first] & firstMask & lastMask);
+        }
+
+        int n = Long.bitCount(words[first] & firstMask);
+        for (int i = first + 1; i < last; i++) {
+            n += Long.bitCount(words[i]);
+        }
+        n += Long.bitCount(words[last] & lastMask);
+        return n;
+    }
+
+    public boolean isAllSet() {
+        return count() == size;
+    }
+
+    public boolean isNoneSet() {
+        for (long w : words) {
+            if (w != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param from the first bit to check, inclusive
+     * @return the index of the next bit set, or -1 if none
+     */
+    public int nextSetBit(int from) {
+        if (from < 0) {
+            throw new IndexOutOfBoundsException("from: " + from);
+        }
+        if (from >= size) {
+            return -1;
+        }
+
+        int i = from >>> 6;
+        long w = words[i] & (-1L << from);
+        while (true) {
+            if (w != 0) {
+                return (i << 6) + Long.numberOfTrailingZeros(w);
+            }
+            if (++i == words.length) {
+                return -1;
+            }
+            w = words[i];
+        }
+    }
+
+    /**
+     * @param from the first bit to check, inclusive
+     * @return the index of the next bit clear, or -1 if none
+     */
+    public int nextClearBit(int from) {
+        if (from < 0) {
+            throw new IndexOutOfBoundsException("from: " + from);
+        }
+        if (from >= size) {
+            return -1;
+        }
+
+        int i = from >>> 6;
+        long w = ~words[i] & (-1L << from);
+        while (true) {
+            if (w != 0) {
+                int index = (i << 6) + Long.numberOfTrailingZeros(w);
+                return index < size ? index : -1;
+            }
+            if (++i == words.length) {
+                return -1;
+            }
+            w = ~words[i];
+        }
+    }
+
+    /**
+     * Keeps only the bits that are also set in {@code other}.
+     *
+     * @param other a snapshot of the same size
+     * @return this snapshot
+     */
+    public BitfieldSnapshot and(BitfieldSnapshot other) {
+        checkSize(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= other.words[i];
+        }
+        return this;
+    }
+
+    /**
+     * Sets the bits that are set in {@code other}.
+     *
+     * @param other a snapshot of the same size
+     * @return this snapshot
+     */
+    public BitfieldSnapshot or(BitfieldSnapshot other) {
+        checkSize(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] |= other.words[i];
+        }
+        return this;
+    }
+
+    /**
+     * Clears the bits that are set in {@code other}, for example, the
+     * pieces available in a peer that we don't have yet are
+     * {@code peer.copy().andNot(ours)}.
+     *
+     * @param other a snapshot of the same size
+     * @return this snapshot
+     */
+    public BitfieldSnapshot andNot(BitfieldSnapshot other) {
+        checkSize(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= ~other.words[i];
+        }
+        return this;
+    }
+
+    /**
+     * @return a new independent snapshot with the same bits
+     */
+    public BitfieldSnapshot copy() {
+        BitfieldSnapshot s = new BitfieldSnapshot(size);
+        System.arraycopy(words, 0, s.words, 0, words.length);
+        return s;
+    }
+
+    /**
+     * @return the bytes in the format of the bitfield message of the
+     * protocol, see {@link #fromBytes(byte[], int)}
+     */
+    public byte[] toBytes() {
+        byte[] arr = new byte[words.length << 3];
+        for (int i = 0; i < words.length; i++) {
+            HashKeys.putLong(arr, i << 3, Long.reverse(words[i]));
+        }
+        return Arrays.copyOf(arr, (size + 7) >>> 3);
+    }
+
+    /**
+     * Creates a new native bitfield with the same bits.
+     *
+     * @return the bitfield
+     */
+    public PieceIndexBitfield toBitfield() {
+        bitfield f = new bitfield(size);
+        if (size > 0) {
+            // the native bytes are in the same bit order, the vector
+            // constructor takes the number of bytes as the number of bits
+            byte[] arr = toBytes();
+            libtorrent_jni.memoryCopyFromArray(arr, 0, arr.length, f.data_ptr());
+        }
+        return new PieceIndexBitfield(f);
+    }
+
+    /**
+     * Encodes the bits as a sequence of runs, compact for the usual piece
+     * maps, with long runs of pieces we have or don't have.
+     * <p>
+     * The format is the size, the value of the first run (0 or 1) and
+     * the length of each run, alternating values, all as unsigned LEB128
+     * varints.
+     *
+     * @return the encoded bits
+     */
+    public byte[] toRunLength() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeVarint(out, size);
+        if (size == 0) {
+            return out.toByteArray();
+        }
+
+        boolean value = get(0);
+        out.write(value ? 1 : 0);
+
+        int pos = 0;
+        while (pos < size) {
+            int end = value ? nextClearBit(pos) : nextSetBit(pos);
+            if (end < 0) {
+                end = size;
+            }
+            writeVarint(out, end - pos);
+            pos = end;
+            value = !value;
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes bits encoded with {@link #toRunLength()}.
+     *
+     * @param data the encoded bits
+     * @return the snapshot
+     */
+    public static BitfieldSnapshot fromRunLength(byte[] data) {
+        int[] pos = new int[1];
+        int size = readVarint(data, pos);
+        BitfieldSnapshot s = new BitfieldSnapshot(size);
+        if (size == 0) {
+            return s;
+        }
+
+        if (pos[0] >= data.length) {
+            throw new IllegalArgumentException("Truncated run-length data");
+        }
+        boolean value = data[pos[0]++] != 0;
+
+        int bit = 0;
+        while (bit < size) {
+            int len = readVarint(data, pos);
+            if (len <= 0 || len > size - bit) {
+                throw new IllegalArgumentException("Invalid run length: " + len);
+            }
+            if (value) {
+                s.set(bit, bit + len);
+            }
+            bit += len;
+            value = !value;
+        }
+
+        return s;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof BitfieldSnapshot)) {
+            return false;
+        }
+
+        BitfieldSnapshot o = (BitfieldSnapshot) obj;
+        return size == o.size && Arrays.equals(words, o.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * size + Arrays.hashCode(words);
+    }
+
+    // arr is in network order, padded to a multiple of 8 bytes
+    private void setBytes(byte[] arr) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] = Long.reverse(HashKeys.getLong(arr, i << 3));
+        }
+        // the native padding bits are undefined
+        int tail = size & 63;
+        if (tail != 0) {
+            words[words.length - 1] &= -1L >>> (64 - tail);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private void checkRange(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", Size: " + size);
+        }
+    }
+
+    private void checkSize(BitfieldSnapshot other) {
+        if (other.size != size) {
+            throw new IllegalArgumentException("Snapshots of different sizes: " + size + " != " + other.size);
+        }
+    }
+
+    private static int numWords(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7f) != 0) {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] data, int[] pos) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (pos[0] >= data.length) {
+                throw new IllegalArgumentException("Truncated run-length data");
+            }
+            int b = data[pos[0]++];
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid varint in run-length data");
+    }
+}
@@ -0,0 +1,408 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable, pure java, copy of the file layout of a torrent.
+ * <p>
+ * The sizes, offsets and flags of the files are copied from the native
+ * {@link FileStorage} with a single native call at construction time and
+ * kept in primitive arrays. All the queries, including the mapping
+ * between pieces and files, are answered without crossing JNI, using
+ * binary search over the file offsets.
+ * <p>
+ * The directories of the file paths are interned, torrents with many
+ * files in a few directories don't keep a copy per file.
+ * <p>
+ * Since it's a snapshot, it doesn't reflect later changes to the native
+ * storage, like {@link FileStorage#renameFile(int, String)}.
+ *
+ * @author aldenml
+ */
+public final class FileTable {
+
+    // the values of the native file flags, see FileStorage.FLAG_*
+    public static final int FLAG_PAD_FILE = 1;
+    public static final int FLAG_HIDDEN = 1 << 1;
+    public static final int FLAG_EXECUTABLE = 1 << 2;
+    public static final int FLAG_SYMLINK = 1 << 3;
+
+    private final int pieceLength;
+    private final int numPieces;
+    private final long totalSize;
+
+    private final long[] sizes;
+    private final long[] offsets; // prefix sums of the sizes
+    private final byte[] flags;
+
+    private final String[] dirs; // with the trailing separator
+    private final int[] dirIndex;
+    private final String[] names;
+
+    FileTable(int pieceLength, int numPieces, long[] sizes, long[] offsets,
+              byte[] flags, String[] paths) {
+        int n = sizes.length;
+        if (offsets.length != n || flags.length != n || paths.length != n) {
+            throw new IllegalArgumentException("All the file arrays must have the same length");
+        }
+        if (pieceLength <= 0) {
+            throw new IllegalArgumentException("Invalid piece length: " + pieceLength);
+        }
+
+        this.pieceLength = pieceLength;
+        this.numPieces = numPieces;
+        this.totalSize = n == 0 ? 0 : offsets[n - 1] + sizes[n - 1];
+
+        this.sizes = sizes;
+        this.offsets = offsets;
+        this.flags = flags;
+
+        this.dirIndex = new int[n];
+        this.names = new String[n];
+
+        HashMap<String, Integer> interned = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            String path = paths[i];
+            int sep = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
+            String dir = path.substring(0, sep + 1);
+
+            Integer idx = interned.get(dir);
+            if (idx == null) {
+                idx = interned.size();
+                interned.put(dir, idx);
+            }
+
+            dirIndex[i] = idx;
+            names[i] = path.substring(sep + 1);
+        }
+
+        this.dirs = new String[interned.size()];
+        for (Map.Entry<String, Integer> e : interned.entrySet()) {
+            dirs[e.getValue()] = e.getKey();
+        }
+    }
+
+    /**
+     * Copies the file layout with a single native call.
+     *
+     * @param fs the native storage
+     * @return the table
+     */
+    public static FileTable of(FileStorage fs) {
+        byte[] data = Vectors.byte_vector2bytes(fs.swig().file_table_bytes());
+        ByteBuffer bb = ByteBuffer.wrap(data).order(ByteOrder.nativeOrder());
+
+        int n = bb.getInt();
+        long[] sizes = new long[n];
+        long[] offsets = new long[n];
+        byte[] flags = new byte[n];
+        String[] paths = new String[n];
+
+        for (int i = 0; i < n; i++) {
+            sizes[i] = bb.getLong();
+            offsets[i] = bb.getLong();
+            flags[i] = (byte) bb.getInt();
+            int len = bb.getInt();
+            paths[i] = new String(data, bb.position(), len, StandardCharsets.UTF_8);
+            bb.position(bb.position() + len);
+        }
+
+        return new FileTable(fs.pieceLength(), fs.numPieces(), sizes, offsets, flags, paths);
+    }
+
+    /**
+     * Copies the file layout of the torrent, see {@link TorrentInfo#files()}.
+     *
+     * @param ti the torrent info
+     * @return the table
+     */
+    public static FileTable of(TorrentInfo ti) {
+        return of(ti.files());
+    }
+
+    public int numFiles() {
+        return sizes.length;
+    }
+
+    public int numPieces() {
+        return numPieces;
+    }
+
+    public int pieceLength() {
+        return pieceLength;
+    }
+
+    public long totalSize() {
+        return totalSize;
+    }
+
+    /**
+     * @param piece the piece index
+     * @return the size of the piece, only the last one can be shorter
+     * than {@link #pieceLength()}
+     */
+    public int pieceSize(int piece) {
+        checkPiece(piece);
+        long start = (long) piece * pieceLength;
+        return (int) Math.min(pieceLength, totalSize - start);
+    }
+
+    public long fileSize(int index) {
+        return sizes[index];
+    }
+
+    /**
+     * @param index the file index
+     * @return the offset of the file in the torrent
+     */
+    public long fileOffset(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * @param index the file index
+     * @return the raw flags of the file, see {@link #FLAG_PAD_FILE}
+     */
+    public int fileFlags(int index) {
+        return flags[index] & 0xff;
+    }
+
+    public boolean isPadFile(int index) {
+        return (flags[index] & FLAG_PAD_FILE) != 0;
+    }
+
+    /**
+     * @param index the file index
+     * @return the file name, without the directory
+     */
+    public String fileName(int index) {
+        return names[index];
+    }
+
+    /**
+     * @param index the file index
+     * @return the directory of the file, with the trailing separator, the
+     * instance is shared by all the files in the same directory
+     */
+    public String fileDirectory(int index) {
+        return dirs[dirIndex[index]];
+    }
+
+    /**
+     * @param index the file index
+     * @return the path of the file relative to the save path, the same as
+     * {@link FileStorage#filePath(int)}
+     */
+    public String filePath(int index) {
+        String dir = dirs[dirIndex[index]];
+        return dir.isEmpty() ? names[index] : dir.concat(names[index]);
+    }
+
+    /**
+     * Returns the index of the file at the given offset in the torrent,
+     * the same as {@link FileStorage#fileIndexAtOffset(long)}.
+     *
+     * @param offset the offset in the torrent
+     * @return the file index
+     */
+    public int fileIndexAtOffset(long offset) {
+        if (offset < 0 || offset >= totalSize) {
+            throw new IndexOutOfBoundsException("Offset: " + offset + ", Total size: " + totalSize);
+        }
+
+        // last file with offsets[i] <= offset
+        int lo = 0;
+        int hi = offsets.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (offsets[mid] <= offset) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+
+        return lo - 1;
+    }
+
+    /**
+     * @param piece the piece index
+     * @return the index of the file at the start of the piece
+     */
+    public int fileIndexAtPiece(int piece) {
+        checkPiece(piece);
+        return fileIndexAtOffset((long) piece * pieceLength);
+    }
+
+    /**
+     * @param piece the piece index
+     * @return the index of the file at the last byte of the piece
+     */
+    public int lastFileIndexAtPiece(int piece) {
+        return fileIndexAtOffset((long) piece * pieceLength + pieceSize(piece) - 1);
+    }
+
+    /**
+     * @param index the file index
+     * @return the index of the piece the file starts at
+     */
+    public int pieceIndexAtFile(int index) {
+        return (int) (offsets[index] / pieceLength);
+    }
+
+    /**
+     * @param index the file index
+     * @return the index of the piece the file ends at
+     */
+    public int lastPieceIndexAtFile(int index) {
+        long size = sizes[index];
+        long end = size == 0 ? offsets[index] : offsets[index] + size - 1;
+        return (int) (end / pieceLength);
+    }
+
+    /**
+     * Returns the piece of the given offset in a file, the piece part of
+     * {@link FileStorage#mapFile(int, long, int)}.
+     *
+     * @param index  the file index
+     * @param offset the offset in the file
+     * @return the piece index
+     */
+    public int mapFilePiece(int index, long offset) {
+        return (int) ((offsets[index] + offset) / pieceLength);
+    }
+
+    /**
+     * Returns the offset in the piece of the given offset in a file, the
+     * start part of {@link FileStorage#mapFile(int, long, int)}.
+     *
+     * @param index  the file index
+     * @param offset the offset in the file
+     * @return the offset in the piece
+     */
+    public int mapFileStart(int index, long offset) {
+        return (int) ((offsets[index] + offset) % pieceLength);
+    }
+
+    /**
+     * Maps a block of a piece to the file ranges it spans, the same as
+     * {@link FileStorage#mapBlock(int, long, int)}, but writing the result
+     * in a reusable {@link Slices}.
+     *
+     * @param piece  the piece index
+     * @param offset the offset in the piece
+     * @param size   the size of the block
+     * @param out    the target, cleared before the mapping
+     * @return the number of slices
+     */
+    public int mapBlock(int piece, long offset, int size, Slices out) {
+        checkPiece(piece);
+        out.count = 0;
+
+        long target = (long) piece * pieceLength + offset;
+        if (target < 0 || target >= totalSize) {
+            throw new IndexOutOfBoundsException("Offset: " + target + ", Total size: " + totalSize);
+        }
+        long remaining = Math.min(size, totalSize - target);
+
+        int i = fileIndexAtOffset(target);
+        long fileOffset = target - offsets[i];
+        for (; remaining > 0; fileOffset -= sizes[i], i++) {
+            long fileSize = sizes[i];
+            if (fileOffset < fileSize) {
+                long n = Math.min(fileSize - fileOffset, remaining);
+                out.add(i, fileOffset, n);
+                remaining -= n;
+                fileOffset += n;
+            }
+        }
+
+        return out.count;
+    }
+
+    private void checkPiece(int piece) {
+        if (piece < 0 || piece >= numPieces) {
+            throw new IndexOutOfBoundsException("Piece: " + piece + ", Num pieces: " + numPieces);
+        }
+    }
+
+    /**
+     * A reusable list of file slices, the result of
+     * {@link #mapBlock(int, long, int, Slices)}.
+     * <p>
+     * This class is not thread safe.
+     */
+    public static final class Slices {
+
+        private int[] files;
+        private long[] offsets;
+        private long[] sizes;
+        private int count;
+
+        public Slices(int initialCapacity) {
+            int n = Math.max(initialCapacity, 1);
+            this.files = new int[n];
+            this.offsets = new long[n];
+            this.sizes = new long[n];
+        }
+
+        public Slices() {
+            this(8);
+        }
+
+        public int count() {
+            return count;
+        }
+
+        public int fileIndex(int i) {
+            checkIndex(i);
+            return files[i];
+        }
+
+        /**
+         * @param i the slice index
+         * @return the offset in the file
+         */
+        public long offset(int i) {
+            checkIndex(i);
+            return offsets[i];
+        }
+
+        public long size(int i) {
+            checkIndex(i);
+            return sizes[i];
+        }
+
+        private void add(int file, long offset, long size) {
+            if (count == files.length) {
+                int n = count << 1;
+                files = Arrays.copyOf(files, n);
+                offsets = Arrays.copyOf(offsets, n);
+                sizes = Arrays.copyOf(sizes, n);
+            }
+
+            files[count] = file;
+            offsets[count] = offset;
+            sizes[count] = size;
+            count++;
+        }
+
+        private void checkIndex(int i) {
+            if (i < 0 || i >= count) {
+                throw new IndexOutOfBoundsException("Index: " + i + ", Count: " + count);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+/**
+ * Big-endian packing helpers shared by {@link Sha1Key} and {@link Sha256Key}.
+ *
+ * @author aldenml
+ */
+final class HashKeys {
+
+    private HashKeys() {
+    }
+
+    static long getLong(byte[] arr, int offset) {
+        return ((long) getInt(arr, offset) << 32) | (getInt(arr, offset + 4) & 0xffffffffL);
+    }
+
+    static int getInt(byte[] arr, int offset) {
+        return (arr[offset] << 24)
+                | ((arr[offset + 1] & 0xff) << 16)
+                | ((arr[offset + 2] & 0xff) << 8)
+                | (arr[offset + 3] & 0xff);
+    }
+
+    static void putLong(byte[] arr, int offset, long value) {
+        putInt(arr, offset, (int) (value >>> 32));
+        putInt(arr, offset + 4, (int) value);
+    }
+
+    static void putInt(byte[] arr, int offset, int value) {
+        arr[offset] = (byte) (value >>> 24);
+        arr[offset + 1] = (byte) (value >>> 16);
+        arr[offset + 2] = (byte) (value >>> 8);
+        arr[offset + 3] = (byte) value;
+    }
+
+    // same as Arrays.hashCode and the native hash_code of the digests
+    static int hashCode(byte[] arr, int offset, int length) {
+        int result = 1;
+        for (int i = offset; i < offset + length; i++) {
+            result = 31 * result + arr[i];
+        }
+        return result;
+    }
+}
@@ -17,8 +17,17 @@
 
 package org.libtorrent4j;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
 /**
  * Converts hexadecimal Strings.
+ * <p>
+ * Besides the allocating {@link #encode(byte[])} and {@link #decode(String)},
+ * there are table-driven variants that write into a caller-supplied
+ * {@code char[]}, {@link StringBuilder} or {@link ByteBuffer}, a
+ * validation-only scan ({@link #isValid(CharSequence)}) and batch
+ * methods for arrays of fixed size hashes (20 or 32 bytes).
  */
 public final class Hex {
 
@@ -31,6 +40,33 @@ public final class Hex {
     private static final char[] DIGITS_LOWER =
             {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
 
+    /**
+     * Lookup table from a byte to its two lower case hex digits.
+     */
+    private static final char[] BYTE_TO_DIGITS = new char[512];
+
+    /**
+     * Lookup table from an ASCII character to its value, -1 if not a hex digit.
+     */
+    private static final byte[] DIGIT_VALUES = new byte[128];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            BYTE_TO_DIGITS[i << 1] = DIGITS_LOWER[i >>> 4];
+            BYTE_TO_DIGITS[(i << 1) + 1] = DIGITS_LOWER[i & 0x0F];
+        }
+        for (int i = 0; i < DIGIT_VALUES.length; i++) {
+            DIGIT_VALUES[i] = -1;
+        }
+        for (int i = 0; i < 10; i++) {
+            DIGIT_VALUES['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            DIGIT_VALUES['a' + i] = (byte) (10 + i);
+            DIGIT_VALUES['A' + i] = (byte) (10 + i);
+        }
+    }
+
     /**
      * Converts an array of characters representing hexadecimal values into an array of bytes of those same values. The
      * returned array will be half the length of the passed array, as it takes two characters to represent any given
@@ -44,22 +80,147 @@ public final class Hex {
 
         final int len = data.length;
 
+        if ((len & 0x01) != 0) {
+            throw new IllegalArgumentException("Odd number of characters.");
+        }
+
         final byte[] out = new byte[len >> 1];
 
         // two characters form the hex value.
-        for (int i = 0, j = 0; j < len; i++) {
-            int f = toDigit(data[j], j) << 4;
-            j++;
-            f = f | toDigit(data[j], j);
-            j++;
-            out[i] = (byte) (f & 0xFF);
+        for (int i = 0, j = 0; j < len; i++, j += 2) {
+            out[i] = (byte) ((toDigit(data[j], j) << 4) | toDigit(data[j + 1], j + 1));
         }
 
         return out;
     }
 
     public static byte[] decode(String data) {
-        return decode(data.toCharArray());
+        return decode((CharSequence) data);
+    }
+
+    /**
+     * Converts a sequence of hexadecimal characters into an array of bytes, without
+     * intermediate copies of the characters.
+     *
+     * @param data the hexadecimal characters
+     * @return A byte array containing binary data decoded from the supplied characters.
+     */
+    public static byte[] decode(CharSequence data) {
+        final int len = data.length();
+
+        if ((len & 0x01) != 0) {
+            throw new IllegalArgumentException("Odd number of characters.");
+        }
+
+        final byte[] out = new byte[len >> 1];
+        decode(data, 0, len, out, 0);
+        return out;
+    }
+
+    /**
+     * Decodes the characters in {@code [start, end)} into {@code out}.
+     *
+     * @param data      the hexadecimal characters
+     * @param start     the index of the first character
+     * @param end       the index after the last character
+     * @param out       the target array
+     * @param outOffset the offset in the target array
+     * @return the number of bytes written, {@code (end - start) / 2}
+     */
+    public static int decode(CharSequence data, int start, int end, byte[] out, int outOffset) {
+        final int len = end - start;
+
+        if ((len & 0x01) != 0) {
+            throw new IllegalArgumentException("Odd number of characters.");
+        }
+        if (outOffset < 0 || out.length - outOffset < (len >> 1)) {
+            throw new IndexOutOfBoundsException("Not enough space in the target array");
+        }
+
+        final byte[] table = DIGIT_VALUES;
+        for (int j = start, i = outOffset; j < end; j += 2, i++) {
+            char c0 = data.charAt(j);
+            char c1 = data.charAt(j + 1);
+            if (((c0 | c1) & 0xFF80) != 0) {
+                throw illegalCharacter(data, j);
+            }
+            int hi = table[c0];
+            int lo = table[c1];
+            if ((hi | lo) < 0) {
+                throw illegalCharacter(data, j);
+            }
+            out[i] = (byte) ((hi << 4) | lo);
+        }
+
+        return len >> 1;
+    }
+
+    /**
+     * Decodes the characters into the target buffer, starting at its
+     * current position. The position is advanced by the number of bytes
+     * written.
+     *
+     * @param data the hexadecimal characters
+     * @param dst  the target buffer
+     * @return the number of bytes written
+     */
+    public static int decode(CharSequence data, ByteBuffer dst) {
+        final int len = data.length();
+
+        if ((len & 0x01) != 0) {
+            throw new IllegalArgumentException("Odd number of characters.");
+        }
+
+        int n = len >> 1;
+        if (dst.hasArray()) {
+            int position = dst.position();
+            if (dst.remaining() < n) {
+                throw new BufferOverflowException();
+            }
+            decode(data, 0, len, dst.array(), dst.arrayOffset() + position);
+            dst.position(position + n);
+        } else {
+            for (int j = 0; j < len; j += 2) {
+                dst.put((byte) ((toDigit(data.charAt(j), j) << 4) | toDigit(data.charAt(j + 1), j + 1)));
+            }
+        }
+
+        return n;
+    }
+
+    /**
+     * Checks if the characters are a valid hexadecimal encoding, an even
+     * number of hex digits, without decoding them.
+     *
+     * @param data the characters
+     * @return true if valid
+     */
+    public static boolean isValid(CharSequence data) {
+        final int len = data.length();
+
+        if ((len & 0x01) != 0) {
+            return false;
+        }
+
+        for (int i = 0; i < len; i++) {
+            if (toDigitOrNegative(data.charAt(i)) < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks if the characters are a valid hexadecimal encoding of
+     * exactly {@code size} bytes, for example 20 for a SHA-1 hash.
+     *
+     * @param data the characters
+     * @param size the expected number of bytes
+     * @return true if valid
+     */
+    public static boolean isValid(CharSequence data, int size) {
+        return data.length() == (size << 1) && isValid(data);
     }
 
     /**
@@ -72,30 +233,189 @@ public final class Hex {
      * @return A char[] containing hexadecimal characters
      */
     public static String encode(final byte[] data) {
-        return new String(encode(data, DIGITS_LOWER));
+        final char[] out = new char[data.length << 1];
+        encode(data, 0, data.length, out, 0);
+        return new String(out);
     }
 
     /**
-     * Converts an array of bytes into an array of characters representing the hexadecimal values of each byte in order.
-     * The returned array will be double the length of the passed array, as it takes two characters to represent any
-     * given byte.
+     * Encodes {@code length} bytes into {@code out}, two lower case
+     * characters per byte.
      *
-     * @param data
-     *            a byte[] to convert to Hex characters
-     * @param toDigits
-     *            the output alphabet
-     * @return A char[] containing hexadecimal characters
-     * @since 1.4
+     * @param data      the bytes
+     * @param offset    the offset of the first byte
+     * @param length    the number of bytes
+     * @param out       the target array
+     * @param outOffset the offset in the target array
+     * @return the number of characters written, {@code 2 * length}
      */
-    private static char[] encode(final byte[] data, final char[] toDigits) {
-        final int l = data.length;
-        final char[] out = new char[l << 1];
-        // two characters form the hex value.
-        for (int i = 0, j = 0; i < l; i++) {
-            out[j++] = toDigits[(0xF0 & data[i]) >>> 4];
-            out[j++] = toDigits[0x0F & data[i]];
+    public static int encode(byte[] data, int offset, int length, char[] out, int outOffset) {
+        if (outOffset < 0 || out.length - outOffset < (length << 1)) {
+            throw new IndexOutOfBoundsException("Not enough space in the target array");
         }
-        return out;
+
+        final char[] table = BYTE_TO_DIGITS;
+        for (int i = offset, j = outOffset; i < offset + length; i++) {
+            int k = (data[i] & 0xFF) << 1;
+            out[j++] = table[k];
+            out[j++] = table[k + 1];
+        }
+
+        return length << 1;
+    }
+
+    /**
+     * Appends the hex representation of the bytes to {@code sb}.
+     *
+     * @param data   the bytes
+     * @param offset the offset of the first byte
+     * @param length the number of bytes
+     * @param sb     the target
+     * @return the target
+     */
+    public static StringBuilder encode(byte[] data, int offset, int length, StringBuilder sb) {
+        sb.ensureCapacity(sb.length() + (length << 1));
+
+        // the two digits of each byte straight from the table
+        final char[] table = BYTE_TO_DIGITS;
+        for (int i = offset; i < offset + length; i++) {
+            sb.append(table, (data[i] & 0xFF) << 1, 2);
+        }
+
+        return sb;
+    }
+
+    /**
+     * Appends the hex representation of the remaining bytes of the buffer
+     * to {@code sb}. The position of the buffer is not modified.
+     *
+     * @param data the bytes
+     * @param sb   the target
+     * @return the target
+     */
+    public static StringBuilder encode(ByteBuffer data, StringBuilder sb) {
+        if (data.hasArray()) {
+            return encode(data.array(), data.arrayOffset() + data.position(), data.remaining(), sb);
+        }
+
+        sb.ensureCapacity(sb.length() + (data.remaining() << 1));
+
+        final char[] table = BYTE_TO_DIGITS;
+        for (int i = data.position(); i < data.limit(); i++) {
+            sb.append(table, (data.get(i) & 0xFF) << 1, 2);
+        }
+
+        return sb;
+    }
+
+    /**
+     * Encodes {@code count} hashes of {@code size} bytes each, stored
+     * contiguously in {@code data}, into {@code out}. The result is the
+     * concatenation of the hex representations, each one of
+     * {@code 2 * size} characters.
+     *
+     * @param data      the packed hashes
+     * @param offset    the offset of the first hash
+     * @param count     the number of hashes
+     * @param size      the size of each hash, usually 20 or 32
+     * @param out       the target array
+     * @param outOffset the offset in the target array
+     * @return the number of characters written
+     */
+    public static int encodeBatch(byte[] data, int offset, int count, int size, char[] out, int outOffset) {
+        return encode(data, offset, count * size, out, outOffset);
+    }
+
+    /**
+     * Encodes {@code count} hashes of {@code size} bytes each, stored
+     * contiguously in {@code data}, as individual strings. Only the
+     * resulting strings are allocated, the characters are written into
+     * a single shared buffer.
+     *
+     * @param data   the packed hashes
+     * @param offset the offset of the first hash
+     * @param count  the number of hashes
+     * @param size   the size of each hash, usually 20 or 32
+     * @return the hex strings
+     */
+    public static String[] encodeBatch(byte[] data, int offset, int count, int size) {
+        final String[] result = new String[count];
+        final int chars = size << 1;
+        final char[] buffer = new char[chars];
+
+        for (int i = 0; i < count; i++) {
+            encode(data, offset + i * size, size, buffer, 0);
+            result[i] = new String(buffer);
+        }
+
+        return result;
+    }
+
+    /**
+     * Decodes an array of hex strings, each one representing a hash of
+     * {@code size} bytes, into {@code out} packed contiguously.
+     *
+     * @param data      the hex strings
+     * @param size      the size of each hash, usually 20 or 32
+     * @param out       the target array
+     * @param outOffset the offset in the target array
+     * @return the number of bytes written
+     */
+    public static int decodeBatch(CharSequence[] data, int size, byte[] out, int outOffset) {
+        final int chars = size << 1;
+        if (outOffset < 0 || out.length - outOffset < data.length * size) {
+            throw new IndexOutOfBoundsException("Not enough space in the target array");
+        }
+
+        for (int i = 0; i < data.length; i++) {
+            CharSequence s = data[i];
+            if (s.length() != chars) {
+                throw new IllegalArgumentException("Hex string at index " + i + " must be of length " + chars);
+            }
+            decode(s, 0, chars, out, outOffset + i * size);
+        }
+
+        return data.length * size;
+    }
+
+    /**
+     * Writes the 16 hex digits of a big-endian long.
+     */
+    static void encode(long value, char[] out, int outOffset) {
+        final char[] table = BYTE_TO_DIGITS;
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            int k = ((int) (value >>> shift) & 0xFF) << 1;
+            out[outOffset++] = table[k];
+            out[outOffset++] = table[k + 1];
+        }
+    }
+
+    /**
+     * Writes the 8 hex digits of a big-endian int.
+     */
+    static void encode(int value, char[] out, int outOffset) {
+        final char[] table = BYTE_TO_DIGITS;
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            int k = ((value >>> shift) & 0xFF) << 1;
+            out[outOffset++] = table[k];
+            out[outOffset++] = table[k + 1];
+        }
+    }
+
+    private static IllegalArgumentException illegalCharacter(CharSequence data, int index) {
+        // one of the two characters at index is not valid
+        if (toDigitOrNegative(data.charAt(index)) < 0) {
+            return illegalCharacter(data.charAt(index), index);
+        }
+        return illegalCharacter(data.charAt(index + 1), index + 1);
+    }
+
+    private static IllegalArgumentException illegalCharacter(char ch, int index) {
+        return new IllegalArgumentException("Illegal hexadecimal character " + ch + " at index " + index);
+    }
+
+    private static int toDigitOrNegative(char ch) {
+        return ch < 128 ? DIGIT_VALUES[ch] : -1;
     }
 
     /**
@@ -108,9 +428,9 @@ public final class Hex {
      * @return An integer
      */
     private static int toDigit(final char ch, final int index) {
-        final int digit = Character.digit(ch, 16);
-        if (digit == -1) {
-            throw new IllegalArgumentException("Illegal hexadecimal character " + ch + " at index " + index);
+        final int digit = toDigitOrNegative(ch);
+        if (digit < 0) {
+            throw illegalCharacter(ch, index);
         }
         return digit;
     }
@@ -48,4 +48,29 @@ public class InfoHash
     public Sha1Hash getV1() {
         return new Sha1Hash(h.getV1());
     }
+
+    /**
+     * Returns the v1 info-hash, or the truncated v2 info-hash if this
+     * is a v2 only torrent, as a pure java key. This is the key used by
+     * the internal lookups of the library.
+     *
+     * @return the key
+     */
+    public Sha1Key bestKey() {
+        return Sha1Key.of(h.get_best());
+    }
+
+    /**
+     * @return the v1 info-hash as a pure java key
+     */
+    public Sha1Key v1Key() {
+        return Sha1Key.of(h.getV1());
+    }
+
+    /**
+     * @return the v2 info-hash as a pure java key
+     */
+    public Sha256Key v2Key() {
+        return Sha256Key.of(h.getV2());
+    }
 }
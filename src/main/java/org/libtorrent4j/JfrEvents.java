@@ -0,0 +1,47 @@
+package org.libtorrent4j;
+
+import org.libtorrent4j.alerts.TorrentAlert;
+
+/**
+ * The Java Flight Recorder events of the library. This is the Java 8
+ * version, all the methods are empty, the JIT removes the calls. The
+ * version in {@code META-INF/versions/11} of the multi-release jar emits
+ * the events when they are enabled in a recording.
+ * <p>
+ * The begin methods return a token, null when the event is disabled.
+ *
+ * @author aldenml
+ */
+final class JfrEvents {
+
+    private JfrEvents() {
+    }
+
+    static Object alertBegin() {
+        return null;
+    }
+
+    static void alertEnd(Object event, int type, int listeners) {
+    }
+
+    /**
+     * @return true if the piece finished or hash failed events are enabled,
+     * their alerts are added to the alert mask
+     */
+    static boolean pieceEventsEnabled() {
+        return false;
+    }
+
+    static void piece(TorrentAlert<?> alert, int piece, boolean failed) {
+    }
+
+    static Object requestBegin() {
+        return null;
+    }
+
+    static void requestEnd(Object event, String kind, Object key, boolean success) {
+    }
+
+    static void sessionStats(SessionStats stats) {
+    }
+}
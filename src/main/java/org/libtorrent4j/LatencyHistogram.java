@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A log-linear histogram of non negative values, usually latencies in
+ * microseconds.
+ * <p>
+ * Each power of two is divided in 32 linear buckets, so the values
+ * reported by {@link #percentile(double)} are within 1/32 (about 3%)
+ * of the recorded values, with a fixed memory footprint and no
+ * allocations while recording.
+ * <p>
+ * This class is thread safe, {@link #record(long)} is lock free. The
+ * queries are not atomic with respect to concurrent recording, they can
+ * miss the values recorded while the query is in progress.
+ *
+ * @author aldenml
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int NUM_BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong count;
+    private final AtomicLong sum;
+    private final AtomicLong max;
+
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(NUM_BUCKETS);
+        this.count = new AtomicLong();
+        this.sum = new AtomicLong();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * @param value the value, negative values are recorded as zero
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+
+        counts.incrementAndGet(bucket(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+
+        long m;
+        while (value > (m = max.get())) {
+            if (max.compareAndSet(m, value)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * @return the mean of the recorded values, or zero if none
+     */
+    public double mean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * @return the maximum recorded value, or zero if none
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Returns the highest value in the bucket of the given percentile,
+     * never bigger than {@link #max()}.
+     *
+     * @param p the percentile, in {@code (0, 100]}
+     * @return the value at the percentile, or zero if there are no values
+     */
+    public long percentile(double p) {
+        if (!(p > 0 && p <= 100)) {
+            throw new IllegalArgumentException("percentile must be in (0, 100]");
+        }
+
+        long[] snapshot = new long[NUM_BUCKETS];
+        long total = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            long c = counts.get(i);
+            snapshot[i] = c;
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(p / 100 * total);
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValue(i), max.get());
+            }
+        }
+
+        return max.get();
+    }
+
+    public long p50() {
+        return percentile(50);
+    }
+
+    public long p99() {
+        return percentile(99);
+    }
+
+    public long p999() {
+        return percentile(99.9);
+    }
+
+    /**
+     * Clears all the recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    /**
+     * @return a copy of the recorded values
+     */
+    public LatencyHistogram copy() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            h.counts.set(i, counts.get(i));
+        }
+        h.count.set(count.get());
+        h.sum.set(sum.get());
+        h.max.set(max.get());
+        return h;
+    }
+
+    /**
+     * Moves the recorded values to a new histogram, for periodic
+     * reporting. The values recorded concurrently are not lost, but some
+     * of them can be counted in the copy and bucketed in this histogram.
+     *
+     * @return a copy of the recorded values
+     */
+    public LatencyHistogram copyAndReset() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            if (counts.get(i) != 0) {
+                h.counts.set(i, counts.getAndSet(i, 0));
+            }
+        }
+        h.count.set(count.getAndSet(0));
+        h.sum.set(sum.getAndSet(0));
+        h.max.set(max.getAndSet(0));
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count() + ", mean=" + Math.round(mean()) +
+                ", p50=" + p50() + ", p99=" + p99() + ", p999=" + p999() +
+                ", max=" + max();
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        int sub = (int) (value >>> shift) - SUB_COUNT;
+        return ((shift + 1) << SUB_BITS) + sub;
+    }
+
+    static long highestValue(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+
+        int shift = (bucket >>> SUB_BITS) - 1;
+        long sub = (bucket & (SUB_COUNT - 1)) + SUB_COUNT;
+        return ((sub + 1) << shift) - 1;
+    }
+}
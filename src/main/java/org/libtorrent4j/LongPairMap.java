@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+/**
+ * An open-addressing (linear probing) hash map from a pair of longs to
+ * a long, with no boxing and no entry objects.
+ * <p>
+ * The keys and values are stored in parallel arrays, and removals use
+ * backward shifting, so there are no tombstones.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @author aldenml
+ */
+final class LongPairMap {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys1;
+    private long[] keys2;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+
+    LongPairMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    LongPairMap() {
+        this(0);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param k1      the first part of the key
+     * @param k2      the second part of the key
+     * @param missing the value to return if the key is not in the map
+     * @return the value of the key, or {@code missing}
+     */
+    long get(long k1, long k2, long missing) {
+        int i = find(k1, k2);
+        return i < 0 ? missing : values[i];
+    }
+
+    boolean containsKey(long k1, long k2) {
+        return find(k1, k2) >= 0;
+    }
+
+    void put(long k1, long k2, long value) {
+        int i = slot(k1, k2);
+        if (used[i]) {
+            values[i] = value;
+            return;
+        }
+        insert(i, k1, k2, value);
+    }
+
+    /**
+     * @return true if the value was added
+     */
+    boolean putIfAbsent(long k1, long k2, long value) {
+        int i = slot(k1, k2);
+        if (used[i]) {
+            return false;
+        }
+        insert(i, k1, k2, value);
+        return true;
+    }
+
+    /**
+     * @param k1      the first part of the key
+     * @param k2      the second part of the key
+     * @param missing the value to return if the key is not in the map
+     * @return the removed value, or {@code missing}
+     */
+    long remove(long k1, long k2, long missing) {
+        int i = find(k1, k2);
+        if (i < 0) {
+            return missing;
+        }
+        long v = values[i];
+        removeAt(i);
+        return v;
+    }
+
+    /**
+     * Removes all the entries with the given first part of the key.
+     *
+     * @return the number of entries removed
+     */
+    int removeAll(long k1) {
+        int n = 0;
+        int i = 0;
+        while (i < used.length) {
+            if (used[i] && keys1[i] == k1) {
+                // the slot is filled again by the shift, check it again
+                removeAt(i);
+                n++;
+            } else {
+                i++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Removes all the entries with a value less than the given one.
+     *
+     * @return the number of entries removed
+     */
+    int removeValuesLessThan(long value) {
+        int n = 0;
+        int i = 0;
+        while (i < used.length) {
+            if (used[i] && values[i] < value) {
+                removeAt(i);
+                n++;
+            } else {
+                i++;
+            }
+        }
+        return n;
+    }
+
+    void clear() {
+        if (size == 0) {
+            return;
+        }
+        allocate(MIN_CAPACITY);
+        size = 0;
+    }
+
+    private int find(long k1, long k2) {
+        int i = slot(k1, k2);
+        return used[i] ? i : -1;
+    }
+
+    // the slot with the key, or the empty slot where it goes
+    private int slot(long k1, long k2) {
+        int mask = used.length - 1;
+        int i = index(k1, k2, mask);
+        while (used[i] && (keys1[i] != k1 || keys2[i] != k2)) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void insert(int i, long k1, long k2, long value) {
+        keys1[i] = k1;
+        keys2[i] = k2;
+        values[i] = value;
+        used[i] = true;
+        size++;
+
+        if (size > maxSize(used.length)) {
+            resize(used.length << 1);
+        }
+    }
+
+    private void removeAt(int i) {
+        int mask = used.length - 1;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (!used[j]) {
+                break;
+            }
+            int k = index(keys1[j], keys2[j], mask);
+            // the entry at j stays if its home slot is cyclically in (i, j]
+            boolean stays = i <= j ? (i < k && k <= j) : (i < k || k <= j);
+            if (!stays) {
+                keys1[i] = keys1[j];
+                keys2[i] = keys2[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        used[i] = false;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] ks1 = keys1;
+        long[] ks2 = keys2;
+        long[] vs = values;
+        boolean[] us = used;
+
+        allocate(capacity);
+
+        int mask = capacity - 1;
+        for (int i = 0; i < us.length; i++) {
+            if (!us[i]) {
+                continue;
+            }
+            int j = index(ks1[i], ks2[i], mask);
+            while (used[j]) {
+                j = (j + 1) & mask;
+            }
+            keys1[j] = ks1[i];
+            keys2[j] = ks2[i];
+            values[j] = vs[i];
+            used[j] = true;
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys1 = new long[capacity];
+        keys2 = new long[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+    }
+
+    private static int index(long k1, long k2, int mask) {
+        long h = k1 * 0x9e3779b97f4a7c15L + k2;
+        h ^= h >>> 32;
+        h *= 0xd6e8feb86659fd93L;
+        h ^= h >>> 32;
+        return (int) h & mask;
+    }
+
+    // load factor of 0.75
+    private static int maxSize(int capacity) {
+        return capacity - (capacity >>> 2);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (maxSize(capacity) < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,409 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.libtorrent4j.swig.add_torrent_params;
+import org.libtorrent4j.swig.error_code;
+import org.libtorrent4j.swig.libtorrent;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Resolves the metadata of many magnet links with a bounded number of
+ * temporary torrents in the session at the same time, using
+ * {@link SessionManager#fetchMagnetAsync(String, int, File)}.
+ * <p>
+ * The magnets are queued and started in order as the previous ones
+ * finish, the magnets with an info-hash already queued or in flight
+ * share the same future. {@link #cancel()} completes all the requests
+ * and releases all the fetches in one pass, the temporary torrents are
+ * removed unless another caller waits for the same magnet.
+ * <p>
+ * The futures are completed from a pool thread, with the bencoded info
+ * or null on error or timeout.
+ *
+ * @author aldenml
+ */
+public final class MagnetResolver {
+
+    private final Fetcher fetcher;
+    private final int maxActive;
+
+    private final Object lock;
+    // queued and in flight, by info-hash
+    private final HashMap<Sha1Key, Request> requests;
+    private final ArrayDeque<Request> queue;
+    private int active;
+    private final AtomicInteger wip;
+
+    private final AtomicLong submitted;
+    private final AtomicLong deduplicated;
+    private final AtomicLong resolved;
+    private final AtomicLong failed;
+    private final LatencyHistogram timeToMetadata;
+    private volatile long startNanos;
+
+    /**
+     * @param session   the session
+     * @param maxActive the maximum number of magnets fetched at the same time
+     * @param timeout   the timeout of each magnet in seconds
+     * @param tempDir   the save path of the temporary torrents
+     */
+    public MagnetResolver(SessionManager session, int maxActive, int timeout, File tempDir) {
+        this(new SessionFetcher(session, timeout, tempDir), maxActive);
+    }
+
+    MagnetResolver(Fetcher fetcher, int maxActive) {
+        if (maxActive < 1) {
+            throw new IllegalArgumentException("maxActive must be positive");
+        }
+
+        this.fetcher = fetcher;
+        this.maxActive = maxActive;
+
+        this.lock = new Object();
+        this.requests = new HashMap<>();
+        this.queue = new ArrayDeque<>();
+        this.wip = new AtomicInteger();
+
+        this.submitted = new AtomicLong();
+        this.deduplicated = new AtomicLong();
+        this.resolved = new AtomicLong();
+        this.failed = new AtomicLong();
+        this.timeToMetadata = new LatencyHistogram();
+    }
+
+    /**
+     * @param uri the magnet uri
+     * @return the future of the bencoded info, completed with null on
+     * error, timeout or if the uri is not a valid magnet
+     */
+    public CompletableFuture<byte[]> resolve(String uri) {
+        submitted.incrementAndGet();
+
+        Sha1Key key;
+        try {
+            key = fetcher.infoHash(uri);
+        } catch (IllegalArgumentException e) {
+            failed.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Request r;
+        synchronized (lock) {
+            Request prev = requests.get(key);
+            if (prev != null) {
+                deduplicated.incrementAndGet();
+                return prev.future;
+            }
+
+            if (startNanos == 0) {
+                startNanos = System.nanoTime();
+            }
+
+            r = new Request(key, uri);
+            requests.put(key, r);
+            queue.add(r);
+        }
+
+        next();
+
+        return r.future;
+    }
+
+    /**
+     * @param uris the magnet uris
+     * @return the futures of the bencoded infos, in the same order
+     */
+    public List<CompletableFuture<byte[]>> resolveAll(Collection<String> uris) {
+        List<CompletableFuture<byte[]>> l = new ArrayList<>(uris.size());
+        for (String uri : uris) {
+            l.add(resolve(uri));
+        }
+        return l;
+    }
+
+    /**
+     * Completes all the queued and in flight requests with null, the
+     * fetches are released, see {@link SessionManager#releaseFetchMagnet}.
+     */
+    public void cancel() {
+        List<Request> l;
+        synchronized (lock) {
+            l = new ArrayList<>(requests.values());
+            requests.clear();
+            queue.clear();
+            // the slots are free now, a shared fetch can take longer
+            for (Request r : l) {
+                if (r.started) {
+                    r.started = false;
+                    active--;
+                }
+            }
+        }
+
+        for (Request r : l) {
+            finish(r, null, 0);
+            release(r);
+        }
+    }
+
+    /**
+     * @return the number of magnets submitted, including the duplicates
+     */
+    public long submitted() {
+        return submitted.get();
+    }
+
+    /**
+     * @return the number of magnets that shared the request of the same info-hash
+     */
+    public long deduplicated() {
+        return deduplicated.get();
+    }
+
+    /**
+     * @return the number of magnets with the metadata resolved
+     */
+    public long resolved() {
+        return resolved.get();
+    }
+
+    /**
+     * @return the number of magnets failed, timed out or cancelled
+     */
+    public long failed() {
+        return failed.get();
+    }
+
+    /**
+     * @return the number of magnets being fetched
+     */
+    public int active() {
+        synchronized (lock) {
+            return active;
+        }
+    }
+
+    /**
+     * @return the number of magnets waiting to be fetched
+     */
+    public int queued() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * @return the magnets resolved per minute since the first submission
+     */
+    public double resolvedPerMinute() {
+        long t = startNanos;
+        if (t == 0) {
+            return 0;
+        }
+        double minutes = (System.nanoTime() - t) / 60e9;
+        return minutes > 0 ? resolved.get() / minutes : 0;
+    }
+
+    /**
+     * @return the time in milliseconds from the start of the fetch of a
+     * magnet to its metadata, only for the resolved ones
+     */
+    public LatencyHistogram timeToMetadata() {
+        return timeToMetadata;
+    }
+
+    @Override
+    public String toString() {
+        return "MagnetResolver(submitted: " + submitted() + ", resolved: " + resolved() +
+                ", failed: " + failed() + ", deduplicated: " + deduplicated() +
+                ", active: " + active() + ", queued: " + queued() +
+                ", resolved/min: " + Math.round(resolvedPerMinute()) +
+                ", time to metadata p50/p99: " + timeToMetadata.p50() + "/" + timeToMetadata.p99() + " ms)";
+    }
+
+    // starts the queued requests, a single thread at a time does the loop
+    private void next() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+
+        do {
+            while (true) {
+                Request r;
+                synchronized (lock) {
+                    if (active >= maxActive || queue.isEmpty()) {
+                        break;
+                    }
+                    r = queue.poll();
+                    r.started = true;
+                    active++;
+                }
+                start(r);
+            }
+        } while (wip.decrementAndGet() != 0);
+    }
+
+    private void start(final Request r) {
+        final long t0 = System.nanoTime();
+
+        CompletableFuture<byte[]> fetch;
+        try {
+            fetch = fetcher.fetch(r.uri);
+        } catch (Throwable e) {
+            Log.error("Error fetching magnet", e);
+            fetch = CompletableFuture.completedFuture(null);
+        }
+        r.fetch = fetch;
+        if (r.finished.get()) {
+            // cancelled while starting
+            release(r);
+        }
+
+        // not in the alerts loop thread, the next fetch adds a torrent
+        fetch.whenCompleteAsync(new BiConsumer<byte[], Throwable>() {
+            @Override
+            public void accept(byte[] data, Throwable e) {
+                done(r, e == null ? data : null, System.nanoTime() - t0);
+            }
+        });
+    }
+
+    private void done(Request r, byte[] data, long nanos) {
+        synchronized (lock) {
+            if (r.started) {
+                r.started = false;
+                active--;
+            }
+            requests.remove(r.key, r);
+        }
+
+        finish(r, data, nanos);
+
+        next();
+    }
+
+    // the stats are updated before the future is completed, so they are
+    // consistent for the callers waiting on it
+    private void finish(Request r, byte[] data, long nanos) {
+        if (!r.finished.compareAndSet(false, true)) {
+            return;
+        }
+
+        if (data != null) {
+            resolved.incrementAndGet();
+            timeToMetadata.record(TimeUnit.NANOSECONDS.toMillis(nanos));
+        } else {
+            failed.incrementAndGet();
+        }
+        r.future.complete(data);
+    }
+
+    // only once, cancel and start can race
+    private void release(Request r) {
+        CompletableFuture<byte[]> fetch = r.fetch;
+        if (fetch != null && r.released.compareAndSet(false, true)) {
+            fetcher.release(r.key, fetch);
+        }
+    }
+
+    /**
+     * The fetch of the metadata of the magnets.
+     */
+    interface Fetcher {
+
+        /**
+         * @param uri the magnet uri
+         * @return the info-hash of the magnet
+         * @throws IllegalArgumentException if the uri is not a valid magnet
+         */
+        Sha1Key infoHash(String uri);
+
+        /**
+         * @param uri the magnet uri
+         * @return the future of the bencoded info, possibly shared with
+         * other callers
+         */
+        CompletableFuture<byte[]> fetch(String uri);
+
+        /**
+         * Stops waiting for a fetch, without affecting other callers.
+         *
+         * @param key   the info-hash of the magnet
+         * @param fetch the future returned by {@link #fetch(String)}
+         */
+        void release(Sha1Key key, CompletableFuture<byte[]> fetch);
+    }
+
+    private static final class SessionFetcher implements Fetcher {
+
+        private final SessionManager session;
+        private final int timeout;
+        private final File tempDir;
+
+        SessionFetcher(SessionManager session, int timeout, File tempDir) {
+            this.session = session;
+            this.timeout = timeout;
+            this.tempDir = tempDir;
+        }
+
+        @Override
+        public Sha1Key infoHash(String uri) {
+            error_code ec = new error_code();
+            add_torrent_params p = libtorrent.parse_magnet_uri(uri, ec);
+
+            if (ec.value() != 0) {
+                throw new IllegalArgumentException(ec.message());
+            }
+
+            return Sha1Key.of(p.getInfo_hashes().get_best());
+        }
+
+        @Override
+        public CompletableFuture<byte[]> fetch(String uri) {
+            return session.fetchMagnetAsync(uri, timeout, tempDir);
+        }
+
+        @Override
+        public void release(Sha1Key key, CompletableFuture<byte[]> fetch) {
+            session.releaseFetchMagnet(key, fetch);
+        }
+    }
+
+    private static final class Request {
+
+        final Sha1Key key;
+        final String uri;
+        final CompletableFuture<byte[]> future;
+        volatile CompletableFuture<byte[]> fetch;
+        final AtomicBoolean finished;
+        final AtomicBoolean released;
+        // guarded by the lock
+        boolean started;
+
+        Request(Sha1Key key, String uri) {
+            this.key = key;
+            this.uri = uri;
+            this.future = new CompletableFuture<>();
+            this.finished = new AtomicBoolean();
+            this.released = new AtomicBoolean();
+        }
+    }
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.libtorrent4j.alerts.Alert;
+import org.libtorrent4j.alerts.AlertType;
+import org.libtorrent4j.alerts.StateUpdateAlert;
+import org.libtorrent4j.alerts.TorrentRemovedAlert;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Renders the metrics of a session in the OpenMetrics text format: all
+ * the counters and gauges of {@link LibTorrent#sessionStatsMetrics()},
+ * the number of torrents by state and the total rates and peers of the
+ * torrents.
+ * <p>
+ * The output is rendered once per stats interval from the alerts loop
+ * and cached already encoded, a scrape doesn't depend on the number of
+ * torrents. Use {@link MetricsServer} to serve it over HTTP.
+ *
+ * @author aldenml
+ */
+public final class MetricsExporter {
+
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    private static final String PREFIX = "libtorrent_";
+
+    private static final byte[] TORRENTS_TYPE = ascii("# TYPE " + PREFIX + "torrents gauge\n");
+    private static final byte[] DOWNLOAD_RATE_PREFIX = gaugePrefix("torrents_download_rate_bytes");
+    private static final byte[] UPLOAD_RATE_PREFIX = gaugePrefix("torrents_upload_rate_bytes");
+    private static final byte[] PEERS_PREFIX = gaugePrefix("torrents_peers");
+    private static final byte[] EOF = ascii("# EOF\n");
+
+    // the columns of the state of each torrent
+    private static final int STATE = 0;
+    private static final int DOWNLOAD_RATE = 1;
+    private static final int UPLOAD_RATE = 2;
+    private static final int PEERS = 3;
+
+    private final SessionManager session;
+
+    private final Sha1KeyMap<int[]> torrents;
+    private final int[] stateCounts;
+    private long downloadRate;
+    private long uploadRate;
+    private long peers;
+
+    private final Buffer buffer;
+    private byte[][] metricPrefixes;
+    private final byte[][] statePrefixes;
+    private volatile byte[] output;
+
+    private AlertListener listener;
+    private TorrentStatusBatch batch;
+
+    /**
+     * @param session the session
+     */
+    public MetricsExporter(SessionManager session) {
+        this(session, stateLabels());
+    }
+
+    /**
+     * @param session     the session
+     * @param stateLabels the label of each torrent state, by ordinal
+     */
+    MetricsExporter(SessionManager session, String[] stateLabels) {
+        this.session = session;
+
+        this.torrents = new Sha1KeyMap<>();
+        this.stateCounts = new int[stateLabels.length];
+
+        this.buffer = new Buffer();
+        this.statePrefixes = new byte[stateLabels.length][];
+        for (int i = 0; i < stateLabels.length; i++) {
+            statePrefixes[i] = ascii(PREFIX + "torrents{state=\"" + stateLabels[i] + "\"} ");
+        }
+        this.output = EOF;
+    }
+
+    /**
+     * Starts to collect the metrics of the session. The state of the
+     * torrents already in the session is read here, the state updates
+     * only report the torrents that changed.
+     */
+    public synchronized void start() {
+        if (listener != null) {
+            return;
+        }
+
+        batch = new TorrentStatusBatch();
+        final int[] types = {AlertType.SESSION_STATS.swig(), AlertType.STATE_UPDATE.swig(),
+                AlertType.TORRENT_REMOVED.swig()};
+        listener = new AlertListener() {
+            @Override
+            public int[] types() {
+                return types;
+            }
+
+            @Override
+            public void alert(Alert<?> alert) {
+                onAlert(alert);
+            }
+        };
+        session.addListener(listener);
+
+        for (TorrentHandle th : session.torrents()) {
+            try {
+                if (!th.isValid()) {
+                    continue;
+                }
+                TorrentStatus st = th.status(true);
+                update(Sha1Key.of(th.swig().info_hashes().get_best()), st.state().ordinal(),
+                        st.downloadRate(), st.uploadRate(), st.numPeers());
+            } catch (Throwable e) {
+                Log.warn("Error reading the status of a torrent", e);
+            }
+        }
+    }
+
+    /**
+     * Stops the collection, the output is reset to an empty exposition.
+     */
+    public synchronized void stop() {
+        if (listener == null) {
+            return;
+        }
+
+        session.removeListener(listener);
+        listener = null;
+        batch = null;
+
+        reset();
+    }
+
+    /**
+     * @return a copy of the last rendered output
+     */
+    public byte[] scrape() {
+        return output.clone();
+    }
+
+    // the array is shared, it's never modified
+    byte[] cached() {
+        return output;
+    }
+
+    synchronized void reset() {
+        torrents.clear();
+        Arrays.fill(stateCounts, 0);
+        downloadRate = 0;
+        uploadRate = 0;
+        peers = 0;
+
+        output = EOF;
+    }
+
+    synchronized void update(Sha1Key key, int state, int downloadRate, int uploadRate, int peers) {
+        int[] t = torrents.get(key);
+        if (t == null) {
+            t = new int[4];
+            torrents.put(key, t);
+        } else {
+            subtract(t);
+        }
+
+        t[STATE] = state;
+        t[DOWNLOAD_RATE] = downloadRate;
+        t[UPLOAD_RATE] = uploadRate;
+        t[PEERS] = peers;
+
+        stateCounts[state]++;
+        this.downloadRate += downloadRate;
+        this.uploadRate += uploadRate;
+        this.peers += peers;
+    }
+
+    synchronized void remove(Sha1Key key) {
+        int[] t = torrents.remove(key);
+        if (t != null) {
+            subtract(t);
+        }
+    }
+
+    synchronized void render(SessionStats stats) {
+        Buffer b = buffer;
+        b.size = 0;
+
+        int n = stats.numMetrics();
+        if (metricPrefixes == null || metricPrefixes.length != n) {
+            metricPrefixes = metricPrefixes(stats);
+        }
+        for (int i = 0; i < n; i++) {
+            byte[] prefix = metricPrefixes[i];
+            if (prefix != null) {
+                b.append(prefix).append(stats.value(i)).append('\n');
+            }
+        }
+
+        b.append(TORRENTS_TYPE);
+        for (int i = 0; i < stateCounts.length; i++) {
+            b.append(statePrefixes[i]).append(stateCounts[i]).append('\n');
+        }
+        b.append(DOWNLOAD_RATE_PREFIX).append(downloadRate).append('\n');
+        b.append(UPLOAD_RATE_PREFIX).append(uploadRate).append('\n');
+        b.append(PEERS_PREFIX).append(peers).append('\n');
+        b.append(EOF);
+
+        output = Arrays.copyOf(b.bytes, b.size);
+    }
+
+    private void onAlert(Alert<?> alert) {
+        try {
+            switch (alert.type()) {
+                case SESSION_STATS:
+                    render(session.stats());
+                    break;
+                case STATE_UPDATE:
+                    onStateUpdate((StateUpdateAlert) alert);
+                    break;
+                case TORRENT_REMOVED:
+                    remove(Sha1Key.of(((TorrentRemovedAlert) alert).swig().getInfo_hashes().get_best()));
+                    break;
+            }
+        } catch (Throwable e) {
+            Log.error("Error updating the exported metrics", e);
+        }
+    }
+
+    private synchronized void onStateUpdate(StateUpdateAlert alert) {
+        TorrentStatusBatch b = batch;
+        if (b == null) {
+            return;
+        }
+
+        int n = b.fill(alert);
+        for (int i = 0; i < n; i++) {
+            update(b.infoHash(i), b.state(i).ordinal(), b.downloadRate(i),
+                    b.uploadRate(i), b.numPeers(i));
+        }
+    }
+
+    private void subtract(int[] t) {
+        stateCounts[t[STATE]]--;
+        downloadRate -= t[DOWNLOAD_RATE];
+        uploadRate -= t[UPLOAD_RATE];
+        peers -= t[PEERS];
+    }
+
+    private static byte[] gaugePrefix(String name) {
+        return ascii("# TYPE " + PREFIX + name + " gauge\n" + PREFIX + name + " ");
+    }
+
+    private static byte[][] metricPrefixes(SessionStats stats) {
+        byte[][] r = new byte[stats.numMetrics()][];
+        for (int i = 0; i < r.length; i++) {
+            String name = stats.metricName(i);
+            if (name == null) {
+                continue;
+            }
+            name = PREFIX + sanitize(name);
+            if (stats.isGauge(i)) {
+                r[i] = ascii("# TYPE " + name + " gauge\n" + name + " ");
+            } else {
+                r[i] = ascii("# TYPE " + name + " counter\n" + name + "_total ");
+            }
+        }
+        return r;
+    }
+
+    private static String sanitize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') ||
+                    (c >= '0' && c <= '9') || c == '_';
+            sb.append(valid ? c : '_');
+        }
+        return sb.toString();
+    }
+
+    private static String[] stateLabels() {
+        TorrentStatus.State[] states = TorrentStatus.State.values();
+        String[] r = new String[states.length];
+        for (int i = 0; i < states.length; i++) {
+            r[i] = states[i].name().toLowerCase(Locale.US);
+        }
+        return r;
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static final class Buffer {
+
+        byte[] bytes = new byte[4096];
+        int size;
+
+        Buffer append(byte[] b) {
+            ensure(b.length);
+            System.arraycopy(b, 0, bytes, size, b.length);
+            size += b.length;
+            return this;
+        }
+
+        Buffer append(char c) {
+            ensure(1);
+            bytes[size++] = (byte) c;
+            return this;
+        }
+
+        Buffer append(long v) {
+            ensure(20);
+            if (v == 0) {
+                bytes[size++] = '0';
+                return this;
+            }
+            if (v < 0) {
+                bytes[size++] = '-';
+            }
+            int start = size;
+            // negative digits, to handle Long.MIN_VALUE
+            long n = v < 0 ? v : -v;
+            while (n != 0) {
+                bytes[size++] = (byte) ('0' - (n % 10));
+                n /= 10;
+            }
+            // the digits are in reverse order
+            for (int i = start, j = size - 1; i < j; i++, j--) {
+                byte t = bytes[i];
+                bytes[i] = bytes[j];
+                bytes[j] = t;
+            }
+            return this;
+        }
+
+        private void ensure(int n) {
+            if (size + n > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + n));
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+
+/**
+ * Serves the output of a {@link MetricsExporter} at {@code /metrics},
+ * with the embedded {@code com.sun.net.httpserver} server of the JDK.
+ * <p>
+ * This class is optional, it's not available in all the platforms, for
+ * example Android.
+ *
+ * @author aldenml
+ */
+public final class MetricsServer {
+
+    private final MetricsExporter exporter;
+    private final HttpServer server;
+
+    /**
+     * @param exporter the exporter
+     * @param address  the address to listen, port 0 for any free port
+     * @throws IOException if the server can't be created
+     */
+    public MetricsServer(MetricsExporter exporter, InetSocketAddress address) throws IOException {
+        this.exporter = exporter;
+        this.server = HttpServer.create(address, 0);
+        this.server.createContext("/metrics", new Handler());
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    /**
+     * @return the port the server is listening to
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    private final class Handler implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            try {
+                String method = exchange.getRequestMethod();
+                boolean head = "HEAD".equals(method);
+                if (!head && !"GET".equals(method)) {
+                    exchange.sendResponseHeaders(405, -1);
+                    return;
+                }
+
+                byte[] body = exporter.cached();
+                exchange.getResponseHeaders().set("Content-Type", MetricsExporter.CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, head ? -1 : body.length);
+                if (!head) {
+                    OutputStream os = exchange.getResponseBody();
+                    os.write(body);
+                }
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+}
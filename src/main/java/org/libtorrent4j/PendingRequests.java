@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * The table of the requests in flight of one kind, indexed by the key
+ * that correlates a request with its response alert.
+ * <p>
+ * The alerts loop looks up the future of each response alert in O(1),
+ * instead of calling a temporary listener per request. Concurrent
+ * requests with the same key share the same future. Each request
+ * completes with a default value after the longest timeout of the
+ * requests that share it, using a shared scheduler, or when all of
+ * them are released.
+ *
+ * @param <K> the type of the correlation key
+ * @param <T> the type of the response
+ * @author aldenml
+ */
+final class PendingRequests<K, T> {
+
+    private final ConcurrentHashMap<K, Request<T>> map;
+    private final AtomicInteger size;
+    private final Runnable onActiveChanged;
+
+    /**
+     * @param onActiveChanged called when the table changes from empty to
+     *                        not empty and back
+     */
+    PendingRequests(Runnable onActiveChanged) {
+        this.map = new ConcurrentHashMap<>();
+        this.size = new AtomicInteger();
+        this.onActiveChanged = onActiveChanged;
+    }
+
+    boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    boolean contains(K key) {
+        return size.get() != 0 && map.containsKey(key);
+    }
+
+    /**
+     * Registers a new request. If there is a request in flight with the
+     * same key its future is returned, and the new one is not used. The
+     * request in flight keeps the longest of the two deadlines.
+     *
+     * @param key          the correlation key
+     * @param future       the future of the new request
+     * @param timeout      the timeout in milliseconds
+     * @param timeoutValue the value to complete with after the timeout
+     * @param scheduler    the scheduler of the timeout, if null the request
+     *                     is completed right away
+     * @return null if the new request was registered, or the future of
+     * the request in flight
+     */
+    CompletableFuture<T> register(final K key, final CompletableFuture<T> future,
+                                  long timeout, T timeoutValue,
+                                  ScheduledExecutorService scheduler) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        final Request<T> r = new Request<>(future, deadline, timeoutValue, scheduler);
+
+        Request<T> prev = map.putIfAbsent(key, r);
+        if (prev != null) {
+            prev.join(deadline);
+            return prev.future;
+        }
+
+        if (size.getAndIncrement() == 0) {
+            onActiveChanged.run();
+        }
+
+        future.whenComplete(new BiConsumer<T, Throwable>() {
+            @Override
+            public void accept(T value, Throwable e) {
+                r.cancelTimeout();
+                if (map.remove(key, r) && size.decrementAndGet() == 0) {
+                    onActiveChanged.run();
+                }
+            }
+        });
+
+        if (!r.scheduleTimeout(timeout)) {
+            future.complete(timeoutValue);
+        }
+
+        return null;
+    }
+
+    /**
+     * @param key   the correlation key
+     * @param value the response
+     * @return true if there was a request with the key
+     */
+    boolean complete(K key, T value) {
+        if (size.get() == 0) {
+            return false;
+        }
+        Request<T> r = map.get(key);
+        return r != null && r.future.complete(value);
+    }
+
+    /**
+     * Releases one of the requests that share a future, the future is
+     * completed when all of them are released.
+     *
+     * @param key    the correlation key
+     * @param future the future returned to the request
+     * @param value  the value to complete with
+     * @return true if the future was completed
+     */
+    boolean release(K key, CompletableFuture<T> future, T value) {
+        Request<T> r = map.get(key);
+        if (r == null || r.future != future) {
+            return false;
+        }
+        return r.release() && future.complete(value);
+    }
+
+    /**
+     * Completes all the requests with the given value.
+     */
+    void completeAll(T value) {
+        for (Request<T> r : map.values()) {
+            r.future.complete(value);
+        }
+    }
+
+    private static final class Request<T> implements Runnable {
+
+        final CompletableFuture<T> future;
+        private final T timeoutValue;
+        private final ScheduledExecutorService scheduler;
+
+        // guarded by this
+        private long deadline;
+        private ScheduledFuture<?> timeoutTask;
+        private int waiters;
+
+        Request(CompletableFuture<T> future, long deadline, T timeoutValue,
+                ScheduledExecutorService scheduler) {
+            this.future = future;
+            this.deadline = deadline;
+            this.timeoutValue = timeoutValue;
+            this.scheduler = scheduler;
+            this.waiters = 1;
+        }
+
+        synchronized void join(long deadline) {
+            waiters++;
+            if (deadline > this.deadline) {
+                // the timeout task reschedules itself when it runs early
+                this.deadline = deadline;
+            }
+        }
+
+        /**
+         * @return false if the timeout can't be scheduled
+         */
+        synchronized boolean scheduleTimeout(long delay) {
+            if (scheduler == null) {
+                return false;
+            }
+            if (future.isDone()) {
+                // completed while registering
+                return true;
+            }
+            try {
+                timeoutTask = scheduler.schedule(this, delay, TimeUnit.MILLISECONDS);
+                return true;
+            } catch (RejectedExecutionException e) {
+                // the session is stopping
+                return false;
+            }
+        }
+
+        /**
+         * @return true if it was the last one waiting
+         */
+        synchronized boolean release() {
+            return waiters > 0 && --waiters == 0;
+        }
+
+        synchronized void cancelTimeout() {
+            if (timeoutTask != null) {
+                timeoutTask.cancel(false);
+                timeoutTask = null;
+            }
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                timeoutTask = null;
+                long remaining = deadline - System.nanoTime();
+                if (remaining > 0 && !future.isDone()) {
+                    try {
+                        timeoutTask = scheduler.schedule(this, remaining, TimeUnit.NANOSECONDS);
+                        return;
+                    } catch (RejectedExecutionException e) {
+                        // the session is stopping
+                    }
+                }
+            }
+            future.complete(timeoutValue);
+        }
+    }
+
+    /**
+     * The key of a mutable item, the public key and the salt.
+     */
+    static final class ItemKey {
+
+        private final byte[] key;
+        private final byte[] salt;
+        private final int hash;
+
+        ItemKey(byte[] key, byte[] salt) {
+            this.key = key;
+            this.salt = salt != null ? salt : new byte[0];
+            this.hash = 31 * Arrays.hashCode(this.key) + Arrays.hashCode(this.salt);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ItemKey)) {
+                return false;
+            }
+            ItemKey o = (ItemKey) obj;
+            return Arrays.equals(key, o.key) && Arrays.equals(salt, o.salt);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return Hex.encode(key) + ":" + Hex.encode(salt);
+        }
+    }
+}
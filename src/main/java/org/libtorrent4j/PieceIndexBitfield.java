@@ -118,6 +118,17 @@ public final class PieceIndexBitfield {
         return f.count();
     }
 
+    /**
+     * Copies all the bits to a pure java snapshot, with a single memory
+     * copy. Use it to iterate or combine bitfields of many pieces, every
+     * method of this class is a native call.
+     *
+     * @return the snapshot
+     */
+    public BitfieldSnapshot snapshot() {
+        return BitfieldSnapshot.of(f);
+    }
+
     /**
      * @return the bit index
      */
@@ -0,0 +1,442 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.libtorrent4j.alerts.Alert;
+import org.libtorrent4j.alerts.AlertType;
+import org.libtorrent4j.alerts.BlockDownloadingAlert;
+import org.libtorrent4j.alerts.BlockFinishedAlert;
+import org.libtorrent4j.alerts.PieceFinishedAlert;
+import org.libtorrent4j.swig.alert;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of the pieces, from the first block request to
+ * the hash check passed, and the latency of the blocks, from the request
+ * to the block finished, using the block and piece alerts.
+ * <p>
+ * The piece latencies are recorded in total and per torrent, the block
+ * latencies per {@link PeerClass}, in microseconds and using the
+ * timestamps of the alerts. The start times are kept in a primitive map
+ * keyed by torrent and piece (or block), with no allocations per alert.
+ * <p>
+ * A piece that fails the hash check keeps its start time, so its latency
+ * includes the download again. The start times of the pieces never
+ * finished, for example when the torrent is paused, are dropped after
+ * {@link #STALE_TIMEOUT} minutes.
+ * <p>
+ * Use {@link #snapshotAndReset()} for periodic reporting.
+ *
+ * @author aldenml
+ */
+public final class PieceLatencyTracker {
+
+    /**
+     * The timeout in minutes of the start times with no end.
+     */
+    public static final int STALE_TIMEOUT = 10;
+
+    private static final long STALE_MICROS = TimeUnit.MINUTES.toMicros(STALE_TIMEOUT);
+    private static final int MIN_PURGE_SIZE = 4096;
+
+    // the block of the start time of a piece
+    private static final long PIECE = 0xffffffffL;
+
+    private static final long MISSING = Long.MIN_VALUE;
+
+    /**
+     * The class of the peer that delivered a block.
+     */
+    public enum PeerClass {
+
+        /**
+         * A peer with a loopback, private or link-local address.
+         */
+        LOCAL,
+
+        /**
+         * Any other peer.
+         */
+        REMOTE
+    }
+
+    private final SessionManager session;
+
+    // the start times, by torrent shard key and piece/block
+    private final LongPairMap starts;
+    private int purgeSize;
+
+    private final LatencyHistogram pieces;
+    private final LatencyHistogram[] blocks;
+    private long hashFailures;
+
+    // the per torrent histograms, the index in the array by shard key
+    private final LongPairMap torrentIndex;
+    private Torrent[] torrents;
+    private int numTorrents;
+
+    private long startNanos;
+
+    private AlertListener listener;
+
+    /**
+     * @param session the session
+     */
+    public PieceLatencyTracker(SessionManager session) {
+        this.session = session;
+
+        this.starts = new LongPairMap(MIN_PURGE_SIZE);
+        this.purgeSize = MIN_PURGE_SIZE;
+
+        this.pieces = new LatencyHistogram();
+        this.blocks = new LatencyHistogram[PeerClass.values().length];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = new LatencyHistogram();
+        }
+
+        this.torrentIndex = new LongPairMap();
+        this.torrents = new Torrent[8];
+
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Starts to track the latencies. The block alerts are enabled in the
+     * alert mask of the session while the tracker is started.
+     */
+    public synchronized void start() {
+        if (listener != null) {
+            return;
+        }
+
+        final int[] types = {AlertType.BLOCK_DOWNLOADING.swig(), AlertType.BLOCK_FINISHED.swig(),
+                AlertType.PIECE_FINISHED.swig(), AlertType.HASH_FAILED.swig(),
+                AlertType.TORRENT_REMOVED.swig()};
+        listener = new AlertListener() {
+            @Override
+            public int[] types() {
+                return types;
+            }
+
+            @Override
+            public void alert(Alert<?> alert) {
+                onAlert(alert);
+            }
+        };
+        session.addListener(listener);
+    }
+
+    /**
+     * Stops the tracking, the pending start times are dropped but the
+     * recorded latencies are kept.
+     */
+    public synchronized void stop() {
+        if (listener == null) {
+            return;
+        }
+
+        session.removeListener(listener);
+        listener = null;
+
+        starts.clear();
+        purgeSize = MIN_PURGE_SIZE;
+    }
+
+    /**
+     * @return the piece latencies of all the torrents
+     */
+    public LatencyHistogram pieces() {
+        return pieces;
+    }
+
+    /**
+     * @param infoHash the info-hash of the torrent
+     * @return the piece latencies of the torrent, or null if it has
+     * no piece finished
+     */
+    public synchronized LatencyHistogram pieces(Sha1Key infoHash) {
+        for (int i = 0; i < numTorrents; i++) {
+            if (torrents[i].infoHash.equals(infoHash)) {
+                return torrents[i].pieces;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param peerClass the class of the peers
+     * @return the block latencies of the peers of the class
+     */
+    public LatencyHistogram blocks(PeerClass peerClass) {
+        return blocks[peerClass.ordinal()];
+    }
+
+    /**
+     * @return the number of pieces that failed the hash check
+     */
+    public synchronized long hashFailures() {
+        return hashFailures;
+    }
+
+    /**
+     * @return the number of start times waiting for its end
+     */
+    public synchronized int pending() {
+        return starts.size();
+    }
+
+    /**
+     * @return a copy of the latencies
+     */
+    public synchronized Snapshot snapshot() {
+        Map<Sha1Key, LatencyHistogram> m = new HashMap<>();
+        for (int i = 0; i < numTorrents; i++) {
+            m.put(torrents[i].infoHash, torrents[i].pieces.copy());
+        }
+
+        LatencyHistogram[] b = new LatencyHistogram[blocks.length];
+        for (int i = 0; i < b.length; i++) {
+            b[i] = blocks[i].copy();
+        }
+
+        return new Snapshot(System.nanoTime() - startNanos, pieces.copy(), b, m, hashFailures);
+    }
+
+    /**
+     * Returns the latencies recorded since the last reset and clears
+     * them. The start times of the pieces in progress are kept.
+     *
+     * @return the latencies since the last reset
+     */
+    public synchronized Snapshot snapshotAndReset() {
+        Map<Sha1Key, LatencyHistogram> m = new HashMap<>();
+        for (int i = 0; i < numTorrents; i++) {
+            m.put(torrents[i].infoHash, torrents[i].pieces.copyAndReset());
+        }
+
+        LatencyHistogram[] b = new LatencyHistogram[blocks.length];
+        for (int i = 0; i < b.length; i++) {
+            b[i] = blocks[i].copyAndReset();
+        }
+
+        long now = System.nanoTime();
+        Snapshot s = new Snapshot(now - startNanos, pieces.copyAndReset(), b, m, hashFailures);
+
+        startNanos = now;
+        hashFailures = 0;
+
+        return s;
+    }
+
+    @Override
+    public String toString() {
+        return "PieceLatencyTracker(pieces: " + pieces() +
+                ", local blocks: " + blocks(PeerClass.LOCAL) +
+                ", remote blocks: " + blocks(PeerClass.REMOTE) +
+                ", hash failures: " + hashFailures() + ", pending: " + pending() + ")";
+    }
+
+    synchronized void blockDownloading(long torrent, int piece, int block, long time) {
+        if (starts.size() >= purgeSize) {
+            purge(time);
+        }
+
+        starts.putIfAbsent(torrent, PIECE | ((long) piece << 32), time);
+        // the latest request, for the blocks requested again (end game)
+        starts.put(torrent, (block & 0xffffffffL) | ((long) piece << 32), time);
+    }
+
+    synchronized void blockFinished(long torrent, int piece, int block, boolean local, long time) {
+        long start = starts.remove(torrent, (block & 0xffffffffL) | ((long) piece << 32), MISSING);
+        if (start != MISSING) {
+            PeerClass c = local ? PeerClass.LOCAL : PeerClass.REMOTE;
+            blocks[c.ordinal()].record(time - start);
+        }
+    }
+
+    synchronized void pieceFinished(long torrent, int piece, long time) {
+        long start = starts.remove(torrent, PIECE | ((long) piece << 32), MISSING);
+        if (start == MISSING) {
+            // the piece was requested before the tracker started
+            return;
+        }
+
+        long latency = time - start;
+        pieces.record(latency);
+
+        int i = (int) torrentIndex.get(torrent, 0, -1);
+        if (i >= 0) {
+            torrents[i].pieces.record(latency);
+        }
+    }
+
+    synchronized void hashFailed() {
+        hashFailures++;
+    }
+
+    synchronized boolean hasTorrent(long torrent) {
+        return torrentIndex.containsKey(torrent, 0);
+    }
+
+    synchronized void addTorrent(long torrent, Sha1Key infoHash) {
+        if (torrentIndex.containsKey(torrent, 0)) {
+            return;
+        }
+
+        if (numTorrents == torrents.length) {
+            torrents = Arrays.copyOf(torrents, numTorrents * 2);
+        }
+        torrents[numTorrents] = new Torrent(torrent, infoHash);
+        torrentIndex.put(torrent, 0, numTorrents);
+        numTorrents++;
+    }
+
+    synchronized void torrentRemoved(long torrent) {
+        starts.removeAll(torrent);
+
+        int i = (int) torrentIndex.remove(torrent, 0, -1);
+        if (i < 0) {
+            return;
+        }
+
+        // moves the last one to the hole
+        numTorrents--;
+        if (i != numTorrents) {
+            Torrent last = torrents[numTorrents];
+            torrents[i] = last;
+            torrentIndex.put(last.key, 0, i);
+        }
+        torrents[numTorrents] = null;
+    }
+
+    // drops the stale start times before the map grows
+    private void purge(long now) {
+        starts.removeValuesLessThan(now - STALE_MICROS);
+        purgeSize = Math.max(MIN_PURGE_SIZE, starts.size() * 2);
+    }
+
+    private void onAlert(Alert<?> a) {
+        try {
+            alert swig = a.swig();
+            switch (a.type()) {
+                case BLOCK_DOWNLOADING: {
+                    BlockDownloadingAlert b = (BlockDownloadingAlert) a;
+                    blockDownloading(swig.torrent_shard_key(), b.pieceIndex(), b.blockIndex(),
+                            swig.get_timestamp_us());
+                    break;
+                }
+                case BLOCK_FINISHED: {
+                    BlockFinishedAlert b = (BlockFinishedAlert) a;
+                    blockFinished(swig.torrent_shard_key(), b.pieceIndex(), b.blockIndex(),
+                            b.isLocal(), swig.get_timestamp_us());
+                    break;
+                }
+                case PIECE_FINISHED: {
+                    PieceFinishedAlert p = (PieceFinishedAlert) a;
+                    long torrent = swig.torrent_shard_key();
+                    if (!hasTorrent(torrent)) {
+                        addTorrent(torrent, Sha1Key.of(p.swig().getHandle().info_hashes().get_best()));
+                    }
+                    pieceFinished(torrent, p.pieceIndex(), swig.get_timestamp_us());
+                    break;
+                }
+                case HASH_FAILED:
+                    hashFailed();
+                    break;
+                case TORRENT_REMOVED:
+                    torrentRemoved(swig.torrent_shard_key());
+                    break;
+            }
+        } catch (Throwable e) {
+            Log.error("Error tracking the piece latencies", e);
+        }
+    }
+
+    private static final class Torrent {
+
+        final long key;
+        final Sha1Key infoHash;
+        final LatencyHistogram pieces;
+
+        Torrent(long key, Sha1Key infoHash) {
+            this.key = key;
+            this.infoHash = infoHash;
+            this.pieces = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * The latencies recorded in an interval, in microseconds.
+     */
+    public static final class Snapshot {
+
+        private final long intervalNanos;
+        private final LatencyHistogram pieces;
+        private final LatencyHistogram[] blocks;
+        private final Map<Sha1Key, LatencyHistogram> torrents;
+        private final long hashFailures;
+
+        Snapshot(long intervalNanos, LatencyHistogram pieces, LatencyHistogram[] blocks,
+                 Map<Sha1Key, LatencyHistogram> torrents, long hashFailures) {
+            this.intervalNanos = intervalNanos;
+            this.pieces = pieces;
+            this.blocks = blocks;
+            this.torrents = Collections.unmodifiableMap(torrents);
+            this.hashFailures = hashFailures;
+        }
+
+        /**
+         * @return the duration of the interval in nanoseconds
+         */
+        public long intervalNanos() {
+            return intervalNanos;
+        }
+
+        /**
+         * @return the piece latencies of all the torrents
+         */
+        public LatencyHistogram pieces() {
+            return pieces;
+        }
+
+        /**
+         * @param peerClass the class of the peers
+         * @return the block latencies of the peers of the class
+         */
+        public LatencyHistogram blocks(PeerClass peerClass) {
+            return blocks[peerClass.ordinal()];
+        }
+
+        /**
+         * @return the piece latencies by info-hash
+         */
+        public Map<Sha1Key, LatencyHistogram> torrents() {
+            return torrents;
+        }
+
+        /**
+         * @return the number of pieces that failed the hash check
+         */
+        public long hashFailures() {
+            return hashFailures;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot(interval: " + TimeUnit.NANOSECONDS.toMillis(intervalNanos) +
+                    " ms, pieces: " + pieces + ", local blocks: " + blocks(PeerClass.LOCAL) +
+                    ", remote blocks: " + blocks(PeerClass.REMOTE) +
+                    ", hash failures: " + hashFailures + ")";
+        }
+    }
+}
@@ -1,56 +1,77 @@
 package org.libtorrent4j;
 
-import java.util.ArrayList;
+import org.libtorrent4j.alerts.Alert;
+import org.libtorrent4j.alerts.AlertType;
+import org.libtorrent4j.alerts.PieceFinishedAlert;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.StampedLock;
 
 /**
+ * Tracks the completed pieces of a torrent and answers how many bytes
+ * are available in sequence from any offset of a file.
+ * <p>
+ * The file layout is a {@link FileTable}, built with a single native
+ * call. The completed pieces are kept as a disjoint-set forest where each
+ * completed piece points to a later piece of the same run, and each
+ * missing piece points to itself. Finding the end of a run uses path
+ * halving, so the sequential queries are O(1) amortized, regardless of
+ * how many pieces are complete.
+ * <p>
+ * Add the tracker as a listener of the session to keep it updated from
+ * {@link PieceFinishedAlert}, or call {@link #setComplete(int, boolean)}.
+ * <p>
+ * This class is thread safe. Queries and the completion of pieces run
+ * concurrently, clearing a piece or loading a bitfield rebuilds the
+ * forest and is exclusive.
+ *
  * @author gubatron
  * @author aldenml
  */
-public final class PiecesTracker {
+public final class PiecesTracker implements AlertListener {
+
+    private final FileTable files;
+    // the shard keys of the info-hashes, to filter the alerts
+    private final long[] keys;
 
-    private final int numFiles;
     private final int numPieces;
 
-    private final int[][] files;
-    private final long[][] sizes;
-    private final boolean[] complete;
+    private final StampedLock lock;
+    // next[p] == p if p is missing, the sentinel next[numPieces] is never complete
+    private final AtomicIntegerArray next;
 
     public PiecesTracker(TorrentInfo ti) {
-        this.numFiles = ti.numFiles();
-        this.numPieces = ti.numPieces();
-
-        this.files = new int[numFiles][];
-        this.sizes = new long[numFiles][];
-        this.complete = new boolean[numPieces];
-
-        FileStorage fs = ti.files();
-
-        for (int fileIndex = 0; fileIndex < numFiles; fileIndex++) {
-            long size = fs.fileSize(fileIndex);
-            int firstPiece = ti.mapFile(fileIndex, 0, 1).piece();
-            int lastPiece = ti.mapFile(fileIndex, size - 1, 1).piece();
-
-            int numSlices = lastPiece - firstPiece + 1;
-            files[fileIndex] = new int[numSlices];
-            sizes[fileIndex] = new long[numSlices];
-
-            for (int pieceIndex = firstPiece; pieceIndex <= lastPiece; pieceIndex++) {
-                int index = pieceIndex - firstPiece;
+        this(FileTable.of(ti), TorrentRegistry.keys(ti.swig().info_hashes()));
+    }
 
-                files[fileIndex][index] = pieceIndex;
+    /**
+     * @param files the file layout
+     * @param keys  the info-hash keys of the torrent, used to filter alerts
+     */
+    PiecesTracker(FileTable files, Sha1Key[] keys) {
+        this.files = files;
+        this.keys = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            this.keys[i] = keys[i].shardKey();
+        }
+        this.numPieces = files.numPieces();
 
-                ArrayList<FileSlice> slices = ti.mapBlock(pieceIndex, 0, ti.pieceSize(pieceIndex));
-                for (FileSlice slice : slices) {
-                    if (slice.fileIndex() == fileIndex) {
-                        sizes[fileIndex][index] = slice.size();
-                    }
-                }
-            }
+        this.lock = new StampedLock();
+        this.next = new AtomicIntegerArray(numPieces + 1);
+        for (int i = 0; i <= numPieces; i++) {
+            next.set(i, i);
         }
     }
 
+    /**
+     * @return the file layout of the torrent
+     */
+    public FileTable files() {
+        return files;
+    }
+
     public int numFiles() {
-        return numFiles;
+        return files.numFiles();
     }
 
     public int numPieces() {
@@ -58,46 +79,161 @@ public final class PiecesTracker {
     }
 
     public boolean isComplete(int pieceIndex) {
-        return complete[pieceIndex];
+        checkPiece(pieceIndex);
+        return next.get(pieceIndex) != pieceIndex;
     }
 
     public void setComplete(int pieceIndex, boolean complete) {
-        this.complete[pieceIndex] = complete;
+        checkPiece(pieceIndex);
+
+        if (complete) {
+            long stamp = lock.readLock();
+            try {
+                // completing only extends runs, it's safe with concurrent queries
+                next.compareAndSet(pieceIndex, pieceIndex, pieceIndex + 1);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        } else {
+            long stamp = lock.writeLock();
+            try {
+                if (next.get(pieceIndex) == pieceIndex) {
+                    return;
+                }
+                // other pieces can point past this one, rebuild the links
+                for (int i = 0; i < numPieces; i++) {
+                    next.set(i, i == pieceIndex || next.get(i) == i ? i : i + 1);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
     }
 
-    public long getSequentialDownloadedBytes(int fileIndex) {
-        int[] pieces = files[fileIndex];
+    /**
+     * Replaces the state of all the pieces, usually with the bitfield
+     * from {@link TorrentHandle#status(org.libtorrent4j.swig.status_flags_t)}
+     * with {@link TorrentHandle#QUERY_PIECES}.
+     *
+     * @param pieces the completed pieces
+     */
+    public void update(PieceIndexBitfield pieces) {
+        update(pieces.snapshot());
+    }
 
-        long downloaded = 0;
+    /**
+     * Replaces the state of all the pieces.
+     *
+     * @param pieces the completed pieces
+     */
+    public void update(BitfieldSnapshot pieces) {
+        int n = Math.min(numPieces, pieces.size());
+
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < numPieces; i++) {
+                next.set(i, i < n && pieces.get(i) ? i + 1 : i);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
 
-        for (int i = 0; i < pieces.length; i++) {
-            int pieceIndex = pieces[i];
+    /**
+     * Returns the number of bytes available in sequence in the file,
+     * starting at {@code offset}. It's zero if the piece at the offset is
+     * not complete.
+     *
+     * @param fileIndex the file index
+     * @param offset    the offset in the file
+     * @return the number of contiguous bytes
+     */
+    public long getContiguousBytes(int fileIndex, long offset) {
+        long size = files.fileSize(fileIndex);
+        if (offset < 0 || offset > size) {
+            throw new IndexOutOfBoundsException("Offset: " + offset + ", File size: " + size);
+        }
+        if (offset == size) {
+            return 0;
+        }
 
-            if (complete[pieceIndex]) {
-                downloaded += sizes[fileIndex][i];
-            } else {
-                break;
-            }
+        long start = files.fileOffset(fileIndex) + offset;
+        int piece = (int) (start / files.pieceLength());
+
+        int end = firstMissing(piece);
+        if (end == piece) {
+            return 0;
         }
 
-        return downloaded;
+        long available = Math.min((long) end * files.pieceLength(), files.totalSize());
+        return Math.min(available, files.fileOffset(fileIndex) + size) - start;
+    }
+
+    public long getSequentialDownloadedBytes(int fileIndex) {
+        return getContiguousBytes(fileIndex, 0);
     }
 
     public int getSequentialDownloadedPieces(int fileIndex) {
-        int[] pieces = files[fileIndex];
+        if (files.fileSize(fileIndex) == 0) {
+            return 0;
+        }
+
+        int first = files.pieceIndexAtFile(fileIndex);
+        int last = files.lastPieceIndexAtFile(fileIndex);
+
+        return Math.min(firstMissing(first), last + 1) - first;
+    }
 
-        int count = 0;
+    @Override
+    public int[] types() {
+        return new int[]{AlertType.PIECE_FINISHED.swig()};
+    }
+
+    @Override
+    public void alert(Alert<?> alert) {
+        if (!(alert instanceof PieceFinishedAlert)) {
+            return;
+        }
 
-        for (int i = 0; i < pieces.length; i++) {
-            int pieceIndex = pieces[i];
+        PieceFinishedAlert a = (PieceFinishedAlert) alert;
+        int piece = a.pieceIndex();
+        if (piece < 0 || piece >= numPieces) {
+            return;
+        }
 
-            if (complete[pieceIndex]) {
-                count++;
-            } else {
-                break;
+        // a single native call, without creating the info-hash objects
+        long k = a.swig().torrent_shard_key();
+        for (long key : keys) {
+            if (key == k) {
+                setComplete(piece, true);
+                return;
             }
         }
+    }
 
-        return count;
+    // the first missing piece at or after the given one
+    private int firstMissing(int piece) {
+        long stamp = lock.readLock();
+        try {
+            int p = piece;
+            int q;
+            while ((q = next.get(p)) != p) {
+                // path halving, any later piece of the run is a valid link
+                int r = next.get(q);
+                if (r != q) {
+                    next.lazySet(p, r);
+                }
+                p = r;
+            }
+            return p;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void checkPiece(int pieceIndex) {
+        if (pieceIndex < 0 || pieceIndex >= numPieces) {
+            throw new IndexOutOfBoundsException("Piece: " + pieceIndex + ", Num pieces: " + numPieces);
+        }
     }
 }
@@ -64,6 +64,9 @@ public enum Priority {
 
     private final byte swigValue;
 
+    // indexed by the native value
+    private static final Priority[] VALUES = values();
+
     /**
      * @return the native value
      */
@@ -76,13 +79,10 @@ public enum Priority {
      * @return the enum corresponding value
      */
     public static Priority fromSwig(int swigValue) {
-        Priority[] enumValues = Priority.class.getEnumConstants();
-        for (Priority ev : enumValues) {
-            if (ev.swig() == swigValue) {
-                return ev;
-            }
+        if (swigValue < 0 || swigValue >= VALUES.length) {
+            throw new IllegalArgumentException("Invalid native value");
         }
-        throw new IllegalArgumentException("Invalid native value");
+        return VALUES[swigValue];
     }
 
     /**
@@ -102,23 +102,39 @@ public enum Priority {
         return arr;
     }
 
-    static byte_vector array2vector(Priority[] arr) {
-        byte_vector v = new byte_vector();
-
+    /**
+     * Converts the priorities to their native values.
+     *
+     * @param arr the priorities
+     * @return a new array with the native values
+     */
+    public static byte[] toBytes(Priority[] arr) {
+        byte[] bytes = new byte[arr.length];
         for (int i = 0; i < arr.length; i++) {
-            Priority p = arr[i];
-            v.add(p.swig());
+            bytes[i] = arr[i].swigValue;
         }
-
-        return v;
+        return bytes;
     }
 
-    static Priority[] vector2array(byte_vector v) {
-        int size = v.size();
-        Priority[] arr = new Priority[size];
-        for (int i = 0; i < size; i++) {
-            arr[i] = Priority.fromSwig(v.get(i));
+    /**
+     * Converts native values to priorities.
+     *
+     * @param bytes the native values
+     * @return a new array with the priorities
+     */
+    public static Priority[] fromBytes(byte[] bytes) {
+        Priority[] arr = new Priority[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            arr[i] = fromSwig(bytes[i]);
         }
         return arr;
     }
+
+    static byte_vector array2vector(Priority[] arr) {
+        return Vectors.bytes2byte_vector(toBytes(arr));
+    }
+
+    static Priority[] vector2array(byte_vector v) {
+        return fromBytes(Vectors.byte_vector2bytes(v));
+    }
 }
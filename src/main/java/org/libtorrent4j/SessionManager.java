@@ -8,16 +8,19 @@
 package org.libtorrent4j;
 
 import org.libtorrent4j.alerts.*;
+import org.libtorrent4j.swig.add_torrent_alert;
 import org.libtorrent4j.swig.add_torrent_params;
 import org.libtorrent4j.swig.address;
 import org.libtorrent4j.swig.alert;
 import org.libtorrent4j.swig.alert_category_t;
+import org.libtorrent4j.swig.alert_notify_callback;
 import org.libtorrent4j.swig.alert_ptr_vector;
 import org.libtorrent4j.swig.byte_vector;
 import org.libtorrent4j.swig.entry;
 import org.libtorrent4j.swig.error_code;
 import org.libtorrent4j.swig.info_hash_t;
 import org.libtorrent4j.swig.libtorrent;
+import org.libtorrent4j.swig.libtorrent_jni;
 import org.libtorrent4j.swig.port_filter;
 import org.libtorrent4j.swig.remove_flags_t;
 import org.libtorrent4j.swig.session;
@@ -27,20 +30,26 @@ import org.libtorrent4j.swig.sha1_hash;
 import org.libtorrent4j.swig.tcp_endpoint_vector;
 import org.libtorrent4j.swig.torrent_flags_t;
 import org.libtorrent4j.swig.torrent_handle;
-import org.libtorrent4j.swig.torrent_handle_vector;
 import org.libtorrent4j.swig.torrent_info;
 import org.libtorrent4j.swig.torrent_status;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
 
 /**
  * @author gubatron
@@ -50,23 +59,36 @@ public class SessionManager {
 
     private static final long REQUEST_STATS_RESOLUTION_MILLIS = 1000;
     private static final long ALERTS_LOOP_WAIT_MILLIS = 500;
-
-    private static final int[] METADATA_ALERT_TYPES = new int[]{
-        AlertType.METADATA_RECEIVED.swig(),
-        AlertType.METADATA_FAILED.swig(),
-        AlertType.SAVE_RESUME_DATA.swig(),
-        AlertType.SAVE_RESUME_DATA_FAILED.swig(),
+    private static final int ALERTS_LOOP_SPIN_ITERATIONS = 10000;
+    // more than an alerts loop cycle, the add alert is lost after that
+    private static final long RESERVATION_TIMEOUT_MILLIS = 4 * ALERTS_LOOP_WAIT_MILLIS;
+
+    private static final AlertType[] METADATA_ALERT_TYPES = {
+            AlertType.METADATA_RECEIVED,
+            AlertType.METADATA_FAILED,
+            AlertType.SAVE_RESUME_DATA,
+            AlertType.SAVE_RESUME_DATA_FAILED
     };
 
     private static final String FETCH_MAGNET_DOWNLOAD_KEY = "fetch_magnet___";
 
-    private static final int[] DHT_IMMUTABLE_ITEM_TYPES = {AlertType.DHT_IMMUTABLE_ITEM.swig()};
-    private static final int[] DHT_MUTABLE_ITEM_TYPES = {AlertType.DHT_MUTABLE_ITEM.swig()};
-    private static final int[] DHT_GET_PEERS_REPLY_ALERT_TYPES = {AlertType.DHT_GET_PEERS_REPLY.swig()};
+
+    // handled by the alerts loop, their categories are always in the alert mask
+    private static final AlertType[] INTERNAL_ALERT_TYPES = {
+            AlertType.SESSION_STATS,
+            AlertType.PORTMAP,
+            AlertType.PORTMAP_ERROR,
+            AlertType.LISTEN_SUCCEEDED,
+            AlertType.EXTERNAL_IP,
+            AlertType.ADD_TORRENT,
+            AlertType.TORRENT_REMOVED
+    };
 
     private final boolean logging;
 
-    private final AlertListener[] listeners;
+    private final AlertListeners listeners;
+    private volatile BatchEntry[] batchListeners;
+    private final AlertBatch.Source batchSource;
 
     private final ReentrantLock sync;
     private final ReentrantLock syncMagnet;
@@ -74,25 +96,65 @@ public class SessionManager {
     private volatile session session;
 
     private final SessionStats stats;
-    private long lastStatsRequestTime;
+    private final TorrentRegistry torrents;
+    private final LatencyHistogram alertLatency;
+    private final int[] alertTypeMasks;
+    private final AlertCategoryStats alertCategoryStats;
+    private volatile int alertMask;
+    // the categories set by the user with applySettings, kept in the mask
+    private volatile int userAlertMask;
+    private final AtomicInteger alertMaskWip;
+    private volatile boolean jfrPieceEvents;
+    private final PendingRequests<Sha1Key, byte[]> magnetRequests;
+    private final PendingRequests<Sha1Key, Entry> immutableItemRequests;
+    private final PendingRequests<PendingRequests.ItemKey, MutableItem> mutableItemRequests;
+    private final PendingRequests<Sha1Key, ArrayList<TcpEndpoint>> peersRequests;
     private boolean firewalled;
     private final Map<String, String> listenEndpoints;
     private String externalAddress;
     private int externalPort;
     private Thread alertsLoop;
+    private volatile AlertWaitStrategy alertWaitStrategy;
+    private AlertNotifier alertNotifier;
+    // stats timer and requests timeouts
+    private volatile ScheduledThreadPoolExecutor timer;
+    private volatile boolean flyweightAlerts;
 
     private Throwable lastAlertError;
 
     public SessionManager(boolean logging) {
         this.logging = logging;
 
-        this.listeners = new AlertListener[Alerts.NUM_ALERT_TYPES + 1];
+        this.listeners = new AlertListeners(Alerts.NUM_ALERT_TYPES + 1);
+        this.batchListeners = new BatchEntry[0];
+        this.batchSource = new AlertBatch.Source();
 
         this.sync = new ReentrantLock();
         this.syncMagnet = new ReentrantLock();
 
         this.stats = new SessionStats();
+        this.torrents = new TorrentRegistry(RESERVATION_TIMEOUT_MILLIS);
+        this.alertLatency = new LatencyHistogram();
+        this.alertTypeMasks = new int[Alerts.NUM_ALERT_TYPES];
+        for (AlertType t : AlertType.values()) {
+            if (t.swig() >= 0) {
+                alertTypeMasks[t.swig()] = t.category().to_int();
+            }
+        }
+        this.alertCategoryStats = new AlertCategoryStats(alertTypeMasks);
+        this.alertMaskWip = new AtomicInteger();
+        Runnable maskUpdater = new Runnable() {
+            @Override
+            public void run() {
+                updateAlertMask();
+            }
+        };
+        this.magnetRequests = new PendingRequests<>(maskUpdater);
+        this.immutableItemRequests = new PendingRequests<>(maskUpdater);
+        this.mutableItemRequests = new PendingRequests<>(maskUpdater);
+        this.peersRequests = new PendingRequests<>(maskUpdater);
         this.listenEndpoints = new HashMap<>();
+        this.alertWaitStrategy = AlertWaitStrategy.POLL;
 
         resetState();
     }
@@ -113,6 +175,109 @@ public class SessionManager {
         modifyListeners(false, listener);
     }
 
+    /**
+     * Adds a listener called once per batch of alerts popped from the
+     * session, with the alerts matching its types.
+     *
+     * @param listener the listener
+     */
+    public synchronized void addListener(BatchAlertListener listener) {
+        if (listener == null) {
+            return;
+        }
+
+        BatchEntry[] arr = batchListeners;
+        BatchEntry[] r = new BatchEntry[arr.length + 1];
+        System.arraycopy(arr, 0, r, 0, arr.length);
+        r[arr.length] = new BatchEntry(listener, batchSource);
+        batchListeners = r;
+
+        updateAlertMask();
+    }
+
+    public synchronized void removeListener(BatchAlertListener listener) {
+        BatchEntry[] arr = batchListeners;
+        for (int i = 0; i < arr.length; i++) {
+            if (arr[i].listener == listener) {
+                BatchEntry[] r = new BatchEntry[arr.length - 1];
+                System.arraycopy(arr, 0, r, 0, i);
+                System.arraycopy(arr, i + 1, r, i, arr.length - i - 1);
+                batchListeners = r;
+
+                updateAlertMask();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sets how the alerts loop waits for new alerts, it takes effect the
+     * next time the session is started.
+     *
+     * @param strategy the wait strategy
+     */
+    public void setAlertWaitStrategy(AlertWaitStrategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("strategy can't be null");
+        }
+        this.alertWaitStrategy = strategy;
+    }
+
+    public AlertWaitStrategy getAlertWaitStrategy() {
+        return alertWaitStrategy;
+    }
+
+    /**
+     * Enables the reuse of one alert object per type for the delivery to
+     * the {@link AlertListener}s, to avoid the allocation of a java
+     * wrapper for each alert. The alert received by a listener is only
+     * valid during the call, use {@link Alert#retain()} to keep it.
+     * <p>
+     * It takes effect the next time the session is started.
+     *
+     * @param value {@code true} to reuse the alert objects
+     */
+    public void setFlyweightAlerts(boolean value) {
+        this.flyweightAlerts = value;
+    }
+
+    public boolean isFlyweightAlerts() {
+        return flyweightAlerts;
+    }
+
+    /**
+     * The time in microseconds from the creation of each alert to its
+     * delivery to the listeners, only alerts with listeners are measured.
+     * It's cleared when the session is started or stopped.
+     *
+     * @return the alert delivery latency histogram
+     */
+    public LatencyHistogram alertLatency() {
+        return alertLatency;
+    }
+
+    /**
+     * The number of alerts and alerts per second by category produced by
+     * the session. It's cleared when the session is started or stopped.
+     *
+     * @return the alert counters by category
+     */
+    public AlertCategoryStats alertCategoryStats() {
+        return alertCategoryStats;
+    }
+
+    /**
+     * The alert mask of the session, the categories of the alert types of
+     * the registered listeners, plus the ones used internally and the ones
+     * set with {@link #applySettings(SettingsPack)}. It's updated every
+     * time a listener is added or removed.
+     *
+     * @return the current alert mask
+     */
+    public alert_category_t alertMask() {
+        return alert_category_t.from_int(alertMask);
+    }
+
     public void start(SessionParams params) {
         if (session != null) {
             return;
@@ -132,7 +297,8 @@ public class SessionManager {
             SettingsPack sp = params.getSettings();
 
             // we always control the alert mask
-            sp.setInteger(settings_pack.int_types.alert_mask.swigValue(), alertMask(logging).to_int());
+            alertMask = computeAlertMask();
+            sp.setInteger(settings_pack.int_types.alert_mask.swigValue(), alertMask);
 
             // limit metadata size by default
             if (!sp.hasValue(settings_pack.int_types.max_metadata_size.swigValue())) {
@@ -145,7 +311,10 @@ public class SessionManager {
             }
 
             session = new session(params.swig());
+            // listeners changed while the session was created
+            updateAlertMask();
             alertsLoop();
+            startTimer();
 
             // block all connections to port < 1024, but
             // allows 80 and 443 for web seeds
@@ -188,13 +357,14 @@ public class SessionManager {
             session s = session;
             session = null; // stop alerts loop and session methods
 
-            // guarantee one more alert is post and detected
-            s.post_session_stats();
-            try {
-                // 250 is to ensure that the sleep is bigger
-                // than the wait in alerts loop
-                Thread.sleep(ALERTS_LOOP_WAIT_MILLIS + 250);
-            } catch (InterruptedException ignore) {
+            stopTimer();
+
+            // wake up the alerts loop, it exits once it sees no session
+            AlertNotifier notifier = alertNotifier;
+            if (notifier != null) {
+                notifier.wakeup();
+            } else {
+                s.post_session_stats();
             }
 
             if (alertsLoop != null) {
@@ -205,10 +375,22 @@ public class SessionManager {
                 }
             }
 
+            // no more responses after this point
+            magnetRequests.completeAll(null);
+            immutableItemRequests.completeAll(null);
+            mutableItemRequests.completeAll(null);
+            peersRequests.completeAll(new ArrayList<TcpEndpoint>());
+
             resetState();
 
             s.delete();
 
+            // the native session can't call it anymore
+            if (notifier != null) {
+                notifier.delete();
+                alertNotifier = null;
+            }
+
             onAfterStop();
 
         } finally {
@@ -316,8 +498,23 @@ public class SessionManager {
                 throw new IllegalArgumentException("settings pack can't be null");
             }
 
-            session.apply_settings(sp.swig());
+            // the categories of the user are added to the computed mask,
+            // the pack of the caller is not modified
+            int name = settings_pack.int_types.alert_mask.swigValue();
+            boolean mask = sp.hasValue(name);
+            if (mask) {
+                userAlertMask = sp.getInteger(name);
+                settings_pack copy = new settings_pack(sp.swig());
+                copy.clear(name);
+                session.apply_settings(copy);
+            } else {
+                session.apply_settings(sp.swig());
+            }
             onApplySettings(sp);
+
+            if (mask) {
+                updateAlertMask();
+            }
         }
     }
 
@@ -474,8 +671,39 @@ public class SessionManager {
             return null;
         }
 
-        torrent_handle th = session.find_torrent(sha1.swig());
-        return th != null && th.is_valid() ? new TorrentHandle(th) : null;
+        return torrents.get(sha1.toKey());
+    }
+
+    /**
+     * Returns the handle of the torrent with the given v1 info-hash (or
+     * truncated v2 info-hash). The lookup is performed in an internal
+     * registry kept in sync with the session alerts, without calling into
+     * the native session, and always returns the same handle instance for
+     * the same torrent.
+     *
+     * @param key the info-hash
+     * @return the handle or null if not found
+     */
+    public TorrentHandle find(Sha1Key key) {
+        if (session == null) {
+            return null;
+        }
+
+        return torrents.get(key);
+    }
+
+    /**
+     * Returns a snapshot of the handles of all torrents in the session,
+     * taken from the internal registry (no native calls are involved).
+     *
+     * @return the list of handles
+     */
+    public List<TorrentHandle> torrents() {
+        if (session == null) {
+            return new ArrayList<>();
+        }
+
+        return torrents.handles();
     }
 
     /**
@@ -495,9 +723,11 @@ public class SessionManager {
             throw new IllegalArgumentException("torrent info not valid");
         }
 
-        torrent_handle th = session.find_torrent(ti.swig().info_hash());
+        Sha1Key key = Sha1Key.of(ti.swig().info_hash());
+        TorrentHandle handle = torrents.get(key);
 
-        if (th != null && th.is_valid()) {
+        if (handle != null) {
+            torrent_handle th = handle.swig();
             // found a download with the same hash, just adjust the priorities if needed
             if (priorities != null) {
                 if (ti.numFiles() != priorities.length) {
@@ -558,7 +788,7 @@ public class SessionManager {
 
         p.setFlags(p.getFlags().or_(flags));
 
-        session.async_add_torrent(p);
+        asyncAddTorrent(p, key);
     }
 
     /**
@@ -580,10 +810,9 @@ public class SessionManager {
         }
 
         sha1_hash info_hash = p.getInfo_hashes().get_best();
+        Sha1Key key = Sha1Key.of(info_hash);
 
-        torrent_handle th = session.find_torrent(info_hash);
-
-        if (th != null && th.is_valid()) {
+        if (torrents.contains(key)) {
             // found a download with the same hash
             return;
         }
@@ -598,7 +827,7 @@ public class SessionManager {
 
         p.setFlags(p.getFlags().or_(flags));
 
-        session.async_add_torrent(p);
+        asyncAddTorrent(p, key);
     }
 
     /**
@@ -630,8 +859,25 @@ public class SessionManager {
      * @return the bencoded info or null
      */
     public byte[] fetchMagnet(String uri, int timeout, File tempDir) {
-        if (session == null) {
-            return null;
+        return await(fetchMagnetAsync(uri, timeout, tempDir), timeout);
+    }
+
+    /**
+     * Asynchronous version of {@link #fetchMagnet(String, int, File)}, the
+     * concurrent requests of the same info-hash share the same future.
+     * <p>
+     * The future is completed from the alerts loop thread, the dependent
+     * stages without an executor run in that thread and should not block.
+     *
+     * @param uri     magnet uri
+     * @param timeout in seconds
+     * @return the future of the bencoded info, completed with null on
+     * error or timeout
+     */
+    public CompletableFuture<byte[]> fetchMagnetAsync(String uri, int timeout, File tempDir) {
+        session s = session;
+        if (s == null) {
+            return CompletableFuture.completedFuture(null);
         }
 
         error_code ec = new error_code();
@@ -641,66 +887,24 @@ public class SessionManager {
             throw new IllegalArgumentException(ec.message());
         }
 
-        final info_hash_t info_hash = p.getInfo_hashes();
-        final AtomicReference<byte[]> data = new AtomicReference<>();
-        final CountDownLatch signal = new CountDownLatch(1);
-
-        AlertListener listener = new AlertListener() {
-            @Override
-            public int[] types() {
-                return METADATA_ALERT_TYPES;
-            }
-
-            @Override
-            public void alert(Alert<?> alert) {
-                torrent_handle th = ((TorrentAlert<?>) alert).swig().getHandle();
-                if (th == null || !th.is_valid() || th.info_hash().ne(info_hash.get_best())) {
-                    return;
-                }
-
-                AlertType type = alert.type();
-
-                if (type.equals(AlertType.METADATA_RECEIVED)) {
-                    ((TorrentAlert<?>) alert).handle().saveResumeData(TorrentHandle.SAVE_INFO_DICT);
-                }
-
-                if (type.equals(AlertType.SAVE_RESUME_DATA)) {
-                    try {
-
-                        add_torrent_params resumeDataParams = ((SaveResumeDataAlert) alert).params().swig();
-                        byte_vector bytes = libtorrent.write_torrent_file_buf_ex(resumeDataParams);
-                        data.set(Vectors.byte_vector2bytes(bytes));
-                        signal.countDown();
-                    } catch (Throwable e) {
-                        Log.error("Error building magnet torrent data", e);
-                    }
-                }
-
-                if (type.equals(AlertType.METADATA_FAILED)) {
-                    Log.error("Error downloading magnet metadata");
-                    signal.countDown();
-                }
-                if (type.equals(AlertType.SAVE_RESUME_DATA_FAILED)) {
-                    Log.error("Error saving resume data");
-                    signal.countDown();
-                }
-            }
-        };
-
-        addListener(listener);
-
-        boolean add = false;
-        torrent_handle th = null;
+        Sha1Key key = Sha1Key.of(p.getInfo_hashes().get_best());
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        CompletableFuture<byte[]> prev = magnetRequests.register(key, future,
+                TimeUnit.SECONDS.toMillis(timeout), null, timer);
+        if (prev != null) {
+            return prev;
+        }
+        recordRequest(future, "fetch_magnet", key);
 
         try {
 
             syncMagnet.lock();
 
             try {
-                th = session.find_torrent(info_hash.get_best());
-                if (th != null && th.is_valid()) {
+                TorrentHandle handle = torrents.get(key);
+                if (handle != null) {
                     // we have a download with the same info-hash
-                    add = false;
+                    torrent_handle th = handle.swig();
 
                     torrent_info ti = th.torrent_file_ptr();
                     if (ti != null && ti.is_valid()) {
@@ -708,10 +912,6 @@ public class SessionManager {
                         th.save_resume_data(torrent_handle.save_info_dict);
                     }
                 } else {
-                    add = true;
-                }
-
-                if (add) {
                     p.setName(FETCH_MAGNET_DOWNLOAD_KEY + uri);
                     p.setSave_path(tempDir.getAbsolutePath());
 
@@ -722,25 +922,45 @@ public class SessionManager {
                     p.setFlags(flags);
 
                     ec.clear();
-                    th = session.add_torrent(p, ec);
+                    final torrent_handle th = s.add_torrent(p, ec);
+                    if (th.is_valid()) {
+                        // visible before the add alert is processed
+                        torrents.add(new TorrentHandle(th), TorrentRegistry.keys(th.info_hashes()));
+
+                        future.whenComplete(new BiConsumer<byte[], Throwable>() {
+                            @Override
+                            public void accept(byte[] data, Throwable e) {
+                                session s = session;
+                                if (s != null && th.is_valid()) {
+                                    s.remove_torrent(th);
+                                }
+                            }
+                        });
+                    }
                     th.resume();
                 }
             } finally {
                 syncMagnet.unlock();
             }
 
-            signal.await(timeout, TimeUnit.SECONDS);
-
         } catch (Throwable e) {
             Log.error("Error fetching magnet", e);
-        } finally {
-            removeListener(listener);
-            if (session != null && add && th != null && th.is_valid()) {
-                session.remove_torrent(th);
-            }
+            future.complete(null);
         }
 
-        return data.get();
+        return future;
+    }
+
+    /**
+     * Releases a request of {@link #fetchMagnetAsync(String, int, File)},
+     * the fetch is stopped and its temporary torrent removed only when
+     * all the requests that share it are released.
+     *
+     * @param key    the info-hash of the magnet
+     * @param future the future returned by the fetch
+     */
+    void releaseFetchMagnet(Sha1Key key, CompletableFuture<byte[]> future) {
+        magnetRequests.release(key, future, null);
     }
 
     /**
@@ -749,46 +969,39 @@ public class SessionManager {
      * @return the item
      */
     public Entry dhtGetItem(Sha1Hash sha1, int timeout) {
-        if (session == null) {
-            return null;
-        }
-
-        final sha1_hash target = sha1.swig();
-        final AtomicReference<Entry> result = new AtomicReference<>();
-        final CountDownLatch signal = new CountDownLatch(1);
-
-        AlertListener listener = new AlertListener() {
-
-            @Override
-            public int[] types() {
-                return DHT_IMMUTABLE_ITEM_TYPES;
-            }
+        return await(dhtGetItemAsync(sha1, timeout), timeout);
+    }
 
-            @Override
-            public void alert(Alert<?> alert) {
-                DhtImmutableItemAlert a = (DhtImmutableItemAlert) alert;
-                if (target.eq(a.swig().getTarget())) {
-                    result.set(new Entry(new entry(a.swig().getItem())));
-                    signal.countDown();
-                }
-            }
-        };
+    /**
+     * Asynchronous version of {@link #dhtGetItem(Sha1Hash, int)}, the
+     * concurrent requests of the same target share the same future.
+     *
+     * @param sha1    the target
+     * @param timeout in seconds
+     * @return the future of the item, completed with null on timeout
+     */
+    public CompletableFuture<Entry> dhtGetItemAsync(Sha1Hash sha1, int timeout) {
+        session s = session;
+        if (s == null) {
+            return CompletableFuture.completedFuture(null);
+        }
 
-        addListener(listener);
+        CompletableFuture<Entry> future = new CompletableFuture<>();
+        CompletableFuture<Entry> prev = immutableItemRequests.register(Sha1Key.of(sha1), future,
+                TimeUnit.SECONDS.toMillis(timeout), null, timer);
+        if (prev != null) {
+            return prev;
+        }
+        recordRequest(future, "dht_get_immutable_item", sha1);
 
         try {
-
-            session.dht_get_item(target);
-
-            signal.await(timeout, TimeUnit.SECONDS);
-
+            s.dht_get_item(sha1.swig());
         } catch (Throwable e) {
             Log.error("Error getting immutable item", e);
-        } finally {
-            removeListener(listener);
+            future.complete(null);
         }
 
-        return result.get();
+        return future;
     }
 
     /**
@@ -799,50 +1012,42 @@ public class SessionManager {
         return session != null ? new SessionHandle(session).dhtPutItem(entry) : null;
     }
 
-    public MutableItem dhtGetItem(final byte[] key, final byte[] salt, int timeout) {
-        if (session == null) {
-            return null;
-        }
-
-        final AtomicReference<MutableItem> result = new AtomicReference<>();
-        final CountDownLatch signal = new CountDownLatch(1);
-
-        AlertListener listener = new AlertListener() {
-
-            @Override
-            public int[] types() {
-                return DHT_MUTABLE_ITEM_TYPES;
-            }
+    public MutableItem dhtGetItem(byte[] key, byte[] salt, int timeout) {
+        return await(dhtGetItemAsync(key, salt, timeout), timeout);
+    }
 
-            @Override
-            public void alert(Alert<?> alert) {
-                DhtMutableItemAlert a = (DhtMutableItemAlert) alert;
-                boolean sameKey = Arrays.equals(key, a.key());
-                boolean sameSalt = Arrays.equals(salt, a.salt());
-                if (sameKey && sameSalt) {
-                    Entry e = new Entry(new entry(a.swig().getItem()));
-                    MutableItem item = new MutableItem(e, a.signature(), a.seq());
-                    result.set(item);
-                    signal.countDown();
-                }
-            }
-        };
+    /**
+     * Asynchronous version of {@link #dhtGetItem(byte[], byte[], int)}, the
+     * concurrent requests of the same key and salt share the same future.
+     *
+     * @param key     the public key
+     * @param salt    the salt
+     * @param timeout in seconds
+     * @return the future of the item, completed with null on timeout
+     */
+    public CompletableFuture<MutableItem> dhtGetItemAsync(byte[] key, byte[] salt, int timeout) {
+        session s = session;
+        if (s == null) {
+            return CompletableFuture.completedFuture(null);
+        }
 
-        addListener(listener);
+        CompletableFuture<MutableItem> future = new CompletableFuture<>();
+        PendingRequests.ItemKey itemKey = new PendingRequests.ItemKey(key, salt);
+        CompletableFuture<MutableItem> prev = mutableItemRequests.register(itemKey, future,
+                TimeUnit.SECONDS.toMillis(timeout), null, timer);
+        if (prev != null) {
+            return prev;
+        }
+        recordRequest(future, "dht_get_mutable_item", itemKey);
 
         try {
-
-            new SessionHandle(session).dhtGetItem(key, salt);
-
-            signal.await(timeout, TimeUnit.SECONDS);
-
+            new SessionHandle(s).dhtGetItem(key, salt);
         } catch (Throwable e) {
             Log.error("Error getting mutable item", e);
-        } finally {
-            removeListener(listener);
+            future.complete(null);
         }
 
-        return result.get();
+        return future;
     }
 
     public void dhtPutItem(byte[] publicKey, byte[] privateKey, Entry entry, byte[] salt) {
@@ -857,46 +1062,41 @@ public class SessionManager {
      * @return the peer list or an empty list
      */
     public ArrayList<TcpEndpoint> dhtGetPeers(Sha1Hash sha1, int timeout) {
-        final ArrayList<TcpEndpoint> result = new ArrayList<>();
-        if (session == null) {
-            return result;
-        }
-
-        final sha1_hash target = sha1.swig();
-        final CountDownLatch signal = new CountDownLatch(1);
-
-        AlertListener listener = new AlertListener() {
-
-            @Override
-            public int[] types() {
-                return DHT_GET_PEERS_REPLY_ALERT_TYPES;
-            }
+        ArrayList<TcpEndpoint> peers = await(dhtGetPeersAsync(sha1, timeout), timeout);
+        return peers != null ? peers : new ArrayList<TcpEndpoint>();
+    }
 
-            @Override
-            public void alert(Alert<?> alert) {
-                DhtGetPeersReplyAlert a = (DhtGetPeersReplyAlert) alert;
-                if (target.eq(a.swig().getInfo_hash())) {
-                    result.addAll(a.peers());
-                    signal.countDown();
-                }
-            }
-        };
+    /**
+     * Asynchronous version of {@link #dhtGetPeers(Sha1Hash, int)}, the
+     * concurrent requests of the same info-hash share the same future.
+     *
+     * @param sha1    the info-hash
+     * @param timeout in seconds
+     * @return the future of the peer list, completed with an empty list
+     * on timeout
+     */
+    public CompletableFuture<ArrayList<TcpEndpoint>> dhtGetPeersAsync(Sha1Hash sha1, int timeout) {
+        session s = session;
+        if (s == null) {
+            return CompletableFuture.completedFuture(new ArrayList<TcpEndpoint>());
+        }
 
-        addListener(listener);
+        CompletableFuture<ArrayList<TcpEndpoint>> future = new CompletableFuture<>();
+        CompletableFuture<ArrayList<TcpEndpoint>> prev = peersRequests.register(Sha1Key.of(sha1), future,
+                TimeUnit.SECONDS.toMillis(timeout), new ArrayList<TcpEndpoint>(), timer);
+        if (prev != null) {
+            return prev;
+        }
+        recordRequest(future, "dht_get_peers", sha1);
 
         try {
-
-            session.dht_get_peers(target);
-
-            signal.await(timeout, TimeUnit.SECONDS);
-
+            s.dht_get_peers(sha1.swig());
         } catch (Throwable e) {
             Log.error("Error getting peers from the dht", e);
-        } finally {
-            removeListener(listener);
+            future.complete(new ArrayList<TcpEndpoint>());
         }
 
-        return result;
+        return future;
     }
 
     public void dhtAnnounce(Sha1Hash sha1, int port, byte flags) {
@@ -920,10 +1120,11 @@ public class SessionManager {
         }
 
         try {
-            torrent_handle_vector v = session.get_torrents();
+            List<TorrentHandle> l = torrents.handles();
 
             String path = dir.getAbsolutePath();
-            for (torrent_handle th : v) {
+            for (TorrentHandle handle : l) {
+                torrent_handle th = handle.swig();
                 torrent_status ts = th.status();
                 boolean incomplete = !ts.getIs_seeding() && !ts.getIs_finished();
                 if (th.is_valid() && incomplete) {
@@ -1014,6 +1215,10 @@ public class SessionManager {
         listenEndpoints.clear();
         externalAddress = null;
         alertsLoop = null;
+        torrents.clear();
+        alertLatency.reset();
+        alertCategoryStats.clear();
+        userAlertMask = 0;
     }
 
     private void modifyListeners(boolean add, AlertListener listener) {
@@ -1023,27 +1228,33 @@ public class SessionManager {
 
         int[] types = listener.types();
 
+        boolean changed = false;
         // all alert-type including listener
         if (types == null) {
-            modifyListeners(add, Alerts.NUM_ALERT_TYPES, listener);
+            changed = modifyListeners(add, Alerts.NUM_ALERT_TYPES, listener);
         } else {
             for (int i = 0; i < types.length; i++) {
-                modifyListeners(add, types[i], listener);
+                changed |= modifyListeners(add, types[i], listener);
             }
         }
+
+        // the mask only depends on the types with listeners
+        if (changed) {
+            updateAlertMask();
+        }
     }
 
-    private synchronized void modifyListeners(boolean add, int type, AlertListener listener) {
+    // true if the type changed between having listeners and not
+    private boolean modifyListeners(boolean add, int type, AlertListener listener) {
         if (add) {
-            listeners[type] = AlertMulticaster.add(listeners[type], listener);
+            return listeners.add(type, listener);
         } else {
-            listeners[type] = AlertMulticaster.remove(listeners[type], listener);
+            return listeners.remove(type, listener);
         }
     }
 
-    private void fireAlert(Alert<?> a, int type) {
-        AlertListener listener = listeners[type];
-        if (listener != null) {
+    private void fireAlert(Alert<?> a, AlertListener[] arr) {
+        for (AlertListener listener : arr) {
             try {
                 listener.alert(a);
             } catch (Throwable e) {
@@ -1114,26 +1325,246 @@ public class SessionManager {
         }
     }
 
+    private void asyncAddTorrent(add_torrent_params p, Sha1Key key) {
+        int r = torrents.reserve(key);
+        if (r == TorrentRegistry.NOT_RESERVED) {
+            // the same torrent is being added
+            return;
+        }
+
+        if (r == TorrentRegistry.RESERVED_EXPIRED) {
+            // the alert of the previous add was lost, the torrent can be in the session
+            torrent_handle th = session.find_torrent(key.toSha1Hash().swig());
+            if (th.is_valid()) {
+                torrents.add(new TorrentHandle(th), TorrentRegistry.keys(th.info_hashes()));
+                return;
+            }
+        }
+
+        try {
+            session.async_add_torrent(p);
+        } catch (RuntimeException e) {
+            torrents.release(key);
+            throw e;
+        }
+    }
+
+    private void onAddTorrent(AddTorrentAlert alert) {
+        try {
+            add_torrent_alert a = alert.swig();
+            torrent_handle th = a.getHandle();
+
+            if (th.is_valid()) {
+                // with a duplicate torrent error this is the existing torrent
+                torrents.add(new TorrentHandle(th), TorrentRegistry.keys(th.info_hashes()));
+            } else {
+                // the add failed, release any reservation
+                add_torrent_params p = a.getParams();
+                torrent_info ti = p.ti_ptr();
+                info_hash_t ih = ti != null && ti.is_valid() ? ti.info_hashes() : p.getInfo_hashes();
+                for (Sha1Key k : TorrentRegistry.keys(ih)) {
+                    torrents.release(k);
+                }
+            }
+        } catch (Throwable e) {
+            Log.error("Error adding torrent to internal registry", e);
+        }
+    }
+
+    private void onTorrentRemoved(TorrentRemovedAlert alert) {
+        try {
+            torrents.remove(TorrentRegistry.keys(alert.swig().getInfo_hashes()));
+        } catch (Throwable e) {
+            Log.error("Error removing torrent from internal registry", e);
+        }
+    }
+
     private boolean isFetchMagnetDownload(AddTorrentAlert alert) {
         String name = alert.torrentName();
         return name != null && name.contains(FETCH_MAGNET_DOWNLOAD_KEY);
     }
 
-    private static alert_category_t alertMask(boolean logging) {
-        alert_category_t mask = alert.all_categories;
-        if (!logging) {
-            alert_category_t log_mask = alert.session_log_notification;
-            log_mask = log_mask.or_(alert.torrent_log_notification);
-            log_mask = log_mask.or_(alert.peer_log_notification);
-            log_mask = log_mask.or_(alert.dht_log_notification);
-            log_mask = log_mask.or_(alert.port_mapping_log_notification);
-            log_mask = log_mask.or_(alert.picker_log_notification);
+    private void onMagnetAlert(TorrentAlert<?> alert) {
+        torrent_handle th = alert.swig().getHandle();
+        if (th == null || !th.is_valid()) {
+            return;
+        }
+
+        Sha1Key key = Sha1Key.of(th.info_hashes().get_best());
+        if (!magnetRequests.contains(key)) {
+            return;
+        }
+
+        switch (alert.type()) {
+            case METADATA_RECEIVED:
+                th.save_resume_data(torrent_handle.save_info_dict);
+                break;
+            case SAVE_RESUME_DATA:
+                byte[] data = null;
+                try {
+                    add_torrent_params params = ((SaveResumeDataAlert) alert).params().swig();
+                    byte_vector bytes = libtorrent.write_torrent_file_buf_ex(params);
+                    data = Vectors.byte_vector2bytes(bytes);
+                } catch (Throwable e) {
+                    Log.error("Error building magnet torrent data", e);
+                }
+                magnetRequests.complete(key, data);
+                break;
+            case METADATA_FAILED:
+                Log.error("Error downloading magnet metadata");
+                magnetRequests.complete(key, null);
+                break;
+            case SAVE_RESUME_DATA_FAILED:
+                Log.error("Error saving resume data");
+                magnetRequests.complete(key, null);
+                break;
+        }
+    }
+
+    private void onDhtImmutableItem(DhtImmutableItemAlert alert) {
+        Sha1Key key = Sha1Key.of(alert.swig().getTarget());
+        if (immutableItemRequests.contains(key)) {
+            immutableItemRequests.complete(key, new Entry(new entry(alert.swig().getItem())));
+        }
+    }
+
+    private void onDhtMutableItem(DhtMutableItemAlert alert) {
+        PendingRequests.ItemKey key = new PendingRequests.ItemKey(alert.key(), alert.salt());
+        if (mutableItemRequests.contains(key)) {
+            Entry e = new Entry(new entry(alert.swig().getItem()));
+            mutableItemRequests.complete(key, new MutableItem(e, alert.signature(), alert.seq()));
+        }
+    }
+
+    private void onDhtGetPeersReply(DhtGetPeersReplyAlert alert) {
+        Sha1Key key = Sha1Key.of(alert.swig().getInfo_hash());
+        if (peersRequests.contains(key)) {
+            peersRequests.complete(key, alert.peers());
+        }
+    }
+
+    // the lifecycle of a request, if the flight recorder event is enabled
+    private static <T> void recordRequest(CompletableFuture<T> future, final String kind, final Object key) {
+        final Object event = JfrEvents.requestBegin();
+        if (event == null) {
+            return;
+        }
+
+        future.whenComplete(new BiConsumer<T, Throwable>() {
+            @Override
+            public void accept(T value, Throwable e) {
+                boolean success = value != null && !(value instanceof List && ((List<?>) value).isEmpty());
+                JfrEvents.requestEnd(event, kind, key, success);
+            }
+        });
+    }
+
+    // waits for an async request, a shared request could have a longer timeout
+    private static <T> T await(CompletableFuture<T> future, int timeout) {
+        try {
+            return future.get(timeout, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | CancellationException | TimeoutException e) {
+            // no result
+        }
+        return null;
+    }
+
+    // the minimum mask for the registered listeners and the internal alerts,
+    // plus the categories of the user
+    private int computeAlertMask() {
+        alert_category_t log_mask = alert.session_log_notification;
+        log_mask = log_mask.or_(alert.torrent_log_notification);
+        log_mask = log_mask.or_(alert.peer_log_notification);
+        log_mask = log_mask.or_(alert.dht_log_notification);
+        log_mask = log_mask.or_(alert.port_mapping_log_notification);
+        log_mask = log_mask.or_(alert.picker_log_notification);
+        int logMask = log_mask.to_int();
+
+        boolean all = !listeners.isEmpty(Alerts.NUM_ALERT_TYPES);
+        for (BatchEntry e : batchListeners) {
+            all |= e.all;
+        }
 
-            mask = mask.and_(log_mask.inv());
+        int mask;
+        if (all) {
+            mask = alert.all_categories.to_int() & ~logMask;
+        } else {
+            mask = 0;
+            for (AlertType t : INTERNAL_ALERT_TYPES) {
+                mask |= alertTypeMasks[t.swig()];
+            }
+            for (int t = 0; t < Alerts.NUM_ALERT_TYPES; t++) {
+                if (!listeners.isEmpty(t)) {
+                    mask |= alertTypeMasks[t];
+                }
+            }
+            for (BatchEntry e : batchListeners) {
+                for (int t = 0; t < Alerts.NUM_ALERT_TYPES; t++) {
+                    if (e.accepted[t]) {
+                        mask |= alertTypeMasks[t];
+                    }
+                }
+            }
+            // only while there are requests in flight
+            if (!magnetRequests.isEmpty()) {
+                for (AlertType t : METADATA_ALERT_TYPES) {
+                    mask |= alertTypeMasks[t.swig()];
+                }
+            }
+            if (!immutableItemRequests.isEmpty()) {
+                mask |= alertTypeMasks[AlertType.DHT_IMMUTABLE_ITEM.swig()];
+            }
+            if (!mutableItemRequests.isEmpty()) {
+                mask |= alertTypeMasks[AlertType.DHT_MUTABLE_ITEM.swig()];
+            }
+            if (!peersRequests.isEmpty()) {
+                mask |= alertTypeMasks[AlertType.DHT_GET_PEERS_REPLY.swig()];
+            }
         }
+
+        jfrPieceEvents = JfrEvents.pieceEventsEnabled();
+        if (jfrPieceEvents) {
+            mask |= alertTypeMasks[AlertType.PIECE_FINISHED.swig()];
+            mask |= alertTypeMasks[AlertType.HASH_FAILED.swig()];
+        }
+
+        if (logging) {
+            mask |= logMask;
+        }
+
+        mask |= userAlertMask;
+
         return mask;
     }
 
+    // without locks, a single thread at a time computes and applies the
+    // mask, again if there were changes meanwhile
+    private void updateAlertMask() {
+        if (alertMaskWip.getAndIncrement() != 0) {
+            return;
+        }
+
+        do {
+            try {
+                int mask = computeAlertMask();
+                if (mask != alertMask) {
+                    alertMask = mask;
+
+                    session s = session;
+                    if (s != null) {
+                        SettingsPack sp = new SettingsPack();
+                        sp.setInteger(settings_pack.int_types.alert_mask.swigValue(), mask);
+                        s.apply_settings(sp.swig());
+                    }
+                }
+            } catch (Throwable e) {
+                Log.error("Error updating the alert mask", e);
+            }
+        } while (alertMaskWip.decrementAndGet() != 0);
+    }
+
     protected String defaultDhtBootstrapNodes() {
         StringBuilder sb = new StringBuilder();
 
@@ -1152,88 +1583,348 @@ public class SessionManager {
     }
 
     private void alertsLoop() {
+        final AlertWaitStrategy strategy = alertWaitStrategy;
+        final AlertFlyweights flyweights = flyweightAlerts &&
+                AlertFlyweights.isSupported() ? new AlertFlyweights() : null;
+
         Runnable r = new Runnable() {
             @Override
             public void run() {
                 alert_ptr_vector v = new alert_ptr_vector();
 
-                while (session != null) {
-                    alert ptr = session.wait_for_alert_ms(ALERTS_LOOP_WAIT_MILLIS);
+                session s;
+                while ((s = session) != null) {
+                    if (strategy == AlertWaitStrategy.POLL) {
+                        if (s.wait_for_alert_ms(ALERTS_LOOP_WAIT_MILLIS) == null) {
+                            continue;
+                        }
+                    } else if (!alertNotifier.await(strategy == AlertWaitStrategy.SPIN_THEN_PARK)) {
+                        continue;
+                    }
 
                     if (session == null) {
                         return;
                     }
 
-                    if (ptr != null) {
-                        session.pop_alerts(v);
-                        long size = v.size();
-                        for (int i = 0; i < size; i++) {
-                            alert a = v.get(i);
-                            int type = a.type();
-
-                            Alert<?> alert = null;
-
-                            switch (AlertType.fromSwig(type)) {
-                                case SESSION_STATS:
-                                    alert = Alerts.cast(a);
-                                    stats.update((SessionStatsAlert) alert);
-                                    break;
-                                case PORTMAP:
-                                    firewalled = false;
-                                    break;
-                                case PORTMAP_ERROR:
-                                    firewalled = true;
-                                    break;
-                                case LISTEN_SUCCEEDED:
-                                    alert = Alerts.cast(a);
-                                    onListenSucceeded((ListenSucceededAlert) alert);
-                                    break;
-                                case EXTERNAL_IP:
-                                    alert = Alerts.cast(a);
-                                    onExternalIpAlert((ExternalIpAlert) alert);
-                                    break;
-                                case ADD_TORRENT:
-                                    alert = Alerts.cast(a);
-                                    if (isFetchMagnetDownload((AddTorrentAlert) alert)) {
-                                        continue;
-                                    }
-                                    break;
-                            }
-
-                            if (listeners[type] != null) {
-                                if (alert == null) {
-                                    alert = Alerts.cast(a);
-                                }
-                                fireAlert(alert, type);
-                            }
-
-                            if (!isSpecialType(type) && listeners[Alerts.NUM_ALERT_TYPES] != null) {
-                                if (alert == null) {
-                                    alert = Alerts.cast(a);
-                                }
-                                fireAlert(alert, Alerts.NUM_ALERT_TYPES);
-                            }
-                        }
-                        v.clear();
-                    }
-
-                    long now = System.currentTimeMillis();
-                    if ((now - lastStatsRequestTime) >= REQUEST_STATS_RESOLUTION_MILLIS) {
-                        lastStatsRequestTime = now;
-                        postSessionStats();
-                        postTorrentUpdates();
-                    }
+                    s.pop_alerts(v);
+                    dispatchAlerts(v, flyweights);
+                    v.clear();
                 }
             }
         };
 
         Thread t = new Thread(r, "SessionManager-alertsLoop");
         t.setDaemon(true);
+
+        if (strategy != AlertWaitStrategy.POLL) {
+            alertNotifier = new AlertNotifier(t);
+            session.set_alert_notify_callback(alertNotifier);
+        }
+
         t.start();
 
         alertsLoop = t;
     }
 
+    private void dispatchAlerts(alert_ptr_vector v, AlertFlyweights flyweights) {
+        // maps the java monotonic clock to the clock of the alert timestamps
+        long clockOffset = libtorrent_jni.clockNowMicros() - System.nanoTime() / 1000;
+
+        BatchEntry[] batch = batchListeners;
+        AlertBatch.Source source = batchSource;
+        boolean batching = batch.length > 0;
+
+        int size = (int) v.size();
+        if (batching) {
+            source.reset(v, size);
+        }
+
+        if (flyweights != null) {
+            flyweights.reset(v);
+        }
+
+        for (int i = 0; i < size; i++) {
+            alert a = flyweights != null ? flyweights.get(i) : v.get(i);
+            int type = a.type();
+            alertCategoryStats.increment(type);
+
+            Alert<?> alert = null;
+
+            if (batching) {
+                source.types[i] = -1;
+            }
+
+            switch (AlertType.fromSwig(type)) {
+                case SESSION_STATS:
+                    alert = Alerts.cast(a);
+                    stats.update((SessionStatsAlert) alert);
+                    JfrEvents.sessionStats(stats);
+                    break;
+                case PORTMAP:
+                    firewalled = false;
+                    break;
+                case PORTMAP_ERROR:
+                    firewalled = true;
+                    break;
+                case LISTEN_SUCCEEDED:
+                    alert = Alerts.cast(a);
+                    onListenSucceeded((ListenSucceededAlert) alert);
+                    break;
+                case EXTERNAL_IP:
+                    alert = Alerts.cast(a);
+                    onExternalIpAlert((ExternalIpAlert) alert);
+                    break;
+                case ADD_TORRENT:
+                    alert = Alerts.cast(a);
+                    onAddTorrent((AddTorrentAlert) alert);
+                    if (isFetchMagnetDownload((AddTorrentAlert) alert)) {
+                        continue;
+                    }
+                    break;
+                case TORRENT_REMOVED:
+                    alert = Alerts.cast(a);
+                    onTorrentRemoved((TorrentRemovedAlert) alert);
+                    break;
+                case METADATA_RECEIVED:
+                case METADATA_FAILED:
+                case SAVE_RESUME_DATA:
+                case SAVE_RESUME_DATA_FAILED:
+                    if (!magnetRequests.isEmpty()) {
+                        alert = Alerts.cast(a);
+                        onMagnetAlert((TorrentAlert<?>) alert);
+                    }
+                    break;
+                case PIECE_FINISHED:
+                    if (jfrPieceEvents) {
+                        alert = Alerts.cast(a);
+                        JfrEvents.piece((TorrentAlert<?>) alert, ((PieceFinishedAlert) alert).pieceIndex(), false);
+                    }
+                    break;
+                case HASH_FAILED:
+                    if (jfrPieceEvents) {
+                        alert = Alerts.cast(a);
+                        JfrEvents.piece((TorrentAlert<?>) alert, ((HashFailedAlert) alert).pieceIndex(), true);
+                    }
+                    break;
+                case DHT_IMMUTABLE_ITEM:
+                    if (!immutableItemRequests.isEmpty()) {
+                        alert = Alerts.cast(a);
+                        onDhtImmutableItem((DhtImmutableItemAlert) alert);
+                    }
+                    break;
+                case DHT_MUTABLE_ITEM:
+                    if (!mutableItemRequests.isEmpty()) {
+                        alert = Alerts.cast(a);
+                        onDhtMutableItem((DhtMutableItemAlert) alert);
+                    }
+                    break;
+                case DHT_GET_PEERS_REPLY:
+                    if (!peersRequests.isEmpty()) {
+                        alert = Alerts.cast(a);
+                        onDhtGetPeersReply((DhtGetPeersReplyAlert) alert);
+                    }
+                    break;
+            }
+
+            if (batching) {
+                source.types[i] = type;
+                source.alerts[i] = alert;
+            }
+
+            AlertListener[] typedListeners = listeners.get(type);
+            AlertListener[] allListeners = isSpecialType(type) ?
+                    AlertListeners.EMPTY : listeners.get(Alerts.NUM_ALERT_TYPES);
+
+            boolean typed = typedListeners.length > 0;
+            boolean all = allListeners.length > 0;
+
+            if (typed || all) {
+                alertLatency.record(System.nanoTime() / 1000 + clockOffset - a.get_timestamp_us());
+            }
+
+            if (!typed && !all) {
+                continue;
+            }
+
+            if (alert == null) {
+                if (flyweights != null) {
+                    // not shared with the batch, it's reused by the next alert of the type
+                    alert = flyweights.wrap(a, type);
+                } else {
+                    alert = Alerts.cast(a);
+                    if (batching) {
+                        source.alerts[i] = alert;
+                    }
+                }
+            }
+
+            Object event = JfrEvents.alertBegin();
+            fireAlert(alert, typedListeners);
+            fireAlert(alert, allListeners);
+            if (event != null) {
+                JfrEvents.alertEnd(event, type, typedListeners.length + allListeners.length);
+            }
+        }
+
+        if (batching) {
+            for (BatchEntry e : batch) {
+                e.batch.select(e.accepted);
+                if (e.batch.isEmpty()) {
+                    continue;
+                }
+                try {
+                    e.listener.alerts(e.batch);
+                } catch (Throwable t) {
+                    Log.warn("Error calling batch alert listener: " + t.getMessage());
+                    lastAlertError = t;
+                }
+            }
+            source.clear();
+        }
+    }
+
+    private void startTimer() {
+        ScheduledThreadPoolExecutor t = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "SessionManager-timer");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        // don't keep the cancelled timeouts of the completed requests
+        t.setRemoveOnCancelPolicy(true);
+
+        t.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    postSessionStats();
+                    postTorrentUpdates();
+                    alertCategoryStats.sample(System.nanoTime());
+                    // a recording with the piece events started or stopped
+                    if (JfrEvents.pieceEventsEnabled() != jfrPieceEvents) {
+                        updateAlertMask();
+                    }
+                } catch (Throwable e) {
+                    Log.error("Error posting session stats and torrent updates", e);
+                }
+            }
+        }, 0, REQUEST_STATS_RESOLUTION_MILLIS, TimeUnit.MILLISECONDS);
+
+        timer = t;
+    }
+
+    // waits for a running task, the session is deleted after this
+    private void stopTimer() {
+        ScheduledThreadPoolExecutor t = timer;
+        timer = null;
+        if (t == null) {
+            return;
+        }
+
+        t.shutdownNow();
+        try {
+            t.awaitTermination(REQUEST_STATS_RESOLUTION_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * How the alerts loop waits for new alerts.
+     */
+    public enum AlertWaitStrategy {
+
+        /**
+         * Blocks in the native wait for alerts, with a timeout. This is
+         * the default.
+         */
+        POLL,
+
+        /**
+         * Parks the alerts loop until the session notifies that there are
+         * new alerts, using the native alert notify callback.
+         */
+        NOTIFY,
+
+        /**
+         * Like {@link #NOTIFY}, but spins for a short time before parking,
+         * it reduces the latency of bursts of alerts at the expense of CPU.
+         */
+        SPIN_THEN_PARK
+    }
+
+    private static final class BatchEntry {
+
+        final BatchAlertListener listener;
+        final boolean[] accepted;
+        final boolean all;
+        final AlertBatch batch;
+
+        BatchEntry(BatchAlertListener listener, AlertBatch.Source source) {
+            this.listener = listener;
+            this.accepted = new boolean[Alerts.NUM_ALERT_TYPES];
+            this.batch = new AlertBatch(source);
+
+            int[] types = listener.types();
+            this.all = types == null;
+            if (types == null) {
+                for (int t = 0; t < accepted.length; t++) {
+                    accepted[t] = !isSpecialType(t);
+                }
+            } else {
+                for (int t : types) {
+                    accepted[t] = true;
+                }
+            }
+        }
+    }
+
+    // called by libtorrent from its internal threads, it only flags the
+    // pending alerts and unparks the alerts loop, never calls the session
+    private static final class AlertNotifier extends alert_notify_callback {
+
+        private final Thread thread;
+        private final AtomicBoolean pending;
+
+        AlertNotifier(Thread thread) {
+            this.thread = thread;
+            this.pending = new AtomicBoolean();
+        }
+
+        @Override
+        public void on_alert() {
+            pending.set(true);
+            LockSupport.unpark(thread);
+        }
+
+        void wakeup() {
+            LockSupport.unpark(thread);
+        }
+
+        /**
+         * @param spin if it should spin before parking
+         * @return true if there are pending alerts
+         */
+        boolean await(boolean spin) {
+            if (spin) {
+                for (int i = 0; i < ALERTS_LOOP_SPIN_ITERATIONS; i++) {
+                    if (pending.get()) {
+                        break;
+                    }
+                }
+            }
+
+            if (pending.getAndSet(false)) {
+                return true;
+            }
+
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(ALERTS_LOOP_WAIT_MILLIS));
+            return pending.getAndSet(false);
+        }
+    }
+
     public static final class MutableItem {
 
         private MutableItem(Entry item, byte[] signature, long seq) {
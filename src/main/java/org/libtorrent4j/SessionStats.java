@@ -1,13 +1,37 @@
 package org.libtorrent4j;
 
 import org.libtorrent4j.alerts.SessionStatsAlert;
+import org.libtorrent4j.swig.libtorrent_jni;
+import org.libtorrent4j.swig.session_stats_alert;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 
 /**
+ * The statistics of the session, updated from each {@link SessionStatsAlert}.
+ * <p>
+ * All the counters and gauges of {@link LibTorrent#sessionStatsMetrics()}
+ * are kept, the counters array of the alert is copied in one bulk call.
+ * For each metric it provides the last value, the change in the last
+ * interval, an exponentially weighted moving average of the rate and the
+ * minimum and maximum of the last {@link #WINDOW} samples. A metric can be
+ * looked up by name or by its value index, without allocations.
+ * <p>
+ * The values are double buffered, a reader sees the values and deltas of
+ * a complete sample, the minimum and maximum can mix two samples.
+ *
  * @author gubatron
  * @author aldenml
  */
 public final class SessionStats {
 
+    /**
+     * The number of samples of the minimum and maximum window, about a
+     * minute with the default stats interval of one second.
+     */
+    public static final int WINDOW = 60;
+
     // these are the channels we keep stats for
     private static final int UPLOAD_PAYLOAD = 0;
     private static final int UPLOAD_PROTOCOL = 1;
@@ -17,16 +41,72 @@ public final class SessionStats {
     private static final int DOWNLOAD_IP_PROTOCOL = 5;
     private static final int NUM_AVERAGES = 6;
 
+    // the weight of the new sample in the moving averages
+    private static final double EWMA_ALPHA = 0.2;
+
     private final Average[] stat;
 
     private long lastTickTime;
     private long dhtNodes;
 
+    private final String[] names;
+    private final boolean[] gauges;
+    private final HashMap<String, Integer> indexes;
+
+    private final int netSentPayloadBytes;
+    private final int netSentBytes;
+    private final int netSentIpOverheadBytes;
+    private final int netRecvPayloadBytes;
+    private final int netRecvBytes;
+    private final int netRecvIpOverheadBytes;
+    private final int dhtNodesGauge;
+
+    private final Frame[] frames;
+    private volatile int front;
+    private volatile long samples;
+
+    // for gauges the value, for counters the delta
+    private final long[][] window;
+    private int windowPos;
+    private volatile int windowSize;
+
     SessionStats() {
+        this(metrics());
+    }
+
+    private SessionStats(Metrics metrics) {
+        this(metrics.names, metrics.gauges);
+    }
+
+    /**
+     * @param names  the name of each metric, by value index
+     * @param gauges if each metric is a gauge, by value index
+     */
+    SessionStats(String[] names, boolean[] gauges) {
         this.stat = new Average[NUM_AVERAGES];
         for (int i = 0; i < this.stat.length; i++) {
             this.stat[i] = new Average();
         }
+
+        this.names = names;
+        this.gauges = gauges;
+        this.indexes = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] != null) {
+                indexes.put(names[i], i);
+            }
+        }
+
+        this.netSentPayloadBytes = metricIndex(StatsMetric.NET_SENT_PAYLOAD_BYTES_COUNTER_NAME);
+        this.netSentBytes = metricIndex(StatsMetric.NET_SENT_BYTES_COUNTER_NAME);
+        this.netSentIpOverheadBytes = metricIndex(StatsMetric.NET_SENT_IP_OVERHEAD_BYTES_COUNTER_NAME);
+        this.netRecvPayloadBytes = metricIndex(StatsMetric.NET_RECV_PAYLOAD_BYTES_COUNTER_NAME);
+        this.netRecvBytes = metricIndex(StatsMetric.NET_RECV_BYTES_COUNTER_NAME);
+        this.netRecvIpOverheadBytes = metricIndex(StatsMetric.NET_RECV_IP_OVERHEAD_BYTES_COUNTER_NAME);
+        this.dhtNodesGauge = metricIndex(StatsMetric.DHT_NODES_GAUGE_NAME);
+
+        this.frames = new Frame[]{new Frame(names.length), new Frame(names.length)};
+        this.window = new long[WINDOW][names.length];
     }
 
     public long totalDownload() {
@@ -57,15 +137,202 @@ public final class SessionStats {
         return dhtNodes;
     }
 
+    /**
+     * @return the number of metrics, the value indexes are in {@code [0, numMetrics())}
+     */
+    public int numMetrics() {
+        return names.length;
+    }
+
+    /**
+     * @param name the metric name
+     * @return the value index of the metric, or -1 if it could not be found
+     */
+    public int metricIndex(String name) {
+        Integer index = indexes.get(name);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * @param index the value index
+     * @return the name of the metric
+     */
+    public String metricName(int index) {
+        return names[index];
+    }
+
+    /**
+     * @param index the value index
+     * @return true if the metric is a gauge, false if it's a counter
+     */
+    public boolean isGauge(int index) {
+        return gauges[index];
+    }
+
+    /**
+     * @return the number of samples since the session started
+     */
+    public long samples() {
+        return samples;
+    }
+
+    /**
+     * @param index the value index
+     * @return the value of the metric in the last sample
+     */
+    public long value(int index) {
+        return frames[front].values[index];
+    }
+
+    public long value(String name) {
+        int index = metricIndex(name);
+        return index != -1 ? value(index) : 0;
+    }
+
+    /**
+     * @param index the value index
+     * @return the change of the metric in the last interval
+     */
+    public long delta(int index) {
+        return frames[front].deltas[index];
+    }
+
+    public long delta(String name) {
+        int index = metricIndex(name);
+        return index != -1 ? delta(index) : 0;
+    }
+
+    /**
+     * The moving average of the change per second for a counter, and of
+     * the value for a gauge.
+     *
+     * @param index the value index
+     * @return the moving average
+     */
+    public double rate(int index) {
+        return frames[front].rates[index];
+    }
+
+    public double rate(String name) {
+        int index = metricIndex(name);
+        return index != -1 ? rate(index) : 0;
+    }
+
+    /**
+     * The minimum of the change per interval for a counter, and of the
+     * value for a gauge, in the last {@link #WINDOW} samples.
+     *
+     * @param index the value index
+     * @return the minimum, or 0 if there are no samples
+     */
+    public long min(int index) {
+        int n = windowSize;
+        if (n == 0) {
+            return 0;
+        }
+        long r = Long.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            r = Math.min(r, window[i][index]);
+        }
+        return r;
+    }
+
+    /**
+     * The maximum of the change per interval for a counter, and of the
+     * value for a gauge, in the last {@link #WINDOW} samples.
+     *
+     * @param index the value index
+     * @return the maximum, or 0 if there are no samples
+     */
+    public long max(int index) {
+        int n = windowSize;
+        if (n == 0) {
+            return 0;
+        }
+        long r = Long.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            r = Math.max(r, window[i][index]);
+        }
+        return r;
+    }
+
+    /**
+     * Copies the values of the last sample.
+     *
+     * @param dst the destination, of at least {@link #numMetrics()} length
+     */
+    public void values(long[] dst) {
+        System.arraycopy(frames[front].values, 0, dst, 0, names.length);
+    }
+
     void update(SessionStatsAlert alert) {
+        session_stats_alert a = alert.swig();
+        Frame back = frames[front ^ 1];
+        int n = Math.min(a.num_counters(), names.length);
+        libtorrent_jni.memoryCopyToLongArray(a.counters_ptr(), back.values, 0, n);
+        update(n, System.nanoTime());
+    }
+
+    // the values are in the back frame
+    void update(int n, long nanos) {
+        Frame prev = frames[front];
+        Frame back = frames[front ^ 1];
+
+        double seconds = prev.nanos != 0 && nanos > prev.nanos ? (nanos - prev.nanos) / 1e9 : 1;
+        long[] slot = window[windowPos];
+
+        for (int i = 0; i < n; i++) {
+            long v = back.values[i];
+            long d = v - prev.values[i];
+            double sample = gauges[i] ? v : d / seconds;
+
+            back.deltas[i] = d;
+            back.rates[i] = prev.nanos == 0 ? sample : prev.rates[i] + EWMA_ALPHA * (sample - prev.rates[i]);
+            slot[i] = gauges[i] ? v : d;
+        }
+        back.nanos = nanos;
+
+        front ^= 1;
+        windowPos = (windowPos + 1) % WINDOW;
+        if (windowSize < WINDOW) {
+            windowSize++;
+        }
+        samples++;
+
+        updateChannels(back.values);
+    }
+
+    // the long[] of the back frame, to fill before update(int, long)
+    long[] backValues() {
+        return frames[front ^ 1].values;
+    }
+
+    void clear() {
+        for (int i = 0; i < NUM_AVERAGES; ++i) {
+            stat[i].clear();
+        }
+        dhtNodes = 0;
+
+        for (Frame f : frames) {
+            f.clear();
+        }
+        for (long[] slot : window) {
+            Arrays.fill(slot, 0);
+        }
+        windowPos = 0;
+        windowSize = 0;
+        samples = 0;
+    }
+
+    private void updateChannels(long[] v) {
         long now = System.currentTimeMillis();
         long tickIntervalMs = now - lastTickTime;
         lastTickTime = now;
 
-        long received = alert.value(StatsMetric.NET_RECV_BYTES_COUNTER_INDEX);
-        long payload = alert.value(StatsMetric.NET_RECV_PAYLOAD_BYTES_COUNTER_INDEX);
+        long received = value(v, netRecvBytes);
+        long payload = value(v, netRecvPayloadBytes);
         long protocol = received - payload;
-        long ip = alert.value(StatsMetric.NET_RECV_IP_OVERHEAD_BYTES_COUNTER_INDEX);
+        long ip = value(v, netRecvIpOverheadBytes);
 
         payload -= stat[DOWNLOAD_PAYLOAD].total();
         protocol -= stat[DOWNLOAD_PROTOCOL].total();
@@ -74,10 +341,10 @@ public final class SessionStats {
         stat[DOWNLOAD_PROTOCOL].add(protocol);
         stat[DOWNLOAD_IP_PROTOCOL].add(ip);
 
-        long sent = alert.value(StatsMetric.NET_SENT_BYTES_COUNTER_INDEX);
-        payload = alert.value(StatsMetric.NET_SENT_PAYLOAD_BYTES_COUNTER_INDEX);
+        long sent = value(v, netSentBytes);
+        payload = value(v, netSentPayloadBytes);
         protocol = sent - payload;
-        ip = alert.value(StatsMetric.NET_SENT_IP_OVERHEAD_BYTES_COUNTER_INDEX);
+        ip = value(v, netSentIpOverheadBytes);
 
         payload -= stat[UPLOAD_PAYLOAD].total();
         protocol -= stat[UPLOAD_PROTOCOL].total();
@@ -87,14 +354,7 @@ public final class SessionStats {
         stat[UPLOAD_IP_PROTOCOL].add(ip);
 
         tick(tickIntervalMs);
-        dhtNodes = alert.value(StatsMetric.DHT_NODES_GAUGE_INDEX);
-    }
-
-    void clear() {
-        for (int i = 0; i < NUM_AVERAGES; ++i) {
-            stat[i].clear();
-        }
-        dhtNodes = 0;
+        dhtNodes = value(v, dhtNodesGauge);
     }
 
     // should be called once every second
@@ -104,6 +364,58 @@ public final class SessionStats {
         }
     }
 
+    private static long value(long[] v, int index) {
+        return index != -1 ? v[index] : 0;
+    }
+
+    private static Metrics metrics() {
+        List<StatsMetric> l = LibTorrent.sessionStatsMetrics();
+
+        int n = 0;
+        for (StatsMetric m : l) {
+            n = Math.max(n, m.valueIndex + 1);
+        }
+
+        Metrics r = new Metrics(n);
+        for (StatsMetric m : l) {
+            r.names[m.valueIndex] = m.name;
+            r.gauges[m.valueIndex] = m.type == StatsMetric.TYPE_GAUGE;
+        }
+        return r;
+    }
+
+    private static final class Metrics {
+
+        final String[] names;
+        final boolean[] gauges;
+
+        Metrics(int n) {
+            this.names = new String[n];
+            this.gauges = new boolean[n];
+        }
+    }
+
+    private static final class Frame {
+
+        final long[] values;
+        final long[] deltas;
+        final double[] rates;
+        long nanos;
+
+        Frame(int n) {
+            this.values = new long[n];
+            this.deltas = new long[n];
+            this.rates = new double[n];
+        }
+
+        void clear() {
+            Arrays.fill(values, 0);
+            Arrays.fill(deltas, 0);
+            Arrays.fill(rates, 0);
+            nanos = 0;
+        }
+    }
+
     private static final class Average {
 
         // total counters
@@ -95,6 +95,16 @@ public final class Sha1Hash
         return toHex();
     }
 
+    /**
+     * Returns an immutable pure java copy of this digest, suitable
+     * as the key of maps and sets.
+     *
+     * @return the key
+     */
+    public Sha1Key toKey() {
+        return Sha1Key.of(h);
+    }
+
     /**
      * @param obj {@inheritDoc}
      * @return {@inheritDoc}
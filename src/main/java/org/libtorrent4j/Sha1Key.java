@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.libtorrent4j.swig.libtorrent_jni;
+import org.libtorrent4j.swig.sha1_hash;
+
+/**
+ * An immutable, pure java, 20 bytes SHA-1 digest.
+ * <p>
+ * Unlike {@link Sha1Hash}, this type doesn't hold a native object, the
+ * bytes are packed in primitive fields and the hash code is computed
+ * once at construction time. It's intended to be used as the key of
+ * maps and sets, {@link #equals(Object)}, {@link #hashCode()} and
+ * {@link #compareTo(Sha1Key)} don't cross JNI.
+ * <p>
+ * The conversion to and from the native types is performed only when
+ * requested, see {@link #of(Sha1Hash)} and {@link #toSha1Hash()}.
+ *
+ * @author aldenml
+ * @see Sha256Key
+ */
+public final class Sha1Key implements Comparable<Sha1Key> {
+
+    /**
+     * The size in bytes of the digest.
+     */
+    public static final int SIZE = 20;
+
+    private final long w0;
+    private final long w1;
+    private final int w2;
+    private final int hash;
+
+    private Sha1Key(long w0, long w1, int w2, int hash) {
+        this.w0 = w0;
+        this.w1 = w1;
+        this.w2 = w2;
+        this.hash = hash;
+    }
+
+    /**
+     * @param bytes the array with the digest
+     * @param offset the offset of the first byte of the digest
+     * @return the key
+     */
+    public static Sha1Key of(byte[] bytes, int offset) {
+        if (offset < 0 || bytes.length - offset < SIZE) {
+            throw new IndexOutOfBoundsException("Not enough bytes for a sha1 digest at offset " + offset);
+        }
+
+        return new Sha1Key(HashKeys.getLong(bytes, offset),
+                HashKeys.getLong(bytes, offset + 8),
+                HashKeys.getInt(bytes, offset + 16),
+                HashKeys.hashCode(bytes, offset, SIZE));
+    }
+
+    /**
+     * @param bytes the digest, must be of length 20
+     * @return the key
+     */
+    public static Sha1Key of(byte[] bytes) {
+        if (bytes.length != SIZE) {
+            throw new IllegalArgumentException("bytes array must be of length 20");
+        }
+
+        return of(bytes, 0);
+    }
+
+    /**
+     * Copies the bytes of the native digest with a single memory copy.
+     *
+     * @param h the native digest
+     * @return the key
+     */
+    public static Sha1Key of(sha1_hash h) {
+        byte[] arr = new byte[SIZE];
+        libtorrent_jni.memoryCopyToArray(h.data_ptr(), arr, 0, SIZE);
+        return of(arr, 0);
+    }
+
+    /**
+     * @param h the digest
+     * @return the key
+     */
+    public static Sha1Key of(Sha1Hash h) {
+        return of(h.swig());
+    }
+
+    /**
+     * @param hex hex coded representation of the digest
+     * @return the key
+     */
+    public static Sha1Key parseHex(String hex) {
+        return of(Hex.decode(hex));
+    }
+
+    /**
+     * @return true if all the bytes of the digest are zero
+     */
+    public boolean isAllZeros() {
+        return w0 == 0 && w1 == 0 && w2 == 0;
+    }
+
+    /**
+     * Writes the digest in the given array.
+     *
+     * @param dst the target array
+     * @param offset the offset in the target array
+     */
+    public void getBytes(byte[] dst, int offset) {
+        if (offset < 0 || dst.length - offset < SIZE) {
+            throw new IndexOutOfBoundsException("Not enough space for a sha1 digest at offset " + offset);
+        }
+
+        HashKeys.putLong(dst, offset, w0);
+        HashKeys.putLong(dst, offset + 8, w1);
+        HashKeys.putInt(dst, offset + 16, w2);
+    }
+
+    /**
+     * Compares the digest with the bytes in the array, without allocations.
+     *
+     * @param bytes  the array
+     * @param offset the offset of the first byte of the other digest
+     * @return true if the bytes are the same
+     */
+    boolean equalsBytes(byte[] bytes, int offset) {
+        return w0 == HashKeys.getLong(bytes, offset)
+                && w1 == HashKeys.getLong(bytes, offset + 8)
+                && w2 == HashKeys.getInt(bytes, offset + 16);
+    }
+
+    /**
+     * @return the first 8 bytes of the digest, big-endian, the same value
+     * as the native {@code alert.torrent_shard_key()}
+     */
+    long shardKey() {
+        return w0;
+    }
+
+    /**
+     * @return a new array with the digest
+     */
+    public byte[] toBytes() {
+        byte[] arr = new byte[SIZE];
+        getBytes(arr, 0);
+        return arr;
+    }
+
+    /**
+     * Creates a new native digest with the same bytes.
+     *
+     * @return the native digest
+     */
+    public Sha1Hash toSha1Hash() {
+        return new Sha1Hash(new sha1_hash(Vectors.bytes2byte_vector(toBytes())));
+    }
+
+    /**
+     * @return the hex representation of the digest
+     */
+    public String toHex() {
+        char[] out = new char[SIZE << 1];
+        Hex.encode(w0, out, 0);
+        Hex.encode(w1, out, 16);
+        Hex.encode(w2, out, 32);
+        return new String(out);
+    }
+
+    /**
+     * Compares the digests as unsigned big-endian numbers, the same
+     * order used by libtorrent (and {@link Sha1Hash#compareTo(Sha1Hash)}).
+     *
+     * @param o {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int compareTo(Sha1Key o) {
+        int r = Long.compareUnsigned(w0, o.w0);
+        if (r != 0) {
+            return r;
+        }
+        r = Long.compareUnsigned(w1, o.w1);
+        if (r != 0) {
+            return r;
+        }
+        return Integer.compareUnsigned(w2, o.w2);
+    }
+
+    /**
+     * @param obj {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Sha1Key)) {
+            return false;
+        }
+
+        Sha1Key o = (Sha1Key) obj;
+        return hash == o.hash && w0 == o.w0 && w1 == o.w1 && w2 == o.w2;
+    }
+
+    /**
+     * Returns the same value as {@link Sha1Hash#hashCode()} for the
+     * same digest.
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return toHex();
+    }
+}
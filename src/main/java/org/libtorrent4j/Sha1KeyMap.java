@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An open-addressing (linear probing) hash map with {@link Sha1Key} keys.
+ * <p>
+ * There are no entry objects, keys and values are stored in two parallel
+ * arrays, and removals use backward shifting, so there are no tombstones.
+ * <p>
+ * This class is not thread safe. However, {@link #get(Sha1Key)} never
+ * throws or loops forever while another thread modifies the map, it
+ * only can return a stale result. This allows the use of an optimistic
+ * read lock (validated after the lookup) by the owner of the map.
+ *
+ * @author aldenml
+ */
+final class Sha1KeyMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private Sha1Key[] keys;
+    private Object[] values;
+    private int size;
+
+    Sha1KeyMap(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        this.keys = new Sha1Key[capacity];
+        this.values = new Object[capacity];
+    }
+
+    Sha1KeyMap() {
+        this(0);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(Sha1Key key) {
+        Sha1Key[] ks = keys;
+        Object[] vs = values;
+        int n = ks.length;
+        if (vs.length != n) {
+            // resize in progress
+            return null;
+        }
+
+        int mask = n - 1;
+        int i = index(key, mask);
+        for (int probes = 0; probes < n; probes++) {
+            Sha1Key k = ks[i];
+            if (k == null) {
+                return null;
+            }
+            if (k.equals(key)) {
+                return (V) vs[i];
+            }
+            i = (i + 1) & mask;
+        }
+
+        return null;
+    }
+
+    boolean containsKey(Sha1Key key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @param key   the key
+     * @param value the value, can't be null
+     * @return the previous value, or null
+     */
+    @SuppressWarnings("unchecked")
+    V put(Sha1Key key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value can't be null");
+        }
+
+        int mask = keys.length - 1;
+        int i = index(key, mask);
+        Sha1Key k;
+        while ((k = keys[i]) != null) {
+            if (k.equals(key)) {
+                V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+
+        values[i] = value;
+        keys[i] = key;
+        size++;
+
+        if (size > (keys.length >> 1)) {
+            rehash(keys.length << 1);
+        }
+
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V remove(Sha1Key key) {
+        int mask = keys.length - 1;
+        int i = index(key, mask);
+        Sha1Key k;
+        while ((k = keys[i]) != null) {
+            if (k.equals(key)) {
+                V old = (V) values[i];
+                shiftBack(i, mask);
+                size--;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+
+        return null;
+    }
+
+    void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * @return a new list with the keys, in no particular order
+     */
+    List<Sha1Key> keys() {
+        ArrayList<Sha1Key> l = new ArrayList<>(size);
+        for (Sha1Key k : keys) {
+            if (k != null) {
+                l.add(k);
+            }
+        }
+        return l;
+    }
+
+    /**
+     * @return a new list with the values, in no particular order
+     */
+    @SuppressWarnings("unchecked")
+    List<V> values() {
+        ArrayList<V> l = new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                l.add((V) values[i]);
+            }
+        }
+        return l;
+    }
+
+    private void shiftBack(int hole, int mask) {
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            Sha1Key k = keys[i];
+            if (k == null) {
+                break;
+            }
+
+            int home = index(k, mask);
+            // move k to the hole if its home is not in (hole, i]
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = k;
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+
+        keys[hole] = null;
+        values[hole] = null;
+    }
+
+    private void rehash(int capacity) {
+        Sha1Key[] oldKeys = keys;
+        Object[] oldValues = values;
+
+        Sha1Key[] newKeys = new Sha1Key[capacity];
+        Object[] newValues = new Object[capacity];
+        int mask = capacity - 1;
+
+        for (int j = 0; j < oldKeys.length; j++) {
+            Sha1Key k = oldKeys[j];
+            if (k != null) {
+                int i = index(k, mask);
+                while (newKeys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                newKeys[i] = k;
+                newValues[i] = oldValues[j];
+            }
+        }
+
+        keys = newKeys;
+        values = newValues;
+    }
+
+    private static int index(Sha1Key key, int mask) {
+        int h = key.hashCode() * 0x9e3779b9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -91,6 +91,16 @@ public final class Sha256Hash
         return toHex();
     }
 
+    /**
+     * Returns an immutable pure java copy of this digest, suitable
+     * as the key of maps and sets.
+     *
+     * @return the key
+     */
+    public Sha256Key toKey() {
+        return Sha256Key.of(h);
+    }
+
     /**
      * @param obj {@inheritDoc}
      * @return {@inheritDoc}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.libtorrent4j.swig.libtorrent_jni;
+import org.libtorrent4j.swig.sha256_hash;
+
+/**
+ * An immutable, pure java, 32 bytes SHA-256 digest.
+ * <p>
+ * Unlike {@link Sha256Hash}, this type doesn't hold a native object, the
+ * bytes are packed in primitive fields and the hash code is computed
+ * once at construction time. It's intended to be used as the key of
+ * maps and sets, {@link #equals(Object)}, {@link #hashCode()} and
+ * {@link #compareTo(Sha256Key)} don't cross JNI.
+ * <p>
+ * The conversion to and from the native types is performed only when
+ * requested, see {@link #of(Sha256Hash)} and {@link #toSha256Hash()}.
+ *
+ * @author aldenml
+ * @see Sha256Key
+ */
+public final class Sha256Key implements Comparable<Sha256Key> {
+
+    /**
+     * The size in bytes of the digest.
+     */
+    public static final int SIZE = 32;
+
+    private final long w0;
+    private final long w1;
+    private final long w2;
+    private final long w3;
+    private final int hash;
+
+    private Sha256Key(long w0, long w1, long w2, long w3, int hash) {
+        this.w0 = w0;
+        this.w1 = w1;
+        this.w2 = w2;
+        this.w3 = w3;
+        this.hash = hash;
+    }
+
+    /**
+     * @param bytes the array with the digest
+     * @param offset the offset of the first byte of the digest
+     * @return the key
+     */
+    public static Sha256Key of(byte[] bytes, int offset) {
+        if (offset < 0 || bytes.length - offset < SIZE) {
+            throw new IndexOutOfBoundsException("Not enough bytes for a sha256 digest at offset " + offset);
+        }
+
+        return new Sha256Key(HashKeys.getLong(bytes, offset),
+                HashKeys.getLong(bytes, offset + 8),
+                HashKeys.getLong(bytes, offset + 16),
+                HashKeys.getLong(bytes, offset + 24),
+                HashKeys.hashCode(bytes, offset, SIZE));
+    }
+
+    /**
+     * @param bytes the digest, must be of length 32
+     * @return the key
+     */
+    public static Sha256Key of(byte[] bytes) {
+        if (bytes.length != SIZE) {
+            throw new IllegalArgumentException("bytes array must be of length 32");
+        }
+
+        return of(bytes, 0);
+    }
+
+    /**
+     * Copies the bytes of the native digest with a single memory copy.
+     *
+     * @param h the native digest
+     * @return the key
+     */
+    public static Sha256Key of(sha256_hash h) {
+        byte[] arr = new byte[SIZE];
+        libtorrent_jni.memoryCopyToArray(h.data_ptr(), arr, 0, SIZE);
+        return of(arr, 0);
+    }
+
+    /**
+     * @param h the digest
+     * @return the key
+     */
+    public static Sha256Key of(Sha256Hash h) {
+        return of(h.swig());
+    }
+
+    /**
+     * @param hex hex coded representation of the digest
+     * @return the key
+     */
+    public static Sha256Key parseHex(String hex) {
+        return of(Hex.decode(hex));
+    }
+
+    /**
+     * @return true if all the bytes of the digest are zero
+     */
+    public boolean isAllZeros() {
+        return w0 == 0 && w1 == 0 && w2 == 0 && w3 == 0;
+    }
+
+    /**
+     * Writes the digest in the given array.
+     *
+     * @param dst the target array
+     * @param offset the offset in the target array
+     */
+    public void getBytes(byte[] dst, int offset) {
+        if (offset < 0 || dst.length - offset < SIZE) {
+            throw new IndexOutOfBoundsException("Not enough space for a sha256 digest at offset " + offset);
+        }
+
+        HashKeys.putLong(dst, offset, w0);
+        HashKeys.putLong(dst, offset + 8, w1);
+        HashKeys.putLong(dst, offset + 16, w2);
+        HashKeys.putLong(dst, offset + 24, w3);
+    }
+
+    /**
+     * @return a new array with the digest
+     */
+    public byte[] toBytes() {
+        byte[] arr = new byte[SIZE];
+        getBytes(arr, 0);
+        return arr;
+    }
+
+    /**
+     * Creates a new native digest with the same bytes.
+     *
+     * @return the native digest
+     */
+    public Sha256Hash toSha256Hash() {
+        return new Sha256Hash(new sha256_hash(Vectors.bytes2byte_vector(toBytes())));
+    }
+
+    /**
+     * Returns the first 20 bytes of the digest, this is how libtorrent
+     * uses a v2 info-hash where a v1 one is expected (for example in the
+     * DHT and the trackers).
+     *
+     * @return the truncated digest
+     */
+    public Sha1Key toSha1Key() {
+        return Sha1Key.of(toBytes(), 0);
+    }
+
+    /**
+     * @return the hex representation of the digest
+     */
+    public String toHex() {
+        char[] out = new char[SIZE << 1];
+        Hex.encode(w0, out, 0);
+        Hex.encode(w1, out, 16);
+        Hex.encode(w2, out, 32);
+        Hex.encode(w3, out, 48);
+        return new String(out);
+    }
+
+    /**
+     * Compares the digests as unsigned big-endian numbers, the same
+     * order used by libtorrent (and {@link Sha256Hash#compareTo(Sha256Hash)}).
+     *
+     * @param o {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int compareTo(Sha256Key o) {
+        int r = Long.compareUnsigned(w0, o.w0);
+        if (r != 0) {
+            return r;
+        }
+        r = Long.compareUnsigned(w1, o.w1);
+        if (r != 0) {
+            return r;
+        }
+        r = Long.compareUnsigned(w2, o.w2);
+        if (r != 0) {
+            return r;
+        }
+        return Long.compareUnsigned(w3, o.w3);
+    }
+
+    /**
+     * @param obj {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Sha256Key)) {
+            return false;
+        }
+
+        Sha256Key o = (Sha256Key) obj;
+        return hash == o.hash && w0 == o.w0 && w1 == o.w1 && w2 == o.w2 && w3 == o.w3;
+    }
+
+    /**
+     * Returns the same value as {@link Sha256Hash#hashCode()} for the
+     * same digest.
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * @return {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return toHex();
+    }
+}
@@ -25,6 +25,7 @@ import org.libtorrent4j.swig.file_progress_flags_t;
 import org.libtorrent4j.swig.int64_vector;
 import org.libtorrent4j.swig.int_vector;
 import org.libtorrent4j.swig.libtorrent;
+import org.libtorrent4j.swig.libtorrent_jni;
 import org.libtorrent4j.swig.partial_piece_info_vector;
 import org.libtorrent4j.swig.peer_info_vector;
 import org.libtorrent4j.swig.reannounce_flags_t;
@@ -35,6 +36,7 @@ import org.libtorrent4j.swig.torrent_handle;
 import org.libtorrent4j.swig.torrent_info;
 import org.libtorrent4j.swig.torrent_status;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -75,6 +77,7 @@ public final class TorrentHandle
     private static final long REQUEST_STATUS_RESOLUTION_MILLIS = 500;
     // cache this zero flag for performance reasons
     private static final status_flags_t STATUS_FLAGS_ZERO = new status_flags_t();
+    private static final add_piece_flags_t ADD_PIECE_FLAGS_ZERO = new add_piece_flags_t();
 
     private long lastStatusRequestTime;
     private TorrentStatus lastStatus;
@@ -129,6 +132,73 @@ public final class TorrentHandle
         h.add_piece_bytes(piece, Vectors.bytes2byte_vector(data));
     }
 
+    /**
+     * Same as {@link #addPiece(int, byte[], add_piece_flags_t)} but taking the
+     * piece data from the remaining bytes of {@code data}.
+     * <p>
+     * If the buffer is direct, the native memory is handed to libtorrent
+     * directly, without any intermediate java array or vector. Heap buffers
+     * are transferred with a single bulk copy. The position of the buffer
+     * is advanced to its limit.
+     *
+     * @param piece the piece index
+     * @param data  the piece data
+     * @param flags flags
+     */
+    public void addPiece(int piece, ByteBuffer data, add_piece_flags_t flags) {
+        int size = data.remaining();
+        int position = data.position();
+
+        if (data.isDirect()) {
+            long address = libtorrent_jni.directBufferAddress(data);
+            h.add_piece_ptr(piece, address + position, size, flags);
+            data.position(position + size);
+        } else {
+            h.add_piece_bytes(piece, Vectors.buffer2byte_vector(data), flags);
+        }
+    }
+
+    /**
+     * Same as calling {@link #addPiece(int, ByteBuffer, add_piece_flags_t)} with
+     * {@code flags} with value 0.
+     *
+     * @param piece the piece index
+     * @param data  the piece data
+     */
+    public void addPiece(int piece, ByteBuffer data) {
+        addPiece(piece, data, ADD_PIECE_FLAGS_ZERO);
+    }
+
+    /**
+     * Adds several pieces in one call, {@code data[i]} is the content of the
+     * piece {@code pieces[i]}. See {@link #addPiece(int, ByteBuffer, add_piece_flags_t)}
+     * for the details about each buffer.
+     *
+     * @param pieces the piece indexes
+     * @param data   the pieces data
+     * @param flags  flags
+     */
+    public void addPieces(int[] pieces, ByteBuffer[] data, add_piece_flags_t flags) {
+        if (pieces.length != data.length) {
+            throw new IllegalArgumentException("pieces and data must have the same length");
+        }
+
+        for (int i = 0; i < pieces.length; i++) {
+            addPiece(pieces[i], data[i], flags);
+        }
+    }
+
+    /**
+     * Same as calling {@link #addPieces(int[], ByteBuffer[], add_piece_flags_t)} with
+     * {@code flags} with value 0.
+     *
+     * @param pieces the piece indexes
+     * @param data   the pieces data
+     */
+    public void addPieces(int[] pieces, ByteBuffer[] data) {
+        addPieces(pieces, data, ADD_PIECE_FLAGS_ZERO);
+    }
+
     /**
      * This function starts an asynchronous read operation of the specified
      * piece from this torrent. You must have completed the download of the
@@ -1192,6 +1262,44 @@ public final class TorrentHandle
         return Priority.vector2array(v);
     }
 
+    /**
+     * Same as {@link #prioritizePieces(Priority[])}, but with the native
+     * values (see {@link Priority#swig()}), copied in bulk.
+     *
+     * @param priorities the priorities, one per piece
+     */
+    public void prioritizePieces(byte[] priorities) {
+        h.prioritize_pieces_ex(Vectors.bytes2byte_vector(priorities));
+    }
+
+    /**
+     * Sets the priority of the pieces in the range {@code [first, last)}
+     * with a single native call, the priority of the other pieces is not
+     * modified.
+     *
+     * @param first    the first piece, inclusive
+     * @param last     the last piece, exclusive
+     * @param priority the priority
+     * @throws IndexOutOfBoundsException if the range is invalid, or goes past
+     *                                   the pieces of the torrent when the metadata
+     *                                   is available
+     */
+    public void prioritizePieces(int first, int last, Priority priority) {
+        TorrentInfo ti = torrentFile();
+        checkRange(first, last, ti != null ? ti.numPieces() : Integer.MAX_VALUE);
+        h.prioritize_piece_range_ex(first, last, priority.swig());
+    }
+
+    /**
+     * Same as {@link #piecePriorities()}, but with the native values
+     * (see {@link Priority#swig()}), copied in bulk.
+     *
+     * @return the priorities, one per piece
+     */
+    public byte[] piecePrioritiesBytes() {
+        return Vectors.byte_vector2bytes(h.get_piece_priorities_ex());
+    }
+
     /**
      * index must be in the range [0, number_of_files).
      * <p>
@@ -1247,6 +1355,44 @@ public final class TorrentHandle
         return Priority.vector2array(v);
     }
 
+    /**
+     * Same as {@link #prioritizeFiles(Priority[])}, but with the native
+     * values (see {@link Priority#swig()}), copied in bulk.
+     *
+     * @param priorities the priorities, one per file
+     */
+    public void prioritizeFiles(byte[] priorities) {
+        h.prioritize_files_ex(Vectors.bytes2byte_vector(priorities));
+    }
+
+    /**
+     * Sets the priority of the files in the range {@code [first, last)}
+     * with a single native call, the priority of the other files is not
+     * modified.
+     *
+     * @param first    the first file, inclusive
+     * @param last     the last file, exclusive
+     * @param priority the priority
+     * @throws IndexOutOfBoundsException if the range is invalid, or goes past
+     *                                   the files of the torrent when the metadata
+     *                                   is available
+     */
+    public void prioritizeFiles(int first, int last, Priority priority) {
+        TorrentInfo ti = torrentFile();
+        checkRange(first, last, ti != null ? ti.numFiles() : Integer.MAX_VALUE);
+        h.prioritize_file_range_ex(first, last, priority.swig());
+    }
+
+    /**
+     * Same as {@link #filePriorities()}, but with the native values
+     * (see {@link Priority#swig()}), copied in bulk.
+     *
+     * @return the priorities, one per file
+     */
+    public byte[] filePrioritiesBytes() {
+        return Vectors.byte_vector2bytes(h.get_file_priorities_ex());
+    }
+
     /**
      * This function sets or resets the deadline associated with a specific
      * piece index (``index``). libtorrent will attempt to download this
@@ -1480,4 +1626,10 @@ public final class TorrentHandle
 
         return l;
     }
+
+    private static void checkRange(int first, int last, int size) {
+        if (first < 0 || first > last || last > size) {
+            throw new IndexOutOfBoundsException("first: " + first + ", last: " + last + ", size: " + size);
+        }
+    }
 }
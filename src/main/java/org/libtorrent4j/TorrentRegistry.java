@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.libtorrent4j.swig.info_hash_t;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * The canonical {@link TorrentHandle} of each torrent in the session,
+ * indexed by the v1 info-hash and the truncated v2 info-hash.
+ * <p>
+ * It's kept in sync by {@link SessionManager} from the add and remove
+ * alerts, lookups and iteration don't cross JNI. Returning always the
+ * same handle instance also preserves its status cache.
+ * <p>
+ * A key can be reserved while an asynchronous add is in flight, so
+ * that duplicate checks see the torrent before the alert arrives. The
+ * reservations expire, the add alert can be lost if the alert queue
+ * overflows, and an expired reservation can be taken by a new add.
+ *
+ * @author aldenml
+ */
+final class TorrentRegistry {
+
+    /**
+     * The result of {@link #reserve(Sha1Key)} if the key was free.
+     */
+    static final int RESERVED = 0;
+
+    /**
+     * The result of {@link #reserve(Sha1Key)} if the key had an expired
+     * reservation, the torrent may be in the session already.
+     */
+    static final int RESERVED_EXPIRED = 1;
+
+    /**
+     * The result of {@link #reserve(Sha1Key)} if the key is in use.
+     */
+    static final int NOT_RESERVED = 2;
+
+    private final long reservationTimeout;
+
+    private final StampedLock lock;
+    private final Sha1KeyMap<Object> map;
+    private final ArrayList<TorrentHandle> handles;
+
+    /**
+     * @param reservationTimeout the timeout of the reservations in milliseconds
+     */
+    TorrentRegistry(long reservationTimeout) {
+        this.reservationTimeout = TimeUnit.MILLISECONDS.toNanos(reservationTimeout);
+        this.lock = new StampedLock();
+        this.map = new Sha1KeyMap<>();
+        this.handles = new ArrayList<>();
+    }
+
+    /**
+     * @param key the v1 or truncated v2 info-hash
+     * @return the handle, or null if not found (or only reserved)
+     */
+    TorrentHandle get(Sha1Key key) {
+        Object v = lookup(key);
+        return v instanceof TorrentHandle ? (TorrentHandle) v : null;
+    }
+
+    /**
+     * @param key the v1 or truncated v2 info-hash
+     * @return true if the torrent is in the registry or reserved
+     */
+    boolean contains(Sha1Key key) {
+        Object v = lookup(key);
+        return v instanceof TorrentHandle ||
+                (v instanceof Reservation && !expired((Reservation) v, System.nanoTime()));
+    }
+
+    /**
+     * Marks the key as being added, if there is no torrent for it.
+     *
+     * @param key the info-hash key
+     * @return {@link #RESERVED}, {@link #RESERVED_EXPIRED} or {@link #NOT_RESERVED}
+     */
+    int reserve(Sha1Key key) {
+        return reserve(key, System.nanoTime());
+    }
+
+    int reserve(Sha1Key key, long now) {
+        long stamp = lock.writeLock();
+        try {
+            Object v = map.get(key);
+            int r = RESERVED;
+            if (v != null) {
+                if (!(v instanceof Reservation) || !expired((Reservation) v, now)) {
+                    return NOT_RESERVED;
+                }
+                r = RESERVED_EXPIRED;
+            }
+            map.put(key, new Reservation(now));
+            return r;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Clears a reservation, a no-op if the key is mapped to a handle.
+     *
+     * @param key the info-hash key
+     */
+    void release(Sha1Key key) {
+        long stamp = lock.writeLock();
+        try {
+            if (map.get(key) instanceof Reservation) {
+                map.remove(key);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Registers the handle under the given keys. If there is already a
+     * handle for any of the keys, that one is kept and returned.
+     *
+     * @param th   the handle
+     * @param keys the info-hash keys of the torrent
+     * @return the canonical handle
+     */
+    TorrentHandle add(TorrentHandle th, Sha1Key[] keys) {
+        long stamp = lock.writeLock();
+        try {
+            TorrentHandle existing = null;
+            for (Sha1Key k : keys) {
+                Object v = map.get(k);
+                if (v instanceof TorrentHandle) {
+                    existing = (TorrentHandle) v;
+                    break;
+                }
+            }
+            if (existing != null) {
+                th = existing;
+            } else {
+                handles.add(th);
+            }
+            for (Sha1Key k : keys) {
+                map.put(k, th);
+            }
+            return th;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the torrent (or reservation) registered under the keys.
+     *
+     * @param keys the info-hash keys of the torrent
+     */
+    void remove(Sha1Key[] keys) {
+        long stamp = lock.writeLock();
+        try {
+            for (Sha1Key k : keys) {
+                Object v = map.remove(k);
+                if (v instanceof TorrentHandle) {
+                    removeHandle((TorrentHandle) v);
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return a snapshot of the registered handles
+     */
+    List<TorrentHandle> handles() {
+        long stamp = lock.readLock();
+        try {
+            return new ArrayList<>(handles);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    int size() {
+        long stamp = lock.readLock();
+        try {
+            return handles.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    void clear() {
+        long stamp = lock.writeLock();
+        try {
+            map.clear();
+            handles.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private boolean expired(Reservation r, long now) {
+        return now - r.time >= reservationTimeout;
+    }
+
+    // by identity, the equality of handles is a native call
+    private void removeHandle(TorrentHandle th) {
+        int n = handles.size();
+        for (int i = 0; i < n; i++) {
+            if (handles.get(i) == th) {
+                handles.set(i, handles.get(n - 1));
+                handles.remove(n - 1);
+                return;
+            }
+        }
+    }
+
+    private Object lookup(Sha1Key key) {
+        long stamp = lock.tryOptimisticRead();
+        Object v = map.get(key);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                v = map.get(key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return v;
+    }
+
+    /**
+     * Returns the keys a torrent is found by, the v1 info-hash and the
+     * truncated v2 info-hash (if present and different).
+     *
+     * @param ih the native info-hashes
+     * @return the keys
+     */
+    static Sha1Key[] keys(info_hash_t ih) {
+        InfoHash h = new InfoHash(ih);
+        boolean v1 = h.hasV1();
+        boolean v2 = h.hasV2();
+
+        if (v1 && v2) {
+            Sha1Key k1 = h.v1Key();
+            Sha1Key k2 = h.v2Key().toSha1Key();
+            return k1.equals(k2) ? new Sha1Key[]{k1} : new Sha1Key[]{k1, k2};
+        }
+
+        return new Sha1Key[]{h.bestKey()};
+    }
+
+    private static final class Reservation {
+
+        final long time;
+
+        Reservation(long time) {
+            this.time = time;
+        }
+    }
+}
@@ -16,6 +16,7 @@ import org.libtorrent4j.swig.torrent_status;
 public final class TorrentStats {
 
     private final Sha1Hash ih;
+    private final Sha1Key key;
 
     private final int maxSamples;
 
@@ -53,6 +54,7 @@ public final class TorrentStats {
 
     public TorrentStats(Sha1Hash infoHash, int maxSamples) {
         this.ih = infoHash.clone();
+        this.key = infoHash.toKey();
 
         this.maxSamples = maxSamples;
 
@@ -392,6 +394,67 @@ public final class TorrentStats {
         isFinished = st.getIs_finished();
     }
 
+    /**
+     * Updates the stats from the torrent at {@code index} in the batch,
+     * without any native call.
+     *
+     * @param batch the status batch
+     * @param index the torrent index in the batch
+     */
+    public void update(TorrentStatusBatch batch, int index) {
+        if (!batch.infoHashEquals(index, key)) {
+            return; // not for us
+        }
+
+        time.add(System.currentTimeMillis());
+
+        downloadRateSeries.add(batch.downloadRate(index));
+        uploadRateSeries.add(batch.uploadRate(index));
+
+        totalDownload = batch.totalDownload(index);
+        totalUpload = batch.totalUpload(index);
+        totalPayloadDownload = batch.totalPayloadDownload(index);
+        totalPayloadUpload = batch.totalPayloadUpload(index);
+        totalDone = batch.totalDone(index);
+        totalWantedDone = batch.totalWantedDone(index);
+        totalWanted = batch.totalWanted(index);
+        allTimeUpload = batch.allTimeUpload(index);
+        allTimeDownload = batch.allTimeDownload(index);
+        progress = batch.progress(index);
+        progressPpm = batch.progressPpm(index);
+        downloadRate = batch.downloadRate(index);
+        uploadRate = batch.uploadRate(index);
+        downloadPayloadRate = batch.downloadPayloadRate(index);
+        uploadPayloadRate = batch.uploadPayloadRate(index);
+        numSeeds = batch.numSeeds(index);
+        numPeers = batch.numPeers(index);
+        listSeeds = batch.listSeeds(index);
+        listPeers = batch.listPeers(index);
+        numPieces = batch.numPieces(index);
+        numConnections = batch.numConnections(index);
+        state = batch.state(index);
+        needSaveResume = batch.needSaveResume(index);
+        isPaused = batch.isPaused(index);
+        isSequentialDownload = batch.isSequentialDownload(index);
+        isSeeding = batch.isSeeding(index);
+        isFinished = batch.isFinished(index);
+    }
+
+    /**
+     * Updates the stats from the batch, if the torrent is in it.
+     *
+     * @param batch the status batch
+     */
+    public void update(TorrentStatusBatch batch) {
+        int size = batch.size();
+        for (int i = 0; i < size; i++) {
+            if (batch.infoHashEquals(i, key)) {
+                update(batch, i);
+                return;
+            }
+        }
+    }
+
     public enum SeriesMetric {
         TIME,
         DOWNLOAD_RATE,
@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.libtorrent4j.alerts.StateUpdateAlert;
+import org.libtorrent4j.swig.libtorrent_jni;
+
+/**
+ * A columnar snapshot of the torrent status in a {@link StateUpdateAlert}.
+ * <p>
+ * All the values are copied with a single native call into primitive
+ * arrays, one column per field, and read with index based accessors,
+ * with {@code 0 <= index < size()}. The arrays are reused between calls
+ * to {@link #fill(StateUpdateAlert)} and only grow when more torrents are
+ * reported, this allows to process thousands of torrents per update
+ * without allocations and without a JNI call per field.
+ * <p>
+ * Only the most used fields are part of the snapshot, for everything
+ * else use {@link StateUpdateAlert#status()}.
+ * This class is not thread safe.
+ *
+ * @author aldenml
+ */
+public final class TorrentStatusBatch {
+
+    // long columns, keep in sync with the native code
+    private static final int TOTAL_DOWNLOAD = 0;
+    private static final int TOTAL_UPLOAD = 1;
+    private static final int TOTAL_PAYLOAD_DOWNLOAD = 2;
+    private static final int TOTAL_PAYLOAD_UPLOAD = 3;
+    private static final int TOTAL_DONE = 4;
+    private static final int TOTAL_WANTED_DONE = 5;
+    private static final int TOTAL_WANTED = 6;
+    private static final int TOTAL = 7;
+    private static final int ALL_TIME_UPLOAD = 8;
+    private static final int ALL_TIME_DOWNLOAD = 9;
+    private static final int FLAGS = 10;
+    private static final int LONG_COLUMNS = 11;
+
+    // int columns, keep in sync with the native code
+    private static final int DOWNLOAD_RATE = 0;
+    private static final int UPLOAD_RATE = 1;
+    private static final int DOWNLOAD_PAYLOAD_RATE = 2;
+    private static final int UPLOAD_PAYLOAD_RATE = 3;
+    private static final int NUM_SEEDS = 4;
+    private static final int NUM_PEERS = 5;
+    private static final int LIST_SEEDS = 6;
+    private static final int LIST_PEERS = 7;
+    private static final int NUM_PIECES = 8;
+    private static final int NUM_CONNECTIONS = 9;
+    private static final int PROGRESS_PPM = 10;
+    private static final int STATE = 11;
+    private static final int QUEUE_POSITION = 12;
+    private static final int BITS = 13;
+    private static final int INT_COLUMNS = 14;
+
+    // bits of the BITS column
+    private static final int IS_SEEDING = 1 << 0;
+    private static final int IS_FINISHED = 1 << 1;
+    private static final int HAS_METADATA = 1 << 2;
+    private static final int NEED_SAVE_RESUME = 1 << 3;
+    private static final int MOVING_STORAGE = 1 << 4;
+    private static final int HAS_INCOMING = 1 << 5;
+    private static final int PAUSED = 1 << 6;
+    private static final int AUTO_MANAGED = 1 << 7;
+    private static final int SEQUENTIAL_DOWNLOAD = 1 << 8;
+    private static final int UPLOAD_MODE = 1 << 9;
+
+    private static final int HASH_SIZE = Sha1Key.SIZE;
+
+    private int capacity;
+    private int size;
+
+    private long[] longs;
+    private int[] ints;
+    private byte[] hashes;
+
+    /**
+     * @param initialCapacity the initial number of torrents
+     */
+    public TorrentStatusBatch(int initialCapacity) {
+        allocate(Math.max(initialCapacity, 1));
+    }
+
+    public TorrentStatusBatch() {
+        this(64);
+    }
+
+    /**
+     * Replaces the content of this batch with the status in the alert.
+     *
+     * @param alert the alert
+     * @return the number of torrents in the batch, zero if the native code
+     * can't access the arrays
+     */
+    public int fill(StateUpdateAlert alert) {
+        long ptr = alert.swig().status_ptr();
+        int n = (int) alert.swig().getStatus().size();
+
+        reserve(n);
+
+        size = n == 0 ? 0 : libtorrent_jni.torrentStatusBatch(ptr, capacity, longs, ints, hashes);
+        return size;
+    }
+
+    /**
+     * Fills the batch in the same way as the native code, with one row of
+     * long columns, int columns and info-hash per torrent. Only for tests.
+     */
+    void fill(long[][] longRows, int[][] intRows, byte[][] hashRows) {
+        int n = longRows.length;
+
+        reserve(n);
+
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < LONG_COLUMNS; j++) {
+                longs[j * capacity + i] = longRows[i][j];
+            }
+            for (int j = 0; j < INT_COLUMNS; j++) {
+                ints[j * capacity + i] = intRows[i][j];
+            }
+            System.arraycopy(hashRows[i], 0, hashes, i * HASH_SIZE, HASH_SIZE);
+        }
+        size = n;
+    }
+
+    /**
+     * @return the number of torrents in the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index the torrent index
+     * @return the best info-hash of the torrent (v1 or truncated v2)
+     */
+    public Sha1Key infoHash(int index) {
+        checkIndex(index);
+        return Sha1Key.of(hashes, index * HASH_SIZE);
+    }
+
+    /**
+     * Compares the info-hash of the torrent without allocations.
+     *
+     * @param index the torrent index
+     * @param key   the info-hash
+     * @return true if the info-hash of the torrent is {@code key}
+     */
+    public boolean infoHashEquals(int index, Sha1Key key) {
+        checkIndex(index);
+        return key.equalsBytes(hashes, index * HASH_SIZE);
+    }
+
+    /**
+     * Copies the 20 bytes of the best info-hash of the torrent.
+     *
+     * @param index  the torrent index
+     * @param dst    the target array
+     * @param offset the offset in the target array
+     */
+    public void infoHash(int index, byte[] dst, int offset) {
+        checkIndex(index);
+        System.arraycopy(hashes, index * HASH_SIZE, dst, offset, HASH_SIZE);
+    }
+
+    public long totalDownload(int index) {
+        return longColumn(TOTAL_DOWNLOAD, index);
+    }
+
+    public long totalUpload(int index) {
+        return longColumn(TOTAL_UPLOAD, index);
+    }
+
+    public long totalPayloadDownload(int index) {
+        return longColumn(TOTAL_PAYLOAD_DOWNLOAD, index);
+    }
+
+    public long totalPayloadUpload(int index) {
+        return longColumn(TOTAL_PAYLOAD_UPLOAD, index);
+    }
+
+    public long totalDone(int index) {
+        return longColumn(TOTAL_DONE, index);
+    }
+
+    public long totalWantedDone(int index) {
+        return longColumn(TOTAL_WANTED_DONE, index);
+    }
+
+    public long totalWanted(int index) {
+        return longColumn(TOTAL_WANTED, index);
+    }
+
+    public long total(int index) {
+        return longColumn(TOTAL, index);
+    }
+
+    public long allTimeUpload(int index) {
+        return longColumn(ALL_TIME_UPLOAD, index);
+    }
+
+    public long allTimeDownload(int index) {
+        return longColumn(ALL_TIME_DOWNLOAD, index);
+    }
+
+    /**
+     * @param index the torrent index
+     * @return the raw value of the torrent flags, see {@link TorrentFlags}
+     */
+    public long flags(int index) {
+        return longColumn(FLAGS, index);
+    }
+
+    public int downloadRate(int index) {
+        return intColumn(DOWNLOAD_RATE, index);
+    }
+
+    public int uploadRate(int index) {
+        return intColumn(UPLOAD_RATE, index);
+    }
+
+    public int downloadPayloadRate(int index) {
+        return intColumn(DOWNLOAD_PAYLOAD_RATE, index);
+    }
+
+    public int uploadPayloadRate(int index) {
+        return intColumn(UPLOAD_PAYLOAD_RATE, index);
+    }
+
+    public int numSeeds(int index) {
+        return intColumn(NUM_SEEDS, index);
+    }
+
+    public int numPeers(int index) {
+        return intColumn(NUM_PEERS, index);
+    }
+
+    public int listSeeds(int index) {
+        return intColumn(LIST_SEEDS, index);
+    }
+
+    public int listPeers(int index) {
+        return intColumn(LIST_PEERS, index);
+    }
+
+    public int numPieces(int index) {
+        return intColumn(NUM_PIECES, index);
+    }
+
+    public int numConnections(int index) {
+        return intColumn(NUM_CONNECTIONS, index);
+    }
+
+    /**
+     * @param index the torrent index
+     * @return the progress in parts per million
+     */
+    public int progressPpm(int index) {
+        return intColumn(PROGRESS_PPM, index);
+    }
+
+    /**
+     * @param index the torrent index
+     * @return the progress in [0, 1], computed from {@link #progressPpm(int)}
+     */
+    public float progress(int index) {
+        return progressPpm(index) / 1000000f;
+    }
+
+    public TorrentStatus.State state(int index) {
+        return TorrentStatus.State.fromSwig(intColumn(STATE, index));
+    }
+
+    public int queuePosition(int index) {
+        return intColumn(QUEUE_POSITION, index);
+    }
+
+    public boolean isSeeding(int index) {
+        return bit(index, IS_SEEDING);
+    }
+
+    public boolean isFinished(int index) {
+        return bit(index, IS_FINISHED);
+    }
+
+    public boolean hasMetadata(int index) {
+        return bit(index, HAS_METADATA);
+    }
+
+    public boolean needSaveResume(int index) {
+        return bit(index, NEED_SAVE_RESUME);
+    }
+
+    public boolean isMovingStorage(int index) {
+        return bit(index, MOVING_STORAGE);
+    }
+
+    public boolean hasIncoming(int index) {
+        return bit(index, HAS_INCOMING);
+    }
+
+    public boolean isPaused(int index) {
+        return bit(index, PAUSED);
+    }
+
+    public boolean isAutoManaged(int index) {
+        return bit(index, AUTO_MANAGED);
+    }
+
+    public boolean isSequentialDownload(int index) {
+        return bit(index, SEQUENTIAL_DOWNLOAD);
+    }
+
+    public boolean isUploadMode(int index) {
+        return bit(index, UPLOAD_MODE);
+    }
+
+    private long longColumn(int column, int index) {
+        checkIndex(index);
+        return longs[column * capacity + index];
+    }
+
+    private int intColumn(int column, int index) {
+        checkIndex(index);
+        return ints[column * capacity + index];
+    }
+
+    private boolean bit(int index, int mask) {
+        return (intColumn(BITS, index) & mask) != 0;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private void reserve(int n) {
+        if (n > capacity) {
+            allocate(Math.max(n, capacity + (capacity >> 1)));
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.capacity = capacity;
+        this.longs = new long[LONG_COLUMNS * capacity];
+        this.ints = new int[INT_COLUMNS * capacity];
+        this.hashes = new byte[HASH_SIZE * capacity];
+    }
+}
@@ -12,9 +12,13 @@ import org.libtorrent4j.swig.byte_array_64;
 import org.libtorrent4j.swig.byte_vector;
 import org.libtorrent4j.swig.int64_vector;
 import org.libtorrent4j.swig.int_vector;
+import org.libtorrent4j.swig.libtorrent_jni;
 import org.libtorrent4j.swig.string_vector;
 
 import java.io.UnsupportedEncodingException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -31,8 +35,8 @@ public final class Vectors {
         int size = v.size();
         byte[] arr = new byte[size];
 
-        for (int i = 0; i < size; i++) {
-            arr[i] = v.get(i);
+        if (size > 0) {
+            libtorrent_jni.memoryCopyToArray(v.data_ptr(), arr, 0, size);
         }
 
         return arr;
@@ -41,27 +45,113 @@ public final class Vectors {
     public static void byte_vector2bytes(byte_vector v, byte[] arr) {
         int size = v.size();
 
-        for (int i = 0; i < size; i++) {
-            arr[i] = v.get(i);
+        if (size > 0) {
+            libtorrent_jni.memoryCopyToArray(v.data_ptr(), arr, 0, size);
         }
     }
 
     public static byte_vector bytes2byte_vector(byte[] arr) {
-        byte_vector v = new byte_vector();
+        return bytes2byte_vector(arr, 0, arr.length);
+    }
 
-        for (int i = 0; i < arr.length; i++) {
-            v.add(arr[i]);
+    public static byte_vector bytes2byte_vector(byte[] arr, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > arr.length - length) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length);
+        }
+
+        byte_vector v = new byte_vector(length, (byte) 0);
+
+        if (length > 0) {
+            libtorrent_jni.memoryCopyFromArray(arr, offset, length, v.data_ptr());
         }
 
         return v;
     }
 
     public static void bytes2byte_vector(byte[] arr, byte_vector v) {
-        for (int i = 0; i < arr.length; i++) {
-            v.set(i, arr[i]);
+        if (arr.length > v.size()) {
+            throw new IndexOutOfBoundsException("vector index out of range");
+        }
+
+        if (arr.length > 0) {
+            libtorrent_jni.memoryCopyFromArray(arr, 0, arr.length, v.data_ptr());
         }
     }
 
+    /**
+     * Copies the content of the vector into {@code dst}, starting at the
+     * current position of the buffer. The position is advanced by the
+     * size of the vector.
+     * <p>
+     * If the buffer is direct, the copy is performed natively without
+     * any intermediate java array.
+     *
+     * @param v   the source vector
+     * @param dst the target buffer
+     * @throws java.nio.BufferOverflowException if there is not enough room in the buffer
+     */
+    public static void byte_vector2buffer(byte_vector v, ByteBuffer dst) {
+        int size = v.size();
+
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if (dst.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+
+        if (size == 0) {
+            return;
+        }
+
+        int position = dst.position();
+        if (dst.isDirect()) {
+            long address = libtorrent_jni.directBufferAddress(dst);
+            libtorrent_jni.memoryCopy(v.data_ptr(), address + position, size);
+        } else if (dst.hasArray()) {
+            libtorrent_jni.memoryCopyToArray(v.data_ptr(), dst.array(), dst.arrayOffset() + position, size);
+        } else {
+            dst.put(byte_vector2bytes(v));
+            return;
+        }
+
+        dst.position(position + size);
+    }
+
+    /**
+     * Creates a new vector with the remaining bytes of {@code src}. The
+     * position of the buffer is advanced to its limit.
+     * <p>
+     * If the buffer is direct, the copy is performed natively without
+     * any intermediate java array.
+     *
+     * @param src the source buffer
+     * @return the new vector
+     */
+    public static byte_vector buffer2byte_vector(ByteBuffer src) {
+        int size = src.remaining();
+        int position = src.position();
+
+        byte_vector v;
+        if (src.isDirect()) {
+            v = new byte_vector(size, (byte) 0);
+            if (size > 0) {
+                long address = libtorrent_jni.directBufferAddress(src);
+                libtorrent_jni.memoryCopy(address + position, v.data_ptr(), size);
+            }
+        } else if (src.hasArray()) {
+            v = bytes2byte_vector(src.array(), src.arrayOffset() + position, size);
+        } else {
+            byte[] arr = new byte[size];
+            src.duplicate().get(arr);
+            v = bytes2byte_vector(arr);
+        }
+
+        src.position(position + size);
+
+        return v;
+    }
+
     public static int[] int_vector2ints(int_vector v) {
         int size = v.size();
         int[] arr = new int[size];
@@ -136,44 +226,26 @@ public final class Vectors {
     }
 
     public static byte[] byte_array2bytes(byte_array_32 v) {
-        int size = (int) v.size();
-        byte[] arr = new byte[size];
-
-        for (int i = 0; i < size; i++) {
-            arr[i] = v.get(i);
-        }
-
+        byte[] arr = new byte[32];
+        libtorrent_jni.memoryCopyToArray(v.data_ptr(), arr, 0, 32);
         return arr;
     }
 
     public static byte_array_32 bytes2byte_array_32(byte[] arr) {
         byte_array_32 v = new byte_array_32();
-
-        for (int i = 0; i < 32; i++) {
-            v.set(i, arr[i]);
-        }
-
+        libtorrent_jni.memoryCopyFromArray(arr, 0, 32, v.data_ptr());
         return v;
     }
 
     public static byte[] byte_array2bytes(byte_array_64 v) {
-        int size = (int) v.size();
-        byte[] arr = new byte[size];
-
-        for (int i = 0; i < size; i++) {
-            arr[i] = v.get(i);
-        }
-
+        byte[] arr = new byte[64];
+        libtorrent_jni.memoryCopyToArray(v.data_ptr(), arr, 0, 64);
         return arr;
     }
 
     public static byte_array_64 bytes2byte_array_64(byte[] arr) {
         byte_array_64 v = new byte_array_64();
-
-        for (int i = 0; i < 64; i++) {
-            v.set(i, arr[i]);
-        }
-
+        libtorrent_jni.memoryCopyFromArray(arr, 0, 64, v.data_ptr());
         return v;
     }
 }
@@ -19,6 +19,9 @@ public abstract class AbstractAlert<T extends alert> implements Alert<T> {
     protected final T alert;
     private final AlertType type;
 
+    // reused by AlertFlyweights for other alerts of the same type
+    boolean flyweight;
+
     AbstractAlert(T alert) {
         this.alert = alert;
         this.type = AlertType.fromSwig(alert.type());
@@ -105,6 +108,22 @@ public abstract class AbstractAlert<T extends alert> implements Alert<T> {
         return alert.category();
     }
 
+    @Override
+    public boolean isFlyweight() {
+        return flyweight;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Alert<T> copy() {
+        return (Alert<T>) Alerts.cast(alert);
+    }
+
+    @Override
+    public Alert<T> retain() {
+        return flyweight ? copy() : this;
+    }
+
     @Override
     public String toString() {
         return type() + " - " + what() + " - " + message();
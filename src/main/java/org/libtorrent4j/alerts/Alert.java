@@ -102,4 +102,39 @@ public interface Alert<T extends alert> {
      * @return the alert category
      */
     alert_category_t category();
+
+    /**
+     * Returns {@code true} if this object is reused for other alerts of the
+     * same type after the listener returns, see
+     * {@link org.libtorrent4j.SessionManager#setFlyweightAlerts(boolean)}.
+     *
+     * @return if this is a reused wrapper
+     */
+    default boolean isFlyweight() {
+        return false;
+    }
+
+    /**
+     * Returns a new wrapper of the same native alert, the default returns
+     * this, for implementations that are never reused.
+     * <p>
+     * The native alert itself is owned by the session, it's only valid
+     * until the alerts loop pops the next batch of alerts, copy the data
+     * out of it if you need it later.
+     *
+     * @return a new wrapper
+     */
+    default Alert<T> copy() {
+        return this;
+    }
+
+    /**
+     * Returns an alert that is safe to keep after the listener returns,
+     * a {@link #copy()} if this is a reused wrapper, or this otherwise.
+     *
+     * @return the alert to keep
+     */
+    default Alert<T> retain() {
+        return isFlyweight() ? copy() : this;
+    }
 }
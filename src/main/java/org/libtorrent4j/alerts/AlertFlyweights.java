@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j.alerts;
+
+import org.libtorrent4j.swig.alert;
+import org.libtorrent4j.swig.alert_ptr_vector;
+import org.libtorrent4j.swig.libtorrent_jni;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+
+/**
+ * Reusable alert wrappers, one per alert type, to deliver the alerts
+ * without allocating java objects.
+ * <p>
+ * The SWIG proxies keep the native pointer in a private field at each
+ * level of the class hierarchy, the wrappers are moved to a new alert by
+ * updating these fields. The alerts hierarchy uses single non virtual
+ * inheritance, all the levels share the same pointer, this is verified
+ * when the wrapper of each type is created, and the types where it
+ * doesn't hold are always allocated.
+ * <p>
+ * A wrapper is only valid until the next alert of the same type, use
+ * {@link Alert#retain()} to keep it. This class is not thread safe, it's
+ * meant to be used by the alerts loop thread.
+ *
+ * @author aldenml
+ */
+public final class AlertFlyweights {
+
+    private static final Field ALERT_PTR = field(alert.class);
+    private static final Field VECTOR_PTR = field(alert_ptr_vector.class);
+
+    private final Alert<?>[] wrappers;
+    private final Field[][] pointers;
+    private final boolean[] unsupported;
+
+    // a non owning proxy, moved to each alert of the vector
+    private alert base;
+
+    private alert_ptr_vector vector;
+    private long vectorPtr;
+
+    public AlertFlyweights() {
+        this.wrappers = new Alert<?>[Alerts.NUM_ALERT_TYPES];
+        this.pointers = new Field[Alerts.NUM_ALERT_TYPES][];
+        this.unsupported = new boolean[Alerts.NUM_ALERT_TYPES];
+    }
+
+    /**
+     * @return {@code true} if the wrappers can be reused in this runtime
+     */
+    public static boolean isSupported() {
+        return ALERT_PTR != null && VECTOR_PTR != null;
+    }
+
+    /**
+     * Sets the vector for the next calls to {@link #get(int)}.
+     *
+     * @param v the vector of popped alerts
+     */
+    public void reset(alert_ptr_vector v) {
+        vector = v;
+        vectorPtr = getLong(VECTOR_PTR, v);
+    }
+
+    /**
+     * Returns the alert at the given index of the vector, the returned
+     * proxy is reused for every call.
+     *
+     * @param index the index in the vector
+     * @return the shared base proxy
+     */
+    public alert get(int index) {
+        if (base == null) {
+            base = vector.get(index);
+        } else {
+            setLong(ALERT_PTR, base, libtorrent_jni.alert_ptr_vector_doGet(vectorPtr, vector, index));
+        }
+        return base;
+    }
+
+    /**
+     * Returns the wrapper of the type moved to the alert.
+     *
+     * @param a    the native alert
+     * @param type the native type of the alert
+     * @return the wrapper
+     */
+    public Alert<?> wrap(alert a, int type) {
+        if (unsupported[type]) {
+            return Alerts.cast(a);
+        }
+
+        long ptr = getLong(ALERT_PTR, a);
+        Alert<?> w = wrappers[type];
+        if (w == null) {
+            w = Alerts.cast(a);
+            if (!init(w, type, ptr)) {
+                unsupported[type] = true;
+                return w;
+            }
+            wrappers[type] = w;
+            return w;
+        }
+
+        Object proxy = w.swig();
+        for (Field f : pointers[type]) {
+            setLong(f, proxy, ptr);
+        }
+        return w;
+    }
+
+    private boolean init(Alert<?> w, int type, long ptr) {
+        if (!(w instanceof AbstractAlert) || w.swig() == null) {
+            return false;
+        }
+
+        ArrayList<Field> fields = new ArrayList<>();
+        for (Class<?> c = w.swig().getClass(); c != Object.class; c = c.getSuperclass()) {
+            Field f = field(c);
+            if (f == null || getLong(f, w.swig()) != ptr) {
+                return false;
+            }
+            fields.add(f);
+        }
+
+        pointers[type] = fields.toArray(new Field[0]);
+        ((AbstractAlert<?>) w).flyweight = true;
+        return true;
+    }
+
+    private static Field field(Class<?> c) {
+        try {
+            Field f = c.getDeclaredField("swigCPtr");
+            f.setAccessible(true);
+            return f;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    private static long getLong(Field f, Object obj) {
+        try {
+            return f.getLong(obj);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void setLong(Field f, Object obj, long value) {
+        try {
+            f.setLong(obj, value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
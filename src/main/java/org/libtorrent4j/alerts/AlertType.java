@@ -15,110 +15,112 @@ import org.libtorrent4j.swig.*;
  */
 public enum AlertType {
 
-    TORRENT_FINISHED(torrent_finished_alert.alert_type),
-    TORRENT_REMOVED(torrent_removed_alert.alert_type),
-    TORRENT_DELETED(torrent_deleted_alert.alert_type),
-    TORRENT_PAUSED(torrent_paused_alert.alert_type),
-    TORRENT_RESUMED(torrent_resumed_alert.alert_type),
-    TORRENT_CHECKED(torrent_checked_alert.alert_type),
-    TORRENT_ERROR(torrent_error_alert.alert_type),
-    TORRENT_NEED_CERT(torrent_need_cert_alert.alert_type),
-    INCOMING_CONNECTION(incoming_connection_alert.alert_type),
-    ADD_TORRENT(add_torrent_alert.alert_type),
-    SAVE_RESUME_DATA(save_resume_data_alert.alert_type),
-    FASTRESUME_REJECTED(fastresume_rejected_alert.alert_type),
-    BLOCK_FINISHED(block_finished_alert.alert_type),
-    METADATA_RECEIVED(metadata_received_alert.alert_type),
-    METADATA_FAILED(metadata_failed_alert.alert_type),
-    FILE_COMPLETED(file_completed_alert.alert_type),
-    FILE_RENAMED(file_renamed_alert.alert_type),
-    FILE_RENAME_FAILED(file_rename_failed_alert.alert_type),
-    FILE_ERROR(file_error_alert.alert_type),
-    HASH_FAILED(hash_failed_alert.alert_type),
-    PORTMAP(portmap_alert.alert_type),
-    PORTMAP_ERROR(portmap_error_alert.alert_type),
-    PORTMAP_LOG(portmap_log_alert.alert_type),
-    TRACKER_ANNOUNCE(tracker_announce_alert.alert_type),
-    TRACKER_REPLY(tracker_reply_alert.alert_type),
-    TRACKER_WARNING(tracker_warning_alert.alert_type),
-    TRACKER_ERROR(tracker_error_alert.alert_type),
-    READ_PIECE(read_piece_alert.alert_type),
-    STATE_CHANGED(state_changed_alert.alert_type),
-    DHT_REPLY(dht_reply_alert.alert_type),
-    DHT_BOOTSTRAP(dht_bootstrap_alert.alert_type),
-    DHT_GET_PEERS(dht_get_peers_alert.alert_type),
-    EXTERNAL_IP(external_ip_alert.alert_type),
-    LISTEN_SUCCEEDED(listen_succeeded_alert.alert_type),
-    STATE_UPDATE(state_update_alert.alert_type),
-    SESSION_STATS(session_stats_alert.alert_type),
-    SCRAPE_REPLY(scrape_reply_alert.alert_type),
-    SCRAPE_FAILED(scrape_failed_alert.alert_type),
-    LSD_PEER(lsd_peer_alert.alert_type),
-    PEER_BLOCKED(peer_blocked_alert.alert_type),
-    PERFORMANCE(performance_alert.alert_type),
-    PIECE_FINISHED(piece_finished_alert.alert_type),
-    SAVE_RESUME_DATA_FAILED(save_resume_data_failed_alert.alert_type),
-    STORAGE_MOVED(storage_moved_alert.alert_type),
-    TORRENT_DELETE_FAILED(torrent_delete_failed_alert.alert_type),
-    URL_SEED(url_seed_alert.alert_type),
-    INVALID_REQUEST(invalid_request_alert.alert_type),
-    LISTEN_FAILED(listen_failed_alert.alert_type),
-    PEER_BAN(peer_ban_alert.alert_type),
-    PEER_CONNECT(peer_connect_alert.alert_type),
-    PEER_DISCONNECTED(peer_disconnected_alert.alert_type),
-    PEER_ERROR(peer_error_alert.alert_type),
-    PEER_SNUBBED(peer_snubbed_alert.alert_type),
-    PEER_UNSNUBBED(peer_unsnubbed_alert.alert_type),
-    REQUEST_DROPPED(request_dropped_alert.alert_type),
-    UDP_ERROR(udp_error_alert.alert_type),
-    BLOCK_DOWNLOADING(block_downloading_alert.alert_type),
-    BLOCK_TIMEOUT(block_timeout_alert.alert_type),
-    CACHE_FLUSHED(cache_flushed_alert.alert_type),
-    DHT_ANNOUNCE(dht_announce_alert.alert_type),
-    STORAGE_MOVED_FAILED(storage_moved_failed_alert.alert_type),
-    TRACKERID(trackerid_alert.alert_type),
-    UNWANTED_BLOCK(unwanted_block_alert.alert_type),
-    DHT_ERROR(dht_error_alert.alert_type),
-    DHT_PUT(dht_put_alert.alert_type),
-    DHT_MUTABLE_ITEM(dht_mutable_item_alert.alert_type),
-    DHT_IMMUTABLE_ITEM(dht_immutable_item_alert.alert_type),
-    I2P(i2p_alert.alert_type),
-    DHT_OUTGOING_GET_PEERS(dht_outgoing_get_peers_alert.alert_type),
-    LOG(log_alert.alert_type),
-    TORRENT_LOG(torrent_log_alert.alert_type),
-    PEER_LOG(peer_log_alert.alert_type),
-    LSD_ERROR(lsd_error_alert.alert_type),
-    DHT_STATS(dht_stats_alert.alert_type),
-    INCOMING_REQUEST(incoming_request_alert.alert_type),
-    DHT_LOG(dht_log_alert.alert_type),
-    DHT_PKT(dht_pkt_alert.alert_type),
-    DHT_GET_PEERS_REPLY(dht_get_peers_reply_alert.alert_type),
-    DHT_DIRECT_RESPONSE(dht_direct_response_alert.alert_type),
-    PICKER_LOG(picker_log_alert.alert_type),
-    SESSION_ERROR(session_error_alert.alert_type),
-    DHT_LIVE_NODES(dht_live_nodes_alert.alert_type),
-    SESSION_STATS_HEADER(session_stats_header_alert.alert_type),
-    DHT_SAMPLE_INFOHASHES(dht_sample_infohashes_alert.alert_type),
-    BLOCK_UPLOADED(block_uploaded_alert.alert_type),
-    ALERTS_DROPPED(alerts_dropped_alert.alert_type),
-    SOCKS5(socks5_alert.alert_type),
-    FILE_PRIO(file_prio_alert.alert_type),
-    OVERSIZED_FILE(oversized_file_alert.alert_type),
-    TORRENT_CONFLICT(torrent_conflict_alert.alert_type),
-    PEER_INFO(peer_info_alert.alert_type),
-    FILE_PROGRESS(file_progress_alert.alert_type),
-    PIECE_INFO(piece_info_alert.alert_type),
-    PIECE_AVAILABILITY(piece_availability_alert.alert_type),
-    TRACKER_LIST(tracker_list_alert.alert_type),
-    UNKNOWN(-1);
+    TORRENT_FINISHED(torrent_finished_alert.alert_type, torrent_finished_alert.static_category),
+    TORRENT_REMOVED(torrent_removed_alert.alert_type, torrent_removed_alert.static_category),
+    TORRENT_DELETED(torrent_deleted_alert.alert_type, torrent_deleted_alert.static_category),
+    TORRENT_PAUSED(torrent_paused_alert.alert_type, torrent_paused_alert.static_category),
+    TORRENT_RESUMED(torrent_resumed_alert.alert_type, torrent_resumed_alert.static_category),
+    TORRENT_CHECKED(torrent_checked_alert.alert_type, torrent_checked_alert.static_category),
+    TORRENT_ERROR(torrent_error_alert.alert_type, torrent_error_alert.static_category),
+    TORRENT_NEED_CERT(torrent_need_cert_alert.alert_type, torrent_need_cert_alert.static_category),
+    INCOMING_CONNECTION(incoming_connection_alert.alert_type, incoming_connection_alert.static_category),
+    ADD_TORRENT(add_torrent_alert.alert_type, add_torrent_alert.static_category),
+    SAVE_RESUME_DATA(save_resume_data_alert.alert_type, save_resume_data_alert.static_category),
+    FASTRESUME_REJECTED(fastresume_rejected_alert.alert_type, fastresume_rejected_alert.static_category),
+    BLOCK_FINISHED(block_finished_alert.alert_type, block_finished_alert.static_category),
+    METADATA_RECEIVED(metadata_received_alert.alert_type, metadata_received_alert.static_category),
+    METADATA_FAILED(metadata_failed_alert.alert_type, metadata_failed_alert.static_category),
+    FILE_COMPLETED(file_completed_alert.alert_type, file_completed_alert.static_category),
+    FILE_RENAMED(file_renamed_alert.alert_type, file_renamed_alert.static_category),
+    FILE_RENAME_FAILED(file_rename_failed_alert.alert_type, file_rename_failed_alert.static_category),
+    FILE_ERROR(file_error_alert.alert_type, file_error_alert.static_category),
+    HASH_FAILED(hash_failed_alert.alert_type, hash_failed_alert.static_category),
+    PORTMAP(portmap_alert.alert_type, portmap_alert.static_category),
+    PORTMAP_ERROR(portmap_error_alert.alert_type, portmap_error_alert.static_category),
+    PORTMAP_LOG(portmap_log_alert.alert_type, portmap_log_alert.static_category),
+    TRACKER_ANNOUNCE(tracker_announce_alert.alert_type, tracker_announce_alert.static_category),
+    TRACKER_REPLY(tracker_reply_alert.alert_type, tracker_reply_alert.static_category),
+    TRACKER_WARNING(tracker_warning_alert.alert_type, tracker_warning_alert.static_category),
+    TRACKER_ERROR(tracker_error_alert.alert_type, tracker_error_alert.static_category),
+    READ_PIECE(read_piece_alert.alert_type, read_piece_alert.static_category),
+    STATE_CHANGED(state_changed_alert.alert_type, state_changed_alert.static_category),
+    DHT_REPLY(dht_reply_alert.alert_type, dht_reply_alert.static_category),
+    DHT_BOOTSTRAP(dht_bootstrap_alert.alert_type, dht_bootstrap_alert.static_category),
+    DHT_GET_PEERS(dht_get_peers_alert.alert_type, dht_get_peers_alert.static_category),
+    EXTERNAL_IP(external_ip_alert.alert_type, external_ip_alert.static_category),
+    LISTEN_SUCCEEDED(listen_succeeded_alert.alert_type, listen_succeeded_alert.static_category),
+    STATE_UPDATE(state_update_alert.alert_type, state_update_alert.static_category),
+    SESSION_STATS(session_stats_alert.alert_type, session_stats_alert.static_category),
+    SCRAPE_REPLY(scrape_reply_alert.alert_type, scrape_reply_alert.static_category),
+    SCRAPE_FAILED(scrape_failed_alert.alert_type, scrape_failed_alert.static_category),
+    LSD_PEER(lsd_peer_alert.alert_type, lsd_peer_alert.static_category),
+    PEER_BLOCKED(peer_blocked_alert.alert_type, peer_blocked_alert.static_category),
+    PERFORMANCE(performance_alert.alert_type, performance_alert.static_category),
+    PIECE_FINISHED(piece_finished_alert.alert_type, piece_finished_alert.static_category),
+    SAVE_RESUME_DATA_FAILED(save_resume_data_failed_alert.alert_type, save_resume_data_failed_alert.static_category),
+    STORAGE_MOVED(storage_moved_alert.alert_type, storage_moved_alert.static_category),
+    TORRENT_DELETE_FAILED(torrent_delete_failed_alert.alert_type, torrent_delete_failed_alert.static_category),
+    URL_SEED(url_seed_alert.alert_type, url_seed_alert.static_category),
+    INVALID_REQUEST(invalid_request_alert.alert_type, invalid_request_alert.static_category),
+    LISTEN_FAILED(listen_failed_alert.alert_type, listen_failed_alert.static_category),
+    PEER_BAN(peer_ban_alert.alert_type, peer_ban_alert.static_category),
+    PEER_CONNECT(peer_connect_alert.alert_type, peer_connect_alert.static_category),
+    PEER_DISCONNECTED(peer_disconnected_alert.alert_type, peer_disconnected_alert.static_category),
+    PEER_ERROR(peer_error_alert.alert_type, peer_error_alert.static_category),
+    PEER_SNUBBED(peer_snubbed_alert.alert_type, peer_snubbed_alert.static_category),
+    PEER_UNSNUBBED(peer_unsnubbed_alert.alert_type, peer_unsnubbed_alert.static_category),
+    REQUEST_DROPPED(request_dropped_alert.alert_type, request_dropped_alert.static_category),
+    UDP_ERROR(udp_error_alert.alert_type, udp_error_alert.static_category),
+    BLOCK_DOWNLOADING(block_downloading_alert.alert_type, block_downloading_alert.static_category),
+    BLOCK_TIMEOUT(block_timeout_alert.alert_type, block_timeout_alert.static_category),
+    CACHE_FLUSHED(cache_flushed_alert.alert_type, cache_flushed_alert.static_category),
+    DHT_ANNOUNCE(dht_announce_alert.alert_type, dht_announce_alert.static_category),
+    STORAGE_MOVED_FAILED(storage_moved_failed_alert.alert_type, storage_moved_failed_alert.static_category),
+    TRACKERID(trackerid_alert.alert_type, trackerid_alert.static_category),
+    UNWANTED_BLOCK(unwanted_block_alert.alert_type, unwanted_block_alert.static_category),
+    DHT_ERROR(dht_error_alert.alert_type, dht_error_alert.static_category),
+    DHT_PUT(dht_put_alert.alert_type, dht_put_alert.static_category),
+    DHT_MUTABLE_ITEM(dht_mutable_item_alert.alert_type, dht_mutable_item_alert.static_category),
+    DHT_IMMUTABLE_ITEM(dht_immutable_item_alert.alert_type, dht_immutable_item_alert.static_category),
+    I2P(i2p_alert.alert_type, i2p_alert.static_category),
+    DHT_OUTGOING_GET_PEERS(dht_outgoing_get_peers_alert.alert_type, dht_outgoing_get_peers_alert.static_category),
+    LOG(log_alert.alert_type, log_alert.static_category),
+    TORRENT_LOG(torrent_log_alert.alert_type, torrent_log_alert.static_category),
+    PEER_LOG(peer_log_alert.alert_type, peer_log_alert.static_category),
+    LSD_ERROR(lsd_error_alert.alert_type, lsd_error_alert.static_category),
+    DHT_STATS(dht_stats_alert.alert_type, dht_stats_alert.static_category),
+    INCOMING_REQUEST(incoming_request_alert.alert_type, incoming_request_alert.static_category),
+    DHT_LOG(dht_log_alert.alert_type, dht_log_alert.static_category),
+    DHT_PKT(dht_pkt_alert.alert_type, dht_pkt_alert.static_category),
+    DHT_GET_PEERS_REPLY(dht_get_peers_reply_alert.alert_type, dht_get_peers_reply_alert.static_category),
+    DHT_DIRECT_RESPONSE(dht_direct_response_alert.alert_type, dht_direct_response_alert.static_category),
+    PICKER_LOG(picker_log_alert.alert_type, picker_log_alert.static_category),
+    SESSION_ERROR(session_error_alert.alert_type, session_error_alert.static_category),
+    DHT_LIVE_NODES(dht_live_nodes_alert.alert_type, dht_live_nodes_alert.static_category),
+    SESSION_STATS_HEADER(session_stats_header_alert.alert_type, session_stats_header_alert.static_category),
+    DHT_SAMPLE_INFOHASHES(dht_sample_infohashes_alert.alert_type, dht_sample_infohashes_alert.static_category),
+    BLOCK_UPLOADED(block_uploaded_alert.alert_type, block_uploaded_alert.static_category),
+    ALERTS_DROPPED(alerts_dropped_alert.alert_type, alerts_dropped_alert.static_category),
+    SOCKS5(socks5_alert.alert_type, socks5_alert.static_category),
+    FILE_PRIO(file_prio_alert.alert_type, file_prio_alert.static_category),
+    OVERSIZED_FILE(oversized_file_alert.alert_type, oversized_file_alert.static_category),
+    TORRENT_CONFLICT(torrent_conflict_alert.alert_type, torrent_conflict_alert.static_category),
+    PEER_INFO(peer_info_alert.alert_type, peer_info_alert.static_category),
+    FILE_PROGRESS(file_progress_alert.alert_type, file_progress_alert.static_category),
+    PIECE_INFO(piece_info_alert.alert_type, piece_info_alert.static_category),
+    PIECE_AVAILABILITY(piece_availability_alert.alert_type, piece_availability_alert.static_category),
+    TRACKER_LIST(tracker_list_alert.alert_type, tracker_list_alert.static_category),
+    UNKNOWN(-1, new alert_category_t());
 
     private static final AlertType[] TABLE = buildTable();
 
-    AlertType(int swigValue) {
+    AlertType(int swigValue, alert_category_t category) {
         this.swigValue = swigValue;
+        this.category = category;
     }
 
     private final int swigValue;
+    private final alert_category_t category;
 
     /**
      * @return the native swig value
@@ -127,6 +129,17 @@ public enum AlertType {
         return swigValue;
     }
 
+    /**
+     * The categories of the alert type, the alert is only posted by the
+     * session if one of them is enabled in the alert mask. A type without
+     * categories is always posted.
+     *
+     * @return the static category of the alert type
+     */
+    public alert_category_t category() {
+        return category;
+    }
+
     /**
      * @param swigValue the native swig value
      * @return the API enum alert type
@@ -27,6 +27,17 @@ public class PeerAlert<T extends peer_alert> extends TorrentAlert<T> {
         return new TcpEndpoint(alert.get_endpoint());
     }
 
+    /**
+     * If the peer is in the local network, with a loopback, private or
+     * link-local address. The check is done in native code, without
+     * creating the endpoint objects.
+     *
+     * @return true if the peer is local
+     */
+    public boolean isLocal() {
+        return alert.is_local_peer();
+    }
+
     /**
      * The peer ID, if known.
      *
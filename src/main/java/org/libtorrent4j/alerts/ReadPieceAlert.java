@@ -1,9 +1,14 @@
 package org.libtorrent4j.alerts;
 
 import org.libtorrent4j.ErrorCode;
+import org.libtorrent4j.swig.libtorrent_jni;
 import org.libtorrent4j.swig.read_piece_alert;
 import org.libtorrent4j.TorrentHandle;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+
 /**
  * This alert is posted when the asynchronous read operation initiated by
  * a call to {@link TorrentHandle#readPiece(int)}
@@ -14,6 +19,10 @@ import org.libtorrent4j.TorrentHandle;
  * is the number of bytes that was read.
  * <p>
  * If the operation fails, {@link #error()} will indicate what went wrong.
+ * <p>
+ * The piece data can be accessed without copying using {@link #buffer()},
+ * or copied out with {@link #copyTo(ByteBuffer)} when it needs to outlive
+ * the alert.
  *
  * @author gubatron
  * @author aldenml
@@ -51,4 +60,69 @@ public final class ReadPieceAlert extends TorrentAlert<read_piece_alert> {
     public int size() {
         return alert.getSize();
     }
+
+    /**
+     * Returns a read-only direct buffer that maps the native piece data,
+     * no copy is performed.
+     * <p>
+     * The buffer is only valid while this alert is alive, that is, until
+     * the next call to pop the alerts from the session. Accessing it after
+     * that point reads freed memory, use {@link #copyTo(ByteBuffer)} if
+     * the data is needed for longer.
+     * <p>
+     * If the read failed, an empty buffer is returned.
+     *
+     * @return a read-only view of the piece data
+     */
+    public ByteBuffer buffer() {
+        long ptr = alert.buffer_ptr();
+        int size = alert.getSize();
+
+        if (ptr == 0 || size <= 0) {
+            return ByteBuffer.allocate(0).asReadOnlyBuffer();
+        }
+
+        return libtorrent_jni.newDirectBuffer(ptr, size).asReadOnlyBuffer();
+    }
+
+    /**
+     * Copies the piece data into {@code dst}, starting at the current
+     * position of the buffer, and advances the position by {@link #size()}.
+     * <p>
+     * For direct buffers the copy is performed natively, heap buffers are
+     * filled with a single array region copy.
+     *
+     * @param dst the target buffer
+     * @return the number of bytes copied
+     * @throws BufferOverflowException if there is not enough room in the buffer
+     */
+    public int copyTo(ByteBuffer dst) {
+        long ptr = alert.buffer_ptr();
+        int size = alert.getSize();
+
+        if (ptr == 0 || size <= 0) {
+            return 0;
+        }
+
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if (dst.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+
+        int position = dst.position();
+        if (dst.isDirect()) {
+            long address = libtorrent_jni.directBufferAddress(dst);
+            libtorrent_jni.memoryCopy(ptr, address + position, size);
+            dst.position(position + size);
+        } else if (dst.hasArray()) {
+            libtorrent_jni.memoryCopyToArray(ptr, dst.array(), dst.arrayOffset() + position, size);
+            dst.position(position + size);
+        } else {
+            dst.put(buffer());
+        }
+
+        return size;
+    }
 }
@@ -2,6 +2,7 @@ package org.libtorrent4j.alerts;
 
 import org.libtorrent4j.SessionHandle;
 import org.libtorrent4j.TorrentStatus;
+import org.libtorrent4j.TorrentStatusBatch;
 import org.libtorrent4j.swig.state_update_alert;
 import org.libtorrent4j.swig.torrent_status_vector;
 
@@ -42,4 +43,17 @@ public final class StateUpdateAlert extends AbstractAlert<state_update_alert> {
 
         return l;
     }
+
+    /**
+     * Copies the status of all torrents in this alert into the given
+     * columnar batch, with a single native call. The batch can be reused
+     * between alerts.
+     *
+     * @param batch the batch to fill
+     * @return the same batch
+     */
+    public TorrentStatusBatch status(TorrentStatusBatch batch) {
+        batch.fill(this);
+        return batch;
+    }
 }
@@ -68,6 +68,14 @@ public class alert {
     return libtorrent_jni.alert_get_timestamp(swigCPtr, this);
   }
 
+  public long get_timestamp_us() {
+    return libtorrent_jni.alert_get_timestamp_us(swigCPtr, this);
+  }
+
+  public long torrent_shard_key() {
+    return libtorrent_jni.alert_torrent_shard_key(swigCPtr, this);
+  }
+
   public static torrent_removed_alert cast_to_torrent_removed_alert(alert a) {
     long cPtr = libtorrent_jni.alert_cast_to_torrent_removed_alert(alert.getCPtr(a), a);
     return (cPtr == 0) ? null : new torrent_removed_alert(cPtr, false);
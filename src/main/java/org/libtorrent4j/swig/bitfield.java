@@ -144,4 +144,8 @@ public class bitfield {
     libtorrent_jni.bitfield_assign(swigCPtr, this, byte_vector.getCPtr(v), v);
   }
 
+  public long data_ptr() {
+    return libtorrent_jni.bitfield_data_ptr(swigCPtr, this);
+  }
+
 }
@@ -76,4 +76,8 @@ public class byte_array_32 {
     libtorrent_jni.byte_array_32_set(swigCPtr, this, i, val);
   }
 
+  public long data_ptr() {
+    return libtorrent_jni.byte_array_32_data_ptr(swigCPtr, this);
+  }
+
 }
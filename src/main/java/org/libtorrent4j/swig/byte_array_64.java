@@ -76,4 +76,8 @@ public class byte_array_64 {
     libtorrent_jni.byte_array_64_set(swigCPtr, this, i, val);
   }
 
+  public long data_ptr() {
+    return libtorrent_jni.byte_array_64_data_ptr(swigCPtr, this);
+  }
+
 }
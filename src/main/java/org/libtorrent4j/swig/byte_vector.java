@@ -153,4 +153,8 @@ public class byte_vector extends java.util.AbstractList<Byte> implements java.ut
     libtorrent_jni.byte_vector_doRemoveRange(swigCPtr, this, fromIndex, toIndex);
   }
 
+  public long data_ptr() {
+    return libtorrent_jni.byte_vector_data_ptr(swigCPtr, this);
+  }
+
 }
@@ -132,6 +132,18 @@ public class entry {
     return new byte_vector(libtorrent_jni.entry_bencode(swigCPtr, this), true);
   }
 
+  public entry_vector dict_keys() {
+    return new entry_vector(libtorrent_jni.entry_dict_keys(swigCPtr, this), true);
+  }
+
+  public entry dict_get(byte_vector key) {
+    return new entry(libtorrent_jni.entry_dict_get(swigCPtr, this, byte_vector.getCPtr(key), key), false);
+  }
+
+  public void dict_set(byte_vector key, entry value) {
+    libtorrent_jni.entry_dict_set(swigCPtr, this, byte_vector.getCPtr(key), key, entry.getCPtr(value), value);
+  }
+
   public static entry from_string_bytes(byte_vector string_bytes) {
     return new entry(libtorrent_jni.entry_from_string_bytes(byte_vector.getCPtr(string_bytes), string_bytes), true);
   }
@@ -256,6 +256,10 @@ public class file_storage {
     return libtorrent_jni.file_storage_file_name_ex(swigCPtr, this, index);
   }
 
+  public byte_vector file_table_bytes() {
+    return new byte_vector(libtorrent_jni.file_storage_file_table_bytes(swigCPtr, this), true);
+  }
+
   public final static long max_file_size = libtorrent_jni.file_storage_max_file_size_get();
   public final static long max_file_offset = libtorrent_jni.file_storage_max_file_offset_get();
   public final static file_flags_t flag_pad_file = new file_flags_t(libtorrent_jni.file_storage_flag_pad_file_get(), false);
@@ -32,6 +32,16 @@ public class libtorrent_jni {
 
     public static final native long directBufferAddress(java.nio.Buffer buffer);
     public static final native long directBufferCapacity(java.nio.Buffer buffer);
+    public static final native java.nio.ByteBuffer newDirectBuffer(long address, long capacity);
+
+    public static final native void memoryCopyToArray(long src, byte[] dst, int offset, int length);
+    public static final native void memoryCopyFromArray(byte[] src, int offset, int length, long dst);
+    public static final native void memoryCopy(long src, long dst, long length);
+    public static final native void memoryCopyToLongArray(long src, long[] dst, int offset, int length);
+
+    public static final native long clockNowMicros();
+
+    public static final native int torrentStatusBatch(long status, int capacity, long[] longs, int[] ints, byte[] hashes);
 
   public final static native long new_int_byte_pair__SWIG_0();
   public final static native long new_int_byte_pair__SWIG_1(int jarg1, byte jarg2);
@@ -148,6 +158,7 @@ public class libtorrent_jni {
   public final static native byte byte_vector_doGet(long jarg1, byte_vector jarg1_, int jarg2);
   public final static native byte byte_vector_doSet(long jarg1, byte_vector jarg1_, int jarg2, byte jarg3);
   public final static native void byte_vector_doRemoveRange(long jarg1, byte_vector jarg1_, int jarg2, int jarg3);
+  public final static native long byte_vector_data_ptr(long jarg1, byte_vector jarg1_);
   public final static native void delete_byte_vector(long jarg1);
   public final static native long new_bool_vector__SWIG_0();
   public final static native long new_bool_vector__SWIG_1(long jarg1, bool_vector jarg1_);
@@ -591,6 +602,7 @@ public class libtorrent_jni {
   public final static native void byte_array_32_fill(long jarg1, byte_array_32 jarg1_, byte jarg2);
   public final static native byte byte_array_32_get(long jarg1, byte_array_32 jarg1_, int jarg2);
   public final static native void byte_array_32_set(long jarg1, byte_array_32 jarg1_, int jarg2, byte jarg3);
+  public final static native long byte_array_32_data_ptr(long jarg1, byte_array_32 jarg1_);
   public final static native void delete_byte_array_32(long jarg1);
   public final static native long new_byte_array_64__SWIG_0();
   public final static native long new_byte_array_64__SWIG_1(long jarg1, byte_array_64 jarg1_);
@@ -599,6 +611,7 @@ public class libtorrent_jni {
   public final static native void byte_array_64_fill(long jarg1, byte_array_64 jarg1_, byte jarg2);
   public final static native byte byte_array_64_get(long jarg1, byte_array_64 jarg1_, int jarg2);
   public final static native void byte_array_64_set(long jarg1, byte_array_64 jarg1_, int jarg2, byte jarg3);
+  public final static native long byte_array_64_data_ptr(long jarg1, byte_array_64 jarg1_);
   public final static native void delete_byte_array_64(long jarg1);
   public final static native long new_int_string_map__SWIG_0();
   public final static native long new_int_string_map__SWIG_1(long jarg1, int_string_map jarg1_);
@@ -767,6 +780,7 @@ public class libtorrent_jni {
   public final static native String sha1_hash_to_hex(long jarg1, sha1_hash jarg1_);
   public final static native long sha1_hash_from_hex(String jarg1);
   public final static native int sha1_hash_compare(long jarg1, sha1_hash jarg1_, long jarg2, sha1_hash jarg2_);
+  public final static native long sha1_hash_data_ptr(long jarg1, sha1_hash jarg1_);
   public final static native void delete_sha1_hash(long jarg1);
   public final static native long sha256_hash_size();
   public final static native long new_sha256_hash__SWIG_0();
@@ -789,6 +803,7 @@ public class libtorrent_jni {
   public final static native String sha256_hash_to_hex(long jarg1, sha256_hash jarg1_);
   public final static native long sha256_hash_from_hex(String jarg1);
   public final static native int sha256_hash_compare(long jarg1, sha256_hash jarg1_, long jarg2, sha256_hash jarg2_);
+  public final static native long sha256_hash_data_ptr(long jarg1, sha256_hash jarg1_);
   public final static native void delete_sha256_hash(long jarg1);
   public final static native long new_sha1_hash_vector__SWIG_0();
   public final static native long new_sha1_hash_vector__SWIG_1(long jarg1, sha1_hash_vector jarg1_);
@@ -865,6 +880,7 @@ public class libtorrent_jni {
   public final static native void bitfield_clear(long jarg1, bitfield jarg1_);
   public final static native long new_bitfield__SWIG_4(long jarg1, byte_vector jarg1_);
   public final static native void bitfield_assign(long jarg1, bitfield jarg1_, long jarg2, byte_vector jarg2_);
+  public final static native long bitfield_data_ptr(long jarg1, bitfield jarg1_);
   public final static native void delete_bitfield(long jarg1);
   public final static native String operation_name(int jarg1);
   public final static native int libtorrent_no_error_get();
@@ -1024,6 +1040,7 @@ public class libtorrent_jni {
   public final static native void file_storage_add_file_ex__SWIG_2(long jarg1, file_storage jarg1_, long jarg2, error_code jarg2_, String jarg3, long jarg4, long jarg5, file_flags_t jarg5_);
   public final static native void file_storage_add_file_ex__SWIG_3(long jarg1, file_storage jarg1_, long jarg2, error_code jarg2_, String jarg3, long jarg4);
   public final static native String file_storage_file_name_ex(long jarg1, file_storage jarg1_, int jarg2);
+  public final static native long file_storage_file_table_bytes(long jarg1, file_storage jarg1_);
   public final static native long new_file_flags_t();
   public final static native long file_flags_t_all();
   public final static native boolean file_flags_t_non_zero(long jarg1, file_flags_t jarg1_);
@@ -1591,6 +1608,7 @@ public class libtorrent_jni {
   public final static native boolean torrent_handle_in_session(long jarg1, torrent_handle jarg1_);
   public final static native void torrent_handle_add_piece_bytes__SWIG_0(long jarg1, torrent_handle jarg1_, int jarg2, long jarg3, byte_vector jarg3_, long jarg4, add_piece_flags_t jarg4_);
   public final static native void torrent_handle_add_piece_bytes__SWIG_1(long jarg1, torrent_handle jarg1_, int jarg2, long jarg3, byte_vector jarg3_);
+  public final static native void torrent_handle_add_piece_ptr(long jarg1, torrent_handle jarg1_, int jarg2, long jarg3, int jarg4, long jarg5, add_piece_flags_t jarg5_);
   public final static native long torrent_handle_torrent_file_ptr(long jarg1, torrent_handle jarg1_);
   public final static native long torrent_handle_torrent_file_with_hashes_ptr(long jarg1, torrent_handle jarg1_);
   public final static native long torrent_handle_get_url_seeds(long jarg1, torrent_handle jarg1_);
@@ -1606,6 +1624,8 @@ public class libtorrent_jni {
   public final static native void torrent_handle_file_priority_ex__SWIG_1(long jarg1, torrent_handle jarg1_, int jarg2, byte jarg3);
   public final static native void torrent_handle_prioritize_files_ex(long jarg1, torrent_handle jarg1_, long jarg2, byte_vector jarg2_);
   public final static native long torrent_handle_get_file_priorities_ex(long jarg1, torrent_handle jarg1_);
+  public final static native void torrent_handle_prioritize_piece_range_ex(long jarg1, torrent_handle jarg1_, int jarg2, int jarg3, byte jarg4);
+  public final static native void torrent_handle_prioritize_file_range_ex(long jarg1, torrent_handle jarg1_, int jarg2, int jarg3, byte jarg4);
   public final static native void delete_torrent_handle(long jarg1);
   public final static native long new_add_piece_flags_t();
   public final static native long add_piece_flags_t_all();
@@ -1872,6 +1892,9 @@ public class libtorrent_jni {
   public final static native long entry_string_bytes(long jarg1, entry jarg1_);
   public final static native long entry_preformatted_bytes(long jarg1, entry jarg1_);
   public final static native long entry_bencode(long jarg1, entry jarg1_);
+  public final static native long entry_dict_keys(long jarg1, entry jarg1_);
+  public final static native long entry_dict_get(long jarg1, entry jarg1_, long jarg2, byte_vector jarg2_);
+  public final static native void entry_dict_set(long jarg1, entry jarg1_, long jarg2, byte_vector jarg2_, long jarg3, entry jarg3_);
   public final static native long entry_from_string_bytes(long jarg1, byte_vector jarg1_);
   public final static native long entry_from_preformatted_bytes(long jarg1, byte_vector jarg1_);
   public final static native long entry_bdecode(long jarg1, byte_vector jarg1_);
@@ -1928,6 +1951,8 @@ public class libtorrent_jni {
   public final static native String alert_message(long jarg1, alert jarg1_);
   public final static native long alert_category(long jarg1, alert jarg1_);
   public final static native long alert_get_timestamp(long jarg1, alert jarg1_);
+  public final static native long alert_get_timestamp_us(long jarg1, alert jarg1_);
+  public final static native long alert_torrent_shard_key(long jarg1, alert jarg1_);
   public final static native long alert_cast_to_torrent_removed_alert(long jarg1, alert jarg1_);
   public final static native long alert_cast_to_read_piece_alert(long jarg1, alert jarg1_);
   public final static native long alert_cast_to_file_completed_alert(long jarg1, alert jarg1_);
@@ -2057,6 +2082,7 @@ public class libtorrent_jni {
   public final static native void peer_alert_pid_set(long jarg1, peer_alert jarg1_, long jarg2, sha1_hash jarg2_);
   public final static native long peer_alert_pid_get(long jarg1, peer_alert jarg1_);
   public final static native long peer_alert_get_endpoint(long jarg1, peer_alert jarg1_);
+  public final static native boolean peer_alert_is_local_peer(long jarg1, peer_alert jarg1_);
   public final static native void delete_peer_alert(long jarg1);
   public final static native String tracker_alert_message(long jarg1, tracker_alert jarg1_);
   public final static native String tracker_alert_tracker_url(long jarg1, tracker_alert jarg1_);
@@ -2689,6 +2715,7 @@ public class libtorrent_jni {
   public final static native String state_update_alert_message(long jarg1, state_update_alert jarg1_);
   public final static native void state_update_alert_status_set(long jarg1, state_update_alert jarg1_, long jarg2, torrent_status_vector jarg2_);
   public final static native long state_update_alert_status_get(long jarg1, state_update_alert jarg1_);
+  public final static native long state_update_alert_status_ptr(long jarg1, state_update_alert jarg1_);
   public final static native void delete_state_update_alert(long jarg1);
   public final static native int session_stats_alert_priority_get();
   public final static native int session_stats_alert_alert_type_get();
@@ -2698,6 +2725,8 @@ public class libtorrent_jni {
   public final static native long session_stats_alert_static_category_get();
   public final static native String session_stats_alert_message(long jarg1, session_stats_alert jarg1_);
   public final static native long session_stats_alert_get_value(long jarg1, session_stats_alert jarg1_, int jarg2);
+  public final static native long session_stats_alert_counters_ptr(long jarg1, session_stats_alert jarg1_);
+  public final static native int session_stats_alert_num_counters(long jarg1, session_stats_alert jarg1_);
   public final static native void delete_session_stats_alert(long jarg1);
   public final static native int dht_error_alert_priority_get();
   public final static native int dht_error_alert_alert_type_get();
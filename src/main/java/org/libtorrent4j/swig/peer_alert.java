@@ -65,4 +65,8 @@ public class peer_alert extends torrent_alert {
     return new tcp_endpoint(libtorrent_jni.peer_alert_get_endpoint(swigCPtr, this), true);
   }
 
+  public boolean is_local_peer() {
+    return libtorrent_jni.peer_alert_is_local_peer(swigCPtr, this);
+  }
+
 }
@@ -132,4 +132,8 @@ public class sha1_hash {
     return libtorrent_jni.sha1_hash_compare(sha1_hash.getCPtr(h1), h1, sha1_hash.getCPtr(h2), h2);
   }
 
+  public long data_ptr() {
+    return libtorrent_jni.sha1_hash_data_ptr(swigCPtr, this);
+  }
+
 }
@@ -132,4 +132,8 @@ public class sha256_hash {
     return libtorrent_jni.sha256_hash_compare(sha256_hash.getCPtr(h1), h1, sha256_hash.getCPtr(h2), h2);
   }
 
+  public long data_ptr() {
+    return libtorrent_jni.sha256_hash_data_ptr(swigCPtr, this);
+  }
+
 }
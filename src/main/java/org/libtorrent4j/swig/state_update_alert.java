@@ -73,6 +73,10 @@ public class state_update_alert extends alert {
     return (cPtr == 0) ? null : new torrent_status_vector(cPtr, false);
   }
 
+  public long status_ptr() {
+    return libtorrent_jni.state_update_alert_status_ptr(swigCPtr, this);
+  }
+
   public final static alert_priority priority = alert_priority.swigToEnum(libtorrent_jni.state_update_alert_priority_get());
   public final static int alert_type = libtorrent_jni.state_update_alert_alert_type_get();
   public final static alert_category_t static_category = new alert_category_t(libtorrent_jni.state_update_alert_static_category_get(), false);
@@ -404,6 +404,10 @@ public class torrent_handle {
     libtorrent_jni.torrent_handle_add_piece_bytes__SWIG_1(swigCPtr, this, piece, byte_vector.getCPtr(data), data);
   }
 
+  public void add_piece_ptr(int piece, long buffer_ptr, int size, add_piece_flags_t flags) {
+    libtorrent_jni.torrent_handle_add_piece_ptr(swigCPtr, this, piece, buffer_ptr, size, add_piece_flags_t.getCPtr(flags), flags);
+  }
+
   public torrent_info torrent_file_ptr() {
     long cPtr = libtorrent_jni.torrent_handle_torrent_file_ptr(swigCPtr, this);
     return (cPtr == 0) ? null : new torrent_info(cPtr, false);
@@ -466,6 +470,14 @@ public class torrent_handle {
     return new byte_vector(libtorrent_jni.torrent_handle_get_file_priorities_ex(swigCPtr, this), true);
   }
 
+  public void prioritize_piece_range_ex(int first, int last, byte priority) {
+    libtorrent_jni.torrent_handle_prioritize_piece_range_ex(swigCPtr, this, first, last, priority);
+  }
+
+  public void prioritize_file_range_ex(int first, int last, byte priority) {
+    libtorrent_jni.torrent_handle_prioritize_file_range_ex(swigCPtr, this, first, last, priority);
+  }
+
   public final static add_piece_flags_t overwrite_existing = new add_piece_flags_t(libtorrent_jni.torrent_handle_overwrite_existing_get(), false);
   public final static status_flags_t query_distributed_copies = new status_flags_t(libtorrent_jni.torrent_handle_query_distributed_copies_get(), false);
   public final static status_flags_t query_accurate_download_counters = new status_flags_t(libtorrent_jni.torrent_handle_query_accurate_download_counters_get(), false);
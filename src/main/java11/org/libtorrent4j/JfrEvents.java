@@ -0,0 +1,221 @@
+package org.libtorrent4j;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Frequency;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.libtorrent4j.alerts.AlertType;
+import org.libtorrent4j.alerts.TorrentAlert;
+
+/**
+ * The Java Flight Recorder events of the library, the Java 11 version of
+ * the multi-release jar. An event is only created and committed if it's
+ * enabled in a recording.
+ *
+ * @author aldenml
+ */
+final class JfrEvents {
+
+    private static final EventType PIECE_FINISHED = EventType.getEventType(PieceFinishedEvent.class);
+    private static final EventType HASH_FAILED = EventType.getEventType(HashFailedEvent.class);
+    private static final EventType SESSION_COUNTER = EventType.getEventType(SessionCounterEvent.class);
+
+    private JfrEvents() {
+    }
+
+    static Object alertBegin() {
+        AlertDispatchEvent e = new AlertDispatchEvent();
+        if (!e.isEnabled()) {
+            return null;
+        }
+        e.begin();
+        return e;
+    }
+
+    static void alertEnd(Object event, int type, int listeners) {
+        AlertDispatchEvent e = (AlertDispatchEvent) event;
+        e.end();
+        if (e.shouldCommit()) {
+            e.alertType = AlertType.fromSwig(type).name();
+            e.listeners = listeners;
+            e.commit();
+        }
+    }
+
+    static boolean pieceEventsEnabled() {
+        return PIECE_FINISHED.isEnabled() || HASH_FAILED.isEnabled();
+    }
+
+    static void piece(TorrentAlert<?> alert, int piece, boolean failed) {
+        PieceEvent e = failed ? new HashFailedEvent() : new PieceFinishedEvent();
+        if (e.shouldCommit()) {
+            e.torrent = alert.torrentName();
+            e.infoHash = Sha1Key.of(alert.swig().getHandle().info_hashes().get_best()).toHex();
+            e.piece = piece;
+            e.commit();
+        }
+    }
+
+    static Object requestBegin() {
+        RequestEvent e = new RequestEvent();
+        if (!e.isEnabled()) {
+            return null;
+        }
+        e.begin();
+        return e;
+    }
+
+    static void requestEnd(Object event, String kind, Object key, boolean success) {
+        RequestEvent e = (RequestEvent) event;
+        e.end();
+        if (e.shouldCommit()) {
+            e.kind = kind;
+            e.key = String.valueOf(key);
+            e.success = success;
+            e.commit();
+        }
+    }
+
+    static void sessionStats(SessionStats stats) {
+        SessionStatsEvent e = new SessionStatsEvent();
+        if (e.shouldCommit()) {
+            e.downloadRate = stats.downloadRate();
+            e.uploadRate = stats.uploadRate();
+            e.totalDownload = stats.totalDownload();
+            e.totalUpload = stats.totalUpload();
+            e.dhtNodes = stats.dhtNodes();
+            e.commit();
+        }
+
+        if (SESSION_COUNTER.isEnabled()) {
+            int n = stats.numMetrics();
+            for (int i = 0; i < n; i++) {
+                String name = stats.metricName(i);
+                if (name == null) {
+                    continue;
+                }
+                SessionCounterEvent c = new SessionCounterEvent();
+                if (c.shouldCommit()) {
+                    c.name = name;
+                    c.gauge = stats.isGauge(i);
+                    c.value = stats.value(i);
+                    c.delta = stats.delta(i);
+                    c.commit();
+                }
+            }
+        }
+    }
+
+    @Name("org.libtorrent4j.AlertDispatch")
+    @Label("Alert Dispatch")
+    @Description("The delivery of an alert to its listeners in the alerts loop thread")
+    @Category({"libtorrent4j", "Alerts"})
+    @StackTrace(false)
+    static final class AlertDispatchEvent extends Event {
+
+        @Label("Alert Type")
+        String alertType;
+
+        @Label("Listeners")
+        int listeners;
+    }
+
+    @Category({"libtorrent4j", "Pieces"})
+    @StackTrace(false)
+    abstract static class PieceEvent extends Event {
+
+        @Label("Torrent")
+        String torrent;
+
+        @Label("Info Hash")
+        String infoHash;
+
+        @Label("Piece")
+        int piece;
+    }
+
+    @Name("org.libtorrent4j.PieceFinished")
+    @Label("Piece Finished")
+    @Description("A piece downloaded and passed the hash check")
+    static final class PieceFinishedEvent extends PieceEvent {
+    }
+
+    @Name("org.libtorrent4j.HashFailed")
+    @Label("Hash Failed")
+    @Description("A piece downloaded and failed the hash check")
+    static final class HashFailedEvent extends PieceEvent {
+    }
+
+    @Name("org.libtorrent4j.Request")
+    @Label("Request")
+    @Description("A magnet fetch or a DHT request, from the start to the response or timeout")
+    @Category({"libtorrent4j", "Requests"})
+    @StackTrace(false)
+    static final class RequestEvent extends Event {
+
+        @Label("Kind")
+        String kind;
+
+        @Label("Key")
+        String key;
+
+        @Label("Success")
+        boolean success;
+    }
+
+    @Name("org.libtorrent4j.SessionStats")
+    @Label("Session Statistics")
+    @Description("A periodic snapshot of the session transfer statistics")
+    @Category({"libtorrent4j", "Session"})
+    @StackTrace(false)
+    static final class SessionStatsEvent extends Event {
+
+        @Label("Download Rate")
+        @DataAmount
+        @Frequency
+        long downloadRate;
+
+        @Label("Upload Rate")
+        @DataAmount
+        @Frequency
+        long uploadRate;
+
+        @Label("Total Download")
+        @DataAmount
+        long totalDownload;
+
+        @Label("Total Upload")
+        @DataAmount
+        long totalUpload;
+
+        @Label("DHT Nodes")
+        long dhtNodes;
+    }
+
+    @Name("org.libtorrent4j.SessionCounter")
+    @Label("Session Counter")
+    @Description("A periodic snapshot of each session counter and gauge")
+    @Category({"libtorrent4j", "Session"})
+    @StackTrace(false)
+    @Enabled(false)
+    static final class SessionCounterEvent extends Event {
+
+        @Label("Name")
+        String name;
+
+        @Label("Gauge")
+        boolean gauge;
+
+        @Label("Value")
+        long value;
+
+        @Label("Delta")
+        long delta;
+    }
+}
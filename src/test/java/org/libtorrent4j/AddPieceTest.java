@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.libtorrent4j.alerts.Alert;
+import org.libtorrent4j.alerts.AlertType;
+import org.libtorrent4j.alerts.TorrentCheckedAlert;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author aldenml
+ */
+public class AddPieceTest {
+
+    private static final int PIECE_SIZE = 16 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private int directPosition;
+    private int heapPosition;
+    private int readOnlyPosition;
+    private boolean lengthRejected;
+
+    @Test
+    public void testAddPieces() throws Exception {
+        File f = folder.newFile("data.bin");
+        final byte[] data = new byte[2 * PIECE_SIZE + 1000];
+        new Random(17).nextBytes(data);
+        Utils.writeByteArrayToFile(f, data, false);
+
+        TorrentBuilder.Result r = new TorrentBuilder().path(f).pieceSize(PIECE_SIZE).generate();
+        TorrentInfo ti = TorrentInfo.bdecode(r.entry().bencode());
+        assertEquals(3, r.numPieces());
+        final int lastSize = r.pieceSize(2);
+
+        final CountDownLatch finished = new CountDownLatch(3);
+        final AtomicInteger failed = new AtomicInteger();
+
+        SessionManager s = new SessionManager();
+        s.addListener(new AlertListener() {
+            @Override
+            public int[] types() {
+                return new int[]{AlertType.TORRENT_CHECKED.swig(),
+                        AlertType.PIECE_FINISHED.swig(), AlertType.HASH_FAILED.swig()};
+            }
+
+            @Override
+            public void alert(Alert<?> alert) {
+                AlertType type = alert.type();
+                if (type == AlertType.PIECE_FINISHED) {
+                    finished.countDown();
+                    return;
+                }
+                if (type == AlertType.HASH_FAILED) {
+                    failed.incrementAndGet();
+                    return;
+                }
+
+                TorrentHandle th = ((TorrentCheckedAlert) alert).handle();
+
+                try {
+                    th.addPieces(new int[]{0}, new ByteBuffer[0]);
+                } catch (IllegalArgumentException e) {
+                    lengthRejected = true;
+                }
+
+                // the piece is in the middle of a bigger direct buffer
+                ByteBuffer direct = ByteBuffer.allocateDirect(PIECE_SIZE + 20);
+                direct.position(10);
+                direct.put(data, 0, PIECE_SIZE);
+                direct.position(10);
+                direct.limit(10 + PIECE_SIZE);
+
+                // a slice with a non zero array offset
+                ByteBuffer heapArray = ByteBuffer.allocate(PIECE_SIZE + 7);
+                heapArray.position(7);
+                ByteBuffer heap = heapArray.slice();
+                heap.put(data, PIECE_SIZE, PIECE_SIZE);
+                heap.flip();
+
+                // read-only heap buffers don't expose the array
+                ByteBuffer readOnly = ByteBuffer.wrap(data, 2 * PIECE_SIZE, lastSize).asReadOnlyBuffer();
+
+                th.addPiece(0, direct);
+                th.addPieces(new int[]{1, 2}, new ByteBuffer[]{heap, readOnly});
+
+                directPosition = direct.position();
+                heapPosition = heap.position();
+                readOnlyPosition = readOnly.position();
+            }
+        });
+
+        s.start();
+        s.download(ti, folder.newFolder());
+
+        assertTrue("pieces not finished", finished.await(1, TimeUnit.MINUTES));
+        s.stop();
+
+        assertEquals(0, failed.get());
+        assertTrue(lengthRejected);
+        assertEquals(10 + PIECE_SIZE, directPosition);
+        assertEquals(PIECE_SIZE, heapPosition);
+        assertEquals(2 * PIECE_SIZE + lastSize, readOnlyPosition);
+    }
+}
@@ -0,0 +1,119 @@
+package org.libtorrent4j;
+
+import org.junit.Test;
+import org.libtorrent4j.alerts.Alert;
+import org.libtorrent4j.alerts.AlertType;
+import org.libtorrent4j.swig.alert;
+import org.libtorrent4j.swig.alert_category_t;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author aldenml
+ */
+public class AlertBatchTest {
+
+    @Test
+    public void testLazyMaterialization() {
+        final int[] materialized = new int[1];
+        AlertBatch.Source source = new AlertBatch.Source() {
+            @Override
+            Alert<?> materialize(int index) {
+                materialized[0]++;
+                return new FakeAlert();
+            }
+        };
+
+        int size = 1000;
+        source.reset(null, size);
+        for (int i = 0; i < size; i++) {
+            source.types[i] = i % 10;
+        }
+        source.types[3] = -1; // not delivered
+
+        boolean[] three = new boolean[10];
+        three[3] = true;
+        AlertBatch a = new AlertBatch(source);
+        a.select(three);
+        assertEquals(99, a.size());
+        assertEquals(99, a.count(3));
+        assertEquals(0, materialized[0]);
+
+        Alert<?> first = a.get(0);
+        assertEquals(1, materialized[0]);
+        assertSame(first, a.get(0));
+        assertEquals(3, a.type(0));
+
+        boolean[] odd = new boolean[10];
+        for (int t = 1; t < 10; t += 2) {
+            odd[t] = true;
+        }
+        AlertBatch b = new AlertBatch(source);
+        b.select(odd);
+        assertEquals(499, b.size());
+        // shared with the other view
+        assertEquals(3, b.type(5));
+        assertSame(first, b.get(5));
+        assertEquals(1, materialized[0]);
+
+        try {
+            b.get(499);
+            assertTrue(false);
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+
+        source.clear();
+        assertEquals(0, source.size);
+    }
+
+    private static final class FakeAlert implements Alert<alert> {
+
+        @Override
+        public alert swig() {
+            return null;
+        }
+
+        @Override
+        public long timestamp() {
+            return 0;
+        }
+
+        @Override
+        public AlertType type() {
+            return null;
+        }
+
+        @Override
+        public String what() {
+            return null;
+        }
+
+        @Override
+        public String message() {
+            return null;
+        }
+
+        @Override
+        public alert_category_t category() {
+            return null;
+        }
+
+        @Override
+        public boolean isFlyweight() {
+            return false;
+        }
+
+        @Override
+        public Alert<alert> copy() {
+            return new FakeAlert();
+        }
+
+        @Override
+        public Alert<alert> retain() {
+            return this;
+        }
+    }
+}
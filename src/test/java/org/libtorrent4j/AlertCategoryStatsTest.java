@@ -0,0 +1,56 @@
+package org.libtorrent4j;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author aldenml
+ */
+public class AlertCategoryStatsTest {
+
+    @Test
+    public void testCountsAndRates() {
+        // type 0 without categories, type 1 in 0x1, type 2 in 0x1 and 0x2
+        AlertCategoryStats s = new AlertCategoryStats(new int[]{0, 0x1, 0x3});
+
+        s.sample(1_000_000_000L);
+        for (int i = 0; i < 10; i++) {
+            s.increment(1);
+        }
+        for (int i = 0; i < 30; i++) {
+            s.increment(2);
+        }
+        s.increment(0);
+        s.sample(3_000_000_000L);
+
+        assertEquals(40, s.count(0x1));
+        assertEquals(30, s.count(0x2));
+        assertEquals(40, s.count(0x3));
+        assertEquals(20.0, s.rate(0x1), 1e-9);
+        assertEquals(15.0, s.rate(0x2), 1e-9);
+        assertEquals(0.5, s.typeRate(0), 1e-9);
+        assertEquals(1, s.uncategorizedCount());
+        assertEquals(0.5, s.uncategorizedRate(), 1e-9);
+
+        s.sample(4_000_000_000L);
+        assertEquals(0.0, s.rate(0x3), 1e-9);
+        assertEquals(40, s.count(0x1));
+
+        s.clear();
+        assertEquals(0, s.count(0x3));
+        assertEquals(0, s.uncategorizedCount());
+        assertEquals(0.0, s.rate(0x3), 1e-9);
+
+        // the rates start again after a clear
+        s.increment(1);
+        s.sample(5_000_000_000L);
+        assertEquals(1, s.count(0x1));
+        assertEquals(0.0, s.rate(0x1), 1e-9);
+        s.increment(1);
+        s.increment(1);
+        s.sample(6_000_000_000L);
+        assertEquals(3, s.count(0x1));
+        assertEquals(2.0, s.rate(0x1), 1e-9);
+    }
+}
@@ -0,0 +1,88 @@
+package org.libtorrent4j;
+
+import org.junit.Test;
+import org.libtorrent4j.alerts.Alert;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author aldenml
+ */
+public class AlertListenersTest {
+
+    @Test
+    public void testAddRemove() {
+        AlertListeners r = new AlertListeners(3);
+        AlertListener a = listener();
+        AlertListener b = listener();
+
+        assertTrue(r.isEmpty(1));
+
+        // only the changes between empty and not empty are reported
+        assertTrue(r.add(1, a));
+        assertFalse(r.add(1, b));
+        assertFalse(r.add(1, a));
+        assertArrayEquals(new AlertListener[]{a, b, a}, r.get(1));
+        assertTrue(r.isEmpty(0));
+
+        AlertListener[] snapshot = r.get(1);
+        assertFalse(r.remove(1, a));
+        assertArrayEquals(new AlertListener[]{a, b}, r.get(1));
+        // a dispatch in progress is not affected
+        assertEquals(3, snapshot.length);
+
+        assertFalse(r.remove(1, listener()));
+        assertEquals(2, r.get(1).length);
+
+        assertFalse(r.remove(1, a));
+        assertTrue(r.remove(1, b));
+        assertFalse(r.remove(1, b));
+        assertSame(AlertListeners.EMPTY, r.get(1));
+    }
+
+    @Test
+    public void testConcurrentChanges() throws InterruptedException {
+        final AlertListeners r = new AlertListeners(1);
+        final int threads = 4;
+        final CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    AlertListener[] arr = new AlertListener[1000];
+                    for (int i = 0; i < arr.length; i++) {
+                        arr[i] = listener();
+                        r.add(0, arr[i]);
+                    }
+                    for (int i = 0; i < arr.length; i += 2) {
+                        r.remove(0, arr[i]);
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+        done.await();
+
+        assertEquals(threads * 500, r.get(0).length);
+    }
+
+    private static AlertListener listener() {
+        return new AlertListener() {
+            @Override
+            public int[] types() {
+                return null;
+            }
+
+            @Override
+            public void alert(Alert<?> alert) {
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author aldenml
+ */
+public class BDecodeIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testNavigation() {
+        BDecodeIndex idx = BDecodeIndex.bdecode(ascii("d1:ai-42e1:bl3:xyzdeli1eee1:c0:e"));
+
+        assertEquals(BDecodeIndex.TYPE_DICT, idx.type(0));
+        assertEquals(3, idx.size(0));
+        assertEquals(-42, idx.dictFindInt(0, "a", 0));
+        assertEquals(7, idx.dictFindInt(0, "x", 7));
+        assertNull(idx.dictFindStringValue(0, "a"));
+        assertEquals("", idx.dictFindStringValue(0, "c"));
+
+        int b = idx.dictFindList(0, "b");
+        assertEquals(3, idx.size(b));
+        assertEquals("xyz", idx.string(idx.listAt(b, 0)));
+        int d = idx.listAt(b, 1);
+        assertEquals(BDecodeIndex.TYPE_DICT, idx.type(d));
+        assertEquals(0, idx.size(d));
+        assertEquals(-1, idx.firstChild(d));
+        int l = idx.listAt(b, 2);
+        assertEquals(1, idx.integer(idx.firstChild(l)));
+        assertEquals(-1, idx.listAt(b, 3));
+        assertEquals(-1, idx.nextSibling(l, b));
+        assertEquals(d, idx.nextSibling(idx.firstChild(b), b));
+
+        assertEquals("de", StandardCharsets.US_ASCII.decode(idx.rawSlice(d)).toString());
+        assertEquals("li1ee", StandardCharsets.US_ASCII.decode(idx.rawSlice(l)).toString());
+        assertEquals(3, idx.stringSlice(idx.listAt(b, 0)).remaining());
+    }
+
+    @Test
+    public void testTorrentFile() throws IOException {
+        byte[] data = Utils.resourceBytes("test1.torrent");
+        File f = folder.newFile("test1.torrent");
+        Utils.writeByteArrayToFile(f, data, false);
+
+        BDecodeIndex idx = BDecodeIndex.map(f);
+        int info = idx.dictFindDict(0, "info");
+        assertTrue(info > 0);
+        assertTrue(idx.dictFindInt(info, "piece length", 0) > 0);
+        assertTrue(idx.dictFindStringValue(info, "name").length() > 0);
+        assertEquals(0, idx.stringLength(idx.dictFindString(info, "pieces")) % 20);
+
+        ByteBuffer raw = idx.rawSlice(0);
+        assertEquals(data.length, raw.remaining());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalid() {
+        BDecodeIndex.bdecode(ascii("d1:a"));
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
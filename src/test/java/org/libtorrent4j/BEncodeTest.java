@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author aldenml
+ */
+public class BEncodeTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReadTokens() {
+        BEncodeReader r = new BEncodeReader(ascii("d1:ai-42e1:bl3:xyzi0eee"));
+
+        assertEquals(BEncodeReader.Token.DICTIONARY, r.next());
+        assertEquals(BEncodeReader.Token.STRING, r.next());
+        assertTrue(r.isKey());
+        assertTrue(r.stringEquals("a"));
+        assertEquals(BEncodeReader.Token.INTEGER, r.next());
+        assertFalse(r.isKey());
+        assertEquals(-42, r.integer());
+        assertEquals(BEncodeReader.Token.STRING, r.next());
+        assertEquals("b", r.string());
+        assertEquals(BEncodeReader.Token.LIST, r.next());
+        assertEquals(2, r.depth());
+        assertEquals(BEncodeReader.Token.STRING, r.next());
+        assertEquals("xyz", r.string());
+        assertEquals(3, r.stringSlice().remaining());
+        assertEquals(BEncodeReader.Token.INTEGER, r.next());
+        assertEquals(0, r.integer());
+        assertEquals(BEncodeReader.Token.END, r.next());
+        assertEquals(BEncodeReader.Token.END, r.next());
+        assertEquals(BEncodeReader.Token.EOF, r.next());
+    }
+
+    @Test
+    public void testSkip() {
+        BEncodeReader r = new BEncodeReader(ascii("d1:ald1:xi1eee1:bi7ee"));
+
+        r.next();
+        r.next();
+        assertEquals(BEncodeReader.Token.LIST, r.next());
+        r.skip();
+        assertEquals(1, r.depth());
+        r.next();
+        assertTrue(r.stringEquals("b"));
+        r.next();
+        assertEquals(7, r.integer());
+    }
+
+    @Test
+    public void testInvalidData() {
+        String[] invalid = {"i12", "ie", "i1x2e", "5:abc", "d1:ae", "di1ei2ee", "l", "e", "x",
+                "i99999999999999999999e"};
+        for (String s : invalid) {
+            try {
+                BEncodeReader r = new BEncodeReader(ascii(s));
+                while (r.next() != BEncodeReader.Token.EOF) {
+                    // consume
+                }
+                fail("expected error for " + s);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testDepthLimit() {
+        BEncodeReader r = new BEncodeReader(ByteBuffer.wrap(ascii("llleee")), 2);
+        r.next();
+        r.next();
+        try {
+            r.next();
+            fail("expected depth error");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testWriter() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        new BEncodeWriter(buffer)
+                .startDictionary()
+                .writeString("a").writeInteger(Long.MIN_VALUE)
+                .writeString("b").startList().writeInteger(0).writeString("\u00b5").end()
+                .writeString("c").writeInteger(Long.MAX_VALUE)
+                .end();
+
+        byte[] data = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(data);
+
+        String expected = "d1:ai-9223372036854775808e1:bli0e2:\u00b5e1:ci9223372036854775807ee";
+        assertEquals(expected, new String(data, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        byte[] data = Utils.resourceBytes("test1.torrent");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BEncodeWriter w = new BEncodeWriter(out);
+        copy(new BEncodeReader(data), w);
+        w.flush();
+
+        assertArrayEquals(data, out.toByteArray());
+    }
+
+    @Test
+    public void testEntryInterop() throws IOException {
+        byte[] data = Utils.resourceBytes("test2.torrent");
+
+        Entry e = new BEncodeReader(data).readEntry();
+        assertArrayEquals(Entry.bdecode(data).bencode(), e.bencode());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BEncodeWriter w = new BEncodeWriter(out);
+        w.write(e);
+        w.flush();
+        assertArrayEquals(e.bencode(), out.toByteArray());
+    }
+
+    @Test
+    public void testEntryBinaryKeys() throws IOException {
+        // a key that is not valid UTF-8 and has a zero byte
+        byte[] data = {'d', '3', ':', (byte) 0xff, 0, (byte) 0x80, 'i', '1', 'e', 'e'};
+
+        Entry e = new BEncodeReader(data).readEntry();
+        assertArrayEquals(data, e.bencode());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BEncodeWriter w = new BEncodeWriter(out);
+        w.write(e);
+        w.flush();
+        assertArrayEquals(data, out.toByteArray());
+    }
+
+    @Test
+    public void testEntryRoundTripV2() throws IOException {
+        // more than one piece, to have the binary keys of the "piece layers"
+        File f = folder.newFile("data.bin");
+        byte[] content = new byte[3 * 16 * 1024];
+        new Random(7).nextBytes(content);
+        Utils.writeByteArrayToFile(f, content, false);
+        byte[] data = new TorrentBuilder().path(f).pieceSize(16 * 1024).generate().entry().bencode();
+        assertTrue(new String(data, StandardCharsets.ISO_8859_1).contains("12:piece layers"));
+
+        Entry e = new BEncodeReader(data).readEntry();
+        assertArrayEquals(data, e.bencode());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BEncodeWriter w = new BEncodeWriter(out);
+        w.write(e);
+        w.flush();
+        assertArrayEquals(data, out.toByteArray());
+    }
+
+    private static void copy(BEncodeReader r, BEncodeWriter w) throws IOException {
+        BEncodeReader.Token t;
+        while ((t = r.next()) != BEncodeReader.Token.EOF) {
+            switch (t) {
+                case INTEGER:
+                    w.writeInteger(r.integer());
+                    break;
+                case STRING:
+                    w.writeString(r.stringSlice());
+                    break;
+                case LIST:
+                    w.startList();
+                    break;
+                case DICTIONARY:
+                    w.startDictionary();
+                    break;
+                case END:
+                    w.end();
+                    break;
+            }
+        }
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
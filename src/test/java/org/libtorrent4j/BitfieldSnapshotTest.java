@@ -0,0 +1,115 @@
+package org.libtorrent4j;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author aldenml
+ */
+public class BitfieldSnapshotTest {
+
+    @Test
+    public void testRanges() {
+        BitfieldSnapshot s = new BitfieldSnapshot(200);
+        s.set(3, 130);
+
+        assertEquals(127, s.count());
+        assertEquals(61, s.count(0, 64));
+        assertEquals(2, s.count(128, 200));
+        assertFalse(s.get(2));
+        assertTrue(s.get(3));
+        assertTrue(s.get(129));
+        assertFalse(s.get(130));
+
+        assertEquals(3, s.nextSetBit(0));
+        assertEquals(130, s.nextClearBit(3));
+        assertEquals(-1, s.nextSetBit(130));
+
+        s.clear(10, 20);
+        assertEquals(117, s.count());
+        assertEquals(10, s.nextClearBit(3));
+        assertEquals(20, s.nextSetBit(10));
+
+        s.set(0, 200);
+        assertTrue(s.isAllSet());
+        assertEquals(-1, s.nextClearBit(0));
+    }
+
+    @Test
+    public void testLogical() {
+        BitfieldSnapshot peer = new BitfieldSnapshot(100);
+        BitfieldSnapshot ours = new BitfieldSnapshot(100);
+        peer.set(0, 50);
+        ours.set(25, 75);
+
+        assertEquals(25, peer.copy().andNot(ours).count());
+        assertEquals(25, peer.copy().and(ours).count());
+        assertEquals(75, peer.copy().or(ours).count());
+        assertEquals(50, peer.count());
+    }
+
+    @Test
+    public void testBytes() {
+        byte[] bytes = {(byte) 0x81, (byte) 0xff, (byte) 0xe0};
+        BitfieldSnapshot s = BitfieldSnapshot.fromBytes(bytes, 19);
+
+        assertTrue(s.get(0));
+        assertFalse(s.get(1));
+        assertTrue(s.get(7));
+        assertTrue(s.get(18));
+        assertEquals(13, s.count());
+        assertArrayEquals(bytes, s.toBytes());
+
+        // padding bits are ignored
+        BitfieldSnapshot t = BitfieldSnapshot.fromBytes(new byte[]{(byte) 0xff}, 3);
+        assertEquals(3, t.count());
+    }
+
+    @Test
+    public void testRunLength() {
+        Random r = new Random(7);
+        for (int size : new int[]{0, 1, 63, 64, 65, 1000, 200000}) {
+            BitfieldSnapshot s = new BitfieldSnapshot(size);
+            int pos = 0;
+            while (pos < size) {
+                int len = Math.min(size - pos, 1 + r.nextInt(500));
+                if (r.nextBoolean()) {
+                    s.set(pos, pos + len);
+                }
+                pos += len;
+            }
+
+            byte[] data = s.toRunLength();
+            assertEquals(s, BitfieldSnapshot.fromRunLength(data));
+        }
+
+        BitfieldSnapshot full = new BitfieldSnapshot(200000);
+        full.set(0, 200000);
+        assertEquals(7, full.toRunLength().length);
+    }
+
+    @Test
+    public void testNative() {
+        PieceIndexBitfield f = new PieceIndexBitfield(new org.libtorrent4j.swig.bitfield(100));
+        f.setBit(0);
+        f.setBit(70);
+        f.setBit(99);
+
+        BitfieldSnapshot s = f.snapshot();
+        assertEquals(100, s.size());
+        assertEquals(3, s.count());
+        assertEquals(70, s.nextSetBit(1));
+        assertEquals(99, s.nextSetBit(71));
+
+        PieceIndexBitfield g = s.toBitfield();
+        assertEquals(100, g.size());
+        assertTrue(g.getBit(70));
+        assertEquals(3, g.count());
+    }
+}
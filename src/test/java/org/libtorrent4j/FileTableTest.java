@@ -0,0 +1,121 @@
+package org.libtorrent4j;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author aldenml
+ */
+public class FileTableTest {
+
+    // files of sizes 10, 0, 25, 5 (pad), 30 with piece length 16
+    private static FileTable table() {
+        long[] sizes = {10, 0, 25, 5, 30};
+        long[] offsets = {0, 10, 10, 35, 40};
+        byte[] flags = {0, 0, 0, FileTable.FLAG_PAD_FILE, 0};
+        String[] paths = {"t/a.txt", "t/empty", "t/d/b.bin", "t/.pad/5", "t/d/c.bin"};
+        return new FileTable(16, 5, sizes, offsets, flags, paths);
+    }
+
+    @Test
+    public void testLayout() {
+        FileTable t = table();
+
+        assertEquals(5, t.numFiles());
+        assertEquals(70, t.totalSize());
+        assertEquals(16, t.pieceSize(0));
+        assertEquals(6, t.pieceSize(4));
+
+        assertTrue(t.isPadFile(3));
+        assertFalse(t.isPadFile(2));
+
+        assertEquals("t/d/b.bin", t.filePath(2));
+        assertEquals("b.bin", t.fileName(2));
+        assertSame(t.fileDirectory(2), t.fileDirectory(4));
+    }
+
+    @Test
+    public void testPieceFileMapping() {
+        FileTable t = table();
+
+        assertEquals(0, t.fileIndexAtOffset(9));
+        assertEquals(2, t.fileIndexAtOffset(10));
+        assertEquals(3, t.fileIndexAtOffset(35));
+        assertEquals(4, t.fileIndexAtOffset(69));
+
+        assertEquals(0, t.fileIndexAtPiece(0));
+        assertEquals(2, t.lastFileIndexAtPiece(0));
+        assertEquals(4, t.lastFileIndexAtPiece(4));
+
+        assertEquals(0, t.pieceIndexAtFile(2));
+        assertEquals(2, t.lastPieceIndexAtFile(2));
+        assertEquals(2, t.mapFilePiece(4, 0));
+        assertEquals(8, t.mapFileStart(4, 0));
+    }
+
+    @Test
+    public void testMapBlock() {
+        FileTable t = table();
+        FileTable.Slices s = new FileTable.Slices(1);
+
+        assertEquals(2, t.mapBlock(0, 0, 16, s));
+        assertEquals(0, s.fileIndex(0));
+        assertEquals(10, s.size(0));
+        assertEquals(2, s.fileIndex(1));
+        assertEquals(0, s.offset(1));
+        assertEquals(6, s.size(1));
+
+        assertEquals(3, t.mapBlock(2, 0, 16, s));
+        assertEquals(2, s.fileIndex(0));
+        assertEquals(22, s.offset(0));
+        assertEquals(3, s.size(0));
+        assertEquals(3, s.fileIndex(1));
+        assertEquals(5, s.size(1));
+        assertEquals(4, s.fileIndex(2));
+        assertEquals(8, s.size(2));
+
+        // the last piece is clamped to the total size
+        assertEquals(1, t.mapBlock(4, 0, 16, s));
+        assertEquals(6, s.size(0));
+    }
+
+    @Test
+    public void testSameAsFileStorage() throws IOException {
+        byte[] data = Utils.resourceBytes("test5.torrent");
+        TorrentInfo ti = TorrentInfo.bdecode(data);
+        FileStorage fs = ti.files();
+        FileTable t = FileTable.of(ti);
+
+        assertEquals(fs.numFiles(), t.numFiles());
+        assertEquals(fs.numPieces(), t.numPieces());
+        assertEquals(fs.totalSize(), t.totalSize());
+
+        for (int i = 0; i < fs.numFiles(); i++) {
+            assertEquals(fs.fileSize(i), t.fileSize(i));
+            assertEquals(fs.fileOffset(i), t.fileOffset(i));
+            assertEquals(fs.filePath(i), t.filePath(i));
+            assertEquals(fs.padFileAt(i), t.isPadFile(i));
+        }
+
+        FileTable.Slices s = new FileTable.Slices();
+        for (int p = 0; p < fs.numPieces(); p++) {
+            assertEquals(fs.fileIndexAtPiece(p), t.fileIndexAtPiece(p));
+            assertEquals(fs.lastFileIndexAtPiece(p), t.lastFileIndexAtPiece(p));
+
+            ArrayList<FileSlice> expected = fs.mapBlock(p, 0, fs.pieceSize(p));
+            assertEquals(expected.size(), t.mapBlock(p, 0, fs.pieceSize(p), s));
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).fileIndex(), s.fileIndex(i));
+                assertEquals(expected.get(i).offset(), s.offset(i));
+                assertEquals(expected.get(i).size(), s.size(i));
+            }
+        }
+    }
+}
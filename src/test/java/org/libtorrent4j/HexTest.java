@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author aldenml
+ */
+public class HexTest {
+
+    @Test
+    public void testEncodeDecode() {
+        byte[] arr = new byte[256];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = (byte) i;
+        }
+
+        String hex = Hex.encode(arr);
+        assertEquals("00010203", hex.substring(0, 8));
+        assertEquals("fdfeff", hex.substring(hex.length() - 6));
+        assertArrayEquals(arr, Hex.decode(hex));
+        assertArrayEquals(arr, Hex.decode(hex.toUpperCase()));
+        assertArrayEquals(arr, Hex.decode(hex.toCharArray()));
+        assertArrayEquals(arr, Hex.decode(new StringBuilder(hex)));
+    }
+
+    @Test
+    public void testTargets() {
+        byte[] arr = new byte[20];
+        new Random().nextBytes(arr);
+        String hex = Hex.encode(arr);
+
+        char[] chars = new char[44];
+        assertEquals(40, Hex.encode(arr, 0, 20, chars, 2));
+        assertEquals(hex, new String(chars, 2, 40));
+
+        StringBuilder sb = new StringBuilder("x");
+        Hex.encode(arr, 0, 20, sb);
+        assertEquals("x" + hex, sb.toString());
+
+        sb.setLength(0);
+        ByteBuffer heap = ByteBuffer.wrap(arr);
+        ByteBuffer direct = ByteBuffer.allocateDirect(20);
+        direct.put(arr).flip();
+        assertEquals(hex, Hex.encode(heap, sb).toString());
+        sb.setLength(0);
+        assertEquals(hex, Hex.encode(direct, sb).toString());
+        assertEquals(0, direct.position());
+
+        byte[] out = new byte[21];
+        assertEquals(20, Hex.decode(hex, 0, 40, out, 1));
+        assertArrayEquals(arr, Arrays.copyOfRange(out, 1, 21));
+
+        ByteBuffer dst = ByteBuffer.allocateDirect(20);
+        assertEquals(20, Hex.decode(hex, dst));
+        assertEquals(20, dst.position());
+        dst.flip();
+        byte[] back = new byte[20];
+        dst.get(back);
+        assertArrayEquals(arr, back);
+    }
+
+    @Test
+    public void testValidation() {
+        assertTrue(Hex.isValid(""));
+        assertTrue(Hex.isValid("0aF9"));
+        assertFalse(Hex.isValid("0aF"));
+        assertFalse(Hex.isValid("0g"));
+        assertFalse(Hex.isValid("٠١"));
+        assertTrue(Hex.isValid("00112233445566778899aabbccddeeff00112233", 20));
+        assertFalse(Hex.isValid("00112233445566778899aabbccddeeff00112233", 32));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalCharacter() {
+        Hex.decode("0z");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOddLength() {
+        Hex.decode("abc");
+    }
+
+    @Test
+    public void testBatch() {
+        Random rand = new Random();
+        byte[] packed = new byte[10 * 32];
+        rand.nextBytes(packed);
+
+        String[] hashes = Hex.encodeBatch(packed, 0, 10, 32);
+        char[] chars = new char[10 * 64];
+        assertEquals(640, Hex.encodeBatch(packed, 0, 10, 32, chars, 0));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Hex.encode(Arrays.copyOfRange(packed, i * 32, (i + 1) * 32)), hashes[i]);
+            assertEquals(hashes[i], new String(chars, i * 64, 64));
+        }
+
+        byte[] back = new byte[packed.length];
+        assertEquals(packed.length, Hex.decodeBatch(hashes, 32, back, 0));
+        assertArrayEquals(packed, back);
+    }
+
+    @Test
+    public void testKeys() {
+        byte[] arr = new byte[32];
+        new Random().nextBytes(arr);
+
+        assertEquals(Hex.encode(arr), Sha256Key.of(arr).toHex());
+        assertEquals(Hex.encode(Arrays.copyOf(arr, 20)), Sha1Key.of(arr, 0).toHex());
+    }
+}
@@ -0,0 +1,70 @@
+package org.libtorrent4j;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author aldenml
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        for (long v = 0; v < 100000; v++) {
+            int b = LatencyHistogram.bucket(v);
+            assertTrue(LatencyHistogram.highestValue(b) >= v);
+            if (b > 0) {
+                assertTrue(LatencyHistogram.highestValue(b - 1) < v);
+            }
+        }
+
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValue(LatencyHistogram.bucket(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            h.record(i);
+        }
+
+        assertEquals(1000, h.count());
+        assertEquals(500.5, h.mean(), 0.001);
+        assertEquals(1000, h.max());
+
+        assertWithin(500, h.p50());
+        assertWithin(990, h.p99());
+        assertWithin(999, h.p999());
+        assertEquals(1000, h.percentile(100));
+
+        h.reset();
+        assertEquals(0, h.count());
+        assertEquals(0, h.p99());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual + " not within 1/32 of " + expected,
+                actual >= expected && actual <= expected + expected / 32);
+    }
+
+    @Test
+    public void testCopyAndReset() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            h.record(i);
+        }
+
+        LatencyHistogram c = h.copyAndReset();
+        assertEquals(100, c.count());
+        assertEquals(100, c.max());
+        assertEquals(50, c.p50());
+        assertEquals(0, h.count());
+        assertEquals(0, h.p50());
+
+        h.record(7);
+        assertEquals(7, h.copy().max());
+        assertEquals(1, h.count());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author aldenml
+ */
+public class LongPairMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        LongPairMap m = new LongPairMap();
+
+        assertEquals(-1, m.get(1, 2, -1));
+        assertTrue(m.putIfAbsent(1, 2, 10));
+        assertFalse(m.putIfAbsent(1, 2, 20));
+        assertEquals(10, m.get(1, 2, -1));
+        m.put(1, 2, 30);
+        assertEquals(30, m.get(1, 2, -1));
+        assertEquals(-1, m.get(2, 1, -1));
+        assertEquals(1, m.size());
+        assertEquals(30, m.remove(1, 2, -1));
+        assertEquals(-1, m.remove(1, 2, -1));
+        assertTrue(m.isEmpty());
+    }
+
+    @Test
+    public void testRandomOperations() {
+        Random r = new Random(7);
+        LongPairMap m = new LongPairMap();
+        Map<String, Long> ref = new HashMap<>();
+
+        for (int i = 0; i < 100000; i++) {
+            long k1 = r.nextInt(8);
+            long k2 = r.nextInt(500);
+            String k = k1 + ":" + k2;
+            switch (r.nextInt(4)) {
+                case 0:
+                case 1:
+                    long v = r.nextInt(1000);
+                    m.put(k1, k2, v);
+                    ref.put(k, v);
+                    break;
+                case 2:
+                    Long prev = ref.remove(k);
+                    assertEquals(prev == null ? -1 : prev, m.remove(k1, k2, -1));
+                    break;
+                default:
+                    Long e = ref.get(k);
+                    assertEquals(e == null ? -1 : e, m.get(k1, k2, -1));
+            }
+            if (i % 10000 == 0) {
+                int n = m.removeAll(k1);
+                int expected = 0;
+                for (Iterator<String> it = ref.keySet().iterator(); it.hasNext(); ) {
+                    if (it.next().startsWith(k1 + ":")) {
+                        it.remove();
+                        expected++;
+                    }
+                }
+                assertEquals(expected, n);
+            }
+            assertEquals(ref.size(), m.size());
+        }
+
+        for (Map.Entry<String, Long> e : ref.entrySet()) {
+            String[] k = e.getKey().split(":");
+            assertEquals((long) e.getValue(), m.get(Long.parseLong(k[0]), Long.parseLong(k[1]), -1));
+        }
+    }
+
+    @Test
+    public void testRemoveValuesLessThan() {
+        LongPairMap m = new LongPairMap();
+        for (int i = 0; i < 1000; i++) {
+            m.put(i % 3, i, i);
+        }
+
+        assertEquals(500, m.removeValuesLessThan(500));
+        assertEquals(500, m.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i < 500 ? -1 : i, m.get(i % 3, i, -1));
+        }
+    }
+}
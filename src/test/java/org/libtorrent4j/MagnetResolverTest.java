@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author aldenml
+ */
+public class MagnetResolverTest {
+
+    @Test
+    public void testQueueAndMaxActive() throws Exception {
+        StubFetcher f = new StubFetcher();
+        MagnetResolver r = new MagnetResolver(f, 2);
+
+        List<CompletableFuture<byte[]>> l = r.resolveAll(Arrays.asList("01", "02", "03"));
+        assertEquals(2, r.active());
+        assertEquals(1, r.queued());
+        assertEquals(Arrays.asList("01", "02"), f.started);
+
+        byte[] info = {1, 2, 3};
+        f.fetches.get("01").complete(info);
+        assertArrayEquals(info, l.get(0).get(10, TimeUnit.SECONDS));
+
+        // the queued one takes the free slot
+        await(f, 3);
+        assertEquals(Arrays.asList("01", "02", "03"), f.started);
+        assertEquals(0, r.queued());
+
+        f.fetches.get("02").complete(null);
+        f.fetches.get("03").complete(info);
+        assertNull(l.get(1).get(10, TimeUnit.SECONDS));
+        assertArrayEquals(info, l.get(2).get(10, TimeUnit.SECONDS));
+
+        assertEquals(3, r.submitted());
+        assertEquals(2, r.resolved());
+        assertEquals(1, r.failed());
+        assertEquals(2, r.timeToMetadata().count());
+        assertEquals(0, r.active());
+    }
+
+    @Test
+    public void testDeduplication() throws Exception {
+        StubFetcher f = new StubFetcher();
+        MagnetResolver r = new MagnetResolver(f, 1);
+
+        CompletableFuture<byte[]> a = r.resolve("01");
+        CompletableFuture<byte[]> b = r.resolve("01");
+        assertSame(a, b);
+        assertEquals(1, r.deduplicated());
+        assertEquals(1, f.started.size());
+
+        f.fetches.get("01").complete(new byte[]{1});
+        a.get(10, TimeUnit.SECONDS);
+
+        // not in flight anymore, fetched again
+        r.resolve("01");
+        await(f, 2);
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        StubFetcher f = new StubFetcher();
+        MagnetResolver r = new MagnetResolver(f, 1);
+
+        CompletableFuture<byte[]> a = r.resolve("01");
+        CompletableFuture<byte[]> b = r.resolve("02");
+        r.cancel();
+
+        assertNull(a.get());
+        assertNull(b.get());
+        assertEquals(2, r.failed());
+        assertEquals(0, r.active());
+        assertEquals(0, r.queued());
+
+        // only the started fetch is released, and not completed
+        assertEquals(Arrays.asList("01"), f.released);
+        assertTrue(!f.fetches.get("01").isDone());
+
+        // a late completion of the shared fetch doesn't change the counts
+        f.fetches.get("01").complete(new byte[]{1});
+        Thread.sleep(50);
+        assertEquals(0, r.resolved());
+        assertEquals(0, r.active());
+    }
+
+    @Test
+    public void testInvalidMagnet() throws Exception {
+        StubFetcher f = new StubFetcher();
+        MagnetResolver r = new MagnetResolver(f, 2);
+
+        List<CompletableFuture<byte[]>> l = r.resolveAll(Arrays.asList("01", "bad", "02"));
+        assertEquals(3, l.size());
+        assertNull(l.get(1).get());
+        assertEquals(Arrays.asList("01", "02"), f.started);
+
+        assertEquals(3, r.submitted());
+        assertEquals(1, r.failed());
+        assertEquals(2, r.active());
+    }
+
+    private static void await(StubFetcher f, int started) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (f.started.size() < started && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(started, f.started.size());
+    }
+
+    private static final class StubFetcher implements MagnetResolver.Fetcher {
+
+        final Map<String, CompletableFuture<byte[]>> fetches = new ConcurrentHashMap<>();
+        final List<String> started = new ArrayList<>();
+        final List<String> released = new ArrayList<>();
+
+        @Override
+        public Sha1Key infoHash(String uri) {
+            if (uri.equals("bad")) {
+                throw new IllegalArgumentException("invalid magnet");
+            }
+            return Sha1Key.parseHex(uri + "02030405060708090a0b0c0d0e0f1011121314");
+        }
+
+        @Override
+        public CompletableFuture<byte[]> fetch(String uri) {
+            CompletableFuture<byte[]> future = new CompletableFuture<>();
+            fetches.put(uri, future);
+            synchronized (started) {
+                started.add(uri);
+            }
+            return future;
+        }
+
+        @Override
+        public void release(Sha1Key key, CompletableFuture<byte[]> fetch) {
+            released.add(key.toHex().substring(0, 2));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.libtorrent4j;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author aldenml
+ */
+public class MetricsExporterTest {
+
+    @Test
+    public void testRender() {
+        MetricsExporter e = exporter();
+        e.update(key(1), 0, 100, 10, 3);
+        e.update(key(2), 1, 200, 20, 4);
+        // a torrent changes state
+        e.update(key(1), 1, 50, 5, 1);
+        e.update(key(3), 0, 0, 0, 0);
+        e.remove(key(3));
+        e.render(stats());
+
+        String text = new String(e.scrape(), StandardCharsets.US_ASCII);
+
+        assertTrue(text.contains("# TYPE libtorrent_net_recv_bytes counter\nlibtorrent_net_recv_bytes_total 1234\n"));
+        assertTrue(text.contains("# TYPE libtorrent_dht_dht_nodes gauge\nlibtorrent_dht_dht_nodes -5\n"));
+        assertTrue(text.contains("libtorrent_torrents{state=\"downloading\"} 0\n"));
+        assertTrue(text.contains("libtorrent_torrents{state=\"seeding\"} 2\n"));
+        assertTrue(text.contains("libtorrent_torrents_download_rate_bytes 250\n"));
+        assertTrue(text.contains("libtorrent_torrents_upload_rate_bytes 25\n"));
+        assertTrue(text.contains("libtorrent_torrents_peers 5\n"));
+        assertTrue(text.endsWith("# EOF\n"));
+    }
+
+    @Test
+    public void testReset() {
+        MetricsExporter e = exporter();
+        e.update(key(1), 0, 100, 10, 3);
+        e.render(stats());
+        assertTrue(e.cached().length > 6);
+
+        // a stopped exporter doesn't serve stale numbers
+        e.reset();
+        assertEquals("# EOF\n", new String(e.scrape(), StandardCharsets.US_ASCII));
+
+        e.render(stats());
+        String text = new String(e.scrape(), StandardCharsets.US_ASCII);
+        assertTrue(text.contains("libtorrent_torrents_download_rate_bytes 0\n"));
+    }
+
+    @Test
+    public void testServer() throws Exception {
+        MetricsExporter e = exporter();
+        e.render(stats());
+
+        MetricsServer server = new MetricsServer(e, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+        try {
+            URL url = new URL("http://127.0.0.1:" + server.port() + "/metrics");
+            HttpURLConnection c = (HttpURLConnection) url.openConnection();
+            assertEquals(200, c.getResponseCode());
+            assertEquals(MetricsExporter.CONTENT_TYPE, c.getContentType());
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (InputStream is = c.getInputStream()) {
+                byte[] buf = new byte[4096];
+                int n;
+                while ((n = is.read(buf)) != -1) {
+                    out.write(buf, 0, n);
+                }
+            }
+            assertEquals(new String(e.scrape(), StandardCharsets.US_ASCII),
+                    new String(out.toByteArray(), StandardCharsets.US_ASCII));
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static MetricsExporter exporter() {
+        return new MetricsExporter(null, new String[]{"downloading", "seeding"});
+    }
+
+    private static SessionStats stats() {
+        SessionStats s = new SessionStats(new String[]{
+                StatsMetric.NET_RECV_BYTES_COUNTER_NAME,
+                null,
+                StatsMetric.DHT_NODES_GAUGE_NAME
+        }, new boolean[]{false, false, true});
+        long[] v = s.backValues();
+        v[0] = 1234;
+        v[2] = -5;
+        s.update(v.length, 1);
+        return s;
+    }
+
+    private static Sha1Key key(int n) {
+        byte[] b = new byte[Sha1Key.SIZE];
+        b[0] = (byte) n;
+        return Sha1Key.of(b);
+    }
+}
@@ -0,0 +1,172 @@
+package org.libtorrent4j;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author aldenml
+ */
+public class PendingRequestsTest {
+
+    @Test
+    public void testCompleteAndDedupe() throws Exception {
+        AtomicInteger changes = new AtomicInteger();
+        PendingRequests<String, String> r = new PendingRequests<>(counter(changes));
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+        scheduler.setRemoveOnCancelPolicy(true);
+
+        try {
+            CompletableFuture<String> f1 = new CompletableFuture<>();
+            assertNull(r.register("a", f1, 60000, null, scheduler));
+            assertEquals(1, changes.get());
+            assertEquals(1, scheduler.getQueue().size());
+
+            // the second request shares the future of the first one
+            assertSame(f1, r.register("a", new CompletableFuture<String>(), 60000, null, scheduler));
+            assertEquals(1, r.size());
+            assertTrue(r.contains("a"));
+
+            assertFalse(r.complete("b", "x"));
+            assertTrue(r.complete("a", "x"));
+            assertEquals("x", f1.get());
+
+            assertTrue(r.isEmpty());
+            assertFalse(r.contains("a"));
+            assertEquals(2, changes.get());
+            // the timeout is cancelled
+            assertEquals(0, scheduler.getQueue().size());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        AtomicInteger changes = new AtomicInteger();
+        PendingRequests<String, String> r = new PendingRequests<>(counter(changes));
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+
+        try {
+            CompletableFuture<String> f = new CompletableFuture<>();
+            r.register("a", f, 50, "timeout", scheduler);
+
+            assertEquals("timeout", f.get(10, TimeUnit.SECONDS));
+            assertTrue(r.isEmpty());
+            assertEquals(2, changes.get());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testJoinKeepsLongestDeadline() throws Exception {
+        PendingRequests<String, String> r = new PendingRequests<>(counter(new AtomicInteger()));
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+
+        try {
+            CompletableFuture<String> f = new CompletableFuture<>();
+            long t0 = System.nanoTime();
+            r.register("a", f, 50, "timeout", scheduler);
+            // a blocking call with a longer timeout joins
+            assertSame(f, r.register("a", new CompletableFuture<String>(), 500, "timeout", scheduler));
+
+            assertEquals("timeout", f.get(10, TimeUnit.SECONDS));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0) >= 500);
+            assertTrue(r.isEmpty());
+
+            // a shorter one doesn't shorten it
+            CompletableFuture<String> g = new CompletableFuture<>();
+            t0 = System.nanoTime();
+            r.register("b", g, 300, "timeout", scheduler);
+            r.register("b", new CompletableFuture<String>(), 10, "timeout", scheduler);
+            assertEquals("timeout", g.get(10, TimeUnit.SECONDS));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0) >= 300);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRelease() throws Exception {
+        PendingRequests<String, String> r = new PendingRequests<>(counter(new AtomicInteger()));
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+
+        try {
+            CompletableFuture<String> f = new CompletableFuture<>();
+            r.register("a", f, 60000, null, scheduler);
+            r.register("a", new CompletableFuture<String>(), 60000, null, scheduler);
+
+            assertFalse(r.release("a", new CompletableFuture<String>(), "cancel"));
+            // the other request is still waiting
+            assertFalse(r.release("a", f, "cancel"));
+            assertFalse(f.isDone());
+            assertTrue(r.release("a", f, "cancel"));
+            assertEquals("cancel", f.get());
+            assertTrue(r.isEmpty());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNoScheduler() throws Exception {
+        PendingRequests<String, String> r = new PendingRequests<>(counter(new AtomicInteger()));
+
+        CompletableFuture<String> f = new CompletableFuture<>();
+        assertNull(r.register("a", f, 60000, "none", null));
+        assertEquals("none", f.get());
+        assertTrue(r.isEmpty());
+    }
+
+    @Test
+    public void testCompleteAll() throws Exception {
+        PendingRequests<String, String> r = new PendingRequests<>(counter(new AtomicInteger()));
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+
+        try {
+            CompletableFuture<String> f1 = new CompletableFuture<>();
+            CompletableFuture<String> f2 = new CompletableFuture<>();
+            r.register("a", f1, 60000, null, scheduler);
+            r.register("b", f2, 60000, null, scheduler);
+            assertEquals(2, r.size());
+
+            r.completeAll("stop");
+            assertEquals("stop", f1.get());
+            assertEquals("stop", f2.get());
+            assertTrue(r.isEmpty());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testItemKey() {
+        byte[] key = {1, 2, 3};
+
+        assertEquals(new PendingRequests.ItemKey(key, null), new PendingRequests.ItemKey(key.clone(), new byte[0]));
+        assertEquals(new PendingRequests.ItemKey(key, null).hashCode(),
+                new PendingRequests.ItemKey(key.clone(), new byte[0]).hashCode());
+        assertEquals(new PendingRequests.ItemKey(key, new byte[]{4}), new PendingRequests.ItemKey(key, new byte[]{4}));
+        assertNotEquals(new PendingRequests.ItemKey(key, null), new PendingRequests.ItemKey(key, new byte[]{4}));
+    }
+
+    private static Runnable counter(final AtomicInteger n) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                n.incrementAndGet();
+            }
+        };
+    }
+}
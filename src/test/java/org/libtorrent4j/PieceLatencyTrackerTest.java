@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author aldenml
+ */
+public class PieceLatencyTrackerTest {
+
+    @Test
+    public void testPieceAndBlockLatencies() {
+        PieceLatencyTracker t = new PieceLatencyTracker(null);
+        Sha1Key ih = Sha1Key.parseHex("0102030405060708090a0b0c0d0e0f1011121314");
+        t.addTorrent(1, ih);
+
+        // the piece starts with the first request
+        t.blockDownloading(1, 5, 0, 1000);
+        t.blockDownloading(1, 5, 1, 1500);
+        t.blockFinished(1, 5, 0, true, 1100);
+        t.blockFinished(1, 5, 1, false, 1800);
+        t.pieceFinished(1, 5, 2000);
+
+        assertEquals(1, t.pieces().count());
+        assertEquals(1000, t.pieces().max());
+        assertEquals(1000, t.pieces(ih).max());
+        assertEquals(100, t.blocks(PieceLatencyTracker.PeerClass.LOCAL).max());
+        assertEquals(300, t.blocks(PieceLatencyTracker.PeerClass.REMOTE).max());
+        assertEquals(0, t.pending());
+
+        // a piece of another torrent, not registered
+        t.blockDownloading(2, 5, 0, 3000);
+        t.pieceFinished(2, 5, 3500);
+        assertEquals(2, t.pieces().count());
+        assertEquals(1, t.pieces(ih).count());
+        // the block never finished
+        assertEquals(1, t.pending());
+
+        // no start, requested before the tracker started
+        t.pieceFinished(1, 6, 4000);
+        assertEquals(2, t.pieces().count());
+    }
+
+    @Test
+    public void testHashFailedKeepsStart() {
+        PieceLatencyTracker t = new PieceLatencyTracker(null);
+
+        t.blockDownloading(1, 0, 0, 100);
+        t.blockFinished(1, 0, 0, false, 200);
+        t.hashFailed();
+        t.blockDownloading(1, 0, 0, 300);
+        t.blockFinished(1, 0, 0, false, 450);
+        t.pieceFinished(1, 0, 500);
+
+        assertEquals(1, t.hashFailures());
+        assertEquals(400, t.pieces().max());
+        assertEquals(2, t.blocks(PieceLatencyTracker.PeerClass.REMOTE).count());
+    }
+
+    @Test
+    public void testTorrentRemoved() {
+        PieceLatencyTracker t = new PieceLatencyTracker(null);
+        Sha1Key ih1 = Sha1Key.parseHex("0102030405060708090a0b0c0d0e0f1011121314");
+        Sha1Key ih2 = Sha1Key.parseHex("1102030405060708090a0b0c0d0e0f1011121314");
+        t.addTorrent(1, ih1);
+        t.addTorrent(2, ih2);
+
+        for (int p = 0; p < 100; p++) {
+            t.blockDownloading(1, p, 0, 0);
+            t.blockDownloading(2, p, 0, 0);
+        }
+        assertEquals(400, t.pending());
+
+        t.torrentRemoved(1);
+        assertEquals(200, t.pending());
+        assertNull(t.pieces(ih1));
+
+        // the last torrent moved to the hole
+        t.pieceFinished(2, 0, 10);
+        assertEquals(1, t.pieces(ih2).count());
+    }
+
+    @Test
+    public void testSnapshotAndReset() {
+        PieceLatencyTracker t = new PieceLatencyTracker(null);
+        Sha1Key ih = Sha1Key.parseHex("0102030405060708090a0b0c0d0e0f1011121314");
+        t.addTorrent(1, ih);
+
+        t.blockDownloading(1, 0, 0, 0);
+        t.pieceFinished(1, 0, 700);
+        t.blockDownloading(1, 1, 0, 800);
+        t.hashFailed();
+
+        PieceLatencyTracker.Snapshot s = t.snapshotAndReset();
+        assertEquals(1, s.pieces().count());
+        assertEquals(700, s.pieces().max());
+        assertEquals(700, s.torrents().get(ih).max());
+        assertEquals(1, s.hashFailures());
+
+        assertEquals(0, t.pieces().count());
+        assertEquals(0, t.pieces(ih).count());
+        assertEquals(0, t.hashFailures());
+
+        // the piece in progress is kept
+        t.pieceFinished(1, 1, 1000);
+        assertEquals(200, t.snapshot().pieces().max());
+    }
+}
@@ -0,0 +1,101 @@
+package org.libtorrent4j;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author aldenml
+ */
+public class PiecesTrackerTest {
+
+    // files of sizes 10, 25, 35 with piece length 16
+    private static PiecesTracker tracker() {
+        long[] sizes = {10, 25, 35};
+        long[] offsets = {0, 10, 35};
+        FileTable files = new FileTable(16, 5, sizes, offsets, new byte[3],
+                new String[]{"t/a", "t/b", "t/c"});
+        return new PiecesTracker(files, new Sha1Key[0]);
+    }
+
+    @Test
+    public void testSequential() {
+        PiecesTracker t = tracker();
+
+        assertEquals(0, t.getSequentialDownloadedBytes(1));
+
+        t.setComplete(0, true);
+        assertTrue(t.isComplete(0));
+        assertEquals(10, t.getSequentialDownloadedBytes(0));
+        assertEquals(6, t.getSequentialDownloadedBytes(1));
+        assertEquals(1, t.getSequentialDownloadedPieces(1));
+
+        t.setComplete(2, true);
+        assertEquals(6, t.getSequentialDownloadedBytes(1));
+
+        t.setComplete(1, true);
+        assertEquals(25, t.getSequentialDownloadedBytes(1));
+        assertEquals(3, t.getSequentialDownloadedPieces(1));
+        assertEquals(13, t.getSequentialDownloadedBytes(2));
+        assertEquals(2, t.getContiguousBytes(2, 11));
+        assertEquals(0, t.getContiguousBytes(2, 13));
+
+        t.setComplete(3, true);
+        t.setComplete(4, true);
+        assertEquals(35, t.getSequentialDownloadedBytes(2));
+        assertEquals(5, t.getContiguousBytes(2, 30));
+        assertEquals(0, t.getContiguousBytes(2, 35));
+    }
+
+    @Test
+    public void testClearPiece() {
+        PiecesTracker t = tracker();
+        for (int i = 0; i < t.numPieces(); i++) {
+            t.setComplete(i, true);
+        }
+        assertEquals(35, t.getSequentialDownloadedBytes(2));
+
+        t.setComplete(3, false);
+        assertFalse(t.isComplete(3));
+        assertTrue(t.isComplete(4));
+        assertEquals(13, t.getSequentialDownloadedBytes(2));
+        assertEquals(25, t.getSequentialDownloadedBytes(1));
+    }
+
+    @Test
+    public void testConcurrentReaders() throws InterruptedException {
+        final PiecesTracker t = tracker();
+        final AtomicBoolean failed = new AtomicBoolean();
+        final CountDownLatch done = new CountDownLatch(4);
+
+        for (int r = 0; r < 4; r++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    long last = 0;
+                    for (int i = 0; i < 100000; i++) {
+                        long n = t.getSequentialDownloadedBytes(2);
+                        if (n < last) {
+                            failed.set(true);
+                        }
+                        last = n;
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        for (int i = t.numPieces() - 1; i >= 0; i--) {
+            t.setComplete(i, true);
+        }
+        done.await();
+
+        assertFalse(failed.get());
+        assertEquals(35, t.getSequentialDownloadedBytes(2));
+    }
+}
@@ -10,6 +10,7 @@ package org.libtorrent4j;
 import org.junit.Test;
 import org.libtorrent4j.swig.byte_vector;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -44,4 +45,21 @@ public class PriorityTest {
             assertEquals(Priority.DEFAULT, arr[i]);
         }
     }
+
+    @Test
+    public void testBytes() {
+        Priority[] arr = Priority.values();
+        byte[] bytes = Priority.toBytes(arr);
+
+        for (int i = 0; i < arr.length; i++) {
+            assertEquals(arr[i].swig(), bytes[i]);
+            assertEquals(arr[i], Priority.fromSwig(bytes[i]));
+        }
+        assertArrayEquals(arr, Priority.fromBytes(bytes));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidNativeValue() {
+        Priority.fromSwig(8);
+    }
 }
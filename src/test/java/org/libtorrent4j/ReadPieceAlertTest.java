@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.libtorrent4j.alerts.Alert;
+import org.libtorrent4j.alerts.AlertType;
+import org.libtorrent4j.alerts.ReadPieceAlert;
+import org.libtorrent4j.alerts.TorrentCheckedAlert;
+
+import java.io.File;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author aldenml
+ */
+public class ReadPieceAlertTest {
+
+    private static final int PIECE_SIZE = 16 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private boolean readOnly;
+    private int bufferPosition;
+    private int bufferLimit;
+    private byte[] bufferData;
+    private byte[] heapData;
+    private int heapPosition;
+    private byte[] directData;
+    private int directPosition;
+    private boolean readOnlyRejected;
+    private boolean overflowRejected;
+    private int overflowPosition;
+
+    @Test
+    public void testBufferAndCopyTo() throws Exception {
+        File f = folder.newFile("data.bin");
+        byte[] data = new byte[PIECE_SIZE + 1000];
+        new Random(13).nextBytes(data);
+        Utils.writeByteArrayToFile(f, data, false);
+
+        TorrentBuilder.Result r = new TorrentBuilder().path(f).pieceSize(PIECE_SIZE).generate();
+        TorrentInfo ti = TorrentInfo.bdecode(r.entry().bencode());
+
+        final int piece = 1;
+        final int size = r.pieceSize(piece);
+        final CountDownLatch read = new CountDownLatch(1);
+
+        SessionManager s = new SessionManager();
+        s.addListener(new AlertListener() {
+            @Override
+            public int[] types() {
+                return new int[]{AlertType.TORRENT_CHECKED.swig(), AlertType.READ_PIECE.swig()};
+            }
+
+            @Override
+            public void alert(Alert<?> alert) {
+                if (alert instanceof TorrentCheckedAlert) {
+                    ((TorrentCheckedAlert) alert).handle().readPiece(piece);
+                    return;
+                }
+
+                ReadPieceAlert a = (ReadPieceAlert) alert;
+
+                ByteBuffer b = a.buffer();
+                readOnly = b.isReadOnly();
+                bufferPosition = b.position();
+                bufferLimit = b.limit();
+                bufferData = new byte[b.remaining()];
+                b.get(bufferData);
+
+                // the copy starts at the position, not at the start
+                ByteBuffer heap = ByteBuffer.allocate(size + 10);
+                heap.position(3);
+                a.copyTo(heap);
+                heapPosition = heap.position();
+                heapData = Arrays.copyOfRange(heap.array(), 3, 3 + size);
+
+                ByteBuffer direct = ByteBuffer.allocateDirect(size + 10);
+                direct.position(5);
+                a.copyTo(direct);
+                directPosition = direct.position();
+                directData = new byte[size];
+                direct.position(5);
+                direct.get(directData);
+
+                try {
+                    a.copyTo(ByteBuffer.allocate(size).asReadOnlyBuffer());
+                } catch (ReadOnlyBufferException e) {
+                    readOnlyRejected = true;
+                }
+
+                ByteBuffer small = ByteBuffer.allocate(size);
+                small.position(1);
+                try {
+                    a.copyTo(small);
+                } catch (BufferOverflowException e) {
+                    overflowRejected = true;
+                    overflowPosition = small.position();
+                }
+
+                read.countDown();
+            }
+        });
+
+        s.start();
+        s.download(ti, f.getParentFile());
+
+        assertTrue("piece not read", read.await(1, TimeUnit.MINUTES));
+        s.stop();
+
+        byte[] expected = Arrays.copyOfRange(data, piece * PIECE_SIZE, piece * PIECE_SIZE + size);
+
+        assertTrue(readOnly);
+        assertEquals(0, bufferPosition);
+        assertEquals(size, bufferLimit);
+        assertArrayEquals(expected, bufferData);
+
+        assertEquals(3 + size, heapPosition);
+        assertArrayEquals(expected, heapData);
+
+        assertEquals(5 + size, directPosition);
+        assertArrayEquals(expected, directData);
+
+        assertTrue(readOnlyRejected);
+        assertTrue(overflowRejected);
+        assertEquals(1, overflowPosition);
+    }
+}
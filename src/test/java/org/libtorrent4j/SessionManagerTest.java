@@ -8,7 +8,18 @@
 package org.libtorrent4j;
 
 import org.junit.Test;
+import org.libtorrent4j.alerts.Alert;
+import org.libtorrent4j.alerts.AlertType;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -27,4 +38,83 @@ public class SessionManagerTest {
         assertTrue(nodes.contains("router.utorrent.com:6881"));
         assertTrue(nodes.contains("dht.transmissionbt.com:6881"));
     }
+
+    @Test
+    public void testNotifyAlertWaitStrategy() {
+        SessionManager s = new SessionManager();
+        s.setAlertWaitStrategy(SessionManager.AlertWaitStrategy.NOTIFY);
+
+        s.start();
+        assertTrue(s.isRunning());
+
+        long t = System.currentTimeMillis();
+        s.stop();
+        assertTrue(System.currentTimeMillis() - t < 5000);
+        assertFalse(s.isRunning());
+    }
+
+    @Test
+    public void testFlyweightAlerts() throws InterruptedException {
+        SessionManager s = new SessionManager();
+        s.setFlyweightAlerts(true);
+
+        final List<Alert<?>> received = new ArrayList<>();
+        final List<Alert<?>> retained = new ArrayList<>();
+        final CountDownLatch done = new CountDownLatch(2);
+        s.addListener(new AlertListener() {
+            @Override
+            public int[] types() {
+                return new int[]{AlertType.DHT_STATS.swig()};
+            }
+
+            @Override
+            public void alert(Alert<?> alert) {
+                received.add(alert);
+                retained.add(alert.retain());
+                done.countDown();
+            }
+        });
+
+        s.start();
+        s.postDhtStats();
+        s.postDhtStats();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        s.stop();
+
+        assertEquals(2, received.size());
+        assertSame(received.get(0), received.get(1));
+        assertTrue(received.get(0).isFlyweight());
+        assertNotSame(retained.get(0), retained.get(1));
+        assertFalse(retained.get(0).isFlyweight());
+    }
+
+    @Test
+    public void testDynamicAlertMask() {
+        SessionManager s = new SessionManager();
+        s.start();
+
+        int mask = s.alertMask().to_int();
+        assertEquals(0, mask & Alert.BLOCK_PROGRESS_NOTIFICATION.to_int());
+        assertTrue((mask & Alert.STATUS_NOTIFICATION.to_int()) != 0);
+
+        AlertListener l = new AlertListener() {
+            @Override
+            public int[] types() {
+                return new int[]{AlertType.BLOCK_FINISHED.swig()};
+            }
+
+            @Override
+            public void alert(Alert<?> alert) {
+            }
+        };
+        s.addListener(l);
+        assertTrue((s.alertMask().to_int() & Alert.BLOCK_PROGRESS_NOTIFICATION.to_int()) != 0);
+        assertEquals(s.alertMask().to_int(), s.settings().getInteger(
+                org.libtorrent4j.swig.settings_pack.int_types.alert_mask.swigValue()));
+
+        s.removeListener(l);
+        assertEquals(mask, s.alertMask().to_int());
+
+        s.stop();
+    }
 }
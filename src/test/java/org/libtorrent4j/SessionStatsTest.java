@@ -0,0 +1,102 @@
+package org.libtorrent4j;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author aldenml
+ */
+public class SessionStatsTest {
+
+    private static final long SECOND = 1000000000L;
+
+    @Test
+    public void testLookup() {
+        SessionStats s = stats();
+
+        assertEquals(3, s.numMetrics());
+        assertEquals(0, s.metricIndex(StatsMetric.NET_RECV_BYTES_COUNTER_NAME));
+        assertEquals(2, s.metricIndex(StatsMetric.DHT_NODES_GAUGE_NAME));
+        assertEquals(-1, s.metricIndex("anything"));
+        assertEquals(StatsMetric.NET_RECV_PAYLOAD_BYTES_COUNTER_NAME, s.metricName(1));
+        assertFalse(s.isGauge(0));
+        assertTrue(s.isGauge(2));
+        assertEquals(0, s.value("anything"));
+    }
+
+    @Test
+    public void testDeltasAndRates() {
+        SessionStats s = stats();
+
+        sample(s, 1, 1000, 400, 10);
+        assertEquals(1000, s.value(0));
+        assertEquals(1000, s.delta(0));
+        assertEquals(1000, s.rate(0), 0.001);
+        assertEquals(10, s.rate(2), 0.001);
+        assertEquals(1000, s.totalDownload());
+        assertEquals(10, s.dhtNodes());
+
+        // two seconds later
+        sample(s, 3, 3000, 1400, 20);
+        assertEquals(3000, s.value(StatsMetric.NET_RECV_BYTES_COUNTER_NAME));
+        assertEquals(2000, s.delta(0));
+        assertEquals(1000 + 0.2 * (1000 - 1000), s.rate(0), 0.001);
+        assertEquals(10, s.delta(2));
+        assertEquals(10 + 0.2 * (20 - 10), s.rate(2), 0.001);
+        assertEquals(3000, s.totalDownload());
+        assertEquals(2, s.samples());
+
+        long[] values = new long[s.numMetrics()];
+        s.values(values);
+        assertEquals(3000, values[0]);
+        assertEquals(1400, values[1]);
+        assertEquals(20, values[2]);
+    }
+
+    @Test
+    public void testWindow() {
+        SessionStats s = stats();
+        assertEquals(0, s.min(0));
+        assertEquals(0, s.max(0));
+
+        sample(s, 1, 100, 0, 5);
+        sample(s, 2, 400, 0, 50);
+        sample(s, 3, 500, 0, 7);
+        assertEquals(100, s.min(0));
+        assertEquals(300, s.max(0));
+        assertEquals(5, s.min(2));
+        assertEquals(50, s.max(2));
+
+        // the first samples leave the window
+        for (int i = 0; i < SessionStats.WINDOW; i++) {
+            sample(s, 4 + i, 510 + i * 10, 0, 8);
+        }
+        assertEquals(10, s.min(0));
+        assertEquals(10, s.max(0));
+        assertEquals(8, s.max(2));
+
+        s.clear();
+        assertEquals(0, s.samples());
+        assertEquals(0, s.value(0));
+        assertEquals(0, s.max(2));
+    }
+
+    private static SessionStats stats() {
+        return new SessionStats(new String[]{
+                StatsMetric.NET_RECV_BYTES_COUNTER_NAME,
+                StatsMetric.NET_RECV_PAYLOAD_BYTES_COUNTER_NAME,
+                StatsMetric.DHT_NODES_GAUGE_NAME
+        }, new boolean[]{false, false, true});
+    }
+
+    private static void sample(SessionStats s, long seconds, long recv, long payload, long nodes) {
+        long[] v = s.backValues();
+        v[0] = recv;
+        v[1] = payload;
+        v[2] = nodes;
+        s.update(v.length, seconds * SECOND);
+    }
+}
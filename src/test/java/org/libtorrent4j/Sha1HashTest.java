@@ -12,7 +12,10 @@ import org.junit.Test;
 import java.util.Arrays;
 import java.util.Random;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author aldenml
@@ -38,4 +41,55 @@ public class Sha1HashTest {
 
         assertEquals(h1, h2);
     }
+
+    @Test
+    public void testKey() {
+        byte[] arr = new byte[20];
+        Random rand = new Random();
+        rand.nextBytes(arr);
+
+        Sha1Key k1 = Sha1Key.of(arr);
+        Sha1Key k2 = Sha1Key.parseHex(Hex.encode(arr));
+
+        assertEquals(k1, k2);
+        assertEquals(Arrays.hashCode(arr), k1.hashCode());
+        assertArrayEquals(arr, k1.toBytes());
+        assertEquals(Hex.encode(arr), k1.toString());
+
+        arr[19] ^= 1;
+        assertNotEquals(k1, Sha1Key.of(arr));
+    }
+
+    @Test
+    public void testKeyCompare() {
+        byte[] a = new byte[20];
+        byte[] b = new byte[20];
+        b[0] = (byte) 0x80;
+        a[0] = (byte) 0x7f;
+
+        assertTrue(Sha1Key.of(a).compareTo(Sha1Key.of(b)) < 0);
+        assertTrue(Sha1Key.of(b).compareTo(Sha1Key.of(a)) > 0);
+        assertEquals(0, Sha1Key.of(a).compareTo(Sha1Key.of(a.clone())));
+        assertTrue(Sha1Key.of(new byte[20]).isAllZeros());
+    }
+
+    @Test
+    public void testKeyShardKey() {
+        Sha1Key k = Sha1Key.parseHex("0102030405060708090a0b0c0d0e0f1011121314");
+        assertEquals(0x0102030405060708L, k.shardKey());
+        assertEquals(0xff00000000000000L, Sha1Key.parseHex("ff00000000000000000000000000000000000000").shardKey());
+    }
+
+    @Test
+    public void testKeyNative() {
+        byte[] arr = new byte[20];
+        new Random().nextBytes(arr);
+
+        Sha1Hash h = Sha1Hash.fromBytes(arr);
+        Sha1Key k = h.toKey();
+
+        assertEquals(Sha1Key.of(arr), k);
+        assertEquals(h.hashCode(), k.hashCode());
+        assertEquals(h, k.toSha1Hash());
+    }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author aldenml
+ */
+public class Sha1KeyMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        Sha1KeyMap<String> m = new Sha1KeyMap<>();
+        Sha1Key k = key(new Random(), 1);
+
+        assertNull(m.get(k));
+        assertNull(m.put(k, "a"));
+        assertEquals("a", m.put(k, "b"));
+        assertEquals("b", m.get(k));
+        assertEquals(1, m.size());
+        assertEquals("b", m.remove(k));
+        assertNull(m.get(k));
+        assertTrue(m.isEmpty());
+    }
+
+    @Test
+    public void testRandomOperations() {
+        Random rand = new Random(7);
+        Sha1KeyMap<Integer> m = new Sha1KeyMap<>();
+        Map<Sha1Key, Integer> expected = new HashMap<>();
+
+        // a small key space to force collisions, removals and reinsertions
+        List<Sha1Key> space = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            space.add(key(rand, i));
+        }
+
+        for (int i = 0; i < 100000; i++) {
+            Sha1Key k = space.get(rand.nextInt(space.size()));
+            if (rand.nextInt(3) == 0) {
+                assertEquals(expected.remove(k), m.remove(k));
+            } else {
+                assertEquals(expected.put(k, i), m.put(k, i));
+            }
+        }
+
+        assertEquals(expected.size(), m.size());
+        for (Sha1Key k : space) {
+            assertEquals(expected.get(k), m.get(k));
+            assertEquals(expected.containsKey(k), m.containsKey(k));
+        }
+        assertEquals(expected.keySet(), new HashSet<>(m.keys()));
+        assertEquals(new HashSet<>(expected.values()), new HashSet<>(m.values()));
+
+        m.clear();
+        assertTrue(m.isEmpty());
+        assertFalse(m.containsKey(space.get(0)));
+    }
+
+    private static Sha1Key key(Random rand, int i) {
+        byte[] arr = new byte[20];
+        rand.nextBytes(arr);
+        // some keys with the same hash code prefix
+        if (i % 4 == 0) {
+            arr[0] = 0;
+            arr[1] = 0;
+        }
+        return Sha1Key.of(arr);
+    }
+}
@@ -12,7 +12,10 @@ import org.junit.Test;
 import java.util.Arrays;
 import java.util.Random;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author aldenml
@@ -38,4 +41,57 @@ public class Sha256HashTest {
 
         assertEquals(h1, h2);
     }
+
+    @Test
+    public void testKey() {
+        byte[] arr = new byte[32];
+        Random rand = new Random();
+        rand.nextBytes(arr);
+
+        Sha256Key k1 = Sha256Key.of(arr);
+        Sha256Key k2 = Sha256Key.parseHex(Hex.encode(arr));
+
+        assertEquals(k1, k2);
+        assertEquals(Arrays.hashCode(arr), k1.hashCode());
+        assertArrayEquals(arr, k1.toBytes());
+        assertEquals(Hex.encode(arr), k1.toString());
+
+        arr[31] ^= 1;
+        assertNotEquals(k1, Sha256Key.of(arr));
+    }
+
+    @Test
+    public void testKeyCompare() {
+        byte[] a = new byte[32];
+        byte[] b = new byte[32];
+        b[0] = (byte) 0x80;
+        a[0] = (byte) 0x7f;
+
+        assertTrue(Sha256Key.of(a).compareTo(Sha256Key.of(b)) < 0);
+        assertTrue(Sha256Key.of(b).compareTo(Sha256Key.of(a)) > 0);
+        assertEquals(0, Sha256Key.of(a).compareTo(Sha256Key.of(a.clone())));
+        assertTrue(Sha256Key.of(new byte[32]).isAllZeros());
+    }
+
+    @Test
+    public void testKeyNative() {
+        byte[] arr = new byte[32];
+        new Random().nextBytes(arr);
+
+        Sha256Hash h = Sha256Hash.fromBytes(arr);
+        Sha256Key k = h.toKey();
+
+        assertEquals(Sha256Key.of(arr), k);
+        assertEquals(h.hashCode(), k.hashCode());
+        assertEquals(h, k.toSha256Hash());
+    }
+
+    @Test
+    public void testKeyTruncate() {
+        byte[] arr = new byte[32];
+        new Random().nextBytes(arr);
+
+        Sha1Key k = Sha256Key.of(arr).toSha1Key();
+        assertArrayEquals(Arrays.copyOf(arr, 20), k.toBytes());
+    }
 }
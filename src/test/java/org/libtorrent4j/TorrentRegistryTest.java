@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author aldenml
+ */
+public class TorrentRegistryTest {
+
+    private static final Sha1Key KEY = Sha1Key.parseHex("0102030405060708090a0b0c0d0e0f1011121314");
+
+    @Test
+    public void testReleaseOnFailure() {
+        TorrentRegistry r = new TorrentRegistry(1000);
+
+        assertEquals(TorrentRegistry.RESERVED, r.reserve(KEY));
+        assertTrue(r.contains(KEY));
+        assertNull(r.get(KEY));
+        // a second add of the same torrent while the first is in flight
+        assertEquals(TorrentRegistry.NOT_RESERVED, r.reserve(KEY));
+
+        // the add failed, synchronously or with the alert
+        r.release(KEY);
+        assertFalse(r.contains(KEY));
+        assertEquals(TorrentRegistry.RESERVED, r.reserve(KEY));
+        assertEquals(0, r.size());
+    }
+
+    @Test
+    public void testReservationExpires() {
+        TorrentRegistry r = new TorrentRegistry(1000);
+        long t0 = System.nanoTime();
+
+        assertEquals(TorrentRegistry.RESERVED, r.reserve(KEY, t0));
+        assertEquals(TorrentRegistry.NOT_RESERVED, r.reserve(KEY, t0 + TimeUnit.MILLISECONDS.toNanos(999)));
+
+        // the add alert was lost
+        long t1 = t0 + TimeUnit.MILLISECONDS.toNanos(1000);
+        assertEquals(TorrentRegistry.RESERVED_EXPIRED, r.reserve(KEY, t1));
+        // the new reservation has its own timeout
+        assertEquals(TorrentRegistry.NOT_RESERVED, r.reserve(KEY, t1 + 1));
+    }
+
+    @Test
+    public void testExpiredReservationNotContained() {
+        TorrentRegistry r = new TorrentRegistry(0);
+
+        assertEquals(TorrentRegistry.RESERVED, r.reserve(KEY));
+        assertFalse(r.contains(KEY));
+        assertEquals(TorrentRegistry.RESERVED_EXPIRED, r.reserve(KEY));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author aldenml
+ */
+public class TorrentStatusBatchTest {
+
+    @Test
+    public void testColumns() {
+        TorrentStatusBatch batch = new TorrentStatusBatch(1);
+        // more rows than the initial capacity, the columns are re-laid out
+        int n = 3;
+        batch.fill(longRows(n), intRows(n), hashRows(n));
+
+        assertEquals(n, batch.size());
+        for (int i = 0; i < n; i++) {
+            long b = 1000L * (i + 1);
+            assertEquals(b, batch.totalDownload(i));
+            assertEquals(b + 1, batch.totalUpload(i));
+            assertEquals(b + 2, batch.totalPayloadDownload(i));
+            assertEquals(b + 3, batch.totalPayloadUpload(i));
+            assertEquals(b + 4, batch.totalDone(i));
+            assertEquals(b + 5, batch.totalWantedDone(i));
+            assertEquals(b + 6, batch.totalWanted(i));
+            assertEquals(b + 7, batch.total(i));
+            assertEquals(b + 8, batch.allTimeUpload(i));
+            assertEquals(b + 9, batch.allTimeDownload(i));
+            assertEquals(b + 10, batch.flags(i));
+
+            int c = 100 * (i + 1);
+            assertEquals(c, batch.downloadRate(i));
+            assertEquals(c + 1, batch.uploadRate(i));
+            assertEquals(c + 2, batch.downloadPayloadRate(i));
+            assertEquals(c + 3, batch.uploadPayloadRate(i));
+            assertEquals(c + 4, batch.numSeeds(i));
+            assertEquals(c + 5, batch.numPeers(i));
+            assertEquals(c + 6, batch.listSeeds(i));
+            assertEquals(c + 7, batch.listPeers(i));
+            assertEquals(c + 8, batch.numPieces(i));
+            assertEquals(c + 9, batch.numConnections(i));
+            assertEquals(c + 10, batch.progressPpm(i));
+            assertEquals((c + 10) / 1000000f, batch.progress(i), 0);
+            assertEquals(c + 12, batch.queuePosition(i));
+        }
+    }
+
+    @Test
+    public void testBits() {
+        TorrentStatusBatch batch = new TorrentStatusBatch();
+        int[][] ints = intRows(2);
+        ints[0][13] = 0x3ff;
+        ints[1][13] = 0;
+        batch.fill(longRows(2), ints, hashRows(2));
+
+        assertTrue(batch.isSeeding(0));
+        assertTrue(batch.isFinished(0));
+        assertTrue(batch.hasMetadata(0));
+        assertTrue(batch.needSaveResume(0));
+        assertTrue(batch.isMovingStorage(0));
+        assertTrue(batch.hasIncoming(0));
+        assertTrue(batch.isPaused(0));
+        assertTrue(batch.isAutoManaged(0));
+        assertTrue(batch.isSequentialDownload(0));
+        assertTrue(batch.isUploadMode(0));
+
+        assertFalse(batch.isSeeding(1));
+        assertFalse(batch.isUploadMode(1));
+
+        ints[1][13] = 1 << 6;
+        batch.fill(longRows(2), ints, hashRows(2));
+        assertTrue(batch.isPaused(1));
+        assertFalse(batch.isAutoManaged(1));
+        assertFalse(batch.isSequentialDownload(1));
+    }
+
+    @Test
+    public void testInfoHash() {
+        TorrentStatusBatch batch = new TorrentStatusBatch(4);
+        byte[][] hashes = hashRows(2);
+        batch.fill(longRows(2), intRows(2), hashes);
+
+        assertEquals(Sha1Key.of(hashes[1], 0), batch.infoHash(1));
+        assertTrue(batch.infoHashEquals(0, Sha1Key.of(hashes[0], 0)));
+        assertFalse(batch.infoHashEquals(0, Sha1Key.of(hashes[1], 0)));
+
+        byte[] dst = new byte[22];
+        batch.infoHash(1, dst, 2);
+        byte[] expected = new byte[22];
+        System.arraycopy(hashes[1], 0, expected, 2, 20);
+        assertArrayEquals(expected, dst);
+    }
+
+    @Test
+    public void testIndexOutOfBounds() {
+        TorrentStatusBatch batch = new TorrentStatusBatch(4);
+        batch.fill(longRows(2), intRows(2), hashRows(2));
+
+        try {
+            batch.totalDone(2);
+            fail("index out of bounds");
+        } catch (IndexOutOfBoundsException e) {
+            // ok
+        }
+        try {
+            batch.downloadRate(-1);
+            fail("index out of bounds");
+        } catch (IndexOutOfBoundsException e) {
+            // ok
+        }
+    }
+
+    // the layout of the native code, 11 long and 14 int columns
+    private static long[][] longRows(int n) {
+        long[][] rows = new long[n][11];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < 11; j++) {
+                rows[i][j] = 1000L * (i + 1) + j;
+            }
+        }
+        return rows;
+    }
+
+    private static int[][] intRows(int n) {
+        int[][] rows = new int[n][14];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < 14; j++) {
+                rows[i][j] = 100 * (i + 1) + j;
+            }
+        }
+        return rows;
+    }
+
+    private static byte[][] hashRows(int n) {
+        byte[][] rows = new byte[n][20];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < 20; j++) {
+                rows[i][j] = (byte) (i * 20 + j);
+            }
+        }
+        return rows;
+    }
+}
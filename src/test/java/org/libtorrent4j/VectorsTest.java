@@ -10,8 +10,10 @@ package org.libtorrent4j;
 import org.junit.Test;
 import org.libtorrent4j.swig.byte_vector;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -61,4 +63,44 @@ public class VectorsTest {
         assertEquals(javaBytes.length, v.size());
         assertEquals(s, Vectors.byte_vector2utf8(v));
     }
+
+    @Test
+    public void testBulkByteVector() {
+        byte[] arr = new byte[1024];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = (byte) i;
+        }
+
+        byte_vector v = Vectors.bytes2byte_vector(arr);
+        assertEquals(arr.length, v.size());
+        assertEquals((byte) 255, (byte) v.get(255));
+        assertArrayEquals(arr, Vectors.byte_vector2bytes(v));
+
+        v = Vectors.bytes2byte_vector(arr, 10, 5);
+        assertArrayEquals(new byte[]{10, 11, 12, 13, 14}, Vectors.byte_vector2bytes(v));
+
+        assertEquals(0, Vectors.byte_vector2bytes(new byte_vector()).length);
+    }
+
+    @Test
+    public void testByteBufferTransfer() {
+        byte[] arr = "libtorrent4j".getBytes(StandardCharsets.US_ASCII);
+        byte_vector v = Vectors.bytes2byte_vector(arr);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(arr.length + 2);
+        direct.put((byte) 1);
+        Vectors.byte_vector2buffer(v, direct);
+        assertEquals(arr.length + 1, direct.position());
+
+        direct.flip();
+        direct.get();
+        byte_vector v2 = Vectors.buffer2byte_vector(direct);
+        assertEquals(direct.limit(), direct.position());
+        assertArrayEquals(arr, Vectors.byte_vector2bytes(v2));
+
+        ByteBuffer heap = ByteBuffer.allocate(arr.length);
+        Vectors.byte_vector2buffer(v, heap);
+        heap.flip();
+        assertArrayEquals(arr, Vectors.byte_vector2bytes(Vectors.buffer2byte_vector(heap)));
+    }
 }
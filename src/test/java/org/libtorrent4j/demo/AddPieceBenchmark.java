@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j.demo;
+
+import org.libtorrent4j.AlertListener;
+import org.libtorrent4j.SessionManager;
+import org.libtorrent4j.TorrentBuilder;
+import org.libtorrent4j.TorrentHandle;
+import org.libtorrent4j.TorrentInfo;
+import org.libtorrent4j.alerts.AddTorrentAlert;
+import org.libtorrent4j.alerts.Alert;
+import org.libtorrent4j.alerts.AlertType;
+import org.libtorrent4j.swig.byte_vector;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Measures the throughput of piece injection with {@link TorrentHandle#addPiece}
+ * using the legacy per element vector, the {@code byte[]} path and the
+ * direct {@link ByteBuffer} path.
+ * <p>
+ * Usage: {@code AddPieceBenchmark [size in MB] [piece size in KB]}
+ *
+ * @author aldenml
+ */
+public final class AddPieceBenchmark {
+
+    public static void main(String[] args) throws Throwable {
+        int sizeMB = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int pieceKB = args.length > 1 ? Integer.parseInt(args[1]) : 1024;
+
+        File dir = Files.createTempDirectory("add_piece_benchmark").toFile();
+        File data = new File(dir, "data.bin");
+        byte[] chunk = new byte[1024 * 1024];
+        Random r = new Random(0);
+        try (FileOutputStream out = new FileOutputStream(data)) {
+            for (int i = 0; i < sizeMB; i++) {
+                r.nextBytes(chunk);
+                out.write(chunk);
+            }
+        }
+
+        TorrentBuilder.Result result = new TorrentBuilder()
+                .path(data)
+                .pieceSize(pieceKB * 1024)
+                .generate();
+        TorrentInfo ti = TorrentInfo.bdecode(result.entry().bencode());
+        int numPieces = ti.numPieces();
+        int pieceLength = ti.pieceLength();
+
+        ByteBuffer[] direct = new ByteBuffer[numPieces];
+        byte[][] heap = new byte[numPieces][];
+        try (RandomAccessFile f = new RandomAccessFile(data, "r");
+             FileChannel ch = f.getChannel()) {
+            for (int i = 0; i < numPieces; i++) {
+                ByteBuffer b = ByteBuffer.allocateDirect(ti.pieceSize(i));
+                ch.read(b, (long) i * pieceLength);
+                b.flip();
+                direct[i] = b;
+                heap[i] = new byte[b.remaining()];
+                b.duplicate().get(heap[i]);
+            }
+        }
+
+        SessionManager s = new SessionManager();
+        s.start();
+
+        System.out.println("size: " + sizeMB + " MB, pieces: " + numPieces + " x " + pieceKB + " KB");
+
+        run(s, ti, new File(dir, "legacy"), "legacy vector", new PieceAdder() {
+            @Override
+            public void add(TorrentHandle th, int piece) {
+                byte_vector v = new byte_vector();
+                for (byte b : heap[piece]) {
+                    v.add(b);
+                }
+                th.swig().add_piece_bytes(piece, v);
+            }
+        });
+        run(s, ti, new File(dir, "bytes"), "byte[]       ", new PieceAdder() {
+            @Override
+            public void add(TorrentHandle th, int piece) {
+                th.addPiece(piece, heap[piece]);
+            }
+        });
+        run(s, ti, new File(dir, "direct"), "direct buffer", new PieceAdder() {
+            @Override
+            public void add(TorrentHandle th, int piece) {
+                th.addPiece(piece, direct[piece].duplicate());
+            }
+        });
+
+        s.stop();
+    }
+
+    private static void run(SessionManager s, TorrentInfo ti, File saveDir, String name, PieceAdder adder)
+            throws InterruptedException {
+        int numPieces = ti.numPieces();
+        CountDownLatch added = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(numPieces);
+        AtomicReference<TorrentHandle> handle = new AtomicReference<>();
+
+        AlertListener l = new AlertListener() {
+            @Override
+            public int[] types() {
+                return new int[]{AlertType.ADD_TORRENT.swig(), AlertType.PIECE_FINISHED.swig()};
+            }
+
+            @Override
+            public void alert(Alert<?> alert) {
+                if (alert.type() == AlertType.ADD_TORRENT) {
+                    handle.set(((AddTorrentAlert) alert).handle());
+                    added.countDown();
+                } else {
+                    finished.countDown();
+                }
+            }
+        };
+        s.addListener(l);
+
+        saveDir.mkdirs();
+        s.download(ti, saveDir);
+        added.await(10, TimeUnit.SECONDS);
+        TorrentHandle th = handle.get();
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < numPieces; i++) {
+            adder.add(th, i);
+        }
+        long t1 = System.nanoTime();
+        finished.await(5, TimeUnit.MINUTES);
+        long t2 = System.nanoTime();
+
+        s.removeListener(l);
+        s.remove(th);
+
+        double mb = ti.totalSize() / (1024.0 * 1024.0);
+        System.out.printf("%s: submit %8.1f MB/s, verified %8.1f MB/s%n", name,
+                mb / ((t1 - t0) / 1e9), mb / ((t2 - t0) / 1e9));
+    }
+
+    private interface PieceAdder {
+        void add(TorrentHandle th, int piece);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j.demo;
+
+import org.libtorrent4j.AlertListener;
+import org.libtorrent4j.SessionManager;
+import org.libtorrent4j.SessionParams;
+import org.libtorrent4j.SettingsPack;
+import org.libtorrent4j.alerts.Alert;
+import org.libtorrent4j.alerts.AlertType;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the bytes allocated by the alerts loop thread per delivered
+ * alert, with a new wrapper per alert and with the reused wrappers of
+ * {@link SessionManager#setFlyweightAlerts(boolean)}.
+ * <p>
+ * It requires a JVM with {@code com.sun.management.ThreadMXBean}.
+ * <p>
+ * Usage: {@code AlertAllocationBenchmark [alerts] [rounds]}
+ *
+ * @author aldenml
+ */
+public final class AlertAllocationBenchmark {
+
+    public static void main(String[] args) throws Throwable {
+        int alerts = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        System.out.println("alerts: " + alerts);
+
+        for (int r = 0; r < rounds; r++) {
+            double allocated = run(alerts, false);
+            double flyweight = run(alerts, true);
+            System.out.printf("round %d: allocated %.1f bytes/alert, flyweight %.1f bytes/alert%n",
+                    r, allocated, flyweight);
+        }
+    }
+
+    private static double run(int alerts, boolean flyweight) throws InterruptedException {
+        SettingsPack sp = new SettingsPack()
+                .alertQueueSize(alerts * 2);
+
+        SessionManager s = new SessionManager();
+        s.setFlyweightAlerts(flyweight);
+        s.start(new SessionParams(sp));
+
+        final CountDownLatch done = new CountDownLatch(alerts);
+        final AtomicLong loopThread = new AtomicLong();
+        final int[] types = {AlertType.DHT_STATS.swig()};
+
+        s.addListener(new AlertListener() {
+            @Override
+            public int[] types() {
+                return types;
+            }
+
+            @Override
+            public void alert(Alert<?> alert) {
+                loopThread.set(Thread.currentThread().getId());
+                alert.type();
+                done.countDown();
+            }
+        });
+
+        // warm up and find the alerts loop thread
+        s.postDhtStats();
+        while (loopThread.get() == 0) {
+            Thread.sleep(10);
+        }
+        com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = bean.getThreadAllocatedBytes(loopThread.get());
+
+        for (int i = 0; i < alerts - 1; i++) {
+            s.postDhtStats();
+        }
+        done.await(60, TimeUnit.SECONDS);
+
+        long after = bean.getThreadAllocatedBytes(loopThread.get());
+        s.stop();
+
+        return (double) (after - before) / (alerts - 1);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j.demo;
+
+import org.libtorrent4j.BEncodeReader;
+import org.libtorrent4j.BEncodeWriter;
+import org.libtorrent4j.Entry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Compares the native {@link Entry} bdecode/bencode round trip with the
+ * pure java {@link BEncodeReader}/{@link BEncodeWriter} codec.
+ * <p>
+ * Usage: {@code BEncodeBenchmark <file> [iterations]}
+ *
+ * @author aldenml
+ */
+public final class BEncodeBenchmark {
+
+    public static void main(String[] args) throws Throwable {
+        if (args.length == 0) {
+            System.out.println("Usage: BEncodeBenchmark <file> [iterations]");
+            return;
+        }
+
+        byte[] data = Files.readAllBytes(Paths.get(args[0]));
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        ByteBuffer out = ByteBuffer.allocate(data.length);
+
+        // warm up
+        for (int i = 0; i < Math.min(iterations, 100); i++) {
+            Entry.bdecode(data).bencode();
+            out.clear();
+            copy(new BEncodeReader(data), new BEncodeWriter(out));
+        }
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            Entry.bdecode(data);
+        }
+        long t1 = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            Entry.bdecode(data).bencode();
+        }
+        long t2 = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            BEncodeReader r = new BEncodeReader(data);
+            while (r.next() != BEncodeReader.Token.EOF) {
+                // tokenize only
+            }
+        }
+        long t3 = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            out.clear();
+            copy(new BEncodeReader(data), new BEncodeWriter(out));
+        }
+        long t4 = System.nanoTime();
+
+        System.out.println("size: " + data.length + " bytes, iterations: " + iterations);
+        print("native decode    ", t1 - t0, data.length, iterations);
+        print("native round trip", t2 - t1, data.length, iterations);
+        print("java decode      ", t3 - t2, data.length, iterations);
+        print("java round trip  ", t4 - t3, data.length, iterations);
+    }
+
+    private static void copy(BEncodeReader r, BEncodeWriter w) throws IOException {
+        BEncodeReader.Token t;
+        while ((t = r.next()) != BEncodeReader.Token.EOF) {
+            switch (t) {
+                case INTEGER:
+                    w.writeInteger(r.integer());
+                    break;
+                case STRING:
+                    w.writeString(r.stringSlice());
+                    break;
+                case LIST:
+                    w.startList();
+                    break;
+                case DICTIONARY:
+                    w.startDictionary();
+                    break;
+                case END:
+                    w.end();
+                    break;
+            }
+        }
+    }
+
+    private static void print(String name, long nanos, int size, int iterations) {
+        double us = nanos / 1e3 / iterations;
+        double mbs = size / (1024.0 * 1024.0) / (us / 1e6);
+        System.out.printf("%s: %10.2f us/op %10.1f MB/s%n", name, us, mbs);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j.demo;
+
+import org.libtorrent4j.AlertBatch;
+import org.libtorrent4j.AlertListener;
+import org.libtorrent4j.BatchAlertListener;
+import org.libtorrent4j.SessionManager;
+import org.libtorrent4j.SessionParams;
+import org.libtorrent4j.SettingsPack;
+import org.libtorrent4j.alerts.Alert;
+import org.libtorrent4j.alerts.AlertType;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the delivery of a burst of alerts to aggregating listeners,
+ * with one {@link AlertListener} call per alert and with one
+ * {@link BatchAlertListener} call per popped batch.
+ * <p>
+ * The alerts loop is held while the burst of {@code dht_stats_alert} is
+ * posted, so the burst is popped at once.
+ * <p>
+ * Usage: {@code BatchAlertBenchmark [alerts] [listeners] [rounds]}
+ *
+ * @author aldenml
+ */
+public final class BatchAlertBenchmark {
+
+    public static void main(String[] args) throws Throwable {
+        int alerts = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+        int listeners = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        SettingsPack sp = new SettingsPack()
+                .alertQueueSize(alerts * 2);
+
+        SessionManager s = new SessionManager();
+        s.start(new SessionParams(sp));
+
+        System.out.println("alerts: " + alerts + ", listeners: " + listeners);
+
+        for (int r = 0; r < rounds; r++) {
+            long single = run(s, alerts, listeners, false);
+            long batch = run(s, alerts, listeners, true);
+            System.out.println("round " + r + ": per alert " + single / 1000 + " us, batch " +
+                    batch / 1000 + " us");
+        }
+
+        s.stop();
+    }
+
+    private static long run(SessionManager s, final int alerts, int listeners, boolean batch)
+            throws InterruptedException {
+        final int[] dhtStats = {AlertType.DHT_STATS.swig()};
+        final Counter counter = new Counter((long) alerts * listeners);
+
+        AlertListener[] single = new AlertListener[listeners];
+        BatchAlertListener[] batched = new BatchAlertListener[listeners];
+        for (int i = 0; i < listeners; i++) {
+            if (batch) {
+                batched[i] = new BatchAlertListener() {
+                    @Override
+                    public int[] types() {
+                        return dhtStats;
+                    }
+
+                    @Override
+                    public void alerts(AlertBatch b) {
+                        counter.add(b.size());
+                    }
+                };
+                s.addListener(batched[i]);
+            } else {
+                single[i] = new AlertListener() {
+                    @Override
+                    public int[] types() {
+                        return dhtStats;
+                    }
+
+                    @Override
+                    public void alert(Alert<?> alert) {
+                        counter.add(1);
+                    }
+                };
+                s.addListener(single[i]);
+            }
+        }
+
+        Gate gate = new Gate();
+        s.addListener(gate);
+        s.postSessionStats();
+        gate.entered.await(10, TimeUnit.SECONDS);
+
+        for (int i = 0; i < alerts; i++) {
+            s.postDhtStats();
+        }
+
+        // the posts are async, make sure all the alerts are in the queue
+        Thread.sleep(500);
+
+        long t0 = System.nanoTime();
+        gate.release.countDown();
+        counter.done.await(60, TimeUnit.SECONDS);
+        long t = counter.end - t0;
+
+        s.removeListener(gate);
+        for (int i = 0; i < listeners; i++) {
+            if (batch) {
+                s.removeListener(batched[i]);
+            } else {
+                s.removeListener(single[i]);
+            }
+        }
+
+        return t;
+    }
+
+    private static final class Counter {
+
+        final long total;
+        final AtomicLong received = new AtomicLong();
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile long end;
+
+        Counter(long total) {
+            this.total = total;
+        }
+
+        void add(long n) {
+            if (received.addAndGet(n) == total) {
+                end = System.nanoTime();
+                done.countDown();
+            }
+        }
+    }
+
+    private static final class Gate implements AlertListener {
+
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public int[] types() {
+            return new int[]{AlertType.SESSION_STATS.swig()};
+        }
+
+        @Override
+        public void alert(Alert<?> alert) {
+            if (entered.getCount() == 0) {
+                return;
+            }
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                // ignore
+            }
+        }
+    }
+}
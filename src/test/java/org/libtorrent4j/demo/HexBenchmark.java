@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j.demo;
+
+import org.libtorrent4j.Hex;
+
+import java.util.Random;
+
+/**
+ * Compares the previous {@link Hex} implementation (per call arrays and
+ * {@link Character#digit(char, int)}) with the table-driven codec, for
+ * 20 bytes hashes.
+ * <p>
+ * Usage: {@code HexBenchmark [iterations]}
+ *
+ * @author aldenml
+ */
+public final class HexBenchmark {
+
+    private static final int HASHES = 1024;
+    private static final int SIZE = 20;
+
+    private static final char[] DIGITS_LOWER =
+            {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+
+        byte[] packed = new byte[HASHES * SIZE];
+        new Random(0).nextBytes(packed);
+        byte[][] hashes = new byte[HASHES][];
+        for (int i = 0; i < HASHES; i++) {
+            hashes[i] = new byte[SIZE];
+            System.arraycopy(packed, i * SIZE, hashes[i], 0, SIZE);
+        }
+        String[] hex = Hex.encodeBatch(packed, 0, HASHES, SIZE);
+
+        char[] chars = new char[HASHES * SIZE * 2];
+        byte[] bytes = new byte[HASHES * SIZE];
+        StringBuilder sb = new StringBuilder(SIZE * 2);
+
+        long sink = 0;
+        for (int round = 0; round < 2; round++) {
+            // the first round is the warm up
+            boolean print = round == 1;
+
+            long t0 = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                for (int i = 0; i < HASHES; i++) {
+                    sink += legacyEncode(hashes[i]).length();
+                }
+            }
+            long t1 = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                for (int i = 0; i < HASHES; i++) {
+                    sink += Hex.encode(hashes[i]).length();
+                }
+            }
+            long t2 = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                for (int i = 0; i < HASHES; i++) {
+                    sb.setLength(0);
+                    sink += Hex.encode(hashes[i], 0, SIZE, sb).length();
+                }
+            }
+            long t3 = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                sink += Hex.encodeBatch(packed, 0, HASHES, SIZE, chars, 0);
+            }
+            long t4 = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                for (int i = 0; i < HASHES; i++) {
+                    sink += legacyDecode(hex[i]).length;
+                }
+            }
+            long t5 = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                for (int i = 0; i < HASHES; i++) {
+                    sink += Hex.decode(hex[i]).length;
+                }
+            }
+            long t6 = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                sink += Hex.decodeBatch(hex, SIZE, bytes, 0);
+            }
+            long t7 = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                for (int i = 0; i < HASHES; i++) {
+                    sink += Hex.isValid(hex[i], SIZE) ? 1 : 0;
+                }
+            }
+            long t8 = System.nanoTime();
+
+            if (print) {
+                int ops = iterations * HASHES;
+                print("legacy encode        ", t1 - t0, ops);
+                print("encode               ", t2 - t1, ops);
+                print("encode StringBuilder ", t3 - t2, ops);
+                print("encode batch char[]  ", t4 - t3, ops);
+                print("legacy decode        ", t5 - t4, ops);
+                print("decode               ", t6 - t5, ops);
+                print("decode batch byte[]  ", t7 - t6, ops);
+                print("validate             ", t8 - t7, ops);
+            }
+        }
+
+        System.out.println("(" + sink + ")");
+    }
+
+    private static String legacyEncode(byte[] data) {
+        final int l = data.length;
+        final char[] out = new char[l << 1];
+        for (int i = 0, j = 0; i < l; i++) {
+            out[j++] = DIGITS_LOWER[(0xF0 & data[i]) >>> 4];
+            out[j++] = DIGITS_LOWER[0x0F & data[i]];
+        }
+        return new String(out);
+    }
+
+    private static byte[] legacyDecode(String s) {
+        final char[] data = s.toCharArray();
+        final int len = data.length;
+        final byte[] out = new byte[len >> 1];
+        for (int i = 0, j = 0; j < len; i++) {
+            int f = Character.digit(data[j], 16) << 4;
+            j++;
+            f = f | Character.digit(data[j], 16);
+            j++;
+            out[i] = (byte) (f & 0xFF);
+        }
+        return out;
+    }
+
+    private static void print(String name, long nanos, int ops) {
+        System.out.printf("%s: %8.2f ns/hash%n", name, (double) nanos / ops);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j.demo;
+
+import org.libtorrent4j.AlertListener;
+import org.libtorrent4j.SessionManager;
+import org.libtorrent4j.SessionParams;
+import org.libtorrent4j.SettingsPack;
+import org.libtorrent4j.alerts.Alert;
+import org.libtorrent4j.alerts.AlertType;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the cost of the listeners registry with 1, 10, 100 and 1000
+ * listeners of the same alert type: the add and remove of short lived
+ * listeners, like the temporary listeners of a request and its response,
+ * and the delivery of a burst of alerts to all of them.
+ * <p>
+ * Usage: {@code ListenersBenchmark [alerts]}
+ *
+ * @author aldenml
+ */
+public final class ListenersBenchmark {
+
+    public static void main(String[] args) throws Throwable {
+        int alerts = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+
+        SettingsPack sp = new SettingsPack()
+                .alertQueueSize(alerts * 2);
+
+        SessionManager s = new SessionManager();
+        s.start(new SessionParams(sp));
+
+        for (int n : new int[]{1, 10, 100, 1000}) {
+            // warm up
+            churn(s, n);
+            dispatch(s, n, alerts);
+
+            long churn = churn(s, n);
+            long dispatch = dispatch(s, n, alerts);
+            System.out.printf("listeners: %4d, add+remove %6d ns/listener, dispatch %6d ns/alert%n",
+                    n, churn / n, dispatch / alerts);
+        }
+
+        s.stop();
+    }
+
+    private static long churn(SessionManager s, int n) {
+        AlertListener[] arr = new AlertListener[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = new Counter(AlertType.DHT_IMMUTABLE_ITEM, 0);
+        }
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            s.addListener(arr[i]);
+        }
+        for (int i = 0; i < n; i++) {
+            s.removeListener(arr[i]);
+        }
+        return System.nanoTime() - t0;
+    }
+
+    private static long dispatch(SessionManager s, int n, int alerts) throws InterruptedException {
+        AtomicLong received = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(1);
+        long total = (long) n * alerts;
+
+        Counter[] arr = new Counter[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = new Counter(AlertType.DHT_STATS, total, received, done);
+            s.addListener(arr[i]);
+        }
+
+        Gate gate = new Gate();
+        s.addListener(gate);
+        s.postSessionStats();
+        gate.entered.await(10, TimeUnit.SECONDS);
+
+        for (int i = 0; i < alerts; i++) {
+            s.postDhtStats();
+        }
+        // the posts are async, make sure all the alerts are in the queue
+        Thread.sleep(500);
+
+        long t0 = System.nanoTime();
+        gate.release.countDown();
+        done.await(60, TimeUnit.SECONDS);
+        long t = System.nanoTime() - t0;
+
+        s.removeListener(gate);
+        for (int i = 0; i < n; i++) {
+            s.removeListener(arr[i]);
+        }
+
+        return t;
+    }
+
+    private static final class Counter implements AlertListener {
+
+        private final int[] types;
+        private final long total;
+        private final AtomicLong received;
+        private final CountDownLatch done;
+
+        Counter(AlertType type, long total) {
+            this(type, total, new AtomicLong(), new CountDownLatch(1));
+        }
+
+        Counter(AlertType type, long total, AtomicLong received, CountDownLatch done) {
+            this.types = new int[]{type.swig()};
+            this.total = total;
+            this.received = received;
+            this.done = done;
+        }
+
+        @Override
+        public int[] types() {
+            return types;
+        }
+
+        @Override
+        public void alert(Alert<?> alert) {
+            if (received.incrementAndGet() == total) {
+                done.countDown();
+            }
+        }
+    }
+
+    private static final class Gate implements AlertListener {
+
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public int[] types() {
+            return new int[]{AlertType.SESSION_STATS.swig()};
+        }
+
+        @Override
+        public void alert(Alert<?> alert) {
+            if (entered.getCount() == 0) {
+                return;
+            }
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                // ignore
+            }
+        }
+    }
+}
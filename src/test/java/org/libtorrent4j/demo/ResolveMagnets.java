@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j.demo;
+
+import org.libtorrent4j.MagnetResolver;
+import org.libtorrent4j.SessionManager;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Resolves the metadata of the magnet links of a file, one per line, and
+ * prints the throughput every few seconds.
+ * <p>
+ * Usage: {@code ResolveMagnets <file> [maxActive] [timeout]}
+ *
+ * @author aldenml
+ */
+public final class ResolveMagnets {
+
+    public static void main(String[] args) throws Throwable {
+        File file = new File(args[0]);
+        int maxActive = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int timeout = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+
+        List<String> uris = new ArrayList<>();
+        try (BufferedReader r = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                line = line.trim();
+                if (line.startsWith("magnet:")) {
+                    uris.add(line);
+                }
+            }
+        }
+
+        File tempDir = new File(System.getProperty("java.io.tmpdir"), "resolve-magnets");
+        tempDir.mkdirs();
+
+        SessionManager s = new SessionManager();
+        s.start();
+
+        MagnetResolver resolver = new MagnetResolver(s, maxActive, timeout, tempDir);
+        List<CompletableFuture<byte[]>> futures = resolver.resolveAll(uris);
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+
+        while (!all.isDone()) {
+            Thread.sleep(5000);
+            System.out.println(resolver);
+        }
+
+        System.out.println(resolver);
+        s.stop();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018-2023, Alden Torres
+ *
+ * Licensed under the terms of the MIT license.
+ * Copy of the license at https://opensource.org/licenses/MIT
+ */
+
+package org.libtorrent4j.demo;
+
+import org.libtorrent4j.Vectors;
+import org.libtorrent4j.swig.byte_vector;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Compares the per element copy of a {@code byte_vector} with the bulk
+ * transfer path of {@link Vectors}.
+ * <p>
+ * Usage: {@code VectorsBenchmark [size in bytes] [iterations]}
+ *
+ * @author aldenml
+ */
+public final class VectorsBenchmark {
+
+    public static void main(String[] args) throws Throwable {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 4 * 1024 * 1024;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        byte[] data = new byte[size];
+        new Random(0).nextBytes(data);
+        ByteBuffer direct = ByteBuffer.allocateDirect(size);
+
+        // warm up
+        for (int i = 0; i < 3; i++) {
+            loopToBytes(loopToVector(data));
+            Vectors.byte_vector2bytes(Vectors.bytes2byte_vector(data));
+        }
+
+        long loopIn = 0;
+        long loopOut = 0;
+        long bulkIn = 0;
+        long bulkOut = 0;
+        long bufferIn = 0;
+        long bufferOut = 0;
+
+        for (int i = 0; i < iterations; i++) {
+            long t0 = System.nanoTime();
+            byte_vector v = loopToVector(data);
+            long t1 = System.nanoTime();
+            loopToBytes(v);
+            long t2 = System.nanoTime();
+            loopIn += t1 - t0;
+            loopOut += t2 - t1;
+
+            t0 = System.nanoTime();
+            v = Vectors.bytes2byte_vector(data);
+            t1 = System.nanoTime();
+            Vectors.byte_vector2bytes(v);
+            t2 = System.nanoTime();
+            bulkIn += t1 - t0;
+            bulkOut += t2 - t1;
+
+            direct.clear();
+            t0 = System.nanoTime();
+            Vectors.byte_vector2buffer(v, direct);
+            t1 = System.nanoTime();
+            direct.flip();
+            Vectors.buffer2byte_vector(direct);
+            t2 = System.nanoTime();
+            bufferOut += t1 - t0;
+            bufferIn += t2 - t1;
+        }
+
+        System.out.println("size: " + size + " bytes, iterations: " + iterations);
+        print("loop   byte[] -> vector", loopIn, size, iterations);
+        print("loop   vector -> byte[]", loopOut, size, iterations);
+        print("bulk   byte[] -> vector", bulkIn, size, iterations);
+        print("bulk   vector -> byte[]", bulkOut, size, iterations);
+        print("direct buffer -> vector", bufferIn, size, iterations);
+        print("direct vector -> buffer", bufferOut, size, iterations);
+    }
+
+    private static byte_vector loopToVector(byte[] arr) {
+        byte_vector v = new byte_vector();
+        for (int i = 0; i < arr.length; i++) {
+            v.add(arr[i]);
+        }
+        return v;
+    }
+
+    private static byte[] loopToBytes(byte_vector v) {
+        int size = v.size();
+        byte[] arr = new byte[size];
+        for (int i = 0; i < size; i++) {
+            arr[i] = v.get(i);
+        }
+        return arr;
+    }
+
+    private static void print(String name, long nanos, int size, int iterations) {
+        double ms = nanos / 1e6 / iterations;
+        double mbs = size / (1024.0 * 1024.0) / (ms / 1000.0);
+        System.out.printf("%s: %10.3f ms/op %12.1f MB/s%n", name, ms, mbs);
+    }
+}
@@ -1,5 +1,18 @@
 %module (jniclassname="libtorrent_jni", directors="1") libtorrent
 
+%begin %{
+#if defined(_WIN32)
+// no pthreads with msvc, the threads stay attached until the end
+#define SWIG_JAVA_NO_DETACH_CURRENT_THREAD
+#else
+// the director calls come from the libtorrent threads, the alert notify
+// callback with the alert mutex held, attach each thread only once
+#define SWIG_JAVA_DETACH_ON_THREAD_END
+#endif
+// the attached threads don't prevent the JVM exit
+#define SWIG_JAVA_ATTACH_CURRENT_THREAD_AS_DAEMON
+%}
+
 // Overloaded method <name> ignored, using <name> instead.
 #pragma SWIG nowarn=516
 // Specialization of non-template '<name>'.
@@ -28,6 +41,16 @@
 
     public static final native long directBufferAddress(java.nio.Buffer buffer);
     public static final native long directBufferCapacity(java.nio.Buffer buffer);
+    public static final native java.nio.ByteBuffer newDirectBuffer(long address, long capacity);
+
+    public static final native void memoryCopyToArray(long src, byte[] dst, int offset, int length);
+    public static final native void memoryCopyFromArray(byte[] src, int offset, int length, long dst);
+    public static final native void memoryCopy(long src, long dst, long length);
+    public static final native void memoryCopyToLongArray(long src, long[] dst, int offset, int length);
+
+    public static final native long clockNowMicros();
+
+    public static final native int torrentStatusBatch(long status, int capacity, long[] longs, int[] ints, byte[] hashes);
 %}
 
 %exception {
@@ -141,6 +164,101 @@ SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_directBuffer
     return 0;
 }
 
+SWIGEXPORT jobject JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_newDirectBuffer(JNIEnv *jenv, jclass jcls, jlong jaddress, jlong jcapacity) {
+    return jenv->NewDirectByteBuffer(reinterpret_cast<void*>(jaddress), jcapacity);
+}
+
+SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_memoryCopyToArray(JNIEnv *jenv, jclass jcls, jlong jsrc, jbyteArray jdst, jint joffset, jint jlength) {
+    jenv->SetByteArrayRegion(jdst, joffset, jlength, reinterpret_cast<jbyte const*>(jsrc));
+}
+
+SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_memoryCopyFromArray(JNIEnv *jenv, jclass jcls, jbyteArray jsrc, jint joffset, jint jlength, jlong jdst) {
+    jenv->GetByteArrayRegion(jsrc, joffset, jlength, reinterpret_cast<jbyte*>(jdst));
+}
+
+SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_memoryCopy(JNIEnv *jenv, jclass jcls, jlong jsrc, jlong jdst, jlong jlength) {
+    std::memmove(reinterpret_cast<void*>(jdst), reinterpret_cast<void const*>(jsrc), std::size_t(jlength));
+}
+
+SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_memoryCopyToLongArray(JNIEnv *jenv, jclass jcls, jlong jsrc, jlongArray jdst, jint joffset, jint jlength) {
+    jenv->SetLongArrayRegion(jdst, joffset, jlength, reinterpret_cast<jlong const*>(jsrc));
+}
+
+SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_clockNowMicros(JNIEnv *jenv, jclass jcls) {
+    // the same clock of the alert timestamps
+    return jlong(lt::total_microseconds(lt::clock_type::now().time_since_epoch()));
+}
+
+SWIGEXPORT jint JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_torrentStatusBatch(JNIEnv *jenv, jclass jcls, jlong jstatus, jint jcapacity, jlongArray jlongs, jintArray jints, jbyteArray jhashes) {
+    // keep in sync with the columns in TorrentStatusBatch
+    auto const& v = *reinterpret_cast<std::vector<lt::torrent_status> const*>(jstatus);
+    int const n = std::min(int(v.size()), int(jcapacity));
+    std::size_t const c = std::size_t(jcapacity);
+
+    jlong* longs = static_cast<jlong*>(jenv->GetPrimitiveArrayCritical(jlongs, nullptr));
+    jint* ints = static_cast<jint*>(jenv->GetPrimitiveArrayCritical(jints, nullptr));
+    jbyte* hashes = static_cast<jbyte*>(jenv->GetPrimitiveArrayCritical(jhashes, nullptr));
+
+    // if any array can't be pinned (out of memory), nothing is filled
+    int filled = 0;
+    if (longs != nullptr && ints != nullptr && hashes != nullptr) {
+        filled = n;
+        for (int i = 0; i < n; i++) {
+            lt::torrent_status const& st = v[std::size_t(i)];
+
+            jlong* l = longs + i;
+            l[0 * c] = st.total_download;
+            l[1 * c] = st.total_upload;
+            l[2 * c] = st.total_payload_download;
+            l[3 * c] = st.total_payload_upload;
+            l[4 * c] = st.total_done;
+            l[5 * c] = st.total_wanted_done;
+            l[6 * c] = st.total_wanted;
+            l[7 * c] = st.total;
+            l[8 * c] = st.all_time_upload;
+            l[9 * c] = st.all_time_download;
+            l[10 * c] = jlong(static_cast<std::uint64_t>(st.flags));
+
+            std::int32_t bits = 0;
+            if (st.is_seeding) bits |= 1 << 0;
+            if (st.is_finished) bits |= 1 << 1;
+            if (st.has_metadata) bits |= 1 << 2;
+            if (st.need_save_resume_data) bits |= 1 << 3;
+            if (st.moving_storage) bits |= 1 << 4;
+            if (st.has_incoming) bits |= 1 << 5;
+            if (st.flags & lt::torrent_flags::paused) bits |= 1 << 6;
+            if (st.flags & lt::torrent_flags::auto_managed) bits |= 1 << 7;
+            if (st.flags & lt::torrent_flags::sequential_download) bits |= 1 << 8;
+            if (st.flags & lt::torrent_flags::upload_mode) bits |= 1 << 9;
+
+            jint* t = ints + i;
+            t[0 * c] = st.download_rate;
+            t[1 * c] = st.upload_rate;
+            t[2 * c] = st.download_payload_rate;
+            t[3 * c] = st.upload_payload_rate;
+            t[4 * c] = st.num_seeds;
+            t[5 * c] = st.num_peers;
+            t[6 * c] = st.list_seeds;
+            t[7 * c] = st.list_peers;
+            t[8 * c] = st.num_pieces;
+            t[9 * c] = st.num_connections;
+            t[10 * c] = st.progress_ppm;
+            t[11 * c] = static_cast<jint>(st.state);
+            t[12 * c] = static_cast<jint>(st.queue_position);
+            t[13 * c] = bits;
+
+            lt::sha1_hash const h = st.info_hashes.get_best();
+            std::memcpy(hashes + std::size_t(i) * 20, h.data(), 20);
+        }
+    }
+
+    if (hashes != nullptr) jenv->ReleasePrimitiveArrayCritical(jhashes, hashes, 0);
+    if (ints != nullptr) jenv->ReleasePrimitiveArrayCritical(jints, ints, 0);
+    if (longs != nullptr) jenv->ReleasePrimitiveArrayCritical(jlongs, longs, 0);
+
+    return filled;
+}
+
 #ifdef __cplusplus
 }
 #endif
@@ -197,6 +315,28 @@ TYPE_INTEGRAL_CONVERSION(queue_position_t, int, int)
 %template(bdecode_node_bdecode_node_pair) std::pair<libtorrent::bdecode_node, libtorrent::bdecode_node>;
 %template(address_sha1_hash_pair) std::pair<libtorrent::address, libtorrent::digest32<160>>;
 
+// raw data access, used for bulk copies from the java side
+%extend std::vector<std::int8_t> {
+
+    std::int64_t data_ptr() {
+        return reinterpret_cast<std::int64_t>($self->data());
+    }
+}
+
+%extend std::array<std::int8_t, 32> {
+
+    std::int64_t data_ptr() {
+        return reinterpret_cast<std::int64_t>($self->data());
+    }
+}
+
+%extend std::array<std::int8_t, 64> {
+
+    std::int64_t data_ptr() {
+        return reinterpret_cast<std::int64_t>($self->data());
+    }
+}
+
 %template(string_vector) std::vector<std::string>;
 %template(int_vector) std::vector<int>;
 %template(int64_vector) std::vector<long long>;
@@ -14,6 +14,29 @@ struct alert_category_tag;
         return libtorrent::total_milliseconds($self->timestamp().time_since_epoch());
     }
 
+    std::int64_t get_timestamp_us() {
+        return libtorrent::total_microseconds($self->timestamp().time_since_epoch());
+    }
+
+    // first 8 bytes of the best info-hash of the torrent, 0 if it's not a torrent alert
+    std::int64_t torrent_shard_key() {
+        lt::sha1_hash h;
+        // the handle of a removed torrent is usually expired
+        if (auto const* ra = lt::alert_cast<lt::torrent_removed_alert>($self)) {
+            h = ra->info_hashes.get_best();
+        } else if (auto const* da = lt::alert_cast<lt::torrent_deleted_alert>($self)) {
+            h = da->info_hashes.get_best();
+        } else if (auto const* fa = lt::alert_cast<lt::torrent_delete_failed_alert>($self)) {
+            h = fa->info_hashes.get_best();
+        } else if (auto const* ta = dynamic_cast<lt::torrent_alert const*>($self)) {
+            if (ta->handle.is_valid()) h = ta->handle.info_hashes().get_best();
+        }
+        // big-endian, the same as the first long of a Sha1Key
+        std::uint64_t key = 0;
+        for (int i = 0; i < 8; i++) key = (key << 8) | std::uint8_t(h[i]);
+        return std::int64_t(key);
+    }
+
 #define CAST_ALERT_METHOD(name) \
     static libtorrent::##name const* cast_to_##name(alert const* a) { \
         return libtorrent::alert_cast<libtorrent::##name>(a); \
@@ -86,6 +86,18 @@ struct picker_flags_tag;
     tcp::endpoint get_endpoint() {
         return $self->endpoint;
     }
+
+    bool is_local_peer() {
+        auto const a = $self->endpoint.address();
+        if (a.is_loopback()) return true;
+        if (a.is_v4()) {
+            auto const b = a.to_v4().to_bytes();
+            return b[0] == 10 || (b[0] == 172 && (b[1] & 0xf0) == 16)
+                || (b[0] == 192 && b[1] == 168) || (b[0] == 169 && b[1] == 254);
+        }
+        auto const v6 = a.to_v6();
+        return v6.is_link_local() || v6.is_site_local() || (v6.to_bytes()[0] & 0xfe) == 0xfc;
+    }
 }
 
 %extend dht_direct_response_alert {
@@ -219,6 +231,14 @@ struct picker_flags_tag;
     long long get_value(int index) {
         return $self->counters()[index];
     }
+
+    int64_t counters_ptr() {
+        return reinterpret_cast<int64_t>($self->counters().data());
+    }
+
+    int num_counters() {
+        return int($self->counters().size());
+    }
 }
 
 %extend read_piece_alert {
@@ -228,6 +248,13 @@ struct picker_flags_tag;
     }
 }
 
+%extend state_update_alert {
+
+    int64_t status_ptr() {
+        return reinterpret_cast<int64_t>(&$self->status);
+    }
+}
+
 %extend peer_log_alert {
     std::string get_event_type() {
         return std::string($self->event_type);
@@ -50,6 +50,11 @@ struct bitfield
     {
         $self->assign(reinterpret_cast<char const*>(v.data()), static_cast<int>(v.size()));
     }
+
+    std::int64_t data_ptr()
+    {
+        return reinterpret_cast<std::int64_t>($self->data());
+    }
 }
 
 }
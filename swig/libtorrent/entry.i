@@ -80,6 +80,22 @@ public:
             return buffer;
         }
 
+        // the keys of the dictionary as string entries, the keys can be
+        // binary (like in "piece layers") and don't survive a java String
+        std::vector<libtorrent::entry> dict_keys() {
+            std::vector<libtorrent::entry> keys;
+            for (auto const& kv : $self->dict()) keys.emplace_back(kv.first);
+            return keys;
+        }
+
+        entry& dict_get(std::vector<int8_t> const& key) {
+            return $self->operator[](std::string(key.begin(), key.end()));
+        }
+
+        void dict_set(std::vector<int8_t> const& key, libtorrent::entry const& value) {
+            $self->operator[](std::string(key.begin(), key.end())) = value;
+        }
+
         static entry from_string_bytes(std::vector<int8_t> const& string_bytes) {
             return libtorrent::entry(std::string(string_bytes.begin(), string_bytes.end()));
         }
@@ -43,6 +43,31 @@ struct file_flags_tag;
     {
         return std::string{$self->file_name(lt::file_index_t{index})};
     }
+
+    // packed as: num_files, then for each file size, offset, flags,
+    // path length and path bytes, in native byte order
+    std::vector<std::int8_t> file_table_bytes()
+    {
+        std::vector<std::int8_t> v;
+        auto put = [&v](auto x)
+        {
+            auto p = reinterpret_cast<std::int8_t const*>(&x);
+            v.insert(v.end(), p, p + sizeof(x));
+        };
+
+        put(std::int32_t($self->num_files()));
+        for (lt::file_index_t const i : $self->file_range())
+        {
+            std::string const path = $self->file_path(i);
+            put(std::int64_t($self->file_size(i)));
+            put(std::int64_t($self->file_offset(i)));
+            put(std::int32_t(static_cast<std::uint8_t>($self->file_flags(i))));
+            put(std::int32_t(path.size()));
+            v.insert(v.end(), path.begin(), path.end());
+        }
+
+        return v;
+    }
 }
 
 }
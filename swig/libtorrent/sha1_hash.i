@@ -62,13 +62,15 @@ using sha256_hash = digest32<256>;
 
     int hash_code()
     {
-        char const* data = $self->data();
-        int result = 1;
+        // signed bytes and wrapping arithmetic, the same as Arrays.hashCode
+        // in java, regardless of the signedness of char in the platform
+        auto const* data = reinterpret_cast<std::int8_t const*>($self->data());
+        std::uint32_t result = 1;
         for (int i = 0; i < int($self->size()); i++)
         {
-            result = 31 * result + data[i];
+            result = 31 * result + std::uint32_t(data[i]);
         }
-        return result;
+        return int(result);
     }
 
     std::vector<std::int8_t> to_bytes()
@@ -93,6 +95,11 @@ using sha256_hash = digest32<256>;
     {
         return h1 == h2 ? 0 : (h1 < h2 ? -1 : 1);
     }
+
+    std::int64_t data_ptr()
+    {
+        return reinterpret_cast<std::int64_t>($self->data());
+    }
 }
 
 %extend digest32<256> {
@@ -109,13 +116,15 @@ using sha256_hash = digest32<256>;
 
     int hash_code()
     {
-        char const* data = $self->data();
-        int result = 1;
+        // signed bytes and wrapping arithmetic, the same as Arrays.hashCode
+        // in java, regardless of the signedness of char in the platform
+        auto const* data = reinterpret_cast<std::int8_t const*>($self->data());
+        std::uint32_t result = 1;
         for (int i = 0; i < int($self->size()); i++)
         {
-            result = 31 * result + data[i];
+            result = 31 * result + std::uint32_t(data[i]);
         }
-        return result;
+        return int(result);
     }
 
     std::vector<std::int8_t> to_bytes()
@@ -140,6 +149,11 @@ using sha256_hash = digest32<256>;
     {
         return h1 == h2 ? 0 : (h1 < h2 ? -1 : 1);
     }
+
+    std::int64_t data_ptr()
+    {
+        return reinterpret_cast<std::int64_t>($self->data());
+    }
 }
 
 }
@@ -60,6 +60,11 @@ struct status_flags_tag;
         $self->add_piece(piece_index_t(piece), (char const*)&data[0], flags);
     }
 
+    void add_piece_ptr(int piece, std::int64_t buffer_ptr, int size, add_piece_flags_t flags) {
+        char const* p = reinterpret_cast<char const*>(buffer_ptr);
+        $self->add_piece(piece_index_t(piece), std::vector<char>(p, p + size), flags);
+    }
+
     libtorrent::torrent_info const* torrent_file_ptr() {
         return $self->torrent_file().get();
     }
@@ -155,6 +160,35 @@ struct status_flags_tag;
             r[i] = std::int8_t(static_cast<std::uint8_t>(v[i]));
         return r;
     }
+
+    // sets the pieces in [first, last) to priority, other pieces are not modified
+    void prioritize_piece_range_ex(int first, int last, std::int8_t priority)
+    {
+        std::shared_ptr<const libtorrent::torrent_info> ti = $self->torrent_file();
+        if (ti) last = std::min(last, ti->num_pieces());
+        first = std::max(0, first);
+        std::vector<std::pair<piece_index_t, libtorrent::download_priority_t>> v;
+        v.reserve(std::size_t(std::max(0, last - first)));
+        libtorrent::download_priority_t const p{std::uint8_t(priority)};
+        for (int i = first; i < last; i++)
+            v.emplace_back(piece_index_t{i}, p);
+        $self->prioritize_pieces(v);
+    }
+
+    // sets the files in [first, last) to priority, other files are not modified
+    void prioritize_file_range_ex(int first, int last, std::int8_t priority)
+    {
+        std::shared_ptr<const libtorrent::torrent_info> ti = $self->torrent_file();
+        if (ti) last = std::min(last, ti->num_files());
+        first = std::max(0, first);
+        std::vector<libtorrent::download_priority_t> v = $self->get_file_priorities();
+        if (last > int(v.size()))
+            v.resize(std::size_t(last), libtorrent::default_priority);
+        libtorrent::download_priority_t const p{std::uint8_t(priority)};
+        for (int i = first; i < last; i++)
+            v[std::size_t(i)] = p;
+        $self->prioritize_files(v);
+    }
 }
 
 }
@@ -6,6 +6,17 @@
  * the SWIG interface file instead.
  * ----------------------------------------------------------------------------- */
 
+#if defined(_WIN32)
+// no pthreads with msvc, the threads stay attached until the end
+#define SWIG_JAVA_NO_DETACH_CURRENT_THREAD
+#else
+// the director calls come from the libtorrent threads, the alert notify
+// callback with the alert mutex held, attach each thread only once
+#define SWIG_JAVA_DETACH_ON_THREAD_END
+#endif
+// the attached threads don't prevent the JVM exit
+#define SWIG_JAVA_ATTACH_CURRENT_THREAD_AS_DAEMON
+
 
 #define SWIG_VERSION 0x040101
 #define SWIGJAVA
@@ -915,6 +926,101 @@ SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_directBuffer
     return 0;
 }
 
+SWIGEXPORT jobject JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_newDirectBuffer(JNIEnv *jenv, jclass jcls, jlong jaddress, jlong jcapacity) {
+    return jenv->NewDirectByteBuffer(reinterpret_cast<void*>(jaddress), jcapacity);
+}
+
+SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_memoryCopyToArray(JNIEnv *jenv, jclass jcls, jlong jsrc, jbyteArray jdst, jint joffset, jint jlength) {
+    jenv->SetByteArrayRegion(jdst, joffset, jlength, reinterpret_cast<jbyte const*>(jsrc));
+}
+
+SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_memoryCopyFromArray(JNIEnv *jenv, jclass jcls, jbyteArray jsrc, jint joffset, jint jlength, jlong jdst) {
+    jenv->GetByteArrayRegion(jsrc, joffset, jlength, reinterpret_cast<jbyte*>(jdst));
+}
+
+SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_memoryCopy(JNIEnv *jenv, jclass jcls, jlong jsrc, jlong jdst, jlong jlength) {
+    std::memmove(reinterpret_cast<void*>(jdst), reinterpret_cast<void const*>(jsrc), std::size_t(jlength));
+}
+
+SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_memoryCopyToLongArray(JNIEnv *jenv, jclass jcls, jlong jsrc, jlongArray jdst, jint joffset, jint jlength) {
+    jenv->SetLongArrayRegion(jdst, joffset, jlength, reinterpret_cast<jlong const*>(jsrc));
+}
+
+SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_clockNowMicros(JNIEnv *jenv, jclass jcls) {
+    // the same clock of the alert timestamps
+    return jlong(lt::total_microseconds(lt::clock_type::now().time_since_epoch()));
+}
+
+SWIGEXPORT jint JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_torrentStatusBatch(JNIEnv *jenv, jclass jcls, jlong jstatus, jint jcapacity, jlongArray jlongs, jintArray jints, jbyteArray jhashes) {
+    // keep in sync with the columns in TorrentStatusBatch
+    auto const& v = *reinterpret_cast<std::vector<lt::torrent_status> const*>(jstatus);
+    int const n = std::min(int(v.size()), int(jcapacity));
+    std::size_t const c = std::size_t(jcapacity);
+
+    jlong* longs = static_cast<jlong*>(jenv->GetPrimitiveArrayCritical(jlongs, nullptr));
+    jint* ints = static_cast<jint*>(jenv->GetPrimitiveArrayCritical(jints, nullptr));
+    jbyte* hashes = static_cast<jbyte*>(jenv->GetPrimitiveArrayCritical(jhashes, nullptr));
+
+    // if any array can't be pinned (out of memory), nothing is filled
+    int filled = 0;
+    if (longs != nullptr && ints != nullptr && hashes != nullptr) {
+        filled = n;
+        for (int i = 0; i < n; i++) {
+            lt::torrent_status const& st = v[std::size_t(i)];
+
+            jlong* l = longs + i;
+            l[0 * c] = st.total_download;
+            l[1 * c] = st.total_upload;
+            l[2 * c] = st.total_payload_download;
+            l[3 * c] = st.total_payload_upload;
+            l[4 * c] = st.total_done;
+            l[5 * c] = st.total_wanted_done;
+            l[6 * c] = st.total_wanted;
+            l[7 * c] = st.total;
+            l[8 * c] = st.all_time_upload;
+            l[9 * c] = st.all_time_download;
+            l[10 * c] = jlong(static_cast<std::uint64_t>(st.flags));
+
+            std::int32_t bits = 0;
+            if (st.is_seeding) bits |= 1 << 0;
+            if (st.is_finished) bits |= 1 << 1;
+            if (st.has_metadata) bits |= 1 << 2;
+            if (st.need_save_resume_data) bits |= 1 << 3;
+            if (st.moving_storage) bits |= 1 << 4;
+            if (st.has_incoming) bits |= 1 << 5;
+            if (st.flags & lt::torrent_flags::paused) bits |= 1 << 6;
+            if (st.flags & lt::torrent_flags::auto_managed) bits |= 1 << 7;
+            if (st.flags & lt::torrent_flags::sequential_download) bits |= 1 << 8;
+            if (st.flags & lt::torrent_flags::upload_mode) bits |= 1 << 9;
+
+            jint* t = ints + i;
+            t[0 * c] = st.download_rate;
+            t[1 * c] = st.upload_rate;
+            t[2 * c] = st.download_payload_rate;
+            t[3 * c] = st.upload_payload_rate;
+            t[4 * c] = st.num_seeds;
+            t[5 * c] = st.num_peers;
+            t[6 * c] = st.list_seeds;
+            t[7 * c] = st.list_peers;
+            t[8 * c] = st.num_pieces;
+            t[9 * c] = st.num_connections;
+            t[10 * c] = st.progress_ppm;
+            t[11 * c] = static_cast<jint>(st.state);
+            t[12 * c] = static_cast<jint>(st.queue_position);
+            t[13 * c] = bits;
+
+            lt::sha1_hash const h = st.info_hashes.get_best();
+            std::memcpy(hashes + std::size_t(i) * 20, h.data(), 20);
+        }
+    }
+
+    if (hashes != nullptr) jenv->ReleasePrimitiveArrayCritical(jhashes, hashes, 0);
+    if (ints != nullptr) jenv->ReleasePrimitiveArrayCritical(jints, ints, 0);
+    if (longs != nullptr) jenv->ReleasePrimitiveArrayCritical(jlongs, longs, 0);
+
+    return filled;
+}
+
 #ifdef __cplusplus
 }
 #endif
@@ -1209,6 +1315,9 @@ SWIGINTERN void std_vector_Sl_std_int8_t_Sg__doRemoveRange(std::vector< std::int
           throw std::out_of_range("vector index out of range");
         }
       }
+SWIGINTERN std::int64_t std_vector_Sl_std_int8_t_Sg__data_ptr(std::vector< std::int8_t > *self){
+        return reinterpret_cast<std::int64_t>(self->data());
+    }
 SWIGINTERN std::vector< bool > *new_std_vector_Sl_bool_Sg___SWIG_2(jint count,bool const &value){
         if (count < 0)
           throw std::out_of_range("vector count must be positive");
@@ -2789,6 +2898,9 @@ SWIGINTERN void std_array_Sl_std_int8_t_Sc_32_Sg__set(std::array< std::int8_t,32
         else
           throw std::out_of_range("array index out of range");
       }
+SWIGINTERN std::int64_t std_array_Sl_std_int8_t_Sc_32_Sg__data_ptr(std::array< std::int8_t,32 > *self){
+        return reinterpret_cast<std::int64_t>(self->data());
+    }
 SWIGINTERN std::array< signed char,64 >::const_reference std_array_Sl_std_int8_t_Sc_64_Sg__get(std::array< std::int8_t,64 > *self,int i){
         int size = int(self->size());
         if (i>=0 && i<size)
@@ -2803,6 +2915,9 @@ SWIGINTERN void std_array_Sl_std_int8_t_Sc_64_Sg__set(std::array< std::int8_t,64
         else
           throw std::out_of_range("array index out of range");
       }
+SWIGINTERN std::int64_t std_array_Sl_std_int8_t_Sc_64_Sg__data_ptr(std::array< std::int8_t,64 > *self){
+        return reinterpret_cast<std::int64_t>(self->data());
+    }
 SWIGINTERN std::map< int,std::string,std::less< int > >::iterator std_map_Sl_int_Sc_std_string_Sg__iterator_getNextUnchecked(std::map< int,std::string >::iterator *self){
           std::map< int, std::string, std::less< int > >::iterator copy = (*self);
           return ++copy;
@@ -2991,13 +3106,15 @@ SWIGINTERN void libtorrent_digest32_Sl_160_Sg__assign(libtorrent::digest32< 160
         self->assign(reinterpret_cast<char const*>(v.data()));
     }
 SWIGINTERN int libtorrent_digest32_Sl_160_Sg__hash_code(libtorrent::digest32< 160 > *self){
-        char const* data = self->data();
-        int result = 1;
+        // signed bytes and wrapping arithmetic, the same as Arrays.hashCode
+        // in java, regardless of the signedness of char in the platform
+        auto const* data = reinterpret_cast<std::int8_t const*>(self->data());
+        std::uint32_t result = 1;
         for (int i = 0; i < int(self->size()); i++)
         {
-            result = 31 * result + data[i];
+            result = 31 * result + std::uint32_t(data[i]);
         }
-        return result;
+        return int(result);
     }
 SWIGINTERN std::vector< std::int8_t > libtorrent_digest32_Sl_160_Sg__to_bytes(libtorrent::digest32< 160 > *self){
         std::string s = self->to_string();
@@ -3014,6 +3131,9 @@ SWIGINTERN libtorrent::digest32< 160 > libtorrent_digest32_Sl_160_Sg__from_hex(s
 SWIGINTERN int libtorrent_digest32_Sl_160_Sg__compare(libtorrent::digest32< 160 > const &h1,libtorrent::digest32< 160 > const &h2){
         return h1 == h2 ? 0 : (h1 < h2 ? -1 : 1);
     }
+SWIGINTERN std::int64_t libtorrent_digest32_Sl_160_Sg__data_ptr(libtorrent::digest32< 160 > *self){
+        return reinterpret_cast<std::int64_t>(self->data());
+    }
 SWIGINTERN libtorrent::digest32< 256 > *new_libtorrent_digest32_Sl_256_Sg___SWIG_2(std::vector< std::int8_t > const &v){
         return new lt::digest32<256>(lt::span(reinterpret_cast<char const*>(v.data()), static_cast<long>(v.size())));
     }
@@ -3021,13 +3141,15 @@ SWIGINTERN void libtorrent_digest32_Sl_256_Sg__assign(libtorrent::digest32< 256
         self->assign(reinterpret_cast<char const*>(v.data()));
     }
 SWIGINTERN int libtorrent_digest32_Sl_256_Sg__hash_code(libtorrent::digest32< 256 > *self){
-        char const* data = self->data();
-        int result = 1;
+        // signed bytes and wrapping arithmetic, the same as Arrays.hashCode
+        // in java, regardless of the signedness of char in the platform
+        auto const* data = reinterpret_cast<std::int8_t const*>(self->data());
+        std::uint32_t result = 1;
         for (int i = 0; i < int(self->size()); i++)
         {
-            result = 31 * result + data[i];
+            result = 31 * result + std::uint32_t(data[i]);
         }
-        return result;
+        return int(result);
     }
 SWIGINTERN std::vector< std::int8_t > libtorrent_digest32_Sl_256_Sg__to_bytes(libtorrent::digest32< 256 > *self){
         std::string s = self->to_string();
@@ -3044,6 +3166,9 @@ SWIGINTERN libtorrent::digest32< 256 > libtorrent_digest32_Sl_256_Sg__from_hex(s
 SWIGINTERN int libtorrent_digest32_Sl_256_Sg__compare(libtorrent::digest32< 256 > const &h1,libtorrent::digest32< 256 > const &h2){
         return h1 == h2 ? 0 : (h1 < h2 ? -1 : 1);
     }
+SWIGINTERN std::int64_t libtorrent_digest32_Sl_256_Sg__data_ptr(libtorrent::digest32< 256 > *self){
+        return reinterpret_cast<std::int64_t>(self->data());
+    }
 SWIGINTERN std::vector< libtorrent::digest32< 160 > > *new_std_vector_Sl_libtorrent_digest32_Sl_160_Sg__Sg___SWIG_2(jint count,libtorrent::digest32< 160 > const &value){
         if (count < 0)
           throw std::out_of_range("vector count must be positive");
@@ -3164,6 +3289,9 @@ SWIGINTERN libtorrent::bitfield *new_libtorrent_bitfield__SWIG_4(std::vector< st
 SWIGINTERN void libtorrent_bitfield_assign(libtorrent::bitfield *self,std::vector< std::int8_t > const &v){
         self->assign(reinterpret_cast<char const*>(v.data()), static_cast<int>(v.size()));
     }
+SWIGINTERN std::int64_t libtorrent_bitfield_data_ptr(libtorrent::bitfield *self){
+        return reinterpret_cast<std::int64_t>(self->data());
+    }
 SWIGINTERN std::int64_t libtorrent_announce_infohash_get_next_announce(libtorrent::announce_infohash *self){
         return lt::total_milliseconds(self->next_announce.time_since_epoch());
     }
@@ -3185,6 +3313,27 @@ SWIGINTERN void libtorrent_file_storage_add_file_ex__SWIG_0(libtorrent::file_sto
 SWIGINTERN std::string libtorrent_file_storage_file_name_ex(libtorrent::file_storage *self,int index){
         return std::string{self->file_name(lt::file_index_t{index})};
     }
+SWIGINTERN std::vector< std::int8_t > libtorrent_file_storage_file_table_bytes(libtorrent::file_storage *self){
+        std::vector<std::int8_t> v;
+        auto put = [&v](auto x)
+        {
+            auto p = reinterpret_cast<std::int8_t const*>(&x);
+            v.insert(v.end(), p, p + sizeof(x));
+        };
+
+        put(std::int32_t(self->num_files()));
+        for (lt::file_index_t const i : self->file_range())
+        {
+            std::string const path = self->file_path(i);
+            put(std::int64_t(self->file_size(i)));
+            put(std::int64_t(self->file_offset(i)));
+            put(std::int32_t(static_cast<std::uint8_t>(self->file_flags(i))));
+            put(std::int32_t(path.size()));
+            v.insert(v.end(), path.begin(), path.end());
+        }
+
+        return v;
+    }
 SWIGINTERN bool libtorrent_flags_bitfield_flag_Sl_std_uint8_t_Sc_libtorrent_file_flags_tag_Sg__non_zero(libtorrent::flags::bitfield_flag< std::uint8_t,libtorrent::file_flags_tag > *self){
             return self->operator bool();
         }
@@ -3527,6 +3676,10 @@ SWIGINTERN libtorrent::flags::bitfield_flag< std::uint8_t,libtorrent::pex_flags_
 SWIGINTERN void libtorrent_torrent_handle_add_piece_bytes__SWIG_0(libtorrent::torrent_handle *self,int piece,std::vector< int8_t > const &data,libtorrent::add_piece_flags_t flags={}){
         self->add_piece(piece_index_t(piece), (char const*)&data[0], flags);
     }
+SWIGINTERN void libtorrent_torrent_handle_add_piece_ptr(libtorrent::torrent_handle *self,int piece,std::int64_t buffer_ptr,int size,libtorrent::add_piece_flags_t flags){
+        char const* p = reinterpret_cast<char const*>(buffer_ptr);
+        self->add_piece(piece_index_t(piece), std::vector<char>(p, p + size), flags);
+    }
 SWIGINTERN libtorrent::torrent_info const *libtorrent_torrent_handle_torrent_file_ptr(libtorrent::torrent_handle *self){
         return self->torrent_file().get();
     }
@@ -3593,6 +3746,29 @@ SWIGINTERN std::vector< std::int8_t > libtorrent_torrent_handle_get_file_priorit
             r[i] = std::int8_t(static_cast<std::uint8_t>(v[i]));
         return r;
     }
+SWIGINTERN void libtorrent_torrent_handle_prioritize_piece_range_ex(libtorrent::torrent_handle *self,int first,int last,std::int8_t priority){
+        std::shared_ptr<const libtorrent::torrent_info> ti = self->torrent_file();
+        if (ti) last = std::min(last, ti->num_pieces());
+        first = std::max(0, first);
+        std::vector<std::pair<piece_index_t, libtorrent::download_priority_t>> v;
+        v.reserve(std::size_t(std::max(0, last - first)));
+        libtorrent::download_priority_t const p{std::uint8_t(priority)};
+        for (int i = first; i < last; i++)
+            v.emplace_back(piece_index_t{i}, p);
+        self->prioritize_pieces(v);
+    }
+SWIGINTERN void libtorrent_torrent_handle_prioritize_file_range_ex(libtorrent::torrent_handle *self,int first,int last,std::int8_t priority){
+        std::shared_ptr<const libtorrent::torrent_info> ti = self->torrent_file();
+        if (ti) last = std::min(last, ti->num_files());
+        first = std::max(0, first);
+        std::vector<libtorrent::download_priority_t> v = self->get_file_priorities();
+        if (last > int(v.size()))
+            v.resize(std::size_t(last), libtorrent::default_priority);
+        libtorrent::download_priority_t const p{std::uint8_t(priority)};
+        for (int i = first; i < last; i++)
+            v[std::size_t(i)] = p;
+        self->prioritize_files(v);
+    }
 SWIGINTERN bool libtorrent_flags_bitfield_flag_Sl_std_uint8_t_Sc_libtorrent_add_piece_flags_tag_Sg__non_zero(libtorrent::flags::bitfield_flag< std::uint8_t,libtorrent::add_piece_flags_tag > *self){
             return self->operator bool();
         }
@@ -3842,6 +4018,17 @@ SWIGINTERN std::vector< int8_t > libtorrent_entry_bencode(libtorrent::entry *sel
             libtorrent::bencode(std::back_inserter(buffer), *self);
             return buffer;
         }
+SWIGINTERN std::vector< libtorrent::entry > libtorrent_entry_dict_keys(libtorrent::entry *self){
+            std::vector<libtorrent::entry> keys;
+            for (auto const& kv : self->dict()) keys.emplace_back(kv.first);
+            return keys;
+        }
+SWIGINTERN libtorrent::entry &libtorrent_entry_dict_get(libtorrent::entry *self,std::vector< int8_t > const &key){
+            return self->operator[](std::string(key.begin(), key.end()));
+        }
+SWIGINTERN void libtorrent_entry_dict_set(libtorrent::entry *self,std::vector< int8_t > const &key,libtorrent::entry const &value){
+            self->operator[](std::string(key.begin(), key.end())) = value;
+        }
 SWIGINTERN libtorrent::entry libtorrent_entry_from_string_bytes(std::vector< int8_t > const &string_bytes){
             return libtorrent::entry(std::string(string_bytes.begin(), string_bytes.end()));
         }
@@ -3854,6 +4041,26 @@ SWIGINTERN libtorrent::entry libtorrent_entry_bdecode(std::vector< int8_t > &buf
 SWIGINTERN std::int64_t libtorrent_alert_get_timestamp(libtorrent::alert *self){
         return libtorrent::total_milliseconds(self->timestamp().time_since_epoch());
     }
+SWIGINTERN std::int64_t libtorrent_alert_get_timestamp_us(libtorrent::alert *self){
+        return libtorrent::total_microseconds(self->timestamp().time_since_epoch());
+    }
+SWIGINTERN std::int64_t libtorrent_alert_torrent_shard_key(libtorrent::alert *self){
+        lt::sha1_hash h;
+        // the handle of a removed torrent is usually expired
+        if (auto const* ra = lt::alert_cast<lt::torrent_removed_alert>(self)) {
+            h = ra->info_hashes.get_best();
+        } else if (auto const* da = lt::alert_cast<lt::torrent_deleted_alert>(self)) {
+            h = da->info_hashes.get_best();
+        } else if (auto const* fa = lt::alert_cast<lt::torrent_delete_failed_alert>(self)) {
+            h = fa->info_hashes.get_best();
+        } else if (auto const* ta = dynamic_cast<lt::torrent_alert const*>(self)) {
+            if (ta->handle.is_valid()) h = ta->handle.info_hashes().get_best();
+        }
+        // big-endian, the same as the first long of a Sha1Key
+        std::uint64_t key = 0;
+        for (int i = 0; i < 8; i++) key = (key << 8) | std::uint8_t(h[i]);
+        return std::int64_t(key);
+    }
 SWIGINTERN libtorrent::torrent_removed_alert const *libtorrent_alert_cast_to_torrent_removed_alert(libtorrent::alert const *a){          return libtorrent::alert_cast<libtorrent::torrent_removed_alert>(a);      }
 SWIGINTERN libtorrent::read_piece_alert const *libtorrent_alert_cast_to_read_piece_alert(libtorrent::alert const *a){          return libtorrent::alert_cast<libtorrent::read_piece_alert>(a);      }
 SWIGINTERN libtorrent::file_completed_alert const *libtorrent_alert_cast_to_file_completed_alert(libtorrent::alert const *a){          return libtorrent::alert_cast<libtorrent::file_completed_alert>(a);      }
@@ -3979,12 +4186,26 @@ SWIGINTERN libtorrent::flags::bitfield_flag< std::uint32_t,libtorrent::alert_cat
 SWIGINTERN libtorrent::tcp::endpoint libtorrent_peer_alert_get_endpoint(libtorrent::peer_alert *self){
         return self->endpoint;
     }
+SWIGINTERN bool libtorrent_peer_alert_is_local_peer(libtorrent::peer_alert *self){
+        auto const a = self->endpoint.address();
+        if (a.is_loopback()) return true;
+        if (a.is_v4()) {
+            auto const b = a.to_v4().to_bytes();
+            return b[0] == 10 || (b[0] == 172 && (b[1] & 0xf0) == 16)
+                || (b[0] == 192 && b[1] == 168) || (b[0] == 169 && b[1] == 254);
+        }
+        auto const v6 = a.to_v6();
+        return v6.is_link_local() || v6.is_site_local() || (v6.to_bytes()[0] & 0xfe) == 0xfc;
+    }
 SWIGINTERN libtorrent::tcp::endpoint libtorrent_tracker_alert_get_local_endpoint(libtorrent::tracker_alert *self){
         return self->local_endpoint;
     }
 SWIGINTERN int64_t libtorrent_read_piece_alert_buffer_ptr(libtorrent::read_piece_alert *self){
         return reinterpret_cast<int64_t>(self->buffer.get());
     }
+SWIGINTERN int64_t libtorrent_state_update_alert_status_ptr(libtorrent::state_update_alert *self){
+        return reinterpret_cast<int64_t>(&self->status);
+    }
 SWIGINTERN libtorrent::udp::endpoint libtorrent_udp_error_alert_get_endpoint(libtorrent::udp_error_alert *self){
         return self->endpoint;
     }
@@ -4018,6 +4239,12 @@ SWIGINTERN libtorrent::tcp::endpoint libtorrent_incoming_connection_alert_get_en
 SWIGINTERN long long libtorrent_session_stats_alert_get_value(libtorrent::session_stats_alert *self,int index){
         return self->counters()[index];
     }
+SWIGINTERN int64_t libtorrent_session_stats_alert_counters_ptr(libtorrent::session_stats_alert *self){
+        return reinterpret_cast<int64_t>(self->counters().data());
+    }
+SWIGINTERN int libtorrent_session_stats_alert_num_counters(libtorrent::session_stats_alert *self){
+        return int(self->counters().size());
+    }
 SWIGINTERN std::array< std::int8_t,32 > libtorrent_dht_mutable_item_alert_get_key(libtorrent::dht_mutable_item_alert *self){
         std::array<char, 32> arr = self->key;
         return *reinterpret_cast<std::array<std::int8_t, 32>*>(&arr);
@@ -7397,6 +7624,31 @@ SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_byte_1vector_
 }
 
 
+SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_byte_1vector_1data_1ptr(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_) {
+  jlong jresult = 0 ;
+  std::vector< std::int8_t > *arg1 = (std::vector< std::int8_t > *) 0 ;
+  std::int64_t result;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(std::vector< std::int8_t > **)&jarg1; 
+  {
+    try {
+      result = (std::int64_t)std_vector_Sl_std_int8_t_Sg__data_ptr(arg1);
+    } catch (std::exception& e) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, e.what());
+      return 0;
+    } catch (...) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, "Unknown exception type");
+      return 0;
+    }
+  }
+  jresult = (jlong)result; 
+  return jresult;
+}
+
+
 SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_delete_1byte_1vector(JNIEnv *jenv, jclass jcls, jlong jarg1) {
   std::vector< std::int8_t > *arg1 = (std::vector< std::int8_t > *) 0 ;
   
@@ -20115,6 +20367,31 @@ SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_byte_1array_1
 }
 
 
+SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_byte_1array_132_1data_1ptr(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_) {
+  jlong jresult = 0 ;
+  std::array< std::int8_t,32 > *arg1 = (std::array< std::int8_t,32 > *) 0 ;
+  std::int64_t result;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(std::array< std::int8_t,32 > **)&jarg1; 
+  {
+    try {
+      result = (std::int64_t)std_array_Sl_std_int8_t_Sc_32_Sg__data_ptr(arg1);
+    } catch (std::exception& e) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, e.what());
+      return 0;
+    } catch (...) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, "Unknown exception type");
+      return 0;
+    }
+  }
+  jresult = (jlong)result; 
+  return jresult;
+}
+
+
 SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_delete_1byte_1array_132(JNIEnv *jenv, jclass jcls, jlong jarg1) {
   std::array< std::int8_t,32 > *arg1 = (std::array< std::int8_t,32 > *) 0 ;
   
@@ -20325,6 +20602,31 @@ SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_byte_1array_1
 }
 
 
+SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_byte_1array_164_1data_1ptr(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_) {
+  jlong jresult = 0 ;
+  std::array< std::int8_t,64 > *arg1 = (std::array< std::int8_t,64 > *) 0 ;
+  std::int64_t result;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(std::array< std::int8_t,64 > **)&jarg1; 
+  {
+    try {
+      result = (std::int64_t)std_array_Sl_std_int8_t_Sc_64_Sg__data_ptr(arg1);
+    } catch (std::exception& e) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, e.what());
+      return 0;
+    } catch (...) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, "Unknown exception type");
+      return 0;
+    }
+  }
+  jresult = (jlong)result; 
+  return jresult;
+}
+
+
 SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_delete_1byte_1array_164(JNIEnv *jenv, jclass jcls, jlong jarg1) {
   std::array< std::int8_t,64 > *arg1 = (std::array< std::int8_t,64 > *) 0 ;
   
@@ -24681,6 +24983,31 @@ SWIGEXPORT jint JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_sha1_1hash_1c
 }
 
 
+SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_sha1_1hash_1data_1ptr(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_) {
+  jlong jresult = 0 ;
+  libtorrent::digest32< 160 > *arg1 = (libtorrent::digest32< 160 > *) 0 ;
+  std::int64_t result;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(libtorrent::digest32< 160 > **)&jarg1; 
+  {
+    try {
+      result = (std::int64_t)libtorrent_digest32_Sl_160_Sg__data_ptr(arg1);
+    } catch (std::exception& e) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, e.what());
+      return 0;
+    } catch (...) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, "Unknown exception type");
+      return 0;
+    }
+  }
+  jresult = (jlong)result; 
+  return jresult;
+}
+
+
 SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_delete_1sha1_1hash(JNIEnv *jenv, jclass jcls, jlong jarg1) {
   libtorrent::digest32< 160 > *arg1 = (libtorrent::digest32< 160 > *) 0 ;
   
@@ -25273,6 +25600,31 @@ SWIGEXPORT jint JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_sha256_1hash_
 }
 
 
+SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_sha256_1hash_1data_1ptr(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_) {
+  jlong jresult = 0 ;
+  libtorrent::digest32< 256 > *arg1 = (libtorrent::digest32< 256 > *) 0 ;
+  std::int64_t result;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(libtorrent::digest32< 256 > **)&jarg1; 
+  {
+    try {
+      result = (std::int64_t)libtorrent_digest32_Sl_256_Sg__data_ptr(arg1);
+    } catch (std::exception& e) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, e.what());
+      return 0;
+    } catch (...) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, "Unknown exception type");
+      return 0;
+    }
+  }
+  jresult = (jlong)result; 
+  return jresult;
+}
+
+
 SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_delete_1sha256_1hash(JNIEnv *jenv, jclass jcls, jlong jarg1) {
   libtorrent::digest32< 256 > *arg1 = (libtorrent::digest32< 256 > *) 0 ;
   
@@ -27294,6 +27646,31 @@ SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_bitfield_1ass
 }
 
 
+SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_bitfield_1data_1ptr(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_) {
+  jlong jresult = 0 ;
+  libtorrent::bitfield *arg1 = (libtorrent::bitfield *) 0 ;
+  std::int64_t result;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(libtorrent::bitfield **)&jarg1; 
+  {
+    try {
+      result = (std::int64_t)libtorrent_bitfield_data_ptr(arg1);
+    } catch (std::exception& e) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, e.what());
+      return 0;
+    } catch (...) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, "Unknown exception type");
+      return 0;
+    }
+  }
+  jresult = (jlong)result; 
+  return jresult;
+}
+
+
 SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_delete_1bitfield(JNIEnv *jenv, jclass jcls, jlong jarg1) {
   libtorrent::bitfield *arg1 = (libtorrent::bitfield *) 0 ;
   
@@ -30811,6 +31188,31 @@ SWIGEXPORT jstring JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_file_1stor
 }
 
 
+SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_file_1storage_1file_1table_1bytes(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_) {
+  jlong jresult = 0 ;
+  libtorrent::file_storage *arg1 = (libtorrent::file_storage *) 0 ;
+  std::vector< std::int8_t > result;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(libtorrent::file_storage **)&jarg1; 
+  {
+    try {
+      result = libtorrent_file_storage_file_table_bytes(arg1);
+    } catch (std::exception& e) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, e.what());
+      return 0;
+    } catch (...) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, "Unknown exception type");
+      return 0;
+    }
+  }
+  *(std::vector< std::int8_t > **)&jresult = new std::vector< std::int8_t >(result); 
+  return jresult;
+}
+
+
 SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_new_1file_1flags_1t(JNIEnv *jenv, jclass jcls) {
   jlong jresult = 0 ;
   libtorrent::flags::bitfield_flag< std::uint8_t,libtorrent::file_flags_tag > *result = 0 ;
@@ -42630,6 +43032,42 @@ SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_torrent_1hand
 }
 
 
+SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_torrent_1handle_1add_1piece_1ptr(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_, jint jarg2, jlong jarg3, jint jarg4, jlong jarg5, jobject jarg5_) {
+  libtorrent::torrent_handle *arg1 = (libtorrent::torrent_handle *) 0 ;
+  int arg2 ;
+  std::int64_t arg3 ;
+  int arg4 ;
+  libtorrent::add_piece_flags_t arg5 ;
+  libtorrent::add_piece_flags_t *argp5 ;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  (void)jarg5_;
+  arg1 = *(libtorrent::torrent_handle **)&jarg1; 
+  arg2 = (int)jarg2; 
+  arg3 = (std::int64_t)jarg3; 
+  arg4 = (int)jarg4; 
+  argp5 = *(libtorrent::add_piece_flags_t **)&jarg5; 
+  if (!argp5) {
+    SWIG_JavaThrowException(jenv, SWIG_JavaNullPointerException, "Attempt to dereference null libtorrent::add_piece_flags_t");
+    return ;
+  }
+  arg5 = *argp5; 
+  {
+    try {
+      libtorrent_torrent_handle_add_piece_ptr(arg1,arg2,arg3,arg4,SWIG_STD_MOVE(arg5));
+    } catch (std::exception& e) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, e.what());
+      return ;
+    } catch (...) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, "Unknown exception type");
+      return ;
+    }
+  }
+}
+
+
 SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_torrent_1handle_1torrent_1file_1ptr(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_) {
   jlong jresult = 0 ;
   libtorrent::torrent_handle *arg1 = (libtorrent::torrent_handle *) 0 ;
@@ -43041,6 +43479,60 @@ SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_torrent_1han
 }
 
 
+SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_torrent_1handle_1prioritize_1piece_1range_1ex(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_, jint jarg2, jint jarg3, jbyte jarg4) {
+  libtorrent::torrent_handle *arg1 = (libtorrent::torrent_handle *) 0 ;
+  int arg2 ;
+  int arg3 ;
+  std::int8_t arg4 ;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(libtorrent::torrent_handle **)&jarg1; 
+  arg2 = (int)jarg2; 
+  arg3 = (int)jarg3; 
+  arg4 = (std::int8_t)jarg4; 
+  {
+    try {
+      libtorrent_torrent_handle_prioritize_piece_range_ex(arg1,arg2,arg3,arg4);
+    } catch (std::exception& e) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, e.what());
+      return ;
+    } catch (...) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, "Unknown exception type");
+      return ;
+    }
+  }
+}
+
+
+SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_torrent_1handle_1prioritize_1file_1range_1ex(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_, jint jarg2, jint jarg3, jbyte jarg4) {
+  libtorrent::torrent_handle *arg1 = (libtorrent::torrent_handle *) 0 ;
+  int arg2 ;
+  int arg3 ;
+  std::int8_t arg4 ;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(libtorrent::torrent_handle **)&jarg1; 
+  arg2 = (int)jarg2; 
+  arg3 = (int)jarg3; 
+  arg4 = (std::int8_t)jarg4; 
+  {
+    try {
+      libtorrent_torrent_handle_prioritize_file_range_ex(arg1,arg2,arg3,arg4);
+    } catch (std::exception& e) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, e.what());
+      return ;
+    } catch (...) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, "Unknown exception type");
+      return ;
+    }
+  }
+}
+
+
 SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_delete_1torrent_1handle(JNIEnv *jenv, jclass jcls, jlong jarg1) {
   libtorrent::torrent_handle *arg1 = (libtorrent::torrent_handle *) 0 ;
   
@@ -48596,6 +49088,98 @@ SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_entry_1benco
 }
 
 
+SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_entry_1dict_1keys(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_) {
+  jlong jresult = 0 ;
+  libtorrent::entry *arg1 = (libtorrent::entry *) 0 ;
+  std::vector< libtorrent::entry > result;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(libtorrent::entry **)&jarg1; 
+  {
+    try {
+      result = libtorrent_entry_dict_keys(arg1);
+    } catch (std::exception& e) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, e.what());
+      return 0;
+    } catch (...) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, "Unknown exception type");
+      return 0;
+    }
+  }
+  *(std::vector< libtorrent::entry > **)&jresult = new std::vector< libtorrent::entry >(result); 
+  return jresult;
+}
+
+
+SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_entry_1dict_1get(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_, jlong jarg2, jobject jarg2_) {
+  jlong jresult = 0 ;
+  libtorrent::entry *arg1 = (libtorrent::entry *) 0 ;
+  std::vector< int8_t > *arg2 = 0 ;
+  libtorrent::entry *result = 0 ;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  (void)jarg2_;
+  arg1 = *(libtorrent::entry **)&jarg1; 
+  arg2 = *(std::vector< int8_t > **)&jarg2;
+  if (!arg2) {
+    SWIG_JavaThrowException(jenv, SWIG_JavaNullPointerException, "std::vector< int8_t > const & is null");
+    return 0;
+  } 
+  {
+    try {
+      result = (libtorrent::entry *) &libtorrent_entry_dict_get(arg1,(std::vector< signed char > const &)*arg2);
+    } catch (std::exception& e) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, e.what());
+      return 0;
+    } catch (...) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, "Unknown exception type");
+      return 0;
+    }
+  }
+  *(libtorrent::entry **)&jresult = result; 
+  return jresult;
+}
+
+
+SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_entry_1dict_1set(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_, jlong jarg2, jobject jarg2_, jlong jarg3, jobject jarg3_) {
+  libtorrent::entry *arg1 = (libtorrent::entry *) 0 ;
+  std::vector< int8_t > *arg2 = 0 ;
+  libtorrent::entry *arg3 = 0 ;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  (void)jarg2_;
+  (void)jarg3_;
+  arg1 = *(libtorrent::entry **)&jarg1; 
+  arg2 = *(std::vector< int8_t > **)&jarg2;
+  if (!arg2) {
+    SWIG_JavaThrowException(jenv, SWIG_JavaNullPointerException, "std::vector< int8_t > const & is null");
+    return ;
+  } 
+  arg3 = *(libtorrent::entry **)&jarg3;
+  if (!arg3) {
+    SWIG_JavaThrowException(jenv, SWIG_JavaNullPointerException, "libtorrent::entry const & is null");
+    return ;
+  } 
+  {
+    try {
+      libtorrent_entry_dict_set(arg1,(std::vector< signed char > const &)*arg2,(libtorrent::entry const &)*arg3);
+    } catch (std::exception& e) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, e.what());
+      return ;
+    } catch (...) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, "Unknown exception type");
+      return ;
+    }
+  }
+}
+
+
 SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_entry_1from_1string_1bytes(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_) {
   jlong jresult = 0 ;
   std::vector< int8_t > *arg1 = 0 ;
@@ -49400,6 +49984,56 @@ SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_alert_1get_1
 }
 
 
+SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_alert_1get_1timestamp_1us(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_) {
+  jlong jresult = 0 ;
+  libtorrent::alert *arg1 = (libtorrent::alert *) 0 ;
+  std::int64_t result;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(libtorrent::alert **)&jarg1; 
+  {
+    try {
+      result = (std::int64_t)libtorrent_alert_get_timestamp_us(arg1);
+    } catch (std::exception& e) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, e.what());
+      return 0;
+    } catch (...) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, "Unknown exception type");
+      return 0;
+    }
+  }
+  jresult = (jlong)result; 
+  return jresult;
+}
+
+
+SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_alert_1torrent_1shard_1key(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_) {
+  jlong jresult = 0 ;
+  libtorrent::alert *arg1 = (libtorrent::alert *) 0 ;
+  std::int64_t result;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(libtorrent::alert **)&jarg1; 
+  {
+    try {
+      result = (std::int64_t)libtorrent_alert_torrent_shard_key(arg1);
+    } catch (std::exception& e) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, e.what());
+      return 0;
+    } catch (...) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, "Unknown exception type");
+      return 0;
+    }
+  }
+  jresult = (jlong)result; 
+  return jresult;
+}
+
+
 SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_alert_1cast_1to_1torrent_1removed_1alert(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_) {
   jlong jresult = 0 ;
   libtorrent::alert *arg1 = (libtorrent::alert *) 0 ;
@@ -52494,6 +53128,31 @@ SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_peer_1alert_
 }
 
 
+SWIGEXPORT jboolean JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_peer_1alert_1is_1local_1peer(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_) {
+  jboolean jresult = 0 ;
+  libtorrent::peer_alert *arg1 = (libtorrent::peer_alert *) 0 ;
+  bool result;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(libtorrent::peer_alert **)&jarg1; 
+  {
+    try {
+      result = (bool)libtorrent_peer_alert_is_local_peer(arg1);
+    } catch (std::exception& e) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, e.what());
+      return 0;
+    } catch (...) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, "Unknown exception type");
+      return 0;
+    }
+  }
+  jresult = (jboolean)result; 
+  return jresult;
+}
+
+
 SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_delete_1peer_1alert(JNIEnv *jenv, jclass jcls, jlong jarg1) {
   libtorrent::peer_alert *arg1 = (libtorrent::peer_alert *) 0 ;
   
@@ -64493,6 +65152,31 @@ SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_state_1updat
 }
 
 
+SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_state_1update_1alert_1status_1ptr(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_) {
+  jlong jresult = 0 ;
+  libtorrent::state_update_alert *arg1 = (libtorrent::state_update_alert *) 0 ;
+  int64_t result;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(libtorrent::state_update_alert **)&jarg1; 
+  {
+    try {
+      result = (int64_t)libtorrent_state_update_alert_status_ptr(arg1);
+    } catch (std::exception& e) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, e.what());
+      return 0;
+    } catch (...) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, "Unknown exception type");
+      return 0;
+    }
+  }
+  jresult = (jlong)result; 
+  return jresult;
+}
+
+
 SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_delete_1state_1update_1alert(JNIEnv *jenv, jclass jcls, jlong jarg1) {
   libtorrent::state_update_alert *arg1 = (libtorrent::state_update_alert *) 0 ;
   
@@ -64676,6 +65360,56 @@ SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_session_1sta
 }
 
 
+SWIGEXPORT jlong JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_session_1stats_1alert_1counters_1ptr(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_) {
+  jlong jresult = 0 ;
+  libtorrent::session_stats_alert *arg1 = (libtorrent::session_stats_alert *) 0 ;
+  int64_t result;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(libtorrent::session_stats_alert **)&jarg1; 
+  {
+    try {
+      result = (int64_t)libtorrent_session_stats_alert_counters_ptr(arg1);
+    } catch (std::exception& e) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, e.what());
+      return 0;
+    } catch (...) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, "Unknown exception type");
+      return 0;
+    }
+  }
+  jresult = (jlong)result; 
+  return jresult;
+}
+
+
+SWIGEXPORT jint JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_session_1stats_1alert_1num_1counters(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_) {
+  jint jresult = 0 ;
+  libtorrent::session_stats_alert *arg1 = (libtorrent::session_stats_alert *) 0 ;
+  int result;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(libtorrent::session_stats_alert **)&jarg1; 
+  {
+    try {
+      result = (int)libtorrent_session_stats_alert_num_counters(arg1);
+    } catch (std::exception& e) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, e.what());
+      return 0;
+    } catch (...) {
+      SWIG_JavaThrowException(jenv, SWIG_JavaRuntimeException, "Unknown exception type");
+      return 0;
+    }
+  }
+  jresult = (jint)result; 
+  return jresult;
+}
+
+
 SWIGEXPORT void JNICALL Java_org_libtorrent4j_swig_libtorrent_1jni_delete_1session_1stats_1alert(JNIEnv *jenv, jclass jcls, jlong jarg1) {
   libtorrent::session_stats_alert *arg1 = (libtorrent::session_stats_alert *) 0 ;
   